@@ -71,11 +71,25 @@ public abstract class AbstractAlgorithm<Observer> {
      */
     public AbstractSolution run() {
         Instant start = Instant.now();
-        AbstractSolution solution = this.doRun();
+        AbstractSolution solution = this.doCheck();
+        if (solution == null) {
+            solution = this.doRun();
+        }
         solution.setSolvingTime(Duration.between(start, Instant.now()));
         return solution;
     }
 
+    /**
+     * Called before {@link #doRun()} to answer instances that can be solved
+     * without running the algorithm, e.g. infeasible instances. By default, all
+     * the instances are solved by {@link #doRun()}.
+     * 
+     * @return The solution of the instance, or null if the algorithm must be run.
+     */
+    protected AbstractSolution doCheck() {
+        return null;
+    }
+
     /**
      * Abstract method that should be implemented by child class.
      * 
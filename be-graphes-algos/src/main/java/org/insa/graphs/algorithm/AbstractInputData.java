@@ -45,6 +45,13 @@ public abstract class AbstractInputData {
         return graph;
     }
 
+    /**
+     * @return Arc inspector associated with this input.
+     */
+    public ArcInspector getArcInspector() {
+        return this.arcInspector;
+    }
+
     /**
      * Retrieve the cost associated with the given arc according to the underlying
      * arc inspector.
@@ -59,6 +66,21 @@ public abstract class AbstractInputData {
         return this.arcInspector.getCost(arc);
     }
 
+    /**
+     * Retrieve the cost associated with the arc with the given index in the
+     * compact representation of the graph.
+     * 
+     * @param origin ID of the origin of the arc.
+     * @param arc Index of the arc in the compact graph.
+     * 
+     * @return Cost for the given arc.
+     * 
+     * @see Graph#getCompactGraph()
+     */
+    public double getCost(int origin, int arc) {
+        return this.arcInspector.getCost(this.graph, origin, arc);
+    }
+
     /**
      * @return Mode associated with this input data.
      * 
@@ -94,4 +116,19 @@ public abstract class AbstractInputData {
         return this.arcInspector.isAllowed(arc);
     }
 
+    /**
+     * Check if the arc with the given index in the compact representation of the
+     * graph is allowed for the filter corresponding to this input.
+     * 
+     * @param origin ID of the origin of the arc.
+     * @param arc Index of the arc in the compact graph.
+     * 
+     * @return true if the given arc is allowed.
+     * 
+     * @see Graph#getCompactGraph()
+     */
+    public boolean isAllowed(int origin, int arc) {
+        return this.arcInspector.isAllowed(this.graph, origin, arc);
+    }
+
 }
@@ -7,10 +7,24 @@ import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 
+import org.insa.graphs.algorithm.isochrone.DijkstraIsochroneAlgorithm;
+import org.insa.graphs.algorithm.isochrone.IsochroneAlgorithm;
+import org.insa.graphs.algorithm.matrix.BucketDistanceMatrixAlgorithm;
+import org.insa.graphs.algorithm.matrix.DistanceMatrixAlgorithm;
+import org.insa.graphs.algorithm.matrix.OneToAllDistanceMatrixAlgorithm;
 import org.insa.graphs.algorithm.shortestpath.AStarAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.ALTAlgorithm;
 import org.insa.graphs.algorithm.shortestpath.BellmanFordAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.BidirectionalDijkstraAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.ContractionHierarchiesAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.CustomizableContractionHierarchiesAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.DeltaSteppingAlgorithm;
 import org.insa.graphs.algorithm.shortestpath.DijkstraAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.ParallelBellmanFordAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.SPFAAlgorithm;
 import org.insa.graphs.algorithm.shortestpath.ShortestPathAlgorithm;
+import org.insa.graphs.algorithm.strongconnectivity.StronglyConnectedComponentsAlgorithm;
+import org.insa.graphs.algorithm.weakconnectivity.UnionFindWeaklyConnectedComponentsAlgorithm;
 import org.insa.graphs.algorithm.weakconnectivity.WeaklyConnectedComponentsAlgorithm;
 
 /**
@@ -27,11 +41,38 @@ public class AlgorithmFactory {
         // Register weakly-connected components algorithm:
         registerAlgorithm(WeaklyConnectedComponentsAlgorithm.class, "WCC basic",
                 WeaklyConnectedComponentsAlgorithm.class);
+        registerAlgorithm(WeaklyConnectedComponentsAlgorithm.class, "WCC union-find",
+                UnionFindWeaklyConnectedComponentsAlgorithm.class);
+
+        // Register strongly-connected components algorithm:
+        registerAlgorithm(StronglyConnectedComponentsAlgorithm.class, "SCC Tarjan",
+                StronglyConnectedComponentsAlgorithm.class);
 
         // Register shortest path algorithm:
         registerAlgorithm(ShortestPathAlgorithm.class, "Bellman-Ford", BellmanFordAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "Bellman-Ford (SPFA)", SPFAAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "Bellman-Ford (parallel)",
+                ParallelBellmanFordAlgorithm.class);
         registerAlgorithm(ShortestPathAlgorithm.class, "Dijkstra", DijkstraAlgorithm.class);
         registerAlgorithm(ShortestPathAlgorithm.class, "A*", AStarAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "Bidirectional Dijkstra",
+                BidirectionalDijkstraAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "ALT", ALTAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "Delta-stepping",
+                DeltaSteppingAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "Contraction Hierarchies",
+                ContractionHierarchiesAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "Customizable Contraction Hierarchies",
+                CustomizableContractionHierarchiesAlgorithm.class);
+
+        // Register distance matrix algorithms:
+        registerAlgorithm(DistanceMatrixAlgorithm.class, "One-to-all Dijkstra",
+                OneToAllDistanceMatrixAlgorithm.class);
+        registerAlgorithm(DistanceMatrixAlgorithm.class, "Contraction Hierarchies (buckets)",
+                BucketDistanceMatrixAlgorithm.class);
+
+        // Register isochrone algorithms:
+        registerAlgorithm(IsochroneAlgorithm.class, "Dijkstra", DijkstraIsochroneAlgorithm.class);
 
         // Register your algorithms here:
         // registerAlgorithm(CarPoolingAlgorithm.class, "My Awesome Algorithm",
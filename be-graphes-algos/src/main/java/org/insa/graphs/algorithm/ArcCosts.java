@@ -0,0 +1,108 @@
+package org.insa.graphs.algorithm;
+
+import java.util.stream.IntStream;
+
+import org.insa.graphs.algorithm.utils.GraphCache;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+
+/**
+ * Cost of every arc of a graph for a given arc inspector, indexed as the arcs
+ * of the compact representation of the graph. Arcs that are not allowed have an
+ * infinite cost.
+ *
+ * This class is meant for preprocessing algorithms that sweep the whole graph
+ * many times, e.g. to compute landmarks or contraction hierarchies. Costs are
+ * kept in double precision, unlike {@link CompiledArcInspector}, which is used
+ * to find the allowed arcs.
+ *
+ */
+public final class ArcCosts {
+
+    // Costs already computed, by graph and inspector.
+    private static final GraphCache<ArcCosts> CACHE = new GraphCache<>();
+
+    // Cost of each arc.
+    private final double[] costs;
+
+    // Fingerprint of the arcs and their costs.
+    private final long fingerprint;
+
+    /**
+     * Compute the costs of the arcs of the given graph. Costs are computed in
+     * parallel.
+     *
+     * @param graph Graph containing the arcs.
+     * @param inspector Inspector used to compute the costs.
+     */
+    public ArcCosts(Graph graph, ArcInspector inspector) {
+        CompactGraph compact = graph.getCompactGraph();
+        CompiledArcInspector compiled = CompiledArcInspector.of(graph, inspector);
+        this.costs = new double[compact.getArcCount()];
+        IntStream.range(0, compact.size()).parallel().forEach(node -> {
+            for (int arc = compact.getFirstArc(node); arc < compact.getFirstArc(node + 1); ++arc) {
+                this.costs[arc] = compiled.isAllowed(arc)
+                        ? inspector.getCost(graph, node, arc)
+                        : Double.POSITIVE_INFINITY;
+            }
+        });
+
+        long fingerprint = compact.size();
+        for (int node = 0; node < compact.size(); ++node) {
+            fingerprint = 31 * fingerprint + compact.getOutDegree(node);
+            for (int arc = compact.getFirstArc(node); arc < compact.getFirstArc(node + 1); ++arc) {
+                fingerprint = 31 * fingerprint + compact.getHead(arc);
+                fingerprint = 31 * fingerprint + Double.doubleToLongBits(this.costs[arc]);
+            }
+        }
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Retrieve the costs of the arcs of the given graph for the given inspector.
+     * Costs are cached per graph and per inspector (see {@link GraphCache}).
+     *
+     * @param graph Graph containing the arcs.
+     * @param inspector Inspector used to compute the costs.
+     *
+     * @return Costs of the arcs of the given graph.
+     */
+    public static ArcCosts of(Graph graph, ArcInspector inspector) {
+        return CACHE.get(graph, inspector, () -> new ArcCosts(graph, inspector));
+    }
+
+    /**
+     * @return Number of arcs.
+     */
+    public int size() {
+        return this.costs.length;
+    }
+
+    /**
+     * @return Fingerprint of the arcs of the graph (their tails and heads) and of
+     *         their costs, used to check that data computed from these costs (e.g.
+     *         read from a file) still matches the graph.
+     */
+    public long getFingerprint() {
+        return this.fingerprint;
+    }
+
+    /**
+     * @param arc Index of an arc in the compact graph.
+     *
+     * @return true if the given arc is allowed.
+     */
+    public boolean isAllowed(int arc) {
+        return this.costs[arc] != Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * @param arc Index of an arc in the compact graph.
+     *
+     * @return Cost of the given arc, or infinity if the arc is not allowed.
+     */
+    public double getCost(int arc) {
+        return this.costs[arc];
+    }
+
+}
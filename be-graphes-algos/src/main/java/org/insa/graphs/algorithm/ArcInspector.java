@@ -1,12 +1,27 @@
 package org.insa.graphs.algorithm;
 
 import org.insa.graphs.algorithm.AbstractInputData.Mode;
+import org.insa.graphs.algorithm.utils.GraphCache;
 import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
 import org.insa.graphs.model.GraphStatistics;
+import org.insa.graphs.model.RoadInformation;
 
 /**
+ * <p>
  * This class can be used to indicate to an algorithm which arcs can be used and
  * the costs of the usable arcs..
+ * </p>
+ *
+ * <p>
+ * Data computed from the inspector for a graph (compiled costs, connected
+ * components, contraction hierarchies, ...) is cached per inspector instance,
+ * inspectors being compared by identity (see {@link GraphCache}). The first
+ * query with a new instance thus evaluates the inspector on all the arcs of the
+ * graph and computes the connected components, i.e. runs in <i>O(m)</i>, so
+ * custom inspectors should be created once and reused across queries, as the
+ * inspectors of {@link ArcInspectorFactory} are.
+ * </p>
  *
  */
 public interface ArcInspector {
@@ -29,6 +44,65 @@ public interface ArcInspector {
      */
     public double getCost(Arc arc);
 
+    /**
+     * Check if the arcs with the given road information can be used, for an
+     * inspector whose filter only depends on the road information of the arcs
+     * (see {@link #isRoadInformationFilter()}).
+     * 
+     * @param roadInformation Road information of the arcs to check.
+     * 
+     * @return true if the arcs with the given road information are allowed.
+     * 
+     * @throws UnsupportedOperationException if the filter of this inspector does
+     *         not only depend on the road information of the arcs.
+     */
+    public default boolean isAllowed(RoadInformation roadInformation) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Check if the filter of this inspector only depends on the road information
+     * of the arcs, in which case it can be evaluated once per road information
+     * of a graph instead of once per arc (see {@link CompiledArcInspector}).
+     * 
+     * @return true if {@link #isAllowed(RoadInformation)} is implemented.
+     */
+    public default boolean isRoadInformationFilter() {
+        return false;
+    }
+
+    /**
+     * Check if the arc with the given index in the compact representation of the
+     * given graph can be used (is allowed).
+     * 
+     * @param graph Graph containing the arc.
+     * @param origin ID of the origin of the arc.
+     * @param arc Index of the arc in the compact graph.
+     * 
+     * @return true if the given arc is allowed.
+     * 
+     * @see Graph#getArc(int, int)
+     */
+    public default boolean isAllowed(Graph graph, int origin, int arc) {
+        return isAllowed(graph.getArc(origin, arc));
+    }
+
+    /**
+     * Find the cost of the arc with the given index in the compact representation
+     * of the given graph.
+     * 
+     * @param graph Graph containing the arc.
+     * @param origin ID of the origin of the arc.
+     * @param arc Index of the arc in the compact graph.
+     * 
+     * @return Cost of the arc.
+     * 
+     * @see Graph#getArc(int, int)
+     */
+    public default double getCost(Graph graph, int origin, int arc) {
+        return getCost(graph.getArc(origin, arc));
+    }
+
     /**
      * @return The maximum speed for this inspector, or
      *         {@link GraphStatistics#NO_MAXIMUM_SPEED} if none is set.
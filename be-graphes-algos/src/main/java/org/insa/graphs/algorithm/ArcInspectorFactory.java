@@ -1,29 +1,70 @@
 package org.insa.graphs.algorithm;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
 
 import org.insa.graphs.algorithm.AbstractInputData.Mode;
 import org.insa.graphs.model.Arc;
 import org.insa.graphs.model.GraphStatistics;
+import org.insa.graphs.model.RoadInformation;
 import org.insa.graphs.model.AccessRestrictions.AccessMode;
 import org.insa.graphs.model.AccessRestrictions.AccessRestriction;
 
 public class ArcInspectorFactory {
 
+    // Restrictions of the roads open to a mode (neither forbidden nor private),
+    // allocated once instead of on every call to isAllowed.
+    private static final EnumSet<AccessRestriction> OPEN_RESTRICTIONS = EnumSet
+            .complementOf(EnumSet.of(AccessRestriction.FORBIDDEN, AccessRestriction.PRIVATE));
+
+    /**
+     * Inspector whose filter only depends on the road information of the arcs.
+     *
+     */
+    private static abstract class RoadInformationInspector implements ArcInspector {
+
+        @Override
+        public boolean isAllowed(Arc arc) {
+            return isAllowed(arc.getRoadInformation());
+        }
+
+        @Override
+        public abstract boolean isAllowed(RoadInformation roadInformation);
+
+        @Override
+        public boolean isRoadInformationFilter() {
+            return true;
+        }
+
+    }
+
+    // Filters of this factory, created once so that data cached per inspector
+    // (see GraphCache) is shared by all the users of a filter.
+    private static final List<ArcInspector> FILTERS = Collections
+            .unmodifiableList(createFilters());
+
     /**
-     * @return List of all arc filters in this factory.
+     * @return List of all arc filters in this factory. The same inspectors are
+     *         returned by every call.
      */
     public static List<ArcInspector> getAllFilters() {
+        return new ArrayList<>(FILTERS);
+    }
+
+    /**
+     * @return New list of all arc filters in this factory.
+     */
+    private static List<ArcInspector> createFilters() {
         List<ArcInspector> filters = new ArrayList<>();
 
         // Common filters:
 
         // No filter (all arcs allowed) in length:
-        filters.add(new ArcInspector() {
+        filters.add(new RoadInformationInspector() {
             @Override
-            public boolean isAllowed(Arc arc) {
+            public boolean isAllowed(RoadInformation roadInformation) {
                 return true;
             }
 
@@ -49,12 +90,11 @@ public class ArcInspectorFactory {
         });
 
         // Only road allowed for cars and length:
-        filters.add(new ArcInspector() {
+        filters.add(new RoadInformationInspector() {
             @Override
-            public boolean isAllowed(Arc arc) {
-                return arc.getRoadInformation().getAccessRestrictions()
-                        .isAllowedForAny(AccessMode.MOTORCAR, EnumSet.complementOf(EnumSet
-                                .of(AccessRestriction.FORBIDDEN, AccessRestriction.PRIVATE)));
+            public boolean isAllowed(RoadInformation roadInformation) {
+                return roadInformation.getAccessRestrictions()
+                        .isAllowedForAny(AccessMode.MOTORCAR, OPEN_RESTRICTIONS);
             }
 
             @Override
@@ -79,9 +119,9 @@ public class ArcInspectorFactory {
         });
 
         // No filter (all arcs allowed) in time:
-        filters.add(new ArcInspector() {
+        filters.add(new RoadInformationInspector() {
             @Override
-            public boolean isAllowed(Arc arc) {
+            public boolean isAllowed(RoadInformation roadInformation) {
                 return true;
             }
 
@@ -107,12 +147,11 @@ public class ArcInspectorFactory {
         });
 
         // Only road allowed for cars and time:
-        filters.add(new ArcInspector() {
+        filters.add(new RoadInformationInspector() {
             @Override
-            public boolean isAllowed(Arc arc) {
-                return arc.getRoadInformation().getAccessRestrictions()
-                        .isAllowedForAny(AccessMode.MOTORCAR, EnumSet.complementOf(EnumSet
-                                .of(AccessRestriction.FORBIDDEN, AccessRestriction.PRIVATE)));
+            public boolean isAllowed(RoadInformation roadInformation) {
+                return roadInformation.getAccessRestrictions()
+                        .isAllowedForAny(AccessMode.MOTORCAR, OPEN_RESTRICTIONS);
             }
 
             @Override
@@ -137,13 +176,12 @@ public class ArcInspectorFactory {
         });
 
         // Non-private roads for pedestrian and bicycle:
-        filters.add(new ArcInspector() {
+        filters.add(new RoadInformationInspector() {
 
             @Override
-            public boolean isAllowed(Arc arc) {
-                return arc.getRoadInformation().getAccessRestrictions()
-                        .isAllowedForAny(AccessMode.FOOT, EnumSet.complementOf(EnumSet
-                                .of(AccessRestriction.FORBIDDEN, AccessRestriction.PRIVATE)));
+            public boolean isAllowed(RoadInformation roadInformation) {
+                return roadInformation.getAccessRestrictions()
+                        .isAllowedForAny(AccessMode.FOOT, OPEN_RESTRICTIONS);
             }
 
             @Override
@@ -0,0 +1,133 @@
+package org.insa.graphs.algorithm;
+
+import java.util.BitSet;
+import java.util.stream.IntStream;
+
+import org.insa.graphs.algorithm.utils.GraphCache;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+
+/**
+ * <p>
+ * Arc inspector compiled for a given graph: the arcs allowed by the inspector
+ * and their costs are computed once, so that searches do not call the
+ * inspector (and do not create arcs) on every relaxation.
+ * </p>
+ *
+ * <p>
+ * If the filter of the inspector only depends on the road information of the
+ * arcs (see {@link ArcInspector#isRoadInformationFilter()}), it is evaluated
+ * once per road information of the compact graph, in a set of allowed
+ * descriptors. The cost of each arc is stored as a float, arcs that are not
+ * allowed having an infinite cost. A search can then relax every arc with a
+ * single array load: the tentative cost through a forbidden arc is infinite,
+ * so it never improves the cost of the head.
+ * </p>
+ *
+ */
+public final class CompiledArcInspector {
+
+    // Inspectors already compiled, by graph and inspector.
+    private static final GraphCache<CompiledArcInspector> CACHE = new GraphCache<>();
+
+    // Descriptors allowed by the inspector, or null if the filter depends on
+    // other properties of the arcs.
+    private final BitSet allowedDescriptors;
+
+    // Cost of each arc, infinite if the arc is not allowed.
+    private final float[] costs;
+
+    /**
+     * Compile the given inspector for the given graph. Costs are computed in
+     * parallel.
+     *
+     * @param graph Graph containing the arcs.
+     * @param inspector Inspector to compile.
+     */
+    public CompiledArcInspector(Graph graph, ArcInspector inspector) {
+        CompactGraph compact = graph.getCompactGraph();
+        if (inspector.isRoadInformationFilter()) {
+            this.allowedDescriptors = new BitSet(compact.getDescriptorCount());
+            for (int descriptor = 0; descriptor < compact.getDescriptorCount(); ++descriptor) {
+                this.allowedDescriptors.set(descriptor,
+                        inspector.isAllowed(compact.getDescriptor(descriptor)));
+            }
+        }
+        else {
+            this.allowedDescriptors = null;
+        }
+
+        this.costs = new float[compact.getArcCount()];
+        IntStream.range(0, compact.size()).parallel().forEach(node -> {
+            for (int arc = compact.getFirstArc(node); arc < compact.getFirstArc(node + 1); ++arc) {
+                boolean allowed = this.allowedDescriptors != null
+                        ? this.allowedDescriptors.get(compact.getDescriptorIndex(arc))
+                        : inspector.isAllowed(graph, node, arc);
+                this.costs[arc] = allowed ? (float) inspector.getCost(graph, node, arc)
+                        : Float.POSITIVE_INFINITY;
+            }
+        });
+    }
+
+    /**
+     * Retrieve the given inspector compiled for the given graph. Compiled
+     * inspectors are cached per graph and per inspector (see {@link GraphCache}).
+     *
+     * @param graph Graph containing the arcs.
+     * @param inspector Inspector to compile.
+     *
+     * @return Inspector compiled for the given graph.
+     */
+    public static CompiledArcInspector of(Graph graph, ArcInspector inspector) {
+        return CACHE.get(graph, inspector, () -> new CompiledArcInspector(graph, inspector));
+    }
+
+    /**
+     * @return Number of arcs.
+     */
+    public int size() {
+        return this.costs.length;
+    }
+
+    /**
+     * @return true if the filter has been evaluated per road information, i.e.
+     *         {@link #isAllowedDescriptor(int)} can be used.
+     */
+    public boolean hasAllowedDescriptors() {
+        return this.allowedDescriptors != null;
+    }
+
+    /**
+     * @param descriptor Index of a road information in the compact graph.
+     *
+     * @return true if the arcs with the given road information are allowed.
+     *
+     * @throws UnsupportedOperationException if the filter has not been evaluated
+     *         per road information.
+     */
+    public boolean isAllowedDescriptor(int descriptor) {
+        if (this.allowedDescriptors == null) {
+            throw new UnsupportedOperationException();
+        }
+        return this.allowedDescriptors.get(descriptor);
+    }
+
+    /**
+     * @param arc Index of an arc in the compact graph.
+     *
+     * @return true if the given arc is allowed.
+     */
+    public boolean isAllowed(int arc) {
+        return this.costs[arc] != Float.POSITIVE_INFINITY;
+    }
+
+    /**
+     * @param arc Index of an arc in the compact graph.
+     *
+     * @return Cost of the given arc, or infinity if the arc is not allowed.
+     */
+    public float getCost(int arc) {
+        return this.costs[arc];
+    }
+
+}
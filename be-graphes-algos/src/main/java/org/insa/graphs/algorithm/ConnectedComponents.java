@@ -0,0 +1,230 @@
+package org.insa.graphs.algorithm;
+
+import java.util.Arrays;
+
+import org.insa.graphs.algorithm.utils.GraphCache;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+
+/**
+ * <p>
+ * Strongly and weakly connected components of a graph, restricted to the arcs
+ * allowed by a given arc inspector.
+ * </p>
+ *
+ * <p>
+ * Strongly connected components are computed with an iterative version of
+ * Tarjan's algorithm, which numbers them in reverse topological order: if a
+ * node of a component can reach a node of another component, the first
+ * component has a greater ID than the second one. Together with the weakly
+ * connected components, this gives an O(1) test that rules out most of the
+ * infeasible queries, see {@link #mayReach(int, int)}.
+ * </p>
+ *
+ */
+public final class ConnectedComponents {
+
+    // Components already computed, by graph and inspector.
+    private static final GraphCache<ConnectedComponents> CACHE = new GraphCache<>();
+
+    // Strongly and weakly connected component of each node.
+    private final int[] strong, weak;
+
+    // Number of strongly and weakly connected components.
+    private final int nbStrong, nbWeak;
+
+    /**
+     * Compute the connected components of the given graph.
+     *
+     * @param graph Graph containing the nodes.
+     * @param inspector Inspector used to filter the arcs.
+     */
+    public ConnectedComponents(Graph graph, ArcInspector inspector) {
+        CompactGraph compact = graph.getCompactGraph();
+        CompiledArcInspector compiled = CompiledArcInspector.of(graph, inspector);
+        final int nbNodes = compact.size();
+
+        this.strong = new int[nbNodes];
+        this.nbStrong = computeStrongComponents(compact, compiled, this.strong);
+
+        // Weakly connected components with a union-find on the allowed arcs.
+        int[] parents = new int[nbNodes];
+        for (int node = 0; node < nbNodes; ++node) {
+            parents[node] = node;
+        }
+        for (int node = 0; node < nbNodes; ++node) {
+            for (int arc = compact.getFirstArc(node); arc < compact.getFirstArc(node + 1); ++arc) {
+                if (compiled.isAllowed(arc)) {
+                    int root = find(parents, node), other = find(parents, compact.getHead(arc));
+                    if (root != other) {
+                        parents[Math.max(root, other)] = Math.min(root, other);
+                    }
+                }
+            }
+        }
+
+        // Roots have the lowest ID of their component, so they are numbered before
+        // the other nodes of their component.
+        this.weak = new int[nbNodes];
+        int count = 0;
+        for (int node = 0; node < nbNodes; ++node) {
+            int root = find(parents, node);
+            this.weak[node] = root == node ? count++ : this.weak[root];
+        }
+        this.nbWeak = count;
+    }
+
+    /**
+     * Retrieve the components of the given graph for the given inspector.
+     * Components are cached per graph and per inspector (see {@link GraphCache}).
+     *
+     * @param graph Graph containing the nodes.
+     * @param inspector Inspector used to filter the arcs.
+     *
+     * @return Components of the given graph.
+     */
+    public static ConnectedComponents of(Graph graph, ArcInspector inspector) {
+        return CACHE.get(graph, inspector, () -> new ConnectedComponents(graph, inspector));
+    }
+
+    /**
+     * @return Number of strongly connected components.
+     */
+    public int getStrongComponentCount() {
+        return this.nbStrong;
+    }
+
+    /**
+     * @param node ID of a node.
+     *
+     * @return ID of the strongly connected component of the given node, between 0
+     *         and {@link #getStrongComponentCount()} (excluded).
+     */
+    public int getStrongComponent(int node) {
+        return this.strong[node];
+    }
+
+    /**
+     * @return Number of weakly connected components.
+     */
+    public int getWeakComponentCount() {
+        return this.nbWeak;
+    }
+
+    /**
+     * @param node ID of a node.
+     *
+     * @return ID of the weakly connected component of the given node, between 0
+     *         and {@link #getWeakComponentCount()} (excluded).
+     */
+    public int getWeakComponent(int node) {
+        return this.weak[node];
+    }
+
+    /**
+     * Check in O(1) whether the given destination may be reachable from the given
+     * origin. The destination is not reachable if both nodes are in different
+     * weakly connected components, or if the component of the origin comes after
+     * the one of the destination in topological order. It is reachable if both
+     * nodes are in the same strongly connected component. In other cases, a
+     * search is needed.
+     *
+     * @param origin ID of the origin.
+     * @param destination ID of the destination.
+     *
+     * @return false if the destination is not reachable from the origin, true if
+     *         it may be reachable.
+     */
+    public boolean mayReach(int origin, int destination) {
+        return this.weak[origin] == this.weak[destination]
+                && this.strong[origin] >= this.strong[destination];
+    }
+
+    /**
+     * @return Root of the given node in the given union-find forest, with path
+     *         halving.
+     */
+    private static int find(int[] parents, int node) {
+        while (parents[node] != node) {
+            parents[node] = parents[parents[node]];
+            node = parents[node];
+        }
+        return node;
+    }
+
+    /**
+     * Compute the strongly connected components with an iterative version of
+     * Tarjan's algorithm, the recursion being replaced by an explicit stack of
+     * nodes and of their next arc to visit.
+     *
+     * @return Number of components.
+     */
+    private static int computeStrongComponents(CompactGraph graph,
+            CompiledArcInspector compiled, int[] components) {
+        final int nbNodes = graph.size();
+        int[] index = new int[nbNodes], low = new int[nbNodes];
+        Arrays.fill(index, -1);
+
+        // Stack of the nodes of the current components (Tarjan's stack).
+        int[] stack = new int[nbNodes];
+        boolean[] onStack = new boolean[nbNodes];
+        int size = 0;
+
+        // Explicit call stack: visited node and next arc to scan.
+        int[] callNodes = new int[nbNodes], callArcs = new int[nbNodes];
+
+        int counter = 0, count = 0;
+        for (int root = 0; root < nbNodes; ++root) {
+            if (index[root] != -1) {
+                continue;
+            }
+            index[root] = low[root] = counter++;
+            stack[size++] = root;
+            onStack[root] = true;
+            callNodes[0] = root;
+            callArcs[0] = graph.getFirstArc(root);
+            int depth = 1;
+
+            while (depth > 0) {
+                int node = callNodes[depth - 1], arc = callArcs[depth - 1];
+                if (arc < graph.getFirstArc(node + 1)) {
+                    ++callArcs[depth - 1];
+                    if (!compiled.isAllowed(arc)) {
+                        continue;
+                    }
+                    int next = graph.getHead(arc);
+                    if (index[next] == -1) {
+                        index[next] = low[next] = counter++;
+                        stack[size++] = next;
+                        onStack[next] = true;
+                        callNodes[depth] = next;
+                        callArcs[depth] = graph.getFirstArc(next);
+                        ++depth;
+                    }
+                    else if (onStack[next]) {
+                        low[node] = Math.min(low[node], index[next]);
+                    }
+                    continue;
+                }
+
+                // All the arcs of the node have been scanned.
+                --depth;
+                if (low[node] == index[node]) {
+                    int other;
+                    do {
+                        other = stack[--size];
+                        onStack[other] = false;
+                        components[other] = count;
+                    } while (other != node);
+                    ++count;
+                }
+                if (depth > 0) {
+                    int parent = callNodes[depth - 1];
+                    low[parent] = Math.min(low[parent], low[node]);
+                }
+            }
+        }
+        return count;
+    }
+
+}
@@ -0,0 +1,175 @@
+package org.insa.graphs.algorithm.isochrone;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.ArcCosts;
+import org.insa.graphs.algorithm.shortestpath.SearchSpace;
+import org.insa.graphs.algorithm.utils.IndexedMinHeap;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Point;
+
+/**
+ * <p>
+ * Isochrone computed with a single Dijkstra search from the origin, stopped as
+ * soon as the minimum key exceeds the highest budget. Lower budgets are
+ * prefixes of the marked nodes, since nodes are marked in increasing order of
+ * cost.
+ * </p>
+ *
+ * <p>
+ * Once the search is over, the arcs leaving a marked node towards a node out of
+ * a budget are cut where the budget is exhausted, by interpolating along the
+ * geometry of the arc.
+ * </p>
+ *
+ */
+public class DijkstraIsochroneAlgorithm extends IsochroneAlgorithm {
+
+    public DijkstraIsochroneAlgorithm(IsochroneData data) {
+        super(data);
+    }
+
+    @Override
+    protected IsochroneSolution doRun() {
+        IsochroneData data = getInputData();
+        Graph graph = data.getGraph();
+        CompactGraph compact = graph.getCompactGraph();
+        ArcCosts costs = ArcCosts.of(graph, data.getArcInspector());
+        final int nbBudgets = data.getBudgetCount();
+        final double maximumBudget = data.getMaximumBudget();
+
+        SearchSpace space = SearchSpace.get(graph);
+        IndexedMinHeap heap = space.getHeap();
+        int origin = data.getOrigin().getId();
+        space.reach(origin, 0, -1, -1);
+        heap.insert(origin, 0);
+        notifyOriginProcessed(data.getOrigin());
+
+        int[] nodes = new int[16];
+        double[] distances = new double[16];
+        int nbNodes = 0;
+        int[] counts = new int[nbBudgets];
+        int budget = 0;
+        while (!heap.isEmpty() && heap.findMinKey() <= maximumBudget) {
+            int node = heap.deleteMin();
+            space.settle(node);
+            double distance = space.getDistance(node);
+            for (; distance > data.getBudget(budget); ++budget) {
+                counts[budget] = nbNodes;
+                notifyBudgetCompleted(budget);
+            }
+            if (nbNodes == nodes.length) {
+                nodes = Arrays.copyOf(nodes, 2 * nbNodes);
+                distances = Arrays.copyOf(distances, 2 * nbNodes);
+            }
+            nodes[nbNodes] = node;
+            distances[nbNodes++] = distance;
+            notifyNodeMarked(graph.get(node), distance);
+
+            for (int arc = compact.getFirstArc(node); arc < compact.getFirstArc(node + 1); ++arc) {
+                int head = compact.getHead(arc);
+                double cost = distance + costs.getCost(arc);
+                if (cost < space.getDistance(head)) {
+                    space.reach(head, cost, node, arc);
+                    heap.insertOrDecreaseKey(head, cost);
+                }
+            }
+        }
+        for (; budget < nbBudgets; ++budget) {
+            counts[budget] = nbNodes;
+            notifyBudgetCompleted(budget);
+        }
+
+        // Every node whose cost is within the highest budget is settled, so a node
+        // that is not settled is out of all the budgets.
+        List<List<Point>> boundaryPoints = new ArrayList<>(nbBudgets);
+        for (int i = 0; i < nbBudgets; ++i) {
+            boundaryPoints.add(new ArrayList<>());
+        }
+        for (int k = 0; k < nbNodes; ++k) {
+            int node = nodes[k];
+            double distance = distances[k];
+            int first = lowerBound(data, distance);
+            for (int arc = compact.getFirstArc(node); arc < compact.getFirstArc(node + 1); ++arc) {
+                double cost = costs.getCost(arc);
+                if (cost == Double.POSITIVE_INFINITY) {
+                    continue;
+                }
+                int head = compact.getHead(arc);
+                double headDistance = space.isSettled(head) ? space.getDistance(head)
+                        : Double.POSITIVE_INFINITY;
+                List<Point> points = null;
+                for (int i = first; i < nbBudgets && data.getBudget(i) < distance + cost; ++i) {
+                    if (headDistance > data.getBudget(i)) {
+                        if (points == null) {
+                            points = compact.getPoints(node, arc);
+                            if (points.contains(null)) {
+                                break;
+                            }
+                        }
+                        boundaryPoints.get(i).add(interpolate(points,
+                                cost == 0 ? 0 : (data.getBudget(i) - distance) / cost));
+                    }
+                }
+            }
+        }
+
+        return new IsochroneSolution(data, Status.OPTIMAL, Arrays.copyOf(nodes, nbNodes),
+                Arrays.copyOf(distances, nbNodes), counts, boundaryPoints);
+    }
+
+    /**
+     * @return Index of the lowest budget not lower than the given cost.
+     */
+    private static int lowerBound(IsochroneData data, double cost) {
+        int low = 0, high = data.getBudgetCount();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (data.getBudget(middle) < cost) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Find the point at the given fraction of the length of a polyline. Lengths
+     * are computed on a local equirectangular projection, which is accurate
+     * enough at the scale of an arc.
+     *
+     * @param points Points of the polyline.
+     * @param fraction Fraction of the length, between 0 and 1.
+     *
+     * @return The interpolated point.
+     */
+    private static Point interpolate(List<Point> points, double fraction) {
+        double scale = Math.cos(Math.toRadians(points.get(0).getLatitude()));
+        double[] lengths = new double[points.size() - 1];
+        double total = 0;
+        for (int i = 0; i < lengths.length; ++i) {
+            Point p = points.get(i), q = points.get(i + 1);
+            lengths[i] = Math.hypot((q.getLongitude() - p.getLongitude()) * scale,
+                    q.getLatitude() - p.getLatitude());
+            total += lengths[i];
+        }
+        double remaining = fraction * total;
+        for (int i = 0; i < lengths.length; ++i) {
+            if (remaining <= lengths[i] && lengths[i] > 0) {
+                Point p = points.get(i), q = points.get(i + 1);
+                double t = remaining / lengths[i];
+                return new Point((float) (p.getLongitude() + t * (q.getLongitude() - p.getLongitude())),
+                        (float) (p.getLatitude() + t * (q.getLatitude() - p.getLatitude())));
+            }
+            remaining -= lengths[i];
+        }
+        return points.get(points.size() - 1);
+    }
+
+}
@@ -0,0 +1,64 @@
+package org.insa.graphs.algorithm.isochrone;
+
+import org.insa.graphs.algorithm.AbstractAlgorithm;
+import org.insa.graphs.model.Node;
+
+/**
+ * Base class for algorithms computing the set of nodes reachable from an
+ * origin within one or several budgets.
+ *
+ */
+public abstract class IsochroneAlgorithm extends AbstractAlgorithm<IsochroneObserver> {
+
+    protected IsochroneAlgorithm(IsochroneData data) {
+        super(data);
+    }
+
+    @Override
+    public IsochroneSolution run() {
+        return (IsochroneSolution) super.run();
+    }
+
+    @Override
+    protected abstract IsochroneSolution doRun();
+
+    @Override
+    public IsochroneData getInputData() {
+        return (IsochroneData) super.getInputData();
+    }
+
+    /**
+     * Notify all observers that the origin has been processed.
+     *
+     * @param node Origin.
+     */
+    public void notifyOriginProcessed(Node node) {
+        for (IsochroneObserver obs: getObservers()) {
+            obs.notifyOriginProcessed(node);
+        }
+    }
+
+    /**
+     * Notify all observers that a node has been marked.
+     *
+     * @param node Node that has been marked.
+     * @param cost Cost from the origin to the node.
+     */
+    public void notifyNodeMarked(Node node, double cost) {
+        for (IsochroneObserver obs: getObservers()) {
+            obs.notifyNodeMarked(node, cost);
+        }
+    }
+
+    /**
+     * Notify all observers that all the nodes within a budget have been marked.
+     *
+     * @param index Index of the budget.
+     */
+    public void notifyBudgetCompleted(int index) {
+        for (IsochroneObserver obs: getObservers()) {
+            obs.notifyBudgetCompleted(index, getInputData().getBudget(index));
+        }
+    }
+
+}
@@ -0,0 +1,101 @@
+package org.insa.graphs.algorithm.isochrone;
+
+import java.util.Arrays;
+
+import org.insa.graphs.algorithm.AbstractInputData;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+
+/**
+ * Input data of an isochrone: an origin and one or more budgets, the area
+ * reachable from the origin being computed for each budget.
+ *
+ */
+public class IsochroneData extends AbstractInputData {
+
+    // Origin of the isochrone.
+    private final Node origin;
+
+    // Budgets, in increasing order.
+    private final double[] budgets;
+
+    /**
+     * Construct a new instance of IsochroneData with the given parameters.
+     *
+     * @param graph Graph in which the isochrone should be computed.
+     * @param origin Origin of the isochrone.
+     * @param budgets Maximum costs of the isochrone, e.g. travel times in seconds
+     *        if the arc inspector uses time. Several budgets are computed in a
+     *        single search.
+     * @param arcInspector Filter for arcs (used to allow only a specific set of
+     *        arcs in the graph to be used).
+     *
+     * @throws IllegalArgumentException if there is no budget or if a budget is
+     *         negative or not a number.
+     */
+    public IsochroneData(Graph graph, Node origin, double[] budgets, ArcInspector arcInspector) {
+        super(graph, arcInspector);
+        if (budgets.length == 0) {
+            throw new IllegalArgumentException("At least one budget is required.");
+        }
+        this.origin = origin;
+        this.budgets = budgets.clone();
+        Arrays.sort(this.budgets);
+        if (!(this.budgets[0] >= 0)) {
+            throw new IllegalArgumentException("Budgets must be non-negative.");
+        }
+    }
+
+    /**
+     * Construct a new instance of IsochroneData with a single budget.
+     *
+     * @param graph Graph in which the isochrone should be computed.
+     * @param origin Origin of the isochrone.
+     * @param budget Maximum cost of the isochrone.
+     * @param arcInspector Filter for arcs (used to allow only a specific set of
+     *        arcs in the graph to be used).
+     *
+     * @see #IsochroneData(Graph, Node, double[], ArcInspector)
+     */
+    public IsochroneData(Graph graph, Node origin, double budget, ArcInspector arcInspector) {
+        this(graph, origin, new double[] { budget }, arcInspector);
+    }
+
+    /**
+     * @return Origin of the isochrone.
+     */
+    public Node getOrigin() {
+        return origin;
+    }
+
+    /**
+     * @return Number of budgets.
+     */
+    public int getBudgetCount() {
+        return budgets.length;
+    }
+
+    /**
+     * @param index Index of a budget, budgets being sorted in increasing order.
+     *
+     * @return The budget at the given index.
+     */
+    public double getBudget(int index) {
+        return budgets[index];
+    }
+
+    /**
+     * @return The highest budget, i.e. the cost at which the search stops.
+     */
+    public double getMaximumBudget() {
+        return budgets[budgets.length - 1];
+    }
+
+    @Override
+    public String toString() {
+        return "Isochrone from #" + origin.getId() + " within " + Arrays.toString(budgets) + " ["
+                + this.arcInspector.toString().toLowerCase() + "]";
+    }
+
+}
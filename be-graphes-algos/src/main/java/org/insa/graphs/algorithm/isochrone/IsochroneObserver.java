@@ -0,0 +1,32 @@
+package org.insa.graphs.algorithm.isochrone;
+
+import org.insa.graphs.model.Node;
+
+public interface IsochroneObserver {
+
+    /**
+     * Notify the observer that the origin has been processed.
+     *
+     * @param node Origin.
+     */
+    public void notifyOriginProcessed(Node node);
+
+    /**
+     * Notify the observer that a node has been marked, i.e. its final cost has
+     * been set and is within the highest budget.
+     *
+     * @param node Node that has been marked.
+     * @param cost Cost from the origin to the node.
+     */
+    public void notifyNodeMarked(Node node, double cost);
+
+    /**
+     * Notify the observer that all the nodes within a budget have been marked.
+     * Budgets are completed in increasing order.
+     *
+     * @param index Index of the budget.
+     * @param budget Value of the budget.
+     */
+    public void notifyBudgetCompleted(int index, double budget);
+
+}
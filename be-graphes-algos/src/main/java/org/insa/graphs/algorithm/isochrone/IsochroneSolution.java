@@ -0,0 +1,200 @@
+package org.insa.graphs.algorithm.isochrone;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.insa.graphs.algorithm.AbstractSolution;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+
+/**
+ * Solution of an isochrone: for each budget of the input data, the nodes
+ * reached within the budget with their costs, the points where the budget is
+ * exhausted on the arcs leaving the reached area, and a polygon enclosing this
+ * area.
+ *
+ */
+public class IsochroneSolution extends AbstractSolution {
+
+    /**
+     * Number of angular sectors around the origin used to build boundary
+     * polygons, i.e. maximum number of vertices of a polygon.
+     */
+    public static final int POLYGON_SECTORS = 72;
+
+    // Nodes marked by the search and their costs, in increasing order of cost.
+    private final int[] nodes;
+    private final double[] costs;
+
+    // Number of nodes within each budget.
+    private final int[] counts;
+
+    // Points where the budget is exhausted on partially traversed arcs, for each
+    // budget.
+    private final List<List<Point>> boundaryPoints;
+
+    // Boundary polygons, computed on demand.
+    private final List<List<Point>> polygons;
+
+    /**
+     * Create a new isochrone solution.
+     *
+     * @param data Original input data for this solution.
+     * @param status Status of the solution.
+     * @param nodes Marked nodes, in increasing order of cost.
+     * @param costs Costs of the marked nodes.
+     * @param counts Number of nodes within each budget.
+     * @param boundaryPoints Points on partially traversed arcs, for each budget.
+     */
+    protected IsochroneSolution(IsochroneData data, Status status, int[] nodes, double[] costs,
+            int[] counts, List<List<Point>> boundaryPoints) {
+        super(data, status);
+        this.nodes = nodes;
+        this.costs = costs;
+        this.counts = counts;
+        this.boundaryPoints = boundaryPoints;
+        this.polygons = new ArrayList<>(Collections.nCopies(counts.length, null));
+    }
+
+    @Override
+    public IsochroneData getInputData() {
+        return (IsochroneData) super.getInputData();
+    }
+
+    /**
+     * @param index Index of a budget.
+     *
+     * @return Number of nodes whose cost is within the given budget.
+     */
+    public int getReachedNodeCount(int index) {
+        return counts[index];
+    }
+
+    /**
+     * @param index Index of a budget.
+     *
+     * @return Nodes whose cost is within the given budget, in increasing order of
+     *         cost.
+     */
+    public List<Node> getReachedNodes(int index) {
+        final Graph graph = getInputData().getGraph();
+        final int count = counts[index];
+        return new AbstractList<Node>() {
+            @Override
+            public Node get(int i) {
+                if (i >= count) {
+                    throw new IndexOutOfBoundsException(i);
+                }
+                return graph.get(nodes[i]);
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        };
+    }
+
+    /**
+     * @param index Index of a budget.
+     *
+     * @return Costs of the nodes returned by {@link #getReachedNodes(int)}, in the
+     *         same order.
+     */
+    public double[] getReachedCosts(int index) {
+        return Arrays.copyOf(costs, counts[index]);
+    }
+
+    /**
+     * @param index Index of a budget.
+     *
+     * @return Points where the given budget is exhausted on arcs leaving a reached
+     *         node towards a node out of the budget, assuming the cost of an arc is
+     *         spread uniformly along its geometry.
+     */
+    public List<Point> getBoundaryPoints(int index) {
+        return Collections.unmodifiableList(boundaryPoints.get(index));
+    }
+
+    /**
+     * <p>
+     * Compute a simplified polygon enclosing the area reachable within the given
+     * budget, suitable for drawing.
+     * </p>
+     *
+     * <p>
+     * The plane around the origin is divided in {@link #POLYGON_SECTORS} angular
+     * sectors, and the farthest reached point (node or boundary point) of each
+     * sector is a vertex of the polygon. The polygon is star-shaped around the
+     * origin, so it follows the main concavities of the area without being as
+     * detailed as the road network.
+     * </p>
+     *
+     * @param index Index of a budget.
+     *
+     * @return Vertices of the polygon, in counter-clockwise order, or an empty
+     *         list if no reached point has a position.
+     */
+    public List<Point> getPolygon(int index) {
+        if (polygons.get(index) == null) {
+            polygons.set(index, Collections.unmodifiableList(computePolygon(index)));
+        }
+        return polygons.get(index);
+    }
+
+    private List<Point> computePolygon(int index) {
+        List<Point> points = new ArrayList<>(counts[index] + boundaryPoints.get(index).size());
+        for (Node node: getReachedNodes(index)) {
+            if (node.getPoint() != null) {
+                points.add(node.getPoint());
+            }
+        }
+        points.addAll(boundaryPoints.get(index));
+        if (points.isEmpty()) {
+            return points;
+        }
+
+        Point center = getInputData().getOrigin().getPoint();
+        if (center == null) {
+            center = points.get(0);
+        }
+        double scale = Math.cos(Math.toRadians(center.getLatitude()));
+        Point[] farthest = new Point[POLYGON_SECTORS];
+        double[] distances = new double[POLYGON_SECTORS];
+        for (Point point: points) {
+            double dx = (point.getLongitude() - center.getLongitude()) * scale,
+                    dy = point.getLatitude() - center.getLatitude();
+            int sector = (int) ((Math.atan2(dy, dx) + Math.PI) / (2 * Math.PI) * POLYGON_SECTORS);
+            sector = Math.min(sector, POLYGON_SECTORS - 1);
+            double distance = dx * dx + dy * dy;
+            if (farthest[sector] == null || distance > distances[sector]) {
+                farthest[sector] = point;
+                distances[sector] = distance;
+            }
+        }
+        List<Point> polygon = new ArrayList<>();
+        for (Point point: farthest) {
+            if (point != null) {
+                polygon.add(point);
+            }
+        }
+        return polygon;
+    }
+
+    @Override
+    public String toString() {
+        IsochroneData data = getInputData();
+        StringBuilder builder = new StringBuilder("Found ");
+        for (int i = 0; i < counts.length; ++i) {
+            builder.append(i == 0 ? "" : ", ").append(counts[i]).append(" nodes within ")
+                    .append(data.getBudget(i));
+        }
+        return builder.append(" in ").append(getSolvingTime().getSeconds()).append(" seconds.")
+                .toString();
+    }
+
+}
@@ -0,0 +1,88 @@
+package org.insa.graphs.algorithm.matrix;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.shortestpath.DijkstraAlgorithm;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.io.BadFormatException;
+import org.insa.graphs.model.io.BinaryReader;
+import org.insa.graphs.model.io.MapMismatchException;
+
+/**
+ * Reader for distance matrices written by {@link BinaryMatrixWriter}.
+ *
+ */
+public class BinaryMatrixReader extends BinaryReader {
+
+    // Matrix version and magic number targeted for this reader.
+    protected static final int VERSION = 1;
+    protected static final int MAGIC_NUMBER = 0x4d545258;
+
+    /**
+     * Create a new BinaryMatrixReader that reads from the given input stream.
+     * 
+     * @param dis Input stream to read from.
+     */
+    public BinaryMatrixReader(DataInputStream dis) {
+        super(MAGIC_NUMBER, VERSION, dis);
+    }
+
+    /**
+     * Read a matrix. Paths of the matrix returned are computed with
+     * {@link DijkstraAlgorithm}.
+     * 
+     * @param graph Graph of the matrix.
+     * @param inspector Inspector used to compute the matrix.
+     * 
+     * @return The matrix read.
+     * 
+     * @throws IOException if an error occurs while reading, or if the matrix was
+     *         not computed on the given graph with the given inspector.
+     */
+    public DistanceMatrixSolution readMatrix(Graph graph, ArcInspector inspector)
+            throws IOException {
+
+        // Read and check magic number and version.
+        checkMagicNumberOrThrow(dis.readInt());
+        checkVersionOrThrow(dis.readInt());
+
+        // Read map ID and inspector and check them.
+        String mapId = dis.readUTF();
+        if (!mapId.equals(graph.getMapId())) {
+            throw new MapMismatchException(mapId, graph.getMapId());
+        }
+        if (!dis.readUTF().equals(inspector.toString())) {
+            throw new BadFormatException("Matrix does not match the arc inspector.");
+        }
+
+        // Read origins and destinations.
+        int nbOrigins = dis.readInt(), nbDestinations = dis.readInt();
+        List<Node> origins = new ArrayList<>(nbOrigins),
+                destinations = new ArrayList<>(nbDestinations);
+        for (int i = 0; i < nbOrigins; ++i) {
+            origins.add(graph.get(dis.readInt()));
+        }
+        for (int i = 0; i < nbDestinations; ++i) {
+            destinations.add(graph.get(dis.readInt()));
+        }
+
+        // Read costs.
+        double[][] costs = new double[nbOrigins][nbDestinations];
+        for (double[] row: costs) {
+            for (int j = 0; j < nbDestinations; ++j) {
+                row[j] = dis.readFloat();
+            }
+        }
+
+        return new DistanceMatrixSolution(
+                new DistanceMatrixData(graph, origins, destinations, inspector), Status.OPTIMAL,
+                costs, DijkstraAlgorithm::new);
+    }
+
+}
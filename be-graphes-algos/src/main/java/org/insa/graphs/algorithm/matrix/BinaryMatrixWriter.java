@@ -0,0 +1,63 @@
+package org.insa.graphs.algorithm.matrix;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.io.BinaryWriter;
+
+/**
+ * Writer for distance matrices in binary format. Costs are written row by row
+ * as 32-bits floats, unreachable destinations having an infinite cost.
+ *
+ */
+public class BinaryMatrixWriter extends BinaryWriter {
+
+    /**
+     * Create a new BinaryMatrixWriter that writes to the given output stream.
+     * 
+     * @param dos Output stream to write to.
+     */
+    public BinaryMatrixWriter(DataOutputStream dos) {
+        super(dos);
+    }
+
+    /**
+     * Write the given matrix.
+     * 
+     * @param matrix Matrix to write.
+     * 
+     * @throws IOException if an error occurs while writing the matrix.
+     */
+    public void writeMatrix(DistanceMatrixSolution matrix) throws IOException {
+        DistanceMatrixData data = matrix.getInputData();
+
+        // Write magic number and version.
+        dos.writeInt(BinaryMatrixReader.MAGIC_NUMBER);
+        dos.writeInt(BinaryMatrixReader.VERSION);
+
+        // Write map id and arc inspector.
+        dos.writeUTF(data.getGraph().getMapId());
+        dos.writeUTF(data.getArcInspector().toString());
+
+        // Write origins and destinations.
+        dos.writeInt(data.getOrigins().size());
+        dos.writeInt(data.getDestinations().size());
+        for (Node origin: data.getOrigins()) {
+            dos.writeInt(origin.getId());
+        }
+        for (Node destination: data.getDestinations()) {
+            dos.writeInt(destination.getId());
+        }
+
+        // Write costs.
+        for (double[] row: matrix.getCosts()) {
+            for (double cost: row) {
+                dos.writeFloat((float) cost);
+            }
+        }
+
+        dos.flush();
+    }
+
+}
@@ -0,0 +1,185 @@
+package org.insa.graphs.algorithm.matrix;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.shortestpath.ContractionHierarchiesAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.SearchSpace;
+import org.insa.graphs.algorithm.shortestpath.ch.ContractionHierarchy;
+import org.insa.graphs.algorithm.utils.IndexedMinHeap;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+
+/**
+ * <p>
+ * Distance matrix computed with bucket-based many-to-many searches on a
+ * contraction hierarchy.
+ * </p>
+ *
+ * <p>
+ * A backward upward search is run from each destination, and each settled node
+ * stores the destination and its distance in its bucket. A forward upward
+ * search is then run from each origin, and the buckets of the settled nodes
+ * give the cost to every destination. Searches of each phase are run in
+ * parallel.
+ * </p>
+ *
+ */
+public class BucketDistanceMatrixAlgorithm extends DistanceMatrixAlgorithm {
+
+    // Hierarchy of the graph for the inspector of the data.
+    private final ContractionHierarchy hierarchy;
+
+    /**
+     * Create a new algorithm using the hierarchy returned by
+     * {@link ContractionHierarchy#get(Graph, org.insa.graphs.algorithm.ArcInspector)},
+     * which is computed on first use.
+     *
+     * @param data Input data for the algorithm.
+     */
+    public BucketDistanceMatrixAlgorithm(DistanceMatrixData data) {
+        this(data, ContractionHierarchy.get(data.getGraph(), data.getArcInspector()));
+    }
+
+    /**
+     * Create a new algorithm with the given hierarchy.
+     *
+     * @param data Input data for the algorithm.
+     * @param hierarchy Hierarchy computed for the graph and the inspector of the
+     *        data.
+     *
+     * @throws IllegalArgumentException if the hierarchy was not computed for the
+     *         inspector of the data.
+     */
+    public BucketDistanceMatrixAlgorithm(DistanceMatrixData data,
+            ContractionHierarchy hierarchy) {
+        super(data);
+        if (!hierarchy.getInspector().equals(data.getArcInspector().toString())) {
+            throw new IllegalArgumentException("Hierarchy does not match the arc inspector.");
+        }
+        this.hierarchy = hierarchy;
+    }
+
+    @Override
+    protected DistanceMatrixSolution doRun() {
+        DistanceMatrixData data = getInputData();
+        Graph graph = data.getGraph();
+        List<Node> origins = data.getOrigins(), destinations = data.getDestinations();
+        final int nbColumns = destinations.size();
+
+        // Nodes settled by the backward search of each destination, and their
+        // distances to the destination.
+        int[][] settledNodes = new int[nbColumns][];
+        double[][] settledDistances = new double[nbColumns][];
+        IntStream.range(0, nbColumns).parallel().forEach(column -> {
+            SearchSpace space = SearchSpace.get(graph, SearchSpace.BACKWARD);
+            int[] settled = search(space, ContractionHierarchy.BACKWARD,
+                    destinations.get(column).getId());
+            settledNodes[column] = settled;
+            settledDistances[column] = new double[settled.length];
+            for (int i = 0; i < settled.length; ++i) {
+                settledDistances[column][i] = space.getDistance(settled[i]);
+            }
+        });
+
+        // Buckets of each node, in compressed arrays.
+        int[] first = new int[graph.size() + 1];
+        for (int[] nodes: settledNodes) {
+            for (int node: nodes) {
+                ++first[node + 1];
+            }
+        }
+        for (int node = 0; node < graph.size(); ++node) {
+            first[node + 1] += first[node];
+        }
+        int[] bucketColumns = new int[first[graph.size()]];
+        double[] bucketDistances = new double[bucketColumns.length];
+        int[] positions = Arrays.copyOf(first, graph.size());
+        for (int column = 0; column < nbColumns; ++column) {
+            for (int i = 0; i < settledNodes[column].length; ++i) {
+                int position = positions[settledNodes[column][i]]++;
+                bucketColumns[position] = column;
+                bucketDistances[position] = settledDistances[column][i];
+            }
+        }
+
+        double[][] matrix = new double[origins.size()][];
+        IntStream.range(0, origins.size()).parallel().forEach(row -> {
+            double[] costs = new double[nbColumns];
+            Arrays.fill(costs, Double.POSITIVE_INFINITY);
+            SearchSpace space = SearchSpace.get(graph, SearchSpace.FORWARD);
+            for (int node: search(space, ContractionHierarchy.FORWARD, origins.get(row).getId())) {
+                double distance = space.getDistance(node);
+                for (int i = first[node]; i < first[node + 1]; ++i) {
+                    double cost = distance + bucketDistances[i];
+                    if (cost < costs[bucketColumns[i]]) {
+                        costs[bucketColumns[i]] = cost;
+                    }
+                }
+            }
+            matrix[row] = costs;
+            notifyRowComputed(row);
+        });
+
+        return new DistanceMatrixSolution(data, Status.OPTIMAL, matrix,
+                pathData -> new ContractionHierarchiesAlgorithm(pathData, this.hierarchy));
+    }
+
+    /**
+     * Run a complete upward search with stall-on-demand.
+     *
+     * @param space Workspace of the search.
+     * @param direction {@link ContractionHierarchy#FORWARD} or
+     *        {@link ContractionHierarchy#BACKWARD}.
+     * @param source Source of the search.
+     *
+     * @return Settled nodes that are not stalled, in settling order.
+     */
+    private int[] search(SearchSpace space, int direction, int source) {
+        int[] settled = new int[16];
+        int nbSettled = 0;
+        IndexedMinHeap heap = space.getHeap();
+        space.reach(source, 0, -1, -1);
+        heap.insert(source, 0);
+        while (!heap.isEmpty()) {
+            int node = heap.deleteMin();
+            space.settle(node);
+            double distance = space.getDistance(node);
+            if (isStalled(space, direction, node, distance)) {
+                continue;
+            }
+            if (nbSettled == settled.length) {
+                settled = Arrays.copyOf(settled, 2 * nbSettled);
+            }
+            settled[nbSettled++] = node;
+            for (int edge = this.hierarchy.getFirstEdge(direction, node); edge < this.hierarchy
+                    .getFirstEdge(direction, node + 1); ++edge) {
+                int next = this.hierarchy.getEdgeNode(direction, edge);
+                double cost = distance + this.hierarchy.getEdgeCost(direction, edge);
+                if (cost < space.getDistance(next)) {
+                    space.reach(next, cost, node, edge);
+                    heap.insertOrDecreaseKey(next, cost);
+                }
+            }
+        }
+        return Arrays.copyOf(settled, nbSettled);
+    }
+
+    /**
+     * @return true if the given node can be reached with a lower cost through a
+     *         higher node.
+     */
+    private boolean isStalled(SearchSpace space, int direction, int node, double distance) {
+        for (int edge = this.hierarchy.getFirstEdge(1 - direction, node); edge < this.hierarchy
+                .getFirstEdge(1 - direction, node + 1); ++edge) {
+            if (space.getDistance(this.hierarchy.getEdgeNode(1 - direction, edge))
+                    + this.hierarchy.getEdgeCost(1 - direction, edge) < distance) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,43 @@
+package org.insa.graphs.algorithm.matrix;
+
+import org.insa.graphs.algorithm.AbstractAlgorithm;
+
+/**
+ * Base class for algorithms computing the costs of the shortest paths from a
+ * set of origins to a set of destinations.
+ *
+ */
+public abstract class DistanceMatrixAlgorithm extends AbstractAlgorithm<DistanceMatrixObserver> {
+
+    protected DistanceMatrixAlgorithm(DistanceMatrixData data) {
+        super(data);
+    }
+
+    @Override
+    public DistanceMatrixSolution run() {
+        return (DistanceMatrixSolution) super.run();
+    }
+
+    @Override
+    protected abstract DistanceMatrixSolution doRun();
+
+    @Override
+    public DistanceMatrixData getInputData() {
+        return (DistanceMatrixData) super.getInputData();
+    }
+
+    /**
+     * Notify all observers that a row has been computed. Observers are notified
+     * one at a time even if rows are computed in parallel.
+     * 
+     * @param row Index of the origin.
+     */
+    public void notifyRowComputed(int row) {
+        synchronized (getObservers()) {
+            for (DistanceMatrixObserver obs: getObservers()) {
+                obs.notifyRowComputed(row, getInputData().getOrigins().get(row));
+            }
+        }
+    }
+
+}
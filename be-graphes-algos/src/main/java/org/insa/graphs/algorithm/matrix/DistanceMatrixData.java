@@ -0,0 +1,52 @@
+package org.insa.graphs.algorithm.matrix;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.insa.graphs.algorithm.AbstractInputData;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+
+public class DistanceMatrixData extends AbstractInputData {
+
+    // Origin and destination nodes (rows and columns of the matrix).
+    private final List<Node> origins, destinations;
+
+    /**
+     * Construct a new instance of DistanceMatrixData with the given parameters.
+     * 
+     * @param graph Graph in which the paths should be looked for.
+     * @param origins Origins of the paths, i.e. rows of the matrix.
+     * @param destinations Destinations of the paths, i.e. columns of the matrix.
+     * @param arcInspector Filter for arcs (used to allow only a specific set of
+     *        arcs in the graph to be used).
+     */
+    public DistanceMatrixData(Graph graph, List<Node> origins, List<Node> destinations,
+            ArcInspector arcInspector) {
+        super(graph, arcInspector);
+        this.origins = Collections.unmodifiableList(origins);
+        this.destinations = Collections.unmodifiableList(destinations);
+    }
+
+    /**
+     * @return Origins of the paths, i.e. rows of the matrix.
+     */
+    public List<Node> getOrigins() {
+        return origins;
+    }
+
+    /**
+     * @return Destinations of the paths, i.e. columns of the matrix.
+     */
+    public List<Node> getDestinations() {
+        return destinations;
+    }
+
+    @Override
+    public String toString() {
+        return "Distance matrix from " + origins.size() + " origins to " + destinations.size()
+                + " destinations [" + this.arcInspector.toString().toLowerCase() + "]";
+    }
+
+}
@@ -0,0 +1,17 @@
+package org.insa.graphs.algorithm.matrix;
+
+import org.insa.graphs.model.Node;
+
+public interface DistanceMatrixObserver {
+
+    /**
+     * Notify the observer that the costs from an origin to all the destinations
+     * have been computed. Rows may be computed in any order, and by different
+     * threads.
+     * 
+     * @param row Index of the origin.
+     * @param origin Origin.
+     */
+    public void notifyRowComputed(int row, Node origin);
+
+}
@@ -0,0 +1,96 @@
+package org.insa.graphs.algorithm.matrix;
+
+import java.util.function.Function;
+
+import org.insa.graphs.algorithm.AbstractSolution;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathData;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathSolution;
+import org.insa.graphs.model.Path;
+
+public class DistanceMatrixSolution extends AbstractSolution {
+
+    // Cost of the shortest path from each origin (row) to each destination
+    // (column), infinity if there is no path.
+    private final double[][] costs;
+
+    // Algorithm used to compute paths on demand.
+    private final Function<ShortestPathData, ShortestPathAlgorithm> pathAlgorithm;
+
+    /**
+     * Create a new distance matrix solution.
+     * 
+     * @param data Original input data for this solution.
+     * @param status Status of the solution.
+     * @param costs Cost of each path, indexed by origin and destination.
+     * @param pathAlgorithm Algorithm used to compute paths on demand.
+     */
+    protected DistanceMatrixSolution(DistanceMatrixData data, Status status, double[][] costs,
+            Function<ShortestPathData, ShortestPathAlgorithm> pathAlgorithm) {
+        super(data, status);
+        this.costs = costs;
+        this.pathAlgorithm = pathAlgorithm;
+    }
+
+    @Override
+    public DistanceMatrixData getInputData() {
+        return (DistanceMatrixData) super.getInputData();
+    }
+
+    /**
+     * @return The matrix of costs, indexed by origin and destination, infinity
+     *         if there is no path. The matrix is not copied.
+     */
+    public double[][] getCosts() {
+        return costs;
+    }
+
+    /**
+     * @param row Index of the origin.
+     * @param column Index of the destination.
+     * 
+     * @return Cost of the shortest path from the given origin to the given
+     *         destination, infinity if there is no path.
+     */
+    public double getCost(int row, int column) {
+        return costs[row][column];
+    }
+
+    /**
+     * Compute the shortest path from the given origin to the given destination.
+     * Paths are not stored in the matrix, so a shortest-path algorithm is run
+     * for each call.
+     * 
+     * @param row Index of the origin.
+     * @param column Index of the destination.
+     * 
+     * @return The shortest path, or null if there is no path.
+     */
+    public Path getPath(int row, int column) {
+        if (costs[row][column] == Double.POSITIVE_INFINITY) {
+            return null;
+        }
+        DistanceMatrixData data = getInputData();
+        ShortestPathSolution solution = pathAlgorithm
+                .apply(new ShortestPathData(data.getGraph(), data.getOrigins().get(row),
+                        data.getDestinations().get(column), data.getArcInspector()))
+                .run();
+        return solution.isFeasible() ? solution.getPath() : null;
+    }
+
+    @Override
+    public String toString() {
+        int nbUnreachable = 0;
+        for (double[] row: costs) {
+            for (double cost: row) {
+                if (cost == Double.POSITIVE_INFINITY) {
+                    ++nbUnreachable;
+                }
+            }
+        }
+        return "Computed " + costs.length + "x" + getInputData().getDestinations().size()
+                + " matrix (" + nbUnreachable + " unreachable pairs) in "
+                + getSolvingTime().getSeconds() + " seconds.";
+    }
+
+}
@@ -0,0 +1,83 @@
+package org.insa.graphs.algorithm.matrix;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.ArcCosts;
+import org.insa.graphs.algorithm.shortestpath.DijkstraAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.SearchSpace;
+import org.insa.graphs.algorithm.utils.IndexedMinHeap;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+
+/**
+ * Distance matrix computed with one Dijkstra search per origin, the searches
+ * being run in parallel. Each search stops as soon as all the destinations are
+ * settled.
+ *
+ */
+public class OneToAllDistanceMatrixAlgorithm extends DistanceMatrixAlgorithm {
+
+    public OneToAllDistanceMatrixAlgorithm(DistanceMatrixData data) {
+        super(data);
+    }
+
+    @Override
+    protected DistanceMatrixSolution doRun() {
+        DistanceMatrixData data = getInputData();
+        Graph graph = data.getGraph();
+        CompactGraph compact = graph.getCompactGraph();
+        ArcCosts costs = ArcCosts.of(graph, data.getArcInspector());
+        List<Node> origins = data.getOrigins(), destinations = data.getDestinations();
+
+        // Destination nodes (a node may be the destination of several columns).
+        boolean[] targets = new boolean[graph.size()];
+        int nbTargets = 0;
+        for (Node destination: destinations) {
+            if (!targets[destination.getId()]) {
+                targets[destination.getId()] = true;
+                ++nbTargets;
+            }
+        }
+        final int nbDistinctTargets = nbTargets;
+
+        double[][] matrix = new double[origins.size()][];
+        IntStream.range(0, origins.size()).parallel().forEach(row -> {
+            SearchSpace space = SearchSpace.get(graph);
+            IndexedMinHeap heap = space.getHeap();
+            int origin = origins.get(row).getId();
+            space.reach(origin, 0, -1, -1);
+            heap.insert(origin, 0);
+            int remaining = nbDistinctTargets;
+            while (remaining > 0 && !heap.isEmpty()) {
+                int node = heap.deleteMin();
+                space.settle(node);
+                if (targets[node]) {
+                    --remaining;
+                }
+                double distance = space.getDistance(node);
+                for (int arc = compact.getFirstArc(node); arc < compact.getFirstArc(node + 1); ++arc) {
+                    int head = compact.getHead(arc);
+                    double cost = distance + costs.getCost(arc);
+                    if (cost < space.getDistance(head)) {
+                        space.reach(head, cost, node, arc);
+                        heap.insertOrDecreaseKey(head, cost);
+                    }
+                }
+            }
+            // Destinations that are not settled cannot be reached.
+            matrix[row] = new double[destinations.size()];
+            for (int column = 0; column < destinations.size(); ++column) {
+                int destination = destinations.get(column).getId();
+                matrix[row][column] = space.isSettled(destination) ? space.getDistance(destination)
+                        : Double.POSITIVE_INFINITY;
+            }
+            notifyRowComputed(row);
+        });
+
+        return new DistanceMatrixSolution(data, Status.OPTIMAL, matrix, DijkstraAlgorithm::new);
+    }
+
+}
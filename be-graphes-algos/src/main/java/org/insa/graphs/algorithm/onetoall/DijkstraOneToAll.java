@@ -0,0 +1,114 @@
+package org.insa.graphs.algorithm.onetoall;
+
+import java.util.Arrays;
+
+import org.insa.graphs.algorithm.ArcCosts;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.utils.IndexedMinHeap;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+
+/**
+ * One-to-all engine running a complete Dijkstra search on the compact graph.
+ * It needs no preprocessing, see {@link Phast} for a faster engine when many
+ * sources are computed on the same graph.
+ *
+ */
+public final class DijkstraOneToAll implements OneToAllEngine {
+
+    // Graph and costs of its arcs.
+    private final Graph graph;
+    private final ArcCosts costs;
+
+    /**
+     * Create a new engine for the given graph and inspector.
+     *
+     * @param graph Graph of the engine.
+     * @param inspector Inspector used to compute the costs of the arcs.
+     */
+    public DijkstraOneToAll(Graph graph, ArcInspector inspector) {
+        this.graph = graph;
+        this.costs = ArcCosts.of(graph, inspector);
+    }
+
+    @Override
+    public Graph getGraph() {
+        return this.graph;
+    }
+
+    @Override
+    public ShortestPathTree compute(int source) {
+        final int nbNodes = this.graph.size();
+        int[] parents = new int[nbNodes], parentArcs = new int[nbNodes];
+        double[] distances = run(this.graph.getCompactGraph(), this.costs, source, false, parents,
+                parentArcs, null);
+        return new ShortestPathTree(this.graph, source, distances, parents, parentArcs);
+    }
+
+    /**
+     * Compute the distances from (or to) the given source to (or from) all the
+     * nodes of the graph.
+     *
+     * @param graph Compact graph.
+     * @param costs Costs of the arcs.
+     * @param source Source of the search.
+     * @param backward true to follow incoming arcs, i.e. to compute the distances
+     *        from all the nodes to the source.
+     * @param parents If not null, filled with the parent of each node in the
+     *        shortest-path tree (-1 for the source and unreached nodes).
+     * @param parentArcs If not null, filled with the index of the arc between
+     *        each node and its parent (-1 for the source and unreached nodes).
+     * @param order If not null, filled with the nodes in the order in which they
+     *        are settled, followed by -1 if not all the nodes are settled.
+     *
+     * @return Distance of each node, infinity for unreached nodes.
+     */
+    public static double[] run(CompactGraph graph, ArcCosts costs, int source, boolean backward,
+            int[] parents, int[] parentArcs, int[] order) {
+        final int nbNodes = graph.size();
+        double[] distances = new double[nbNodes];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        if (parents != null) {
+            Arrays.fill(parents, -1);
+        }
+        if (parentArcs != null) {
+            Arrays.fill(parentArcs, -1);
+        }
+
+        IndexedMinHeap heap = new IndexedMinHeap(nbNodes);
+        distances[source] = 0;
+        heap.insert(source, 0);
+        int settled = 0;
+        while (!heap.isEmpty()) {
+            int node = heap.deleteMin();
+            if (order != null) {
+                order[settled] = node;
+            }
+            ++settled;
+            double distance = distances[node];
+            int first = backward ? graph.getFirstIncomingArc(node) : graph.getFirstArc(node);
+            int last = backward ? graph.getFirstIncomingArc(node + 1)
+                    : graph.getFirstArc(node + 1);
+            for (int i = first; i < last; ++i) {
+                int arc = backward ? graph.getIncomingArc(i) : i;
+                int next = backward ? graph.getIncomingTail(i) : graph.getHead(arc);
+                double cost = distance + costs.getCost(arc);
+                if (cost < distances[next]) {
+                    distances[next] = cost;
+                    if (parents != null) {
+                        parents[next] = node;
+                    }
+                    if (parentArcs != null) {
+                        parentArcs[next] = arc;
+                    }
+                    heap.insertOrDecreaseKey(next, cost);
+                }
+            }
+        }
+        if (order != null && settled < nbNodes) {
+            order[settled] = -1;
+        }
+        return distances;
+    }
+
+}
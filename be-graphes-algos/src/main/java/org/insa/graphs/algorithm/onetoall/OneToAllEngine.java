@@ -0,0 +1,44 @@
+package org.insa.graphs.algorithm.onetoall;
+
+import java.util.stream.IntStream;
+
+import org.insa.graphs.model.Graph;
+
+/**
+ * Engine computing the shortest paths from a source to all the nodes of a
+ * graph, for a given arc inspector.
+ *
+ */
+public interface OneToAllEngine {
+
+    /**
+     * @return Graph of the engine.
+     */
+    public Graph getGraph();
+
+    /**
+     * Compute the shortest paths from the given source to all the nodes.
+     *
+     * @param source Source node.
+     *
+     * @return Shortest-path tree of the source.
+     */
+    public ShortestPathTree compute(int source);
+
+    /**
+     * Compute the shortest paths from each of the given sources to all the
+     * nodes. The default implementation runs {@link #compute(int)} for each
+     * source in parallel.
+     *
+     * @param sources Source nodes.
+     *
+     * @return Shortest-path tree of each source, in the same order.
+     */
+    public default ShortestPathTree[] compute(int[] sources) {
+        ShortestPathTree[] trees = new ShortestPathTree[sources.length];
+        IntStream.range(0, sources.length).parallel()
+                .forEach(i -> trees[i] = compute(sources[i]));
+        return trees;
+    }
+
+}
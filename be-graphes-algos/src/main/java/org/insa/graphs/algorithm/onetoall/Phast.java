@@ -0,0 +1,286 @@
+package org.insa.graphs.algorithm.onetoall;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.shortestpath.SearchSpace;
+import org.insa.graphs.algorithm.shortestpath.ch.ContractionHierarchy;
+import org.insa.graphs.algorithm.utils.GraphCache;
+import org.insa.graphs.algorithm.utils.IndexedMinHeap;
+import org.insa.graphs.model.Graph;
+
+/**
+ * <p>
+ * One-to-all engine on a contraction hierarchy (PHAST): an upward search from
+ * the source is followed by a linear sweep over the nodes by decreasing rank,
+ * where each node takes the minimum over its incoming downward edges. Since
+ * the tail of a downward edge has a higher rank, its cost is final when the
+ * edge is scanned.
+ * </p>
+ *
+ * <p>
+ * The downward edges are stored by position in the sweep order, so the sweep
+ * reads and writes costs in a mostly sequential way. Several sources are swept
+ * together, with the costs of all the sources of a node stored contiguously, so
+ * the innermost loop over the sources is a branch-free minimum that the JIT
+ * can vectorize. Parents are recovered after the sweep, by looking for the
+ * edge that gives the final cost of each node.
+ * </p>
+ *
+ */
+public final class Phast implements OneToAllEngine {
+
+    /**
+     * Maximum number of sources swept together by {@link #compute(int[])}.
+     */
+    public static final int BLOCK_SIZE = 16;
+
+    // Engines already created, by graph and inspector.
+    private static final GraphCache<Phast> CACHE = new GraphCache<>();
+
+    // Graph and hierarchy of the engine.
+    private final Graph graph;
+    private final ContractionHierarchy hierarchy;
+
+    // Nodes by decreasing rank (sweep order), and position of each node in this
+    // order.
+    private final int[] order, positions;
+
+    // Downward edges to each position, in compressed arrays: position of the tail,
+    // cost, and last arc of the edge once unpacked with the tail of this arc.
+    private final int[] firstDown, downTails, downArcs, downArcTails;
+    private final double[] downCosts;
+
+    // Last arc of each forward edge of the hierarchy once unpacked, and tail of
+    // this arc.
+    private final int[] forwardArcs, forwardArcTails;
+
+    /**
+     * Create a new engine for the given graph and hierarchy. The hierarchy may be
+     * a contraction hierarchy or a customized one.
+     *
+     * @param graph Graph of the engine.
+     * @param hierarchy Hierarchy of the graph.
+     *
+     * @throws IllegalArgumentException if the hierarchy does not match the graph.
+     */
+    public Phast(Graph graph, ContractionHierarchy hierarchy) {
+        if (hierarchy.size() != graph.size()
+                || !hierarchy.getMapId().equals(String.valueOf(graph.getMapId()))) {
+            throw new IllegalArgumentException("Hierarchy does not match the graph.");
+        }
+        this.graph = graph;
+        this.hierarchy = hierarchy;
+        final int nbNodes = graph.size();
+        final int forward = ContractionHierarchy.FORWARD, backward = ContractionHierarchy.BACKWARD;
+
+        this.order = new int[nbNodes];
+        this.positions = new int[nbNodes];
+        for (int node = 0; node < nbNodes; ++node) {
+            this.positions[node] = nbNodes - 1 - hierarchy.getRank(node);
+            this.order[this.positions[node]] = node;
+        }
+
+        // A shortcut ends with the forward edge of its (lower) middle node, so nodes
+        // are processed by increasing rank. Edges with an infinite cost (which only
+        // exist in customized hierarchies) are never used.
+        this.forwardArcs = new int[hierarchy.getEdgeCount(forward)];
+        this.forwardArcTails = new int[this.forwardArcs.length];
+        for (int position = nbNodes - 1; position >= 0; --position) {
+            int node = this.order[position];
+            for (int edge = hierarchy.getFirstEdge(forward, node); edge < hierarchy
+                    .getFirstEdge(forward, node + 1); ++edge) {
+                int via = hierarchy.getVia(forward, edge);
+                if (hierarchy.getEdgeCost(forward, edge) == Double.POSITIVE_INFINITY) {
+                    this.forwardArcs[edge] = -1;
+                    this.forwardArcTails[edge] = -1;
+                }
+                else if (via < 0) {
+                    this.forwardArcs[edge] = ~via;
+                    this.forwardArcTails[edge] = node;
+                }
+                else {
+                    int last = hierarchy.findEdge(forward, via,
+                            hierarchy.getEdgeNode(forward, edge));
+                    this.forwardArcs[edge] = this.forwardArcs[last];
+                    this.forwardArcTails[edge] = this.forwardArcTails[last];
+                }
+            }
+        }
+
+        // Downward edges to a node are its backward edges.
+        final int nbEdges = hierarchy.getEdgeCount(backward);
+        this.firstDown = new int[nbNodes + 1];
+        this.downTails = new int[nbEdges];
+        this.downArcs = new int[nbEdges];
+        this.downArcTails = new int[nbEdges];
+        this.downCosts = new double[nbEdges];
+        int index = 0;
+        for (int position = 0; position < nbNodes; ++position) {
+            int node = this.order[position];
+            for (int edge = hierarchy.getFirstEdge(backward, node); edge < hierarchy
+                    .getFirstEdge(backward, node + 1); ++edge, ++index) {
+                int tail = hierarchy.getEdgeNode(backward, edge);
+                int via = hierarchy.getVia(backward, edge);
+                this.downTails[index] = this.positions[tail];
+                this.downCosts[index] = hierarchy.getEdgeCost(backward, edge);
+                if (this.downCosts[index] == Double.POSITIVE_INFINITY) {
+                    this.downArcs[index] = -1;
+                    this.downArcTails[index] = -1;
+                }
+                else if (via < 0) {
+                    this.downArcs[index] = ~via;
+                    this.downArcTails[index] = tail;
+                }
+                else {
+                    int last = hierarchy.findEdge(forward, via, node);
+                    this.downArcs[index] = this.forwardArcs[last];
+                    this.downArcTails[index] = this.forwardArcTails[last];
+                }
+            }
+            this.firstDown[position + 1] = index;
+        }
+    }
+
+    /**
+     * Retrieve the engine of the given graph and inspector, built on the
+     * hierarchy returned by {@link ContractionHierarchy#get(Graph, ArcInspector)}.
+     * Engines are cached per graph and per inspector (see {@link GraphCache}).
+     *
+     * @param graph Graph of the engine.
+     * @param inspector Inspector used to compute the costs of the arcs.
+     *
+     * @return Engine for the given graph and inspector.
+     */
+    public static Phast get(Graph graph, ArcInspector inspector) {
+        return CACHE.get(graph, inspector,
+                () -> new Phast(graph, ContractionHierarchy.get(graph, inspector)));
+    }
+
+    @Override
+    public Graph getGraph() {
+        return this.graph;
+    }
+
+    /**
+     * @return Hierarchy of this engine.
+     */
+    public ContractionHierarchy getHierarchy() {
+        return this.hierarchy;
+    }
+
+    @Override
+    public ShortestPathTree compute(int source) {
+        return sweep(new int[] { source })[0];
+    }
+
+    /**
+     * Compute the shortest paths from each of the given sources. Sources are
+     * swept by blocks of {@link #BLOCK_SIZE}, blocks being swept in parallel.
+     *
+     * @param sources Source nodes.
+     *
+     * @return Shortest-path tree of each source, in the same order.
+     */
+    @Override
+    public ShortestPathTree[] compute(int[] sources) {
+        ShortestPathTree[] trees = new ShortestPathTree[sources.length];
+        IntStream.range(0, (sources.length + BLOCK_SIZE - 1) / BLOCK_SIZE).parallel()
+                .forEach(block -> {
+                    int begin = block * BLOCK_SIZE,
+                            end = Math.min(sources.length, begin + BLOCK_SIZE);
+                    System.arraycopy(sweep(Arrays.copyOfRange(sources, begin, end)), 0, trees,
+                            begin, end - begin);
+                });
+        return trees;
+    }
+
+    /**
+     * Compute the shortest-path trees of the given sources with a single sweep.
+     */
+    private ShortestPathTree[] sweep(int[] sources) {
+        final int nbNodes = this.graph.size(), nbSources = sources.length;
+
+        // Costs by position and source.
+        double[] costs = new double[nbNodes * nbSources];
+        Arrays.fill(costs, Double.POSITIVE_INFINITY);
+        int[][] parents = new int[nbSources][nbNodes], parentArcs = new int[nbSources][nbNodes];
+
+        for (int s = 0; s < nbSources; ++s) {
+            Arrays.fill(parents[s], -1);
+            Arrays.fill(parentArcs[s], -1);
+            upwardSearch(sources[s], costs, nbSources, s, parents[s], parentArcs[s]);
+        }
+
+        for (int position = 0; position < nbNodes; ++position) {
+            final int row = position * nbSources;
+            for (int i = this.firstDown[position]; i < this.firstDown[position + 1]; ++i) {
+                final int tail = this.downTails[i] * nbSources;
+                final double cost = this.downCosts[i];
+                for (int s = 0; s < nbSources; ++s) {
+                    costs[row + s] = Math.min(costs[row + s], costs[tail + s] + cost);
+                }
+            }
+        }
+
+        ShortestPathTree[] trees = new ShortestPathTree[nbSources];
+        for (int s = 0; s < nbSources; ++s) {
+            double[] nodeCosts = new double[nbNodes];
+            for (int position = 0; position < nbNodes; ++position) {
+                int node = this.order[position];
+                double cost = costs[position * nbSources + s];
+                nodeCosts[node] = cost;
+                if (node == sources[s] || cost == Double.POSITIVE_INFINITY) {
+                    continue;
+                }
+                // Without a downward edge giving the final cost, the cost (and the
+                // parent) comes from the upward search.
+                for (int i = this.firstDown[position]; i < this.firstDown[position + 1]; ++i) {
+                    if (costs[this.downTails[i] * nbSources + s] + this.downCosts[i] == cost) {
+                        parents[s][node] = this.downArcTails[i];
+                        parentArcs[s][node] = this.downArcs[i];
+                        break;
+                    }
+                }
+            }
+            trees[s] = new ShortestPathTree(this.graph, sources[s], nodeCosts, parents[s],
+                    parentArcs[s]);
+        }
+        return trees;
+    }
+
+    /**
+     * Run a complete upward search from the given source, and store the costs of
+     * the settled nodes in the given column of the sweep costs.
+     */
+    private void upwardSearch(int source, double[] costs, int nbSources, int column,
+            int[] parents, int[] parentArcs) {
+        final int forward = ContractionHierarchy.FORWARD;
+        SearchSpace space = SearchSpace.get(this.graph, SearchSpace.FORWARD);
+        IndexedMinHeap heap = space.getHeap();
+        space.reach(source, 0, -1, -1);
+        heap.insert(source, 0);
+        while (!heap.isEmpty()) {
+            int node = heap.deleteMin();
+            space.settle(node);
+            double distance = space.getDistance(node);
+            costs[this.positions[node] * nbSources + column] = distance;
+            int edge = space.getParentArc(node);
+            if (edge != -1) {
+                parents[node] = this.forwardArcTails[edge];
+                parentArcs[node] = this.forwardArcs[edge];
+            }
+            for (edge = this.hierarchy.getFirstEdge(forward, node); edge < this.hierarchy
+                    .getFirstEdge(forward, node + 1); ++edge) {
+                int next = this.hierarchy.getEdgeNode(forward, edge);
+                double cost = distance + this.hierarchy.getEdgeCost(forward, edge);
+                if (cost < space.getDistance(next)) {
+                    space.reach(next, cost, node, edge);
+                    heap.insertOrDecreaseKey(next, cost);
+                }
+            }
+        }
+    }
+
+}
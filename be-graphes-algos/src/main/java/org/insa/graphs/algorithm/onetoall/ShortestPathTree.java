@@ -0,0 +1,121 @@
+package org.insa.graphs.algorithm.onetoall;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Path;
+
+/**
+ * Costs of the shortest paths from a source to all the nodes of a graph, with
+ * the tree of these paths. Arrays are indexed by node and are not copied.
+ *
+ */
+public final class ShortestPathTree {
+
+    // Graph of the tree.
+    private final Graph graph;
+
+    // Source of the tree.
+    private final int source;
+
+    // Cost of each node (infinity if unreached).
+    private final double[] costs;
+
+    // Parent of each node and index of the arc from the parent in the compact
+    // graph (-1 for the source and unreached nodes).
+    private final int[] parents, parentArcs;
+
+    ShortestPathTree(Graph graph, int source, double[] costs, int[] parents, int[] parentArcs) {
+        this.graph = graph;
+        this.source = source;
+        this.costs = costs;
+        this.parents = parents;
+        this.parentArcs = parentArcs;
+    }
+
+    /**
+     * @return Graph of the tree.
+     */
+    public Graph getGraph() {
+        return graph;
+    }
+
+    /**
+     * @return Source of the tree.
+     */
+    public int getSource() {
+        return source;
+    }
+
+    /**
+     * @return Cost of each node, infinity if the node cannot be reached.
+     */
+    public double[] getCosts() {
+        return costs;
+    }
+
+    /**
+     * @param node A node.
+     *
+     * @return Cost of the shortest path from the source to the given node,
+     *         infinity if there is no path.
+     */
+    public double getCost(int node) {
+        return costs[node];
+    }
+
+    /**
+     * @return Parent of each node, -1 for the source and the nodes that cannot be
+     *         reached.
+     */
+    public int[] getParents() {
+        return parents;
+    }
+
+    /**
+     * @param node A node.
+     *
+     * @return Parent of the given node, -1 for the source and the nodes that
+     *         cannot be reached.
+     */
+    public int getParent(int node) {
+        return parents[node];
+    }
+
+    /**
+     * @param node A node.
+     *
+     * @return Index in the compact graph of the arc from the parent of the given
+     *         node, -1 for the source and the nodes that cannot be reached.
+     *
+     * @see Graph#getArc(int, int)
+     */
+    public int getParentArc(int node) {
+        return parentArcs[node];
+    }
+
+    /**
+     * @param destination A node.
+     *
+     * @return The shortest path from the source to the given node, or null if
+     *         there is no path.
+     */
+    public Path getPath(int destination) {
+        if (destination == source) {
+            return new Path(graph, graph.get(source));
+        }
+        if (parents[destination] == -1) {
+            return null;
+        }
+        List<Arc> arcs = new ArrayList<>();
+        for (int node = destination; node != source; node = parents[node]) {
+            arcs.add(graph.getArc(parents[node], parentArcs[node]));
+        }
+        Collections.reverse(arcs);
+        return new Path(graph, arcs);
+    }
+
+}
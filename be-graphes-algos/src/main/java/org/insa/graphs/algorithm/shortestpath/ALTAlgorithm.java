@@ -0,0 +1,75 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import org.insa.graphs.algorithm.shortestpath.alt.Landmarks;
+
+/**
+ * A* with landmarks and the triangle inequality (ALT): the estimated cost to
+ * the destination is the best lower bound given by the landmarks that are the
+ * most useful for the query (active landmarks). Unlike the straight-line
+ * distance, these bounds remain tight in time mode.
+ *
+ * Estimates are computed when a node is first reached and cached in the search
+ * workspace.
+ *
+ */
+public class ALTAlgorithm extends DijkstraAlgorithm {
+
+    // Default number of active landmarks.
+    public static final int DEFAULT_ACTIVE_LANDMARKS = 4;
+
+    // Landmarks of the graph for the inspector of the data.
+    private final Landmarks landmarks;
+
+    // Number of active landmarks.
+    private final int nbActive;
+
+    // Active landmarks of the current query.
+    private int[] active;
+
+    /**
+     * Create a new ALT algorithm using the landmarks returned by
+     * {@link Landmarks#get(org.insa.graphs.model.Graph, org.insa.graphs.algorithm.ArcInspector)},
+     * which are computed on first use.
+     *
+     * @param data Input data for the algorithm.
+     */
+    public ALTAlgorithm(ShortestPathData data) {
+        this(data, Landmarks.get(data.getGraph(), data.getArcInspector()), DEFAULT_ACTIVE_LANDMARKS);
+    }
+
+    /**
+     * Create a new ALT algorithm with the given landmarks.
+     *
+     * @param data Input data for the algorithm.
+     * @param landmarks Landmarks computed for the graph and the inspector of the
+     *        data.
+     * @param nbActive Number of active landmarks for the query.
+     *
+     * @throws IllegalArgumentException if the landmarks were not computed for the
+     *         inspector of the data.
+     */
+    public ALTAlgorithm(ShortestPathData data, Landmarks landmarks, int nbActive) {
+        super(data);
+        if (!landmarks.getInspector().equals(data.getArcInspector().toString())) {
+            throw new IllegalArgumentException("Landmarks do not match the arc inspector.");
+        }
+        this.landmarks = landmarks;
+        this.nbActive = nbActive;
+    }
+
+    @Override
+    protected void initialize(SearchSpace space) {
+        this.active = this.landmarks.selectActive(this.origin.getId(), this.destination.getId(),
+                this.nbActive);
+    }
+
+    @Override
+    protected double estimate(int node) {
+        if (!this.space.hasHeuristic(node)) {
+            this.space.setHeuristic(node,
+                    this.landmarks.getLowerBound(node, this.destination.getId(), this.active));
+        }
+        return this.space.getHeuristic(node);
+    }
+
+}
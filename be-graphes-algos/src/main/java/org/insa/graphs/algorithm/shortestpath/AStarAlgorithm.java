@@ -3,55 +3,142 @@ package org.insa.graphs.algorithm.shortestpath;
 import org.insa.graphs.algorithm.AbstractInputData;
 import org.insa.graphs.model.*;
 
+/**
+ * A* algorithm, the estimated cost to the destination being a lower bound of
+ * the straight-line distance to the destination, converted in time with the
+ * maximum speed in time mode.
+ *
+ * Estimates are computed when a node is first reached and cached in the search
+ * workspace, so a query only computes the estimates of the nodes it reaches.
+ *
+ */
 public class AStarAlgorithm extends DijkstraAlgorithm {
 
+    /**
+     * Lower bound used to estimate the distance between a node and the
+     * destination.
+     */
+    public enum Heuristic {
+
+        /**
+         * Great-circle distance (see {@link Point#distance(Point, Point)}), which
+         * needs several trigonometric functions per node.
+         */
+        GREAT_CIRCLE,
+
+        /**
+         * Equirectangular approximation of the great-circle distance, which needs a
+         * single cosine per node. The difference of longitudes is scaled by the
+         * cosine of the latitude closest to a pole, and the distance is lowered by
+         * {@link AStarAlgorithm#EQUIRECTANGULAR_CORRECTION}, so that it remains a
+         * lower bound for points less than 20 degrees of longitude apart.
+         */
+        EQUIRECTANGULAR
+
+    }
+
+    /**
+     * Factor applied to the equirectangular approximation, to cover the error of
+     * the approximation (the great circle between two points goes closer to the
+     * pole than the points).
+     */
+    public static final double EQUIRECTANGULAR_CORRECTION = 0.99;
+
+    // Heuristic of this algorithm.
+    private final Heuristic heuristic;
+
+    // Compact graph of the search.
+    private CompactGraph compactGraph;
+
+    // Cost of a meter in the mode of the data, 0 if there is no maximum speed in
+    // time mode.
+    private double costPerMeter;
+
+    // Position of the destination, and cosine of its latitude.
+    private float destinationLongitude, destinationLatitude;
+    private double destinationCosine;
+
+    /**
+     * Create a new A* algorithm using the great-circle distance.
+     *
+     * @param data Input data for the algorithm.
+     */
     public AStarAlgorithm(ShortestPathData data) {
+        this(data, Heuristic.GREAT_CIRCLE);
+    }
+
+    /**
+     * Create a new A* algorithm using the given heuristic.
+     *
+     * @param data Input data for the algorithm.
+     * @param heuristic Lower bound of the distance to the destination.
+     */
+    public AStarAlgorithm(ShortestPathData data, Heuristic heuristic) {
         super(data);
-        this.labels = new LabelStar[data.getGraph().size()];
-        this.label_origin = new LabelStar(origin, 0, null);
-
-        if (this.origin.getId() != this.destination.getId())
-            this.label_destination = new LabelStar(destination);
-        else
-            this.label_destination = this.label_origin;
-
-        for (Node current : this.nodes) {
-            if (current.getId() == this.origin.getId()) {
-                this.labels[current.getId()] = this.label_origin;
-            } else if (current.getId() == this.destination.getId()) {
-                this.labels[current.getId()] = this.label_destination;
-            } else {
-                this.labels[current.getId()] = new LabelStar(current);
+        this.heuristic = heuristic;
+    }
+
+    /**
+     * @return Heuristic of this algorithm.
+     */
+    public Heuristic getHeuristic() {
+        return this.heuristic;
+    }
+
+    @Override
+    protected void initialize(SearchSpace space) {
+        GraphStatistics statistics = this.data.getGraph().getGraphInformation();
+
+        // Search for maximum speed (kmph) if we are in time mode
+        this.costPerMeter = 1;
+        if (this.data.getMode() == AbstractInputData.Mode.TIME) {
+            int maxSpeed = 0;
+            // Maximum speed allowed
+            if (this.data.getMaximumSpeed() != GraphStatistics.NO_MAXIMUM_SPEED) {
+                maxSpeed = this.data.getMaximumSpeed();
             }
+            // Or maximum graph speed
+            else if (statistics != null && statistics.hasMaximumSpeed()) {
+                maxSpeed = statistics.getMaximumSpeed();
+            }
+            this.costPerMeter = maxSpeed != 0 ? 3600.0 / (maxSpeed * 1000.0) : 0;
         }
+
+        this.compactGraph = this.data.getGraph().getCompactGraph();
+        this.destinationLongitude = this.compactGraph.getLongitude(this.destination.getId());
+        this.destinationLatitude = this.compactGraph.getLatitude(this.destination.getId());
+        this.destinationCosine = Math.cos(Math.toRadians(this.destinationLatitude));
     }
 
     @Override
-    protected ShortestPathSolution doRun() {
-        // Search for maximum speed (kmph) if we are in time mode
-        int maxSpeed = 0;
-        // Maximum speed allowed
-        if (this.data.getMode() == AbstractInputData.Mode.TIME &&
-            this.data.getMaximumSpeed() != GraphStatistics.NO_MAXIMUM_SPEED) {
-            maxSpeed = this.data.getMaximumSpeed();
+    protected double estimate(int node) {
+        if (!this.space.hasHeuristic(node)) {
+            double distance = this.costPerMeter == 0 ? 0 : distanceToDestination(node);
+            // Nodes without position (NaN) are not estimated.
+            this.space.setHeuristic(node, distance > 0 ? distance * this.costPerMeter : 0);
         }
-        // Or maximum graph speed
-        else if (this.data.getMode() == AbstractInputData.Mode.TIME &&
-                this.data.getGraph().getGraphInformation().hasMaximumSpeed()) {
-            maxSpeed = this.data.getGraph().getGraphInformation().getMaximumSpeed();
+        return this.space.getHeuristic(node);
+    }
+
+    /**
+     * @return Lower bound of the distance (in meters) between the given node and
+     *         the destination.
+     */
+    private double distanceToDestination(int node) {
+        float longitude = this.compactGraph.getLongitude(node);
+        float latitude = this.compactGraph.getLatitude(node);
+        if (this.heuristic == Heuristic.GREAT_CIRCLE) {
+            return Point.distance(longitude, latitude, this.destinationLongitude,
+                    this.destinationLatitude);
         }
-        // Compute the estimated distance cost to destination before Dijkstra (est <= cost)
-        Point dest = this.label_destination.getNode().getPoint();
-        for (Label label : this.labels) {
-            Point point = label.getNode().getPoint();
-            double est = point.distanceTo(dest);
-            if (this.data.getMode() == AbstractInputData.Mode.TIME)
-                if (maxSpeed != 0)
-                    est = est * 3600.0 / (maxSpeed * 1000.0);
-                else
-                    est = 0;
-            label.setDestinationCost(est);
+        double longitudes = Math.abs(longitude - this.destinationLongitude);
+        if (longitudes > 180) {
+            longitudes = 360 - longitudes;
         }
-        return super.doRun();
+        double x = Math.toRadians(longitudes)
+                * Math.min(Math.cos(Math.toRadians(latitude)), this.destinationCosine);
+        double y = Math.toRadians(latitude - this.destinationLatitude);
+        return EQUIRECTANGULAR_CORRECTION * Point.EARTH_RADIUS * Math.sqrt(x * x + y * y);
     }
+
 }
@@ -6,8 +6,8 @@ import java.util.Collections;
 
 import org.insa.graphs.algorithm.AbstractSolution.Status;
 import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CompactGraph;
 import org.insa.graphs.model.Graph;
-import org.insa.graphs.model.Node;
 import org.insa.graphs.model.Path;
 
 public class BellmanFordAlgorithm extends ShortestPathAlgorithm {
@@ -16,12 +16,23 @@ public class BellmanFordAlgorithm extends ShortestPathAlgorithm {
         super(data);
     }
 
+    /**
+     * Always run the algorithm, without rejecting unreachable destinations using
+     * the connected components: Bellman-Ford is the oracle of the other
+     * algorithms, so it must not share their pre-check.
+     */
+    @Override
+    protected ShortestPathSolution doCheck() {
+        return null;
+    }
+
     @Override
     protected ShortestPathSolution doRun() {
 
-        // Retrieve the graph.
+        // Retrieve the graph and its compact representation.
         ShortestPathData data = getInputData();
         Graph graph = data.getGraph();
+        CompactGraph compactGraph = graph.getCompactGraph();
 
         final int nbNodes = graph.size();
 
@@ -33,36 +44,43 @@ public class BellmanFordAlgorithm extends ShortestPathAlgorithm {
         // Notify observers about the first event (origin processed).
         notifyOriginProcessed(data.getOrigin());
 
-        // Initialize array of predecessors.
-        Arc[] predecessorArcs = new Arc[nbNodes];
+        // Initialize array of predecessors (index of the arc in the compact graph,
+        // and ID of its origin).
+        int[] predecessorArcs = new int[nbNodes];
+        int[] predecessorNodes = new int[nbNodes];
+        Arrays.fill(predecessorArcs, -1);
 
         // Actual algorithm, we will assume the graph does not contain negative
         // cycle...
         boolean found = false;
         for (int i = 0; !found && i < nbNodes; ++i) {
             found = true;
-            for (Node node: graph.getNodes()) {
-                for (Arc arc: node.getSuccessors()) {
+            for (int node = 0; node < nbNodes; ++node) {
+                for (int arc = compactGraph.getFirstArc(node); arc < compactGraph
+                        .getFirstArc(node + 1); ++arc) {
 
                     // Small test to check allowed roads...
-                    if (!data.isAllowed(arc)) {
+                    if (!data.isAllowed(node, arc)) {
                         continue;
                     }
 
-                    // Retrieve weight of the arc.
-                    double w = data.getCost(arc);
-                    double oldDistance = distances[arc.getDestination().getId()];
-                    double newDistance = distances[node.getId()] + w;
+                    // Retrieve weight of the arc, with the exact (double) cost of the
+                    // inspector since this algorithm serves as an oracle.
+                    int destination = compactGraph.getHead(arc);
+                    double w = data.getCost(node, arc);
+                    double oldDistance = distances[destination];
+                    double newDistance = distances[node] + w;
 
                     if (Double.isInfinite(oldDistance) && Double.isFinite(newDistance)) {
-                        notifyNodeReached(arc.getDestination());
+                        notifyNodeReached(graph.get(destination));
                     }
 
                     // Check if new distances would be better, if so update...
                     if (newDistance < oldDistance) {
                         found = false;
-                        distances[arc.getDestination().getId()] = distances[node.getId()] + w;
-                        predecessorArcs[arc.getDestination().getId()] = arc;
+                        distances[destination] = distances[node] + w;
+                        predecessorArcs[destination] = arc;
+                        predecessorNodes[destination] = node;
                     }
                 }
             }
@@ -71,7 +89,7 @@ public class BellmanFordAlgorithm extends ShortestPathAlgorithm {
         ShortestPathSolution solution = null;
 
         // Destination has no predecessor, the solution is infeasible...
-        if (predecessorArcs[data.getDestination().getId()] == null) {
+        if (predecessorArcs[data.getDestination().getId()] == -1) {
             solution = new ShortestPathSolution(data, Status.INFEASIBLE);
         }
         else {
@@ -81,10 +99,10 @@ public class BellmanFordAlgorithm extends ShortestPathAlgorithm {
 
             // Create the path from the array of predecessors...
             ArrayList<Arc> arcs = new ArrayList<>();
-            Arc arc = predecessorArcs[data.getDestination().getId()];
-            while (arc != null) {
-                arcs.add(arc);
-                arc = predecessorArcs[arc.getOrigin().getId()];
+            int node = data.getDestination().getId();
+            while (predecessorArcs[node] != -1) {
+                arcs.add(graph.getArc(predecessorNodes[node], predecessorArcs[node]));
+                node = predecessorNodes[node];
             }
 
             // Reverse the path...
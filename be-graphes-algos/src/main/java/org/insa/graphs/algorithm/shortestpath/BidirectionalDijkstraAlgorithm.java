@@ -0,0 +1,166 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.insa.graphs.algorithm.AbstractSolution;
+import org.insa.graphs.algorithm.CompiledArcInspector;
+import org.insa.graphs.algorithm.utils.IndexedMinHeap;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Path;
+
+/**
+ * Bidirectional Dijkstra: a forward search from the origin and a backward
+ * search (on incoming arcs) from the destination are run alternatively, the
+ * search with the smallest minimum key being expanded first. The search stops
+ * as soon as the sum of the minimum keys of both heaps is greater or equal to
+ * the best path found so far.
+ *
+ */
+public class BidirectionalDijkstraAlgorithm extends ShortestPathAlgorithm {
+
+    // Workspaces of the forward and backward searches.
+    private SearchSpace forward, backward;
+
+    // Cost of the best path found so far, and node where both searches meet on
+    // this path.
+    private double bestCost;
+    private int meetingNode;
+
+    public BidirectionalDijkstraAlgorithm(ShortestPathData data) {
+        super(data);
+    }
+
+    @Override
+    protected ShortestPathSolution doRun() {
+        ShortestPathData data = getInputData();
+        Graph graph = data.getGraph();
+        CompactGraph compactGraph = graph.getCompactGraph();
+        CompiledArcInspector inspector = CompiledArcInspector.of(graph, data.getArcInspector());
+
+        this.forward = SearchSpace.get(graph, SearchSpace.FORWARD);
+        this.backward = SearchSpace.get(graph, SearchSpace.BACKWARD);
+        IndexedMinHeap forwardHeap = this.forward.getHeap(),
+                backwardHeap = this.backward.getHeap();
+
+        final int origin = data.getOrigin().getId(), destination = data.getDestination().getId();
+        this.bestCost = Double.POSITIVE_INFINITY;
+        this.meetingNode = -1;
+
+        this.forward.reach(origin, 0, -1, -1);
+        forwardHeap.insert(origin, 0);
+        this.backward.reach(destination, 0, -1, -1);
+        backwardHeap.insert(destination, 0);
+        notifyOriginProcessed(data.getOrigin());
+        if (origin == destination) {
+            updateBestCost(origin, 0);
+        }
+
+        while (true) {
+            double forwardMin = forwardHeap.isEmpty() ? Double.POSITIVE_INFINITY
+                    : forwardHeap.findMinKey();
+            double backwardMin = backwardHeap.isEmpty() ? Double.POSITIVE_INFINITY
+                    : backwardHeap.findMinKey();
+
+            // Stopping criterion: no path shorter than the best one can be found.
+            if (forwardMin + backwardMin >= this.bestCost
+                    || (forwardHeap.isEmpty() && backwardHeap.isEmpty())) {
+                break;
+            }
+
+            if (forwardMin <= backwardMin) {
+                int node = forwardHeap.deleteMin();
+                this.forward.settle(node);
+                notifyNodeMarked(graph.get(node));
+                double distance = this.forward.getDistance(node);
+                for (int arc = compactGraph.getFirstArc(node); arc < compactGraph
+                        .getFirstArc(node + 1); ++arc) {
+                    int head = compactGraph.getHead(arc);
+                    if (this.forward.isSettled(head)) {
+                        continue;
+                    }
+                    relax(this.forward, this.backward, head, distance + inspector.getCost(arc),
+                            node, arc);
+                }
+            }
+            else {
+                int node = backwardHeap.deleteMin();
+                this.backward.settle(node);
+                notifyNodeMarked(graph.get(node));
+                double distance = this.backward.getDistance(node);
+                for (int index = compactGraph.getFirstIncomingArc(node); index < compactGraph
+                        .getFirstIncomingArc(node + 1); ++index) {
+                    int tail = compactGraph.getIncomingTail(index);
+                    int arc = compactGraph.getIncomingArc(index);
+                    if (this.backward.isSettled(tail)) {
+                        continue;
+                    }
+                    relax(this.backward, this.forward, tail, distance + inspector.getCost(arc),
+                            node, arc);
+                }
+            }
+        }
+
+        ShortestPathSolution solution;
+        if (this.meetingNode == -1) {
+            solution = new ShortestPathSolution(data, AbstractSolution.Status.INFEASIBLE);
+        }
+        else {
+            // Forward part from the origin to the meeting node, then backward part by
+            // following parents of the backward search.
+            List<Arc> arcs = new ArrayList<>(this.forward.getArcs(this.meetingNode));
+            for (int node = this.meetingNode, arc = this.backward
+                    .getParentArc(node); arc != -1; arc = this.backward.getParentArc(node)) {
+                arcs.add(graph.getArc(node, arc));
+                node = this.backward.getParentNode(node);
+            }
+            solution = new ShortestPathSolution(data, AbstractSolution.Status.OPTIMAL,
+                    new Path(graph, arcs));
+        }
+        return solution;
+    }
+
+    /**
+     * Relax the given node in a search, and update the best path if the node has
+     * been reached by the other search.
+     *
+     * @param space Workspace of the search.
+     * @param other Workspace of the other search.
+     * @param node Node to relax.
+     * @param cost New distance of the node.
+     * @param parent Parent of the node.
+     * @param arc Arc between the node and its parent.
+     */
+    private void relax(SearchSpace space, SearchSpace other, int node, double cost, int parent,
+            int arc) {
+        if (cost < space.getDistance(node)) {
+            if (!space.isReached(node) && !other.isReached(node)) {
+                notifyNodeReached(getInputData().getGraph().get(node));
+            }
+            space.reach(node, cost, parent, arc);
+            space.getHeap().insertOrDecreaseKey(node, cost);
+            if (other.isReached(node)) {
+                updateBestCost(node, cost + other.getDistance(node));
+            }
+        }
+    }
+
+    /**
+     * Update the best path found so far if the given cost is lower.
+     *
+     * @param node Node where both searches meet.
+     * @param cost Cost of the path through the given node.
+     */
+    private void updateBestCost(int node, double cost) {
+        if (cost < this.bestCost) {
+            if (this.meetingNode == -1) {
+                notifyDestinationReached(getInputData().getDestination());
+            }
+            this.bestCost = cost;
+            this.meetingNode = node;
+        }
+    }
+
+}
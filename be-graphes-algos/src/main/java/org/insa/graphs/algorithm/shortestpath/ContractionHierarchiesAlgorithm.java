@@ -0,0 +1,197 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.insa.graphs.algorithm.AbstractSolution;
+import org.insa.graphs.algorithm.shortestpath.ch.ContractionHierarchy;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Path;
+
+/**
+ * <p>
+ * Shortest-path queries on a contraction hierarchy: a forward search from the
+ * origin and a backward search from the destination only follow upward edges
+ * of the hierarchy. Each search stops when its minimum key is not lower than
+ * the best path found so far, and nodes that can be reached with a lower cost
+ * through a higher node are not expanded (stall-on-demand).
+ * </p>
+ *
+ * <p>
+ * The shortcuts of the resulting path are unpacked, so the solution is a path
+ * of the original graph.
+ * </p>
+ *
+ */
+public class ContractionHierarchiesAlgorithm extends ShortestPathAlgorithm {
+
+    // Hierarchy of the graph for the inspector of the data.
+    private final ContractionHierarchy hierarchy;
+
+    // Workspaces of the forward and backward searches. Parents of nodes are edges
+    // of the hierarchy instead of arcs of the graph.
+    private final SearchSpace[] spaces = new SearchSpace[2];
+
+    // Cost of the best path found so far, and node where both searches meet on
+    // this path.
+    private double bestCost;
+    private int meetingNode;
+
+    /**
+     * Create a new algorithm using the hierarchy returned by
+     * {@link ContractionHierarchy#get(Graph, org.insa.graphs.algorithm.ArcInspector)},
+     * which is computed on first use.
+     *
+     * @param data Input data for the algorithm.
+     */
+    public ContractionHierarchiesAlgorithm(ShortestPathData data) {
+        this(data, ContractionHierarchy.get(data.getGraph(), data.getArcInspector()));
+    }
+
+    /**
+     * Create a new algorithm with the given hierarchy.
+     *
+     * @param data Input data for the algorithm.
+     * @param hierarchy Hierarchy computed for the graph and the inspector of the
+     *        data.
+     *
+     * @throws IllegalArgumentException if the hierarchy was not computed for the
+     *         inspector of the data.
+     */
+    public ContractionHierarchiesAlgorithm(ShortestPathData data,
+            ContractionHierarchy hierarchy) {
+        super(data);
+        if (!hierarchy.getInspector().equals(data.getArcInspector().toString())) {
+            throw new IllegalArgumentException("Hierarchy does not match the arc inspector.");
+        }
+        this.hierarchy = hierarchy;
+    }
+
+    @Override
+    protected ShortestPathSolution doRun() {
+        ShortestPathData data = getInputData();
+        Graph graph = data.getGraph();
+
+        SearchSpace forward = SearchSpace.get(graph, SearchSpace.FORWARD),
+                backward = SearchSpace.get(graph, SearchSpace.BACKWARD);
+        this.spaces[ContractionHierarchy.FORWARD] = forward;
+        this.spaces[ContractionHierarchy.BACKWARD] = backward;
+
+        final int origin = data.getOrigin().getId(), destination = data.getDestination().getId();
+        this.bestCost = Double.POSITIVE_INFINITY;
+        this.meetingNode = -1;
+
+        forward.reach(origin, 0, -1, -1);
+        forward.getHeap().insert(origin, 0);
+        backward.reach(destination, 0, -1, -1);
+        backward.getHeap().insert(destination, 0);
+        notifyOriginProcessed(data.getOrigin());
+        if (origin == destination) {
+            updateBestCost(origin, 0);
+        }
+
+        while (true) {
+            double forwardMin = forward.getHeap().isEmpty() ? Double.POSITIVE_INFINITY
+                    : forward.getHeap().findMinKey();
+            double backwardMin = backward.getHeap().isEmpty() ? Double.POSITIVE_INFINITY
+                    : backward.getHeap().findMinKey();
+            boolean forwardDone = forwardMin >= this.bestCost,
+                    backwardDone = backwardMin >= this.bestCost;
+            if (forwardDone && backwardDone) {
+                break;
+            }
+            expand(!forwardDone && (backwardDone || forwardMin <= backwardMin)
+                    ? ContractionHierarchy.FORWARD
+                    : ContractionHierarchy.BACKWARD);
+        }
+
+        ShortestPathSolution solution;
+        if (this.meetingNode == -1) {
+            solution = new ShortestPathSolution(data, AbstractSolution.Status.INFEASIBLE);
+        }
+        else {
+            // Forward edges from the origin to the meeting node, then backward edges
+            // from the meeting node to the destination.
+            List<int[]> edges = new ArrayList<>();
+            for (int node = this.meetingNode; forward.getParentArc(node) != -1; node = forward
+                    .getParentNode(node)) {
+                edges.add(new int[] { forward.getParentNode(node), forward.getParentArc(node) });
+            }
+            Collections.reverse(edges);
+            List<Arc> arcs = new ArrayList<>();
+            for (int[] edge: edges) {
+                this.hierarchy.unpack(graph, ContractionHierarchy.FORWARD, edge[0], edge[1], arcs);
+            }
+            for (int node = this.meetingNode; backward.getParentArc(node) != -1; node = backward
+                    .getParentNode(node)) {
+                this.hierarchy.unpack(graph, ContractionHierarchy.BACKWARD,
+                        backward.getParentNode(node), backward.getParentArc(node), arcs);
+            }
+            solution = new ShortestPathSolution(data, AbstractSolution.Status.OPTIMAL,
+                    new Path(graph, arcs));
+        }
+        return solution;
+    }
+
+    /**
+     * Settle the node with the minimum key of the search in the given direction
+     * and relax its upward edges, unless the node is stalled.
+     *
+     * @param direction {@link ContractionHierarchy#FORWARD} or
+     *        {@link ContractionHierarchy#BACKWARD}.
+     */
+    private void expand(int direction) {
+        Graph graph = getInputData().getGraph();
+        SearchSpace space = this.spaces[direction], other = this.spaces[1 - direction];
+        int node = space.getHeap().deleteMin();
+        space.settle(node);
+        notifyNodeMarked(graph.get(node));
+        double distance = space.getDistance(node);
+
+        // Stall-on-demand: upward edges in the other direction lead to higher nodes
+        // from which this node can be reached.
+        for (int edge = this.hierarchy.getFirstEdge(1 - direction, node); edge < this.hierarchy
+                .getFirstEdge(1 - direction, node + 1); ++edge) {
+            int next = this.hierarchy.getEdgeNode(1 - direction, edge);
+            if (space.getDistance(next) + this.hierarchy.getEdgeCost(1 - direction,
+                    edge) < distance) {
+                return;
+            }
+        }
+
+        for (int edge = this.hierarchy.getFirstEdge(direction, node); edge < this.hierarchy
+                .getFirstEdge(direction, node + 1); ++edge) {
+            int next = this.hierarchy.getEdgeNode(direction, edge);
+            double cost = distance + this.hierarchy.getEdgeCost(direction, edge);
+            if (cost < space.getDistance(next)) {
+                if (!space.isReached(next) && !other.isReached(next)) {
+                    notifyNodeReached(graph.get(next));
+                }
+                space.reach(next, cost, node, edge);
+                space.getHeap().insertOrDecreaseKey(next, cost);
+                if (other.isReached(next)) {
+                    updateBestCost(next, cost + other.getDistance(next));
+                }
+            }
+        }
+    }
+
+    /**
+     * Update the best path found so far if the given cost is lower.
+     *
+     * @param node Node where both searches meet.
+     * @param cost Cost of the path through the given node.
+     */
+    private void updateBestCost(int node, double cost) {
+        if (cost < this.bestCost) {
+            if (this.meetingNode == -1) {
+                notifyDestinationReached(getInputData().getDestination());
+            }
+            this.bestCost = cost;
+            this.meetingNode = node;
+        }
+    }
+
+}
@@ -0,0 +1,25 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import org.insa.graphs.algorithm.shortestpath.ch.CustomizableContractionHierarchy;
+
+/**
+ * Contraction hierarchies queries on a customizable contraction hierarchy: the
+ * order of the nodes is computed once per graph, and only the costs of the
+ * edges are computed for each arc inspector.
+ *
+ */
+public class CustomizableContractionHierarchiesAlgorithm extends ContractionHierarchiesAlgorithm {
+
+    /**
+     * Create a new algorithm using the customizable hierarchy returned by
+     * {@link CustomizableContractionHierarchy#get(org.insa.graphs.model.Graph)},
+     * customized for the inspector of the data on first use.
+     *
+     * @param data Input data for the algorithm.
+     */
+    public CustomizableContractionHierarchiesAlgorithm(ShortestPathData data) {
+        super(data, CustomizableContractionHierarchy.get(data.getGraph())
+                .getCustomized(data.getGraph(), data.getArcInspector()));
+    }
+
+}
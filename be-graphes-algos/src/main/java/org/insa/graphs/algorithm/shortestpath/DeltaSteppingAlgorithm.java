@@ -0,0 +1,460 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.insa.graphs.algorithm.AbstractInputData.Mode;
+import org.insa.graphs.algorithm.AbstractSolution;
+import org.insa.graphs.algorithm.ArcCosts;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.utils.GraphCache;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.GraphStatistics;
+import org.insa.graphs.model.Path;
+
+/**
+ * <p>
+ * Parallel shortest-path algorithm (delta-stepping): nodes are stored in
+ * buckets of width delta according to their tentative distance, and the
+ * buckets are processed in increasing order. The nodes of a bucket are
+ * processed together, in parallel, so the algorithm trades some redundant
+ * relaxations for parallelism.
+ * </p>
+ *
+ * <p>
+ * Arcs are split into light arcs (cost at most delta), which may insert nodes
+ * in the current bucket and are relaxed until the bucket is empty, and heavy
+ * arcs, which are relaxed once per bucket. Relaxations run as fork/join tasks,
+ * in the pool of the calling thread if it is a worker thread, and in the common
+ * pool otherwise. Tentative distances are updated with an atomic minimum.
+ * </p>
+ *
+ * <p>
+ * Since parents written by concurrent relaxations are not reliable, the path
+ * is rebuilt from the final distances, by following tight arcs backward from
+ * the destination. The cost of the path is the same as the one found by
+ * {@link DijkstraAlgorithm}.
+ * </p>
+ *
+ */
+public class DeltaSteppingAlgorithm extends ShortestPathAlgorithm {
+
+    // Number of nodes under which a frontier is relaxed by a single task.
+    private static final int SEQUENTIAL_THRESHOLD = 256;
+
+    // Speed (in kilometers per hour) used to estimate the cost of arcs when
+    // neither the inspector nor the graph has a maximum speed.
+    private static final int DEFAULT_SPEED = 130;
+
+    // Arcs split by cost, by graph and inspector. Only the partition of the last
+    // delta is kept, so that sweeping deltas (e.g. in benchmarks) does not keep
+    // one partition per delta alive.
+    private static final GraphCache<AtomicReference<Partition>> PARTITIONS = new GraphCache<>();
+
+    // Bits of an infinite distance.
+    private static final long INFINITY = Double.doubleToRawLongBits(Double.POSITIVE_INFINITY);
+
+    /**
+     * Allowed arcs of a graph, split by node into light arcs followed by heavy
+     * arcs.
+     */
+    private static final class Partition {
+
+        // Width of the buckets used to split the arcs.
+        final double delta;
+
+        // Arcs of node u are in [first[u], first[u + 1]), its light arcs in
+        // [first[u], split[u]).
+        final int[] first, split;
+
+        // Head and cost of each arc.
+        final int[] heads;
+        final double[] costs;
+
+        Partition(CompactGraph graph, ArcCosts costs, double delta) {
+            final int nbNodes = graph.size();
+            this.delta = delta;
+            int nbArcs = 0;
+            for (int arc = 0; arc < costs.size(); ++arc) {
+                if (costs.isAllowed(arc)) {
+                    ++nbArcs;
+                }
+            }
+            this.first = new int[nbNodes + 1];
+            this.split = new int[nbNodes];
+            this.heads = new int[nbArcs];
+            this.costs = new double[nbArcs];
+            int index = 0;
+            for (int node = 0; node < nbNodes; ++node) {
+                for (int pass = 0; pass < 2; ++pass) {
+                    for (int arc = graph.getFirstArc(node); arc < graph.getFirstArc(node + 1); ++arc) {
+                        double cost = costs.getCost(arc);
+                        if (costs.isAllowed(arc) && (cost <= delta) == (pass == 0)) {
+                            this.heads[index] = graph.getHead(arc);
+                            this.costs[index] = cost;
+                            ++index;
+                        }
+                    }
+                    if (pass == 0) {
+                        this.split[node] = index;
+                    }
+                }
+                this.first[node + 1] = index;
+            }
+        }
+
+        static Partition get(Graph graph, ArcInspector inspector, double delta) {
+            AtomicReference<Partition> last = PARTITIONS.get(graph, inspector,
+                    AtomicReference::new);
+            Partition partition = last.get();
+            if (partition == null || partition.delta != delta) {
+                partition = new Partition(graph.getCompactGraph(), ArcCosts.of(graph, inspector),
+                        delta);
+                last.set(partition);
+            }
+            return partition;
+        }
+
+    }
+
+    /**
+     * Growable list of nodes.
+     */
+    private static final class NodeList {
+
+        int[] nodes = new int[16];
+        int size = 0;
+
+        void add(int node) {
+            if (this.size == this.nodes.length) {
+                this.nodes = Arrays.copyOf(this.nodes, 2 * this.size);
+            }
+            this.nodes[this.size++] = node;
+        }
+
+        void addAll(NodeList other) {
+            if (this.size + other.size > this.nodes.length) {
+                this.nodes = Arrays.copyOf(this.nodes,
+                        Math.max(2 * this.nodes.length, this.size + other.size));
+            }
+            System.arraycopy(other.nodes, 0, this.nodes, this.size, other.size);
+            this.size += other.size;
+        }
+
+    }
+
+    /**
+     * Task relaxing either the light or the heavy arcs of a range of nodes, and
+     * returning the nodes whose distance has decreased.
+     */
+    private final class Relaxation extends RecursiveTask<NodeList> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int[] frontier;
+        private final int begin, end;
+        private final boolean light;
+
+        Relaxation(int[] frontier, int begin, int end, boolean light) {
+            this.frontier = frontier;
+            this.begin = begin;
+            this.end = end;
+            this.light = light;
+        }
+
+        @Override
+        protected NodeList compute() {
+            if (this.end - this.begin > SEQUENTIAL_THRESHOLD) {
+                int middle = (this.begin + this.end) >>> 1;
+                Relaxation left = new Relaxation(this.frontier, this.begin, middle, this.light);
+                left.fork();
+                NodeList updated = new Relaxation(this.frontier, middle, this.end, this.light)
+                        .compute();
+                updated.addAll(left.join());
+                return updated;
+            }
+            NodeList updated = new NodeList();
+            for (int i = this.begin; i < this.end; ++i) {
+                int node = this.frontier[i];
+                double distance = getDistance(node);
+                int first = this.light ? partition.first[node] : partition.split[node];
+                int last = this.light ? partition.split[node] : partition.first[node + 1];
+                for (int arc = first; arc < last; ++arc) {
+                    if (decreaseDistance(partition.heads[arc], distance + partition.costs[arc])) {
+                        updated.add(partition.heads[arc]);
+                    }
+                }
+            }
+            return updated;
+        }
+
+    }
+
+    // Width of the buckets.
+    private final double delta;
+
+    // Arcs of the graph split by cost, and tentative distances (as bits of
+    // doubles) of the current search.
+    private Partition partition;
+    private AtomicLongArray distances;
+
+    /**
+     * Create a new delta-stepping algorithm, with the width of the buckets
+     * computed by {@link #computeDelta(Graph, ArcInspector)}.
+     *
+     * @param data Input data of the algorithm.
+     */
+    public DeltaSteppingAlgorithm(ShortestPathData data) {
+        this(data, computeDelta(data.getGraph(), data.getArcInspector()));
+    }
+
+    /**
+     * Create a new delta-stepping algorithm with the given width of the buckets.
+     * With an infinite width, all the nodes are in a single bucket and the
+     * algorithm is a parallel Bellman-Ford, see
+     * {@link ParallelBellmanFordAlgorithm}.
+     *
+     * @param data Input data of the algorithm.
+     * @param delta Width of the buckets.
+     *
+     * @throws IllegalArgumentException if delta is not strictly positive.
+     */
+    public DeltaSteppingAlgorithm(ShortestPathData data, double delta) {
+        super(data);
+        if (!(delta > 0)) {
+            throw new IllegalArgumentException("Delta must be strictly positive.");
+        }
+        this.delta = delta;
+    }
+
+    /**
+     * Compute a width of buckets for the given graph and inspector: the maximum
+     * cost of an arc divided by the average out-degree of the nodes, so that a
+     * node has about one heavy arc.
+     *
+     * The maximum cost of an arc is estimated from the maximum length of the
+     * arcs in the statistics of the graph (and, in time mode, from the maximum
+     * speed of the inspector or the graph). Without statistics, the costs of the
+     * arcs are computed.
+     *
+     * @param graph Graph of the search.
+     * @param inspector Inspector used to compute the costs of the arcs.
+     *
+     * @return Width of the buckets.
+     */
+    public static double computeDelta(Graph graph, ArcInspector inspector) {
+        GraphStatistics statistics = graph.getGraphInformation();
+        double maximumCost = 0;
+        if (statistics != null && statistics.getMaximumLength() > 0) {
+            maximumCost = statistics.getMaximumLength();
+            if (inspector.getMode() == Mode.TIME) {
+                int speed = inspector.getMaximumSpeed();
+                if (speed == GraphStatistics.NO_MAXIMUM_SPEED) {
+                    speed = statistics.hasMaximumSpeed() ? statistics.getMaximumSpeed()
+                            : DEFAULT_SPEED;
+                }
+                maximumCost = maximumCost * 3600.0 / (speed * 1000.0);
+            }
+        }
+        else {
+            ArcCosts costs = ArcCosts.of(graph, inspector);
+            for (int arc = 0; arc < costs.size(); ++arc) {
+                if (costs.isAllowed(arc)) {
+                    maximumCost = Math.max(maximumCost, costs.getCost(arc));
+                }
+            }
+        }
+        CompactGraph compact = graph.getCompactGraph();
+        double degree = compact.size() == 0 ? 1
+                : Math.max(1, compact.getArcCount() / (double) compact.size());
+        return maximumCost > 0 ? maximumCost / degree : 1;
+    }
+
+    /**
+     * @return Width of the buckets.
+     */
+    public double getDelta() {
+        return this.delta;
+    }
+
+    @Override
+    protected ShortestPathSolution doRun() {
+        final ShortestPathData data = getInputData();
+        final Graph graph = data.getGraph();
+        final int nbNodes = graph.size();
+        final int origin = data.getOrigin().getId(), destination = data.getDestination().getId();
+
+        this.partition = Partition.get(graph, data.getArcInspector(), this.delta);
+        this.distances = new AtomicLongArray(nbNodes);
+        for (int node = 0; node < nbNodes; ++node) {
+            this.distances.set(node, INFINITY);
+        }
+
+        // Stamps of the nodes, to remove duplicates from the frontier and from the
+        // nodes settled in a bucket.
+        int[] frontierStamps = new int[nbNodes], settledStamps = new int[nbNodes];
+        int stamp = 0, frontierStamp = 0;
+
+        TreeMap<Long, NodeList> buckets = new TreeMap<>();
+        this.distances.set(origin, Double.doubleToRawLongBits(0));
+        buckets.computeIfAbsent(0L, key -> new NodeList()).add(origin);
+        notifyOriginProcessed(data.getOrigin());
+
+        while (!buckets.isEmpty()) {
+            Map.Entry<Long, NodeList> entry = buckets.pollFirstEntry();
+            final long bucket = entry.getKey();
+            ++stamp;
+            NodeList settled = new NodeList(), pending = entry.getValue();
+
+            // Relax light arcs until no node is inserted in the current bucket. Nodes
+            // whose distance has decreased since their insertion are in another
+            // bucket.
+            while (pending.size > 0) {
+                NodeList frontier = new NodeList();
+                ++frontierStamp;
+                for (int i = 0; i < pending.size; ++i) {
+                    int node = pending.nodes[i];
+                    if (frontierStamps[node] != frontierStamp && getBucket(node) == bucket) {
+                        frontierStamps[node] = frontierStamp;
+                        frontier.add(node);
+                        if (settledStamps[node] != stamp) {
+                            settledStamps[node] = stamp;
+                            settled.add(node);
+                        }
+                    }
+                }
+                pending = new NodeList();
+                NodeList updated = new Relaxation(frontier.nodes, 0, frontier.size, true).invoke();
+                distribute(updated, bucket, pending, buckets);
+            }
+
+            for (int i = 0; i < settled.size; ++i) {
+                notifyNodeMarked(graph.get(settled.nodes[i]));
+            }
+            if (settledStamps[destination] == stamp) {
+                notifyDestinationReached(data.getDestination());
+                break;
+            }
+
+            // Heavy arcs only insert nodes in the next buckets.
+            distribute(new Relaxation(settled.nodes, 0, settled.size, false).invoke(), bucket,
+                    null, buckets);
+        }
+
+        ShortestPathSolution solution;
+        if (getDistance(destination) == Double.POSITIVE_INFINITY) {
+            solution = new ShortestPathSolution(data, AbstractSolution.Status.INFEASIBLE);
+        }
+        else {
+            solution = new ShortestPathSolution(data, AbstractSolution.Status.OPTIMAL,
+                    new Path(graph, buildArcs(graph, origin, destination)));
+        }
+        this.partition = null;
+        this.distances = null;
+        return solution;
+    }
+
+    /**
+     * @return Tentative distance of the given node.
+     */
+    private double getDistance(int node) {
+        return Double.longBitsToDouble(this.distances.get(node));
+    }
+
+    /**
+     * Set the distance of the given node to the given distance if it is lower
+     * than its tentative distance. Bits of non-negative doubles are ordered as
+     * the doubles, so distances are compared as longs.
+     *
+     * @return true if the distance of the node has decreased.
+     */
+    private boolean decreaseDistance(int node, double distance) {
+        long bits = Double.doubleToRawLongBits(distance);
+        long current = this.distances.get(node);
+        while (bits < current) {
+            if (this.distances.compareAndSet(node, current, bits)) {
+                return true;
+            }
+            current = this.distances.get(node);
+        }
+        return false;
+    }
+
+    /**
+     * @return Index of the bucket of the given node.
+     */
+    private long getBucket(int node) {
+        return Double.isInfinite(this.delta) ? 0 : (long) (getDistance(node) / this.delta);
+    }
+
+    /**
+     * Insert the given nodes in their bucket, nodes of the current bucket being
+     * inserted in the given list of pending nodes.
+     */
+    private void distribute(NodeList nodes, long current, NodeList pending,
+            TreeMap<Long, NodeList> buckets) {
+        for (int i = 0; i < nodes.size; ++i) {
+            int node = nodes.nodes[i];
+            long bucket = getBucket(node);
+            if (bucket == current && pending != null) {
+                pending.add(node);
+            }
+            else {
+                buckets.computeIfAbsent(bucket, key -> new NodeList()).add(node);
+            }
+        }
+    }
+
+    /**
+     * Build the arcs of a shortest path from the given origin to the given
+     * destination, by following tight arcs (arcs whose cost is the difference of
+     * the distances of their endpoints) backward from the destination.
+     */
+    private List<Arc> buildArcs(Graph graph, int origin, int destination) {
+        CompactGraph compact = graph.getCompactGraph();
+        ArcCosts costs = ArcCosts.of(graph, getInputData().getArcInspector());
+        int[] nextNodes = new int[graph.size()], nextArcs = new int[graph.size()];
+        Arrays.fill(nextNodes, -2);
+        nextNodes[destination] = -1;
+
+        // Breadth-first search on the incoming tight arcs, until the origin is found.
+        // Tails of tight arcs have a distance at most the one of the destination, so
+        // they have been settled and their distance is final.
+        int[] queue = new int[graph.size()];
+        int head = 0, tail = 0;
+        queue[tail++] = destination;
+        while (head < tail && nextNodes[origin] == -2 && origin != destination) {
+            int node = queue[head++];
+            double distance = getDistance(node);
+            for (int i = compact.getFirstIncomingArc(node); i < compact
+                    .getFirstIncomingArc(node + 1); ++i) {
+                int previous = compact.getIncomingTail(i), arc = compact.getIncomingArc(i);
+                if (nextNodes[previous] == -2 && costs.isAllowed(arc)
+                        && getDistance(previous) + costs.getCost(arc) == distance) {
+                    nextNodes[previous] = node;
+                    nextArcs[previous] = arc;
+                    queue[tail++] = previous;
+                }
+            }
+        }
+
+        if (origin == destination) {
+            return Collections.emptyList();
+        }
+        List<Arc> arcs = new ArrayList<>();
+        for (int node = origin; node != destination; node = nextNodes[node]) {
+            arcs.add(graph.getArc(node, nextArcs[node]));
+        }
+        return arcs;
+    }
+
+}
@@ -1,113 +1,111 @@
 package org.insa.graphs.algorithm.shortestpath;
 
 import org.insa.graphs.algorithm.AbstractSolution;
-import org.insa.graphs.algorithm.utils.BinaryHeap;
-import org.insa.graphs.model.Arc;
-import org.insa.graphs.model.Label;
+import org.insa.graphs.algorithm.CompiledArcInspector;
+import org.insa.graphs.algorithm.utils.IndexedMinHeap;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
 import org.insa.graphs.model.Node;
 import org.insa.graphs.model.Path;
 
-import java.util.ArrayList;
-import java.util.List;
-
 public class DijkstraAlgorithm extends ShortestPathAlgorithm {
 
     protected final ShortestPathData data;
 
-    protected BinaryHeap<Label> heap;
-    protected Label[] labels;
-    protected List<Node> nodes;
-
     protected Node origin;
     protected Node destination;
 
-    protected Label label_origin;
-    protected Label label_destination;
+    // Workspace of the current search
+    protected SearchSpace space;
 
     public DijkstraAlgorithm(ShortestPathData data) {
         super(data);
 
-        // Initiate data, nodes, labels and heap
+        // Initiate data
         this.data = data;
-        this.heap = new BinaryHeap<>();
-        this.labels = new Label[data.getGraph().size()];
-        this.nodes = data.getGraph().getNodes();
 
         this.origin = this.data.getOrigin();
         this.destination = this.data.getDestination();
     }
 
+    /**
+     * Called once the workspace of the search has been retrieved, before the
+     * origin is inserted.
+     *
+     * @param space Workspace of the search.
+     */
+    protected void initialize(SearchSpace space) {
+    }
+
+    /**
+     * @param node ID of a node.
+     *
+     * @return Estimated cost from the given node to the destination (est <= cost),
+     *         0 for Dijkstra.
+     */
+    protected double estimate(int node) {
+        return 0;
+    }
+
     @Override
     protected ShortestPathSolution doRun() {
         // Initiate variables
         ShortestPathSolution solution;
         Path path;
 
-        // Initiate if we don't come from AStar
-        if (this.label_origin == null) {
-            this.label_origin = new Label(origin, 0, null);
-
-            if (this.origin.getId() != this.destination.getId())
-                this.label_destination = new Label(destination);
-            else
-                this.label_destination = this.label_origin;
-
-            for (Node current : this.nodes) {
-                if (current.getId() == this.origin.getId()) {
-                    this.labels[current.getId()] = this.label_origin;
-                } else if (current.getId() == this.destination.getId()) {
-                    this.labels[current.getId()] = this.label_destination;
-                } else {
-                    this.labels[current.getId()] = new Label(current);
-                }
-            }
-        }
-
-        this.heap.insert(this.label_origin);
+        // Arcs are visited through the compact representation of the graph, with
+        // the costs of the compiled inspector, node states are stored in the
+        // workspace of the current thread
+        Graph graph = this.data.getGraph();
+        CompactGraph compactGraph = graph.getCompactGraph();
+        CompiledArcInspector inspector = CompiledArcInspector.of(graph,
+                this.data.getArcInspector());
+        this.space = SearchSpace.get(graph);
+        IndexedMinHeap heap = this.space.getHeap();
+        initialize(this.space);
+
+        int destination = this.destination.getId();
+        this.space.reach(this.origin.getId(), 0, -1, -1);
+        heap.insert(this.origin.getId(), estimate(this.origin.getId()));
         notifyOriginProcessed(this.origin);
 
         // Iterate Dijkstra while destination is not marked or heap is not Empty
-        while (!this.label_destination.isMarked() && !this.heap.isEmpty()) {
+        while (!this.space.isSettled(destination) && !heap.isEmpty()) {
             // Extract min from heap and marked it
-            Label min = this.heap.deleteMin();
-            min.setMarked();
-            notifyNodeMarked(min.getNode());
+            int node = heap.deleteMin();
+            this.space.settle(node);
+            notifyNodeMarked(graph.get(node));
 
             // Update all successors of min
-            for (Arc current : min.getNode().getSuccessors()) {
-                Label label = this.labels[current.getDestination().getId()];
-                if (!label.isMarked() &&
-                    this.data.isAllowed(current) &&
-                    label.getCost() > (min.getCost() + this.data.getCost(current))) {
-                    if (label.getParent() == null) {
-                        if (label.getNode().getId() == this.destination.getId()) {
+            double distance = this.space.getDistance(node);
+            for (int arc = compactGraph.getFirstArc(node); arc < compactGraph
+                    .getFirstArc(node + 1); ++arc) {
+                int head = compactGraph.getHead(arc);
+                if (this.space.isSettled(head)) {
+                    continue;
+                }
+
+                // New cost, infinite if the arc is not allowed
+                double cost = distance + inspector.getCost(arc);
+                if (cost < this.space.getDistance(head)) {
+                    if (!this.space.isReached(head)) {
+                        if (head == destination) {
                             notifyDestinationReached(this.destination);
                         } else {
-                            notifyNodeReached(label.getNode());
+                            notifyNodeReached(graph.get(head));
                         }
-                    } else {
-                        this.heap.remove(label);
                     }
 
-
-                    // New cost
-                    double cost = min.getCost() + this.data.getCost(current);
-                    label.changeParent(current, cost);
-                    this.heap.insert(label);
+                    // The node is inserted or its key decreased
+                    this.space.reach(head, cost, node, arc);
+                    heap.insertOrDecreaseKey(head, cost + estimate(head));
                 }
             }
         }
 
         // Verify if path is feasible and create solution
-        if (label_destination.isMarked()) {
-            ArrayList<Arc> arcs = new ArrayList<>();
-            Label label = label_destination;
-            while (label.getParent() != null) {
-                arcs.add(0, label.getParent());
-                label = labels[label.getParent().getOrigin().getId()];
-            }
-
-            path = new Path(data.getGraph(), arcs);
+        if (this.space.isSettled(destination)) {
+            path = new Path(graph, this.space.getArcs(destination));
             solution = new ShortestPathSolution(data, AbstractSolution.Status.OPTIMAL, path);
         } else {
             solution = new ShortestPathSolution(data, AbstractSolution.Status.INFEASIBLE);
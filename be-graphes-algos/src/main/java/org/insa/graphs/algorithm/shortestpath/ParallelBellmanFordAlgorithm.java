@@ -0,0 +1,26 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+/**
+ * <p>
+ * Parallel round-based Bellman-Ford algorithm: at each round, the arcs of the
+ * nodes whose distance has decreased during the previous round are relaxed in
+ * parallel, distances being updated with an atomic minimum, until no distance
+ * decreases.
+ * </p>
+ *
+ * <p>
+ * This is the delta-stepping algorithm with an infinite width of buckets: all
+ * the nodes are in the same bucket, and all the arcs are light. Unlike
+ * {@link DeltaSteppingAlgorithm}, it cannot stop before all the distances are
+ * final, but each round has a large frontier, so it is meant to compute
+ * exact reference solutions on large graphs.
+ * </p>
+ *
+ */
+public class ParallelBellmanFordAlgorithm extends DeltaSteppingAlgorithm {
+
+    public ParallelBellmanFordAlgorithm(ShortestPathData data) {
+        super(data, Double.POSITIVE_INFINITY);
+    }
+
+}
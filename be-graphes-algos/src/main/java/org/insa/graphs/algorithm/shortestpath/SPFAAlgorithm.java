@@ -0,0 +1,122 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.ArcCosts;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Path;
+
+/**
+ * Queue-based Bellman-Ford algorithm (SPFA): instead of scanning all the arcs
+ * at each round, only the arcs of the nodes whose distance has decreased are
+ * relaxed. Nodes are processed in FIFO order, and a node is in the queue at most
+ * once at a time.
+ *
+ */
+public class SPFAAlgorithm extends ShortestPathAlgorithm {
+
+    public SPFAAlgorithm(ShortestPathData data) {
+        super(data);
+    }
+
+    @Override
+    protected ShortestPathSolution doRun() {
+
+        // Retrieve the graph, its compact representation and the costs of its arcs.
+        ShortestPathData data = getInputData();
+        Graph graph = data.getGraph();
+        CompactGraph compactGraph = graph.getCompactGraph();
+        ArcCosts costs = ArcCosts.of(graph, data.getArcInspector());
+
+        final int nbNodes = graph.size();
+
+        // Initialize array of distances.
+        double[] distances = new double[nbNodes];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        distances[data.getOrigin().getId()] = 0;
+
+        // Notify observers about the first event (origin processed).
+        notifyOriginProcessed(data.getOrigin());
+
+        // Initialize array of predecessors (index of the arc in the compact graph,
+        // and ID of its origin).
+        int[] predecessorArcs = new int[nbNodes];
+        int[] predecessorNodes = new int[nbNodes];
+        Arrays.fill(predecessorArcs, -1);
+
+        // Circular queue of nodes whose arcs must be relaxed, each node being in the
+        // queue at most once.
+        int[] queue = new int[nbNodes];
+        boolean[] queued = new boolean[nbNodes];
+        int head = 0, size = 1;
+        queue[0] = data.getOrigin().getId();
+        queued[queue[0]] = true;
+
+        while (size > 0) {
+            int node = queue[head];
+            head = (head + 1) % nbNodes;
+            --size;
+            queued[node] = false;
+
+            double distance = distances[node];
+            for (int arc = compactGraph.getFirstArc(node); arc < compactGraph
+                    .getFirstArc(node + 1); ++arc) {
+
+                // Arcs that are not allowed have an infinite cost.
+                if (!costs.isAllowed(arc)) {
+                    continue;
+                }
+
+                int destination = compactGraph.getHead(arc);
+                double newDistance = distance + costs.getCost(arc);
+                if (newDistance < distances[destination]) {
+                    if (Double.isInfinite(distances[destination])) {
+                        notifyNodeReached(graph.get(destination));
+                    }
+                    distances[destination] = newDistance;
+                    predecessorArcs[destination] = arc;
+                    predecessorNodes[destination] = node;
+                    if (!queued[destination]) {
+                        queued[destination] = true;
+                        queue[(head + size) % nbNodes] = destination;
+                        ++size;
+                    }
+                }
+            }
+        }
+
+        ShortestPathSolution solution = null;
+
+        // Destination has no predecessor, the solution is infeasible...
+        if (predecessorArcs[data.getDestination().getId()] == -1) {
+            solution = new ShortestPathSolution(data, Status.INFEASIBLE);
+        }
+        else {
+
+            // The destination has been found, notify the observers.
+            notifyDestinationReached(data.getDestination());
+
+            // Create the path from the array of predecessors...
+            ArrayList<Arc> arcs = new ArrayList<>();
+            int node = data.getDestination().getId();
+            while (predecessorArcs[node] != -1) {
+                arcs.add(graph.getArc(predecessorNodes[node], predecessorArcs[node]));
+                node = predecessorNodes[node];
+            }
+
+            // Reverse the path...
+            Collections.reverse(arcs);
+
+            // Create the final solution.
+            solution = new ShortestPathSolution(data, Status.OPTIMAL, new Path(graph, arcs));
+        }
+
+        return solution;
+    }
+
+}
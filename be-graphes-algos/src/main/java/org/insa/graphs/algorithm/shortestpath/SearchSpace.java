@@ -0,0 +1,302 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.insa.graphs.algorithm.utils.IndexedMinHeap;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+
+/**
+ * <p>
+ * Reusable workspace for label-setting searches (Dijkstra, A*, ...) on a given
+ * graph.
+ * </p>
+ *
+ * <p>
+ * The state of each node (distance, parent, heuristic) is stored in primitive
+ * arrays together with a generation stamp: a value is only valid if its stamp
+ * equals the current generation. Resetting the workspace thus only increments
+ * the generation and clears the heap, i.e. it runs in <i>O(touched nodes)</i>
+ * instead of <i>O(n)</i>.
+ * </p>
+ *
+ * <p>
+ * Workspaces are not thread-safe, use {@link #get(Graph, int)} to retrieve the
+ * workspace of the current thread.
+ * </p>
+ *
+ * <p>
+ * Workspaces are kept by graph and by thread, both weakly referenced: the
+ * workspaces of a graph are released when the graph is no longer used (or
+ * explicitly with {@link #release(Graph)}), and those of a thread when the
+ * thread terminates.
+ * </p>
+ *
+ */
+public class SearchSpace {
+
+    // Slots for the forward and backward searches of bidirectional algorithms.
+    public static final int FORWARD = 0, BACKWARD = 1;
+
+    // Workspaces by graph and thread, indexed by slot.
+    private static final Map<Graph, Map<Thread, SearchSpace[]>> SPACES = new WeakHashMap<>();
+
+    // Graph associated with this workspace, weakly referenced so that the
+    // workspaces do not keep their graph alive.
+    private final WeakReference<Graph> graph;
+
+    // Current generation.
+    private int generation;
+
+    // Generation at which each node was reached, settled, and had its heuristic
+    // computed.
+    private final int[] reached, settled, estimated;
+
+    // Distance from the origin, and heuristic of each node.
+    private final double[] distance, heuristic;
+
+    // Parent of each node: index of the arc in the compact graph and its origin,
+    // or -1 for the origin.
+    private final int[] parentArc, parentNode;
+
+    // Priority queue of the search.
+    private final IndexedMinHeap heap;
+
+    /**
+     * Create a new workspace for the given graph.
+     *
+     * @param graph Graph for this workspace.
+     */
+    public SearchSpace(Graph graph) {
+        final int nbNodes = graph.size();
+        this.graph = new WeakReference<>(graph);
+        this.generation = 1;
+        this.reached = new int[nbNodes];
+        this.settled = new int[nbNodes];
+        this.estimated = new int[nbNodes];
+        this.distance = new double[nbNodes];
+        this.heuristic = new double[nbNodes];
+        this.parentArc = new int[nbNodes];
+        this.parentNode = new int[nbNodes];
+        this.heap = new IndexedMinHeap(nbNodes);
+    }
+
+    /**
+     * Retrieve the workspace of the current thread for the given graph and slot.
+     * The workspace is created if needed (first call for this graph and thread)
+     * and is reset before being returned.
+     *
+     * A thread can use one workspace per slot at the same time, e.g. the
+     * {@link #FORWARD} and {@link #BACKWARD} slots for a bidirectional search.
+     *
+     * @param graph Graph of the search.
+     * @param slot Slot of the workspace.
+     *
+     * @return A reset workspace for the given graph.
+     */
+    public static SearchSpace get(Graph graph, int slot) {
+        final Thread thread = Thread.currentThread();
+        SearchSpace[] spaces;
+        synchronized (SPACES) {
+            Map<Thread, SearchSpace[]> threads = SPACES.computeIfAbsent(graph,
+                    g -> new WeakHashMap<>());
+            spaces = threads.get(thread);
+            if (spaces == null || slot >= spaces.length) {
+                spaces = spaces == null ? new SearchSpace[Math.max(2, slot + 1)]
+                        : Arrays.copyOf(spaces, slot + 1);
+                threads.put(thread, spaces);
+            }
+        }
+        // The slots of a thread are only accessed by this thread.
+        SearchSpace space = spaces[slot];
+        if (space == null) {
+            space = new SearchSpace(graph);
+            spaces[slot] = space;
+        }
+        else {
+            space.reset();
+        }
+        return space;
+    }
+
+    /**
+     * Retrieve the workspace of the current thread for the given graph, in the
+     * {@link #FORWARD} slot.
+     *
+     * @param graph Graph of the search.
+     *
+     * @return A reset workspace for the given graph.
+     *
+     * @see #get(Graph, int)
+     */
+    public static SearchSpace get(Graph graph) {
+        return get(graph, FORWARD);
+    }
+
+    /**
+     * Release the workspaces of all threads for the given graph, e.g. when the
+     * graph is unloaded. Workspaces currently used by a search remain valid.
+     *
+     * @param graph Graph whose workspaces should be released.
+     */
+    public static void release(Graph graph) {
+        synchronized (SPACES) {
+            SPACES.remove(graph);
+        }
+    }
+
+    /**
+     * Reset this workspace: all nodes become unreached.
+     */
+    public void reset() {
+        this.heap.clear();
+        if (++this.generation == Integer.MAX_VALUE) {
+            Arrays.fill(this.reached, 0);
+            Arrays.fill(this.settled, 0);
+            Arrays.fill(this.estimated, 0);
+            this.generation = 1;
+        }
+    }
+
+    /**
+     * @return Graph associated with this workspace.
+     */
+    public Graph getGraph() {
+        return this.graph.get();
+    }
+
+    /**
+     * @return Priority queue of this workspace (node IDs).
+     */
+    public IndexedMinHeap getHeap() {
+        return this.heap;
+    }
+
+    /**
+     * @param node ID of a node.
+     *
+     * @return true if the given node has been reached.
+     */
+    public boolean isReached(int node) {
+        return this.reached[node] == this.generation;
+    }
+
+    /**
+     * @param node ID of a node.
+     *
+     * @return true if the given node has been settled (marked).
+     */
+    public boolean isSettled(int node) {
+        return this.settled[node] == this.generation;
+    }
+
+    /**
+     * Settle (mark) the given node.
+     *
+     * @param node ID of a node.
+     */
+    public void settle(int node) {
+        this.settled[node] = this.generation;
+    }
+
+    /**
+     * @param node ID of a node.
+     *
+     * @return Distance of the given node, or infinity if the node has not been
+     *         reached.
+     */
+    public double getDistance(int node) {
+        return isReached(node) ? this.distance[node] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * @param node ID of a node.
+     *
+     * @return Index of the arc to the given node in the compact graph, or -1 if
+     *         the node has no parent.
+     */
+    public int getParentArc(int node) {
+        return isReached(node) ? this.parentArc[node] : -1;
+    }
+
+    /**
+     * @param node ID of a node.
+     *
+     * @return ID of the parent of the given node, or -1 if the node has no parent.
+     */
+    public int getParentNode(int node) {
+        return isReached(node) ? this.parentNode[node] : -1;
+    }
+
+    /**
+     * Reach the given node, or update its distance and parent.
+     *
+     * @param node ID of a node.
+     * @param distance New distance of the node.
+     * @param parentNode ID of the parent of the node, or -1.
+     * @param parentArc Index of the arc from the parent in the compact graph, or
+     *        -1.
+     */
+    public void reach(int node, double distance, int parentNode, int parentArc) {
+        this.reached[node] = this.generation;
+        this.distance[node] = distance;
+        this.parentNode[node] = parentNode;
+        this.parentArc[node] = parentArc;
+    }
+
+    /**
+     * @param node ID of a node.
+     *
+     * @return true if a heuristic has been set for the given node.
+     */
+    public boolean hasHeuristic(int node) {
+        return this.estimated[node] == this.generation;
+    }
+
+    /**
+     * @param node ID of a node.
+     *
+     * @return Heuristic of the given node, or 0 if none has been set.
+     */
+    public double getHeuristic(int node) {
+        return hasHeuristic(node) ? this.heuristic[node] : 0;
+    }
+
+    /**
+     * Set the heuristic of the given node.
+     *
+     * @param node ID of a node.
+     * @param heuristic Heuristic of the node.
+     */
+    public void setHeuristic(int node, double heuristic) {
+        this.estimated[node] = this.generation;
+        this.heuristic[node] = heuristic;
+    }
+
+    /**
+     * Retrieve the arcs from the root of the search to the given node, following
+     * the parents.
+     *
+     * @param node ID of a reached node.
+     *
+     * @return List of arcs from the root of the search to the given node.
+     */
+    public List<Arc> getArcs(int node) {
+        final Graph graph = getGraph();
+        ArrayList<Arc> arcs = new ArrayList<>();
+        for (int arc = getParentArc(node); arc != -1; arc = getParentArc(node)) {
+            int parent = this.parentNode[node];
+            arcs.add(graph.getArc(parent, arc));
+            node = parent;
+        }
+        Collections.reverse(arcs);
+        return arcs;
+    }
+
+}
@@ -1,6 +1,8 @@
 package org.insa.graphs.algorithm.shortestpath;
 
 import org.insa.graphs.algorithm.AbstractAlgorithm;
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.ConnectedComponents;
 import org.insa.graphs.model.Node;
 
 public abstract class ShortestPathAlgorithm extends AbstractAlgorithm<ShortestPathObserver> {
@@ -14,6 +16,26 @@ public abstract class ShortestPathAlgorithm extends AbstractAlgorithm<ShortestPa
         return (ShortestPathSolution) super.run();
     }
 
+    /**
+     * Answer queries whose destination cannot be reached from the origin without
+     * running the algorithm, using the connected components of the graph (see
+     * {@link ConnectedComponents#mayReach(int, int)}), which are computed on the
+     * first query for a graph and an inspector.
+     *
+     * Observers of a rejected query are only notified that the origin has been
+     * processed, no node being reached.
+     */
+    @Override
+    protected ShortestPathSolution doCheck() {
+        ShortestPathData data = getInputData();
+        if (!ConnectedComponents.of(data.getGraph(), data.getArcInspector())
+                .mayReach(data.getOrigin().getId(), data.getDestination().getId())) {
+            notifyOriginProcessed(data.getOrigin());
+            return new ShortestPathSolution(data, Status.INFEASIBLE);
+        }
+        return null;
+    }
+
     @Override
     protected abstract ShortestPathSolution doRun();
 
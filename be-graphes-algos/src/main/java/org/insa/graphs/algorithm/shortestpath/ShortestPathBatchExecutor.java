@@ -0,0 +1,249 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+
+/**
+ * <p>
+ * Executor running batches of shortest-path queries on a graph, for a given arc
+ * inspector, on a work-stealing pool.
+ * </p>
+ *
+ * <p>
+ * Each query is solved by a new algorithm instance on a worker thread of the
+ * pool. Algorithms based on {@link SearchSpace} use the workspace of the
+ * worker, which is allocated once and reset in <i>O(touched nodes)</i> between
+ * queries, so queries do not allocate per-node state and workers do not share
+ * any mutable state.
+ * </p>
+ *
+ * <p>
+ * The executor keeps track of the number of queries solved and of the time
+ * spent in batches, see {@link #getThroughput()}.
+ * </p>
+ *
+ */
+public class ShortestPathBatchExecutor implements AutoCloseable {
+
+    /**
+     * Origin and destination of a query.
+     *
+     */
+    public static final class Query {
+
+        // Origin and destination of the query.
+        private final Node origin, destination;
+
+        /**
+         * Create a new query.
+         *
+         * @param origin Origin of the query.
+         * @param destination Destination of the query.
+         */
+        public Query(Node origin, Node destination) {
+            this.origin = origin;
+            this.destination = destination;
+        }
+
+        /**
+         * @return Origin of the query.
+         */
+        public Node getOrigin() {
+            return origin;
+        }
+
+        /**
+         * @return Destination of the query.
+         */
+        public Node getDestination() {
+            return destination;
+        }
+
+    }
+
+    // Graph and inspector of the queries.
+    private final Graph graph;
+    private final ArcInspector inspector;
+
+    // Algorithm used to solve each query.
+    private final Function<ShortestPathData, ShortestPathAlgorithm> algorithm;
+
+    // Pool running the queries, and whether this executor owns it.
+    private final ForkJoinPool pool;
+    private final boolean ownsPool;
+
+    // Number of queries solved and time spent in batches (in nanoseconds).
+    private final AtomicLong queryCount = new AtomicLong(), elapsedNanos = new AtomicLong();
+
+    /**
+     * Create a new executor solving queries with {@link DijkstraAlgorithm} on the
+     * common pool.
+     *
+     * @param graph Graph of the queries.
+     * @param inspector Inspector of the queries.
+     */
+    public ShortestPathBatchExecutor(Graph graph, ArcInspector inspector) {
+        this(graph, inspector, DijkstraAlgorithm::new, 0);
+    }
+
+    /**
+     * Create a new executor.
+     *
+     * @param graph Graph of the queries.
+     * @param inspector Inspector of the queries.
+     * @param algorithm Algorithm used to solve each query, e.g.
+     *        {@code DijkstraAlgorithm::new}.
+     * @param parallelism Number of worker threads, or 0 to use the common pool
+     *        (whose parallelism is the number of processors minus one).
+     *
+     * @throws IllegalArgumentException if the parallelism is negative.
+     */
+    public ShortestPathBatchExecutor(Graph graph, ArcInspector inspector,
+            Function<ShortestPathData, ShortestPathAlgorithm> algorithm, int parallelism) {
+        if (parallelism < 0) {
+            throw new IllegalArgumentException("Parallelism must be non-negative.");
+        }
+        this.graph = graph;
+        this.inspector = inspector;
+        this.algorithm = algorithm;
+        this.ownsPool = parallelism > 0;
+        this.pool = this.ownsPool ? new ForkJoinPool(parallelism) : ForkJoinPool.commonPool();
+    }
+
+    /**
+     * @return Graph of the queries.
+     */
+    public Graph getGraph() {
+        return graph;
+    }
+
+    /**
+     * @return Inspector of the queries.
+     */
+    public ArcInspector getArcInspector() {
+        return inspector;
+    }
+
+    /**
+     * @return Number of worker threads.
+     */
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Solve the given queries and return their solutions in order. All the
+     * solutions are kept in memory, see {@link #run(Stream, Consumer)} for large
+     * batches.
+     *
+     * @param queries Queries to solve.
+     *
+     * @return Solution of each query, in the same order.
+     */
+    public List<ShortestPathSolution> run(List<Query> queries) {
+        ShortestPathSolution[] solutions = new ShortestPathSolution[queries.size()];
+        AtomicLong count = new AtomicLong();
+        execute(() -> IntStream.range(0, solutions.length).parallel().forEach(i -> {
+            solutions[i] = solve(queries.get(i));
+            count.incrementAndGet();
+        }), count);
+        return Arrays.asList(solutions);
+    }
+
+    /**
+     * Solve the given queries and pass each solution to the given consumer as
+     * soon as it is computed. Solutions are not kept, so this method can be used
+     * with an unbounded number of queries.
+     *
+     * The consumer is called concurrently by the worker threads, in no particular
+     * order, so it must be thread-safe. The query of a solution is given by
+     * {@link ShortestPathSolution#getInputData()}.
+     *
+     * @param queries Queries to solve.
+     * @param consumer Consumer of the solutions.
+     */
+    public void run(Stream<Query> queries, Consumer<ShortestPathSolution> consumer) {
+        AtomicLong count = new AtomicLong();
+        execute(() -> queries.parallel().forEach(query -> {
+            consumer.accept(solve(query));
+            count.incrementAndGet();
+        }), count);
+    }
+
+    /**
+     * @return Number of queries solved by this executor.
+     */
+    public long getQueryCount() {
+        return queryCount.get();
+    }
+
+    /**
+     * @return Total time spent in batches by this executor (wall-clock time).
+     */
+    public Duration getElapsedTime() {
+        return Duration.ofNanos(elapsedNanos.get());
+    }
+
+    /**
+     * @return Number of queries solved per second, over all the batches run by
+     *         this executor, or 0 if no batch has been run.
+     */
+    public double getThroughput() {
+        long nanos = elapsedNanos.get();
+        return nanos == 0 ? 0 : queryCount.get() * 1e9 / nanos;
+    }
+
+    /**
+     * Shut down the pool of this executor, unless it is the common pool.
+     */
+    @Override
+    public void close() {
+        if (ownsPool) {
+            pool.shutdown();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Solved %d queries in %.3f seconds (%.1f queries/s, %d workers).",
+                getQueryCount(), elapsedNanos.get() / 1e9, getThroughput(), getParallelism());
+    }
+
+    /**
+     * Solve a single query on the current thread.
+     */
+    private ShortestPathSolution solve(Query query) {
+        return algorithm.apply(
+                new ShortestPathData(graph, query.getOrigin(), query.getDestination(), inspector))
+                .run();
+    }
+
+    /**
+     * Run the given batch in the pool, and add the given number of solved queries
+     * to the statistics. A parallel stream started from a task of a pool runs in
+     * this pool.
+     */
+    private void execute(Runnable batch, AtomicLong count) {
+        long start = System.nanoTime();
+        try {
+            pool.invoke(ForkJoinTask.adapt(batch));
+        }
+        finally {
+            elapsedNanos.addAndGet(System.nanoTime() - start);
+            queryCount.addAndGet(count.get());
+        }
+    }
+
+}
@@ -17,7 +17,10 @@ public class ShortestPathData extends AbstractInputData {
      * @param origin Origin node of the path.
      * @param destination Destination node of the path.
      * @param arcInspector Filter for arcs (used to allow only a specific set of
-     *        arcs in the graph to be used).
+     *        arcs in the graph to be used). Data derived from the inspector is
+     *        cached per inspector instance, so the first query with a new instance
+     *        runs in <i>O(m)</i> (see {@link ArcInspector}): reuse the same
+     *        instance across queries.
      */
     public ShortestPathData(Graph graph, Node origin, Node destination, ArcInspector arcInspector) {
         super(graph, arcInspector);
@@ -0,0 +1,24 @@
+package org.insa.graphs.algorithm.shortestpath.alt;
+
+/**
+ * Strategies used to select landmarks.
+ *
+ */
+public enum LandmarkSelection {
+
+    /**
+     * Each new landmark is the node farthest from the landmarks already selected
+     * (the first one being the node farthest from a random node).
+     */
+    FARTHEST,
+
+    /**
+     * Each new landmark is chosen in the region where the current landmarks give
+     * the worst lower bounds: a shortest-path tree is grown from a random root,
+     * each node is weighted by the difference between its distance and its
+     * current lower bound, and the tree is descended through the heaviest
+     * subtrees that do not contain a landmark (Goldberg and Harrelson).
+     */
+    AVOID
+
+}
@@ -0,0 +1,572 @@
+package org.insa.graphs.algorithm.shortestpath.alt;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+import org.insa.graphs.algorithm.ArcCosts;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.onetoall.DijkstraOneToAll;
+import org.insa.graphs.algorithm.utils.ChannelIO;
+import org.insa.graphs.algorithm.utils.GraphCache;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.io.BadFormatException;
+import org.insa.graphs.model.io.BadMagicNumberException;
+import org.insa.graphs.model.io.BadVersionException;
+import org.insa.graphs.model.io.MapMismatchException;
+
+/**
+ * <p>
+ * Landmarks of a graph for a given arc inspector, with the distances from and
+ * to each landmark, used to compute lower bounds with the triangle inequality
+ * (ALT).
+ * </p>
+ *
+ * <p>
+ * Distances are stored as floats, interleaved by node (the distances of a node
+ * to all the landmarks are contiguous). Lower bounds are slightly reduced to
+ * remain valid despite float rounding.
+ * </p>
+ *
+ */
+public final class Landmarks {
+
+    // Default number of landmarks and selection strategy.
+    public static final int DEFAULT_COUNT = 16;
+    public static final LandmarkSelection DEFAULT_SELECTION = LandmarkSelection.AVOID;
+
+    // System property containing the default directory of landmark files.
+    public static final String DIRECTORY_PROPERTY = "org.insa.graphs.landmarks";
+
+    // Extension of landmark files.
+    public static final String EXTENSION = ".landmarks";
+
+    // Version and magic number of landmark files.
+    private static final int VERSION = 2;
+    private static final int MAGIC_NUMBER = 0x4C4D4B53;
+
+    // Relative correction applied to float distances (float rounding is at most
+    // 2^-24 relative).
+    private static final double EPSILON = 0x1p-22;
+
+    private static final Logger LOGGER = Logger.getLogger(Landmarks.class.getName());
+
+    // Landmarks already computed or read, by graph and inspector.
+    private static final GraphCache<Landmarks> CACHE = new GraphCache<>();
+
+    // Directory of landmark files (null if landmarks are not persisted).
+    private static volatile Path directory = System.getProperty(DIRECTORY_PROPERTY) == null
+            ? null
+            : Paths.get(System.getProperty(DIRECTORY_PROPERTY));
+
+    // Map and inspector of these landmarks.
+    private final String mapId, inspector;
+
+    // Fingerprint of the arcs of the graph and of their costs (see
+    // ArcCosts#getFingerprint()).
+    private final long fingerprint;
+
+    // Number of nodes and landmarks.
+    private final int nbNodes, count;
+
+    // Landmark nodes.
+    private final int[] landmarks;
+
+    // Distances from (to) each landmark to (from) each node, at index
+    // node * count + landmark.
+    private final float[] from, to;
+
+    private Landmarks(String mapId, String inspector, long fingerprint, int nbNodes,
+            int[] landmarks, float[] from, float[] to) {
+        this.mapId = mapId;
+        this.inspector = inspector;
+        this.fingerprint = fingerprint;
+        this.nbNodes = nbNodes;
+        this.count = landmarks.length;
+        this.landmarks = landmarks;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * @return Directory where landmark files are read and written by
+     *         {@link #get(Graph, ArcInspector)}, or null if landmarks are not
+     *         persisted. Defaults to the value of the {@value #DIRECTORY_PROPERTY}
+     *         system property.
+     */
+    public static Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * @param directory Directory where landmark files should be read and written
+     *        by {@link #get(Graph, ArcInspector)}, or null to not persist
+     *        landmarks.
+     */
+    public static void setDirectory(Path directory) {
+        Landmarks.directory = directory;
+    }
+
+    /**
+     * @param directory Directory of landmark files.
+     * @param graph Graph of the landmarks.
+     * @param inspector Inspector of the landmarks.
+     *
+     * @return Path of the file containing the landmarks of the given graph and
+     *         inspector.
+     */
+    public static Path getFile(Path directory, Graph graph, ArcInspector inspector) {
+        String name = graph.getMapId() + "-" + inspector.toString();
+        return directory.resolve(name.replaceAll("[^A-Za-z0-9]+", "_") + EXTENSION);
+    }
+
+    /**
+     * Retrieve the landmarks of the given graph and inspector. Landmarks are
+     * cached in memory, and read from (or written to) {@link #getDirectory()} if
+     * it is set. Otherwise, {@link #DEFAULT_COUNT} landmarks are computed with the
+     * {@link #DEFAULT_SELECTION} strategy.
+     *
+     * A landmark file that cannot be read or does not match the graph (e.g. a map
+     * file modified since the landmarks were written) is replaced by a new one.
+     * Writing the landmark file is best-effort: the landmarks are returned even if
+     * the file cannot be written. Failures are logged.
+     *
+     * @param graph Graph of the landmarks.
+     * @param inspector Inspector of the landmarks.
+     *
+     * @return Landmarks of the given graph and inspector.
+     */
+    public static Landmarks get(Graph graph, ArcInspector inspector) {
+        return CACHE.get(graph, inspector, () -> {
+            Path directory = getDirectory();
+            Path file = directory == null ? null : getFile(directory, graph, inspector);
+            if (file != null && Files.exists(file)) {
+                try {
+                    return read(file, graph, inspector);
+                }
+                catch (IOException e) {
+                    LOGGER.log(Level.WARNING,
+                            "Invalid or outdated landmark file " + file + ", recomputing.", e);
+                }
+            }
+            Landmarks computed = compute(graph, inspector, DEFAULT_COUNT, DEFAULT_SELECTION);
+            if (file != null) {
+                try {
+                    Files.createDirectories(directory);
+                    computed.write(file);
+                }
+                catch (IOException e) {
+                    LOGGER.log(Level.WARNING, "Cannot write landmark file " + file + ".", e);
+                }
+            }
+            return computed;
+        });
+    }
+
+    /**
+     * Select landmarks on the given graph and compute their distances. Forward and
+     * backward one-to-all searches from the landmarks are run in parallel.
+     *
+     * @param graph Graph of the landmarks.
+     * @param inspector Inspector used to compute the costs of the arcs.
+     * @param count Number of landmarks (at most the number of nodes).
+     * @param selection Strategy used to select the landmarks.
+     *
+     * @return New landmarks.
+     */
+    public static Landmarks compute(Graph graph, ArcInspector inspector, int count,
+            LandmarkSelection selection) {
+        CompactGraph compact = graph.getCompactGraph();
+        ArcCosts costs = ArcCosts.of(graph, inspector);
+        final int nbNodes = compact.size();
+        count = Math.min(count, nbNodes);
+
+        int[] landmarks = new int[count];
+        float[][] from = new float[count][], to = new float[count][];
+        Random random = new Random(0);
+
+        if (selection == LandmarkSelection.FARTHEST) {
+            // Minimum distance from the selected landmarks.
+            double[] minDistances = DijkstraOneToAll.run(compact, costs, random.nextInt(nbNodes),
+                    false, null, null, null);
+            for (int i = 0; i < count; ++i) {
+                landmarks[i] = argmax(minDistances);
+                double[] distances = DijkstraOneToAll.run(compact, costs, landmarks[i], false,
+                        null, null, null);
+                // Kept as the forward distances of the landmark, so that they are not
+                // computed again below.
+                from[i] = toFloats(distances);
+                for (int node = 0; node < nbNodes; ++node) {
+                    minDistances[node] = i == 0 ? distances[node]
+                            : Math.min(minDistances[node], distances[node]);
+                }
+            }
+        }
+        else {
+            boolean[] isLandmark = new boolean[nbNodes];
+            for (int i = 0; i < count; ++i) {
+                int landmark = i == 0 ? -1 : selectAvoid(compact, costs, random, landmarks, i, from,
+                        to, isLandmark);
+                if (landmark == -1) {
+                    double[] distances = DijkstraOneToAll.run(compact, costs,
+                            random.nextInt(nbNodes), false, null, null, null);
+                    for (int j = 0; j < i; ++j) {
+                        distances[landmarks[j]] = Double.NEGATIVE_INFINITY;
+                    }
+                    landmark = argmax(distances);
+                }
+                landmarks[i] = landmark;
+                isLandmark[landmark] = true;
+                computeDistances(compact, costs, landmarks, from, to, i, i + 1);
+            }
+        }
+
+        computeDistances(compact, costs, landmarks, from, to, 0, count);
+
+        // Interleave distances by node.
+        float[] fromAll = new float[nbNodes * count], toAll = new float[nbNodes * count];
+        for (int i = 0; i < count; ++i) {
+            for (int node = 0; node < nbNodes; ++node) {
+                fromAll[node * count + i] = from[i][node];
+                toAll[node * count + i] = to[i][node];
+            }
+        }
+
+        return new Landmarks(graph.getMapId(), inspector.toString(), costs.getFingerprint(),
+                nbNodes, landmarks, fromAll, toAll);
+    }
+
+    /**
+     * Compute, in parallel, the distances of the landmarks in [begin, end) that
+     * have not been computed yet.
+     */
+    private static void computeDistances(CompactGraph compact, ArcCosts costs, int[] landmarks,
+            float[][] from, float[][] to, int begin, int end) {
+        IntStream.range(2 * begin, 2 * end).parallel().forEach(task -> {
+            int i = task / 2;
+            boolean backward = task % 2 == 1;
+            float[][] target = backward ? to : from;
+            if (target[i] == null) {
+                target[i] = toFloats(DijkstraOneToAll.run(compact, costs, landmarks[i], backward,
+                        null, null, null));
+            }
+        });
+    }
+
+    /**
+     * Select a new landmark with the avoid strategy.
+     *
+     * @return The new landmark, or -1 if none could be found.
+     */
+    private static int selectAvoid(CompactGraph compact, ArcCosts costs, Random random,
+            int[] landmarks, int nbLandmarks, float[][] from, float[][] to,
+            boolean[] isLandmark) {
+        final int nbNodes = compact.size();
+        int root = random.nextInt(nbNodes);
+        int[] parents = new int[nbNodes], order = new int[nbNodes];
+        double[] distances = DijkstraOneToAll.run(compact, costs, root, false, parents, null,
+                order);
+
+        // Weight of each node: difference between its distance and its lower bound.
+        double[] sizes = new double[nbNodes];
+        int nbSettled = 0;
+        while (nbSettled < nbNodes && order[nbSettled] != -1) {
+            int node = order[nbSettled++];
+            double bound = 0;
+            for (int i = 0; i < nbLandmarks; ++i) {
+                bound = Math.max(bound,
+                        lowerBound(from[i][root], from[i][node], to[i][root], to[i][node]));
+            }
+            sizes[node] = Math.max(0, distances[node] - bound);
+        }
+
+        // Size of each subtree (0 for subtrees containing a landmark), and children
+        // as linked lists.
+        boolean[] containsLandmark = new boolean[nbNodes];
+        int[] firstChild = new int[nbNodes], nextSibling = new int[nbNodes];
+        Arrays.fill(firstChild, -1);
+        for (int i = nbSettled - 1; i >= 0; --i) {
+            int node = order[i];
+            containsLandmark[node] |= isLandmark[node];
+            if (containsLandmark[node]) {
+                sizes[node] = 0;
+            }
+            int parent = parents[node];
+            if (parent != -1) {
+                sizes[parent] += sizes[node];
+                containsLandmark[parent] |= containsLandmark[node];
+                nextSibling[node] = firstChild[parent];
+                firstChild[parent] = node;
+            }
+        }
+        if (sizes[root] == 0) {
+            return -1;
+        }
+
+        // Descend through the heaviest subtrees.
+        int node = root;
+        while (true) {
+            int best = -1;
+            for (int child = firstChild[node]; child != -1; child = nextSibling[child]) {
+                if (sizes[child] > 0 && (best == -1 || sizes[child] > sizes[best])) {
+                    best = child;
+                }
+            }
+            if (best == -1) {
+                return node;
+            }
+            node = best;
+        }
+    }
+
+    /**
+     * @return Index of the maximum finite value of the given array.
+     */
+    private static int argmax(double[] values) {
+        int best = 0;
+        for (int i = 1; i < values.length; ++i) {
+            if (Double.isFinite(values[i])
+                    && (!Double.isFinite(values[best]) || values[i] > values[best])) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return Float copy of the given distances.
+     */
+    private static float[] toFloats(double[] distances) {
+        float[] floats = new float[distances.length];
+        for (int i = 0; i < distances.length; ++i) {
+            floats[i] = (float) distances[i];
+        }
+        return floats;
+    }
+
+    /**
+     * Compute a lower bound of the distance from u to v from the distances of a
+     * landmark L, corrected for float rounding.
+     *
+     * @param fromU Distance from L to u.
+     * @param fromV Distance from L to v.
+     * @param toU Distance from u to L.
+     * @param toV Distance from v to L.
+     *
+     * @return Lower bound of the distance from u to v, may be infinite (v cannot
+     *         be reached from u) or negative.
+     */
+    private static double lowerBound(float fromU, float fromV, float toU, float toV) {
+        double bound = Double.NEGATIVE_INFINITY;
+        // d(u, v) >= d(L, v) - d(L, u)
+        double forward = fromV * (1 - EPSILON) - fromU * (1 + EPSILON);
+        if (forward > bound) {
+            bound = forward;
+        }
+        // d(u, v) >= d(u, L) - d(v, L)
+        double backward = toU * (1 - EPSILON) - toV * (1 + EPSILON);
+        if (backward > bound) {
+            bound = backward;
+        }
+        return bound;
+    }
+
+    /**
+     * @return ID of the map of these landmarks.
+     */
+    public String getMapId() {
+        return this.mapId;
+    }
+
+    /**
+     * @return String representation of the inspector of these landmarks.
+     */
+    public String getInspector() {
+        return this.inspector;
+    }
+
+    /**
+     * @return Number of landmarks.
+     */
+    public int getCount() {
+        return this.count;
+    }
+
+    /**
+     * @param landmark Index of a landmark.
+     *
+     * @return ID of the node of the given landmark.
+     */
+    public int getLandmark(int landmark) {
+        return this.landmarks[landmark];
+    }
+
+    /**
+     * @param landmark Index of a landmark.
+     * @param node ID of a node.
+     *
+     * @return Distance from the given landmark to the given node.
+     */
+    public float getDistanceFrom(int landmark, int node) {
+        return this.from[node * this.count + landmark];
+    }
+
+    /**
+     * @param landmark Index of a landmark.
+     * @param node ID of a node.
+     *
+     * @return Distance from the given node to the given landmark.
+     */
+    public float getDistanceTo(int landmark, int node) {
+        return this.to[node * this.count + landmark];
+    }
+
+    /**
+     * Compute a lower bound of the distance between two nodes using the given
+     * landmark.
+     *
+     * @param node ID of the first node.
+     * @param target ID of the second node.
+     * @param landmark Index of a landmark.
+     *
+     * @return Lower bound of the distance from node to target (never negative),
+     *         infinite if target cannot be reached from node.
+     */
+    public double getLowerBound(int node, int target, int landmark) {
+        int u = node * this.count + landmark, v = target * this.count + landmark;
+        return Math.max(0, lowerBound(this.from[u], this.from[v], this.to[u], this.to[v]));
+    }
+
+    /**
+     * Compute a lower bound of the distance between two nodes using the given
+     * landmarks.
+     *
+     * @param node ID of the first node.
+     * @param target ID of the second node.
+     * @param landmarks Indices of the landmarks to use.
+     *
+     * @return Lower bound of the distance from node to target (never negative),
+     *         infinite if target cannot be reached from node.
+     */
+    public double getLowerBound(int node, int target, int[] landmarks) {
+        double bound = 0;
+        int u = node * this.count, v = target * this.count;
+        for (int landmark: landmarks) {
+            double b = lowerBound(this.from[u + landmark], this.from[v + landmark],
+                    this.to[u + landmark], this.to[v + landmark]);
+            if (b > bound) {
+                bound = b;
+            }
+        }
+        return bound;
+    }
+
+    /**
+     * Select the landmarks giving the best lower bounds for a query.
+     *
+     * @param origin ID of the origin of the query.
+     * @param target ID of the destination of the query.
+     * @param count Maximum number of landmarks to select.
+     *
+     * @return Indices of the landmarks giving the best lower bounds from origin to
+     *         target.
+     */
+    public int[] selectActive(int origin, int target, int count) {
+        count = Math.min(count, this.count);
+        Integer[] indices = new Integer[this.count];
+        double[] bounds = new double[this.count];
+        for (int i = 0; i < this.count; ++i) {
+            indices[i] = i;
+            bounds[i] = getLowerBound(origin, target, i);
+        }
+        Arrays.sort(indices, (i, j) -> Double.compare(bounds[j], bounds[i]));
+        int[] active = new int[count];
+        for (int i = 0; i < count; ++i) {
+            active[i] = indices[i];
+        }
+        return active;
+    }
+
+    /**
+     * Write these landmarks to the given file.
+     *
+     * @param file File to write to.
+     *
+     * @throws IOException if an error occurs while writing.
+     */
+    public void write(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ChannelIO.writeFully(channel,
+                    ByteBuffer.allocate(24).putInt(MAGIC_NUMBER).putInt(VERSION)
+                            .putInt(this.nbNodes).putInt(this.count).putLong(this.fingerprint)
+                            .flip());
+            ChannelIO.writeString(channel, String.valueOf(this.mapId));
+            ChannelIO.writeString(channel, this.inspector);
+            ChannelIO.writeInts(channel, this.landmarks);
+            ChannelIO.writeFloats(channel, this.from);
+            ChannelIO.writeFloats(channel, this.to);
+        }
+    }
+
+    /**
+     * Read landmarks from the given file.
+     *
+     * @param file File to read from.
+     * @param graph Graph of the landmarks.
+     * @param inspector Inspector of the landmarks.
+     *
+     * @return Landmarks read.
+     *
+     * @throws IOException if an error occurs while reading, or if the file does
+     *         not correspond to the given graph and inspector (including the arcs
+     *         of the graph and their costs).
+     */
+    public static Landmarks read(Path file, Graph graph, ArcInspector inspector)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(24);
+            ChannelIO.readFully(channel, header);
+            if (header.getInt() != MAGIC_NUMBER) {
+                throw new BadMagicNumberException(header.getInt(0), MAGIC_NUMBER);
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new BadVersionException(version, VERSION);
+            }
+            int nbNodes = header.getInt(), count = header.getInt();
+            long fingerprint = header.getLong();
+            String mapId = ChannelIO.readString(channel),
+                    inspectorKey = ChannelIO.readString(channel);
+            if (!mapId.equals(String.valueOf(graph.getMapId()))) {
+                throw new MapMismatchException(mapId, graph.getMapId());
+            }
+            if (nbNodes != graph.size() || !inspectorKey.equals(inspector.toString())) {
+                throw new BadFormatException("Landmarks do not match graph or inspector.");
+            }
+            if (fingerprint != ArcCosts.of(graph, inspector).getFingerprint()) {
+                throw new BadFormatException("Landmarks do not match the arcs of the graph.");
+            }
+
+            int[] landmarks = new int[count];
+            ChannelIO.readInts(channel, landmarks);
+
+            float[] from = new float[nbNodes * count], to = new float[nbNodes * count];
+            ChannelIO.readFloats(channel, from);
+            ChannelIO.readFloats(channel, to);
+            return new Landmarks(graph.getMapId(), inspectorKey, fingerprint, nbNodes, landmarks,
+                    from, to);
+        }
+    }
+
+}
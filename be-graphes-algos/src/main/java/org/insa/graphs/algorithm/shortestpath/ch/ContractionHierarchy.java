@@ -0,0 +1,427 @@
+package org.insa.graphs.algorithm.shortestpath.ch;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.insa.graphs.algorithm.ArcCosts;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.utils.ChannelIO;
+import org.insa.graphs.algorithm.utils.GraphCache;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.io.BadFormatException;
+import org.insa.graphs.model.io.BadMagicNumberException;
+import org.insa.graphs.model.io.BadVersionException;
+import org.insa.graphs.model.io.MapMismatchException;
+
+/**
+ * <p>
+ * Contraction hierarchy of a graph for a given arc inspector: the rank of each
+ * node in the contraction order, and the upward edges of each node (edges to
+ * nodes with a higher rank), which are either arcs of the graph or shortcuts.
+ * </p>
+ *
+ * <p>
+ * Forward edges of a node are its outgoing upward edges, and backward edges of
+ * a node are its incoming upward edges (i.e. edges from a node with a higher
+ * rank). A shortcut is stored with the node it bypasses, so it can be unpacked
+ * into the two edges it replaces, which are upward edges of the bypassed node.
+ * </p>
+ *
+ */
+public final class ContractionHierarchy {
+
+    // Directions of edges.
+    public static final int FORWARD = 0, BACKWARD = 1;
+
+    // System property containing the default directory of hierarchy files.
+    public static final String DIRECTORY_PROPERTY = "org.insa.graphs.hierarchies";
+
+    // Extension of hierarchy files.
+    public static final String EXTENSION = ".ch";
+
+    // Version and magic number of hierarchy files.
+    private static final int VERSION = 2;
+    private static final int MAGIC_NUMBER = 0x43484945;
+
+    private static final Logger LOGGER = Logger.getLogger(ContractionHierarchy.class.getName());
+
+    // Hierarchies already computed or read, by graph and inspector.
+    private static final GraphCache<ContractionHierarchy> CACHE = new GraphCache<>();
+
+    // Directory of hierarchy files (null if hierarchies are not persisted).
+    private static volatile Path directory = System.getProperty(DIRECTORY_PROPERTY) == null
+            ? null
+            : Paths.get(System.getProperty(DIRECTORY_PROPERTY));
+
+    // Map and inspector of this hierarchy.
+    private final String mapId, inspector;
+
+    // Fingerprint of the arcs of the graph and of their costs (see
+    // ArcCosts#getFingerprint()).
+    private final long fingerprint;
+
+    // Rank of each node.
+    private final int[] ranks;
+
+    // Upward edges in each direction: index of the first edge of each node, other
+    // node, cost, and bypassed node (or ~arc if the edge is an arc of the graph).
+    private final int[][] first, nodes, vias;
+    private final double[][] costs;
+
+    ContractionHierarchy(String mapId, String inspector, long fingerprint, int[] ranks,
+            int[][] first, int[][] nodes, double[][] costs, int[][] vias) {
+        this.mapId = mapId;
+        this.inspector = inspector;
+        this.fingerprint = fingerprint;
+        this.ranks = ranks;
+        this.first = first;
+        this.nodes = nodes;
+        this.costs = costs;
+        this.vias = vias;
+    }
+
+    /**
+     * @return Directory where hierarchy files are read and written by
+     *         {@link #get(Graph, ArcInspector)}, or null if hierarchies are not
+     *         persisted. Defaults to the value of the {@value #DIRECTORY_PROPERTY}
+     *         system property.
+     */
+    public static Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * @param directory Directory where hierarchy files should be read and written
+     *        by {@link #get(Graph, ArcInspector)}, or null to not persist
+     *        hierarchies.
+     */
+    public static void setDirectory(Path directory) {
+        ContractionHierarchy.directory = directory;
+    }
+
+    /**
+     * @param directory Directory of hierarchy files.
+     * @param graph Graph of the hierarchy.
+     * @param inspector Inspector of the hierarchy.
+     *
+     * @return Path of the file containing the hierarchy of the given graph and
+     *         inspector.
+     */
+    public static Path getFile(Path directory, Graph graph, ArcInspector inspector) {
+        String name = graph.getMapId() + "-" + inspector.toString();
+        return directory.resolve(name.replaceAll("[^A-Za-z0-9]+", "_") + EXTENSION);
+    }
+
+    /**
+     * Retrieve the contraction hierarchy of the given graph and inspector.
+     * Hierarchies are cached in memory (see {@link GraphCache}), and read from (or written to)
+     * {@link #getDirectory()} if it is set. Otherwise, the hierarchy is computed.
+     *
+     * A hierarchy file that cannot be read or does not match the graph (e.g. a map
+     * file modified since the hierarchy was written) is replaced by a new one.
+     * Writing the hierarchy file is best-effort: the hierarchy is returned even if
+     * the file cannot be written. Failures are logged.
+     *
+     * @param graph Graph of the hierarchy.
+     * @param inspector Inspector of the hierarchy.
+     *
+     * @return Contraction hierarchy of the given graph and inspector.
+     */
+    public static ContractionHierarchy get(Graph graph, ArcInspector inspector) {
+        return CACHE.get(graph, inspector, () -> {
+            Path directory = getDirectory();
+            Path file = directory == null ? null : getFile(directory, graph, inspector);
+            if (file != null && Files.exists(file)) {
+                try {
+                    return read(file, graph, inspector);
+                }
+                catch (IOException e) {
+                    LOGGER.log(Level.WARNING,
+                            "Invalid or outdated hierarchy file " + file + ", recomputing.", e);
+                }
+            }
+            ContractionHierarchy computed = compute(graph, inspector);
+            if (file != null) {
+                try {
+                    Files.createDirectories(directory);
+                    computed.write(file);
+                }
+                catch (IOException e) {
+                    LOGGER.log(Level.WARNING, "Cannot write hierarchy file " + file + ".", e);
+                }
+            }
+            return computed;
+        });
+    }
+
+    /**
+     * Contract the given graph. See {@link HierarchyBuilder} for details.
+     *
+     * @param graph Graph to contract.
+     * @param inspector Inspector used to compute the costs of the arcs.
+     *
+     * @return New contraction hierarchy.
+     */
+    public static ContractionHierarchy compute(Graph graph, ArcInspector inspector) {
+        return new HierarchyBuilder(graph.getCompactGraph(), ArcCosts.of(graph, inspector))
+                .build(String.valueOf(graph.getMapId()), inspector.toString());
+    }
+
+    /**
+     * @return ID of the map of this hierarchy.
+     */
+    public String getMapId() {
+        return this.mapId;
+    }
+
+    /**
+     * @return String representation of the inspector of this hierarchy.
+     */
+    public String getInspector() {
+        return this.inspector;
+    }
+
+    /**
+     * @return Fingerprint of the arcs and costs this hierarchy was built from, see
+     *         {@link ArcCosts#getFingerprint()}.
+     */
+    public long getFingerprint() {
+        return this.fingerprint;
+    }
+
+    /**
+     * @return Number of nodes.
+     */
+    public int size() {
+        return this.ranks.length;
+    }
+
+    /**
+     * @param node A node.
+     *
+     * @return Rank of the node in the contraction order.
+     */
+    public int getRank(int node) {
+        return this.ranks[node];
+    }
+
+    /**
+     * @param direction {@link #FORWARD} or {@link #BACKWARD}.
+     *
+     * @return Number of upward edges in the given direction, including shortcuts.
+     */
+    public int getEdgeCount(int direction) {
+        return this.nodes[direction].length;
+    }
+
+    /**
+     * @param direction {@link #FORWARD} or {@link #BACKWARD}.
+     * @param node A node, or the number of nodes.
+     *
+     * @return Index of the first upward edge of the given node in the given
+     *         direction. Edges of a node range from this index to the index of
+     *         the next node (excluded).
+     */
+    public int getFirstEdge(int direction, int node) {
+        return this.first[direction][node];
+    }
+
+    /**
+     * @param direction {@link #FORWARD} or {@link #BACKWARD}.
+     * @param edge Index of an edge.
+     *
+     * @return Head (forward) or tail (backward) of the edge.
+     */
+    public int getEdgeNode(int direction, int edge) {
+        return this.nodes[direction][edge];
+    }
+
+    /**
+     * @param direction {@link #FORWARD} or {@link #BACKWARD}.
+     * @param edge Index of an edge.
+     *
+     * @return Cost of the edge.
+     */
+    public double getEdgeCost(int direction, int edge) {
+        return this.costs[direction][edge];
+    }
+
+    /**
+     * @param direction {@link #FORWARD} or {@link #BACKWARD}.
+     * @param edge Index of an edge.
+     *
+     * @return true if the edge is a shortcut.
+     */
+    public boolean isShortcut(int direction, int edge) {
+        return this.vias[direction][edge] >= 0;
+    }
+
+    /**
+     * @param direction {@link #FORWARD} or {@link #BACKWARD}.
+     * @param edge Index of an edge.
+     *
+     * @return Node bypassed by the edge if it is a shortcut, or the bitwise
+     *         complement of the index of the arc in the compact graph otherwise.
+     */
+    public int getVia(int direction, int edge) {
+        return this.vias[direction][edge];
+    }
+
+    /**
+     * Append the arcs of the graph represented by the given edge to the given
+     * list, in path order.
+     *
+     * @param graph Graph of the hierarchy.
+     * @param direction {@link #FORWARD} or {@link #BACKWARD}.
+     * @param node Node owning the edge.
+     * @param edge Index of the edge.
+     * @param arcs List where arcs are appended.
+     */
+    public void unpack(Graph graph, int direction, int node, int edge, List<Arc> arcs) {
+        int other = this.nodes[direction][edge];
+        int tail = direction == FORWARD ? node : other, head = direction == FORWARD ? other : node;
+
+        // Stack of edges (tail, head, via) still to unpack, the next edge of the path
+        // being on top.
+        int[] stack = new int[48];
+        int size = 0;
+        stack[size++] = tail;
+        stack[size++] = head;
+        stack[size++] = this.vias[direction][edge];
+        while (size > 0) {
+            int via = stack[--size];
+            head = stack[--size];
+            tail = stack[--size];
+            if (via < 0) {
+                arcs.add(graph.getArc(tail, ~via));
+                continue;
+            }
+            if (size + 6 > stack.length) {
+                stack = Arrays.copyOf(stack, 2 * stack.length);
+            }
+            // (via, head) is a forward edge of via, (tail, via) a backward one.
+            stack[size++] = via;
+            stack[size++] = head;
+            stack[size++] = this.vias[FORWARD][findEdge(FORWARD, via, head)];
+            stack[size++] = tail;
+            stack[size++] = via;
+            stack[size++] = this.vias[BACKWARD][findEdge(BACKWARD, via, tail)];
+        }
+    }
+
+    /**
+     * @param direction {@link #FORWARD} or {@link #BACKWARD}.
+     * @param node A node.
+     * @param other A node with a higher rank.
+     *
+     * @return Index of the upward edge of the given node to (forward) or from
+     *         (backward) the given other node.
+     *
+     * @throws IllegalStateException if there is no such edge.
+     */
+    public int findEdge(int direction, int node, int other) {
+        for (int edge = this.first[direction][node]; edge < this.first[direction][node
+                + 1]; ++edge) {
+            if (this.nodes[direction][edge] == other) {
+                return edge;
+            }
+        }
+        throw new IllegalStateException("Missing edge in contraction hierarchy.");
+    }
+
+    /**
+     * Write this hierarchy to the given file.
+     *
+     * @param file File to write to.
+     *
+     * @throws IOException if an error occurs while writing.
+     */
+    public void write(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ChannelIO.writeFully(channel,
+                    ByteBuffer.allocate(28).putInt(MAGIC_NUMBER).putInt(VERSION)
+                            .putInt(size()).putInt(getEdgeCount(FORWARD))
+                            .putInt(getEdgeCount(BACKWARD)).putLong(this.fingerprint).flip());
+            ChannelIO.writeString(channel, this.mapId);
+            ChannelIO.writeString(channel, this.inspector);
+            ChannelIO.writeInts(channel, this.ranks);
+            for (int direction: new int[] { FORWARD, BACKWARD }) {
+                ChannelIO.writeInts(channel, this.first[direction]);
+                ChannelIO.writeInts(channel, this.nodes[direction]);
+                ChannelIO.writeDoubles(channel, this.costs[direction]);
+                ChannelIO.writeInts(channel, this.vias[direction]);
+            }
+        }
+    }
+
+    /**
+     * Read a hierarchy from the given file.
+     *
+     * @param file File to read from.
+     * @param graph Graph of the hierarchy.
+     * @param inspector Inspector of the hierarchy.
+     *
+     * @return Hierarchy read.
+     *
+     * @throws IOException if an error occurs while reading, or if the file does
+     *         not correspond to the given graph and inspector (including the arcs
+     *         of the graph and their costs).
+     */
+    public static ContractionHierarchy read(Path file, Graph graph, ArcInspector inspector)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(28);
+            ChannelIO.readFully(channel, header);
+            if (header.getInt() != MAGIC_NUMBER) {
+                throw new BadMagicNumberException(header.getInt(0), MAGIC_NUMBER);
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new BadVersionException(version, VERSION);
+            }
+            int nbNodes = header.getInt();
+            int[] nbEdges = { header.getInt(), header.getInt() };
+            long fingerprint = header.getLong();
+            String mapId = ChannelIO.readString(channel),
+                    inspectorKey = ChannelIO.readString(channel);
+            if (!mapId.equals(String.valueOf(graph.getMapId()))) {
+                throw new MapMismatchException(mapId, graph.getMapId());
+            }
+            if (nbNodes != graph.size() || !inspectorKey.equals(inspector.toString())) {
+                throw new BadFormatException("Hierarchy does not match graph or inspector.");
+            }
+            if (fingerprint != ArcCosts.of(graph, inspector).getFingerprint()) {
+                throw new BadFormatException("Hierarchy does not match the arcs of the graph.");
+            }
+
+            int[] ranks = new int[nbNodes];
+            ChannelIO.readInts(channel, ranks);
+            int[][] first = new int[2][], nodes = new int[2][], vias = new int[2][];
+            double[][] costs = new double[2][];
+            for (int direction: new int[] { FORWARD, BACKWARD }) {
+                first[direction] = new int[nbNodes + 1];
+                nodes[direction] = new int[nbEdges[direction]];
+                costs[direction] = new double[nbEdges[direction]];
+                vias[direction] = new int[nbEdges[direction]];
+                ChannelIO.readInts(channel, first[direction]);
+                ChannelIO.readInts(channel, nodes[direction]);
+                ChannelIO.readDoubles(channel, costs[direction]);
+                ChannelIO.readInts(channel, vias[direction]);
+            }
+            return new ContractionHierarchy(mapId, inspectorKey, fingerprint, ranks, first, nodes,
+                    costs, vias);
+        }
+    }
+
+}
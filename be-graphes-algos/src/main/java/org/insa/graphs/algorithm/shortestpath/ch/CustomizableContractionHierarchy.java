@@ -0,0 +1,372 @@
+package org.insa.graphs.algorithm.shortestpath.ch;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.stream.IntStream;
+
+import org.insa.graphs.algorithm.ArcCosts;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.utils.GraphCache;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+
+/**
+ * <p>
+ * Customizable contraction hierarchy (CCH) of a graph: the node order and the
+ * upward edges only depend on the graph, not on the costs of the arcs, so a
+ * contraction hierarchy for a new arc inspector can be obtained by computing the
+ * costs of the edges only (customization).
+ * </p>
+ *
+ * <p>
+ * Nodes are ordered by {@link NestedDissection nested dissection}, and all the
+ * nodes are contracted without witness searches: the upward neighbours of each
+ * node form a clique, so every pair of upward neighbours of a node is linked by
+ * an edge. Customization first assigns the costs of the arcs to the edges,
+ * then processes nodes bottom-up, the cost of each edge (u, w) being the
+ * minimum cost over the lower triangles (u, v, w) with v lower than u and w.
+ * Nodes whose lower neighbours have all been processed are processed in
+ * parallel.
+ * </p>
+ *
+ */
+public final class CustomizableContractionHierarchy {
+
+    // Nodes processed in parallel during customization when a level has more nodes
+    // than this.
+    private static final int PARALLEL_THRESHOLD = 256;
+
+    // Hierarchies already computed, by graph.
+    private static final Map<Graph, CustomizableContractionHierarchy> CACHE = new WeakHashMap<>();
+
+    // Map of this hierarchy.
+    private final String mapId;
+
+    // Rank of each node.
+    private final int[] ranks;
+
+    // Upward edges: index of the first edge of each node, and upper node of each
+    // edge, the edges of a node being sorted by rank.
+    private final int[] first, nodes;
+
+    // Downward edges: index of the first downward edge of each node, lower node of
+    // each downward edge, and index of the corresponding upward edge.
+    private final int[] firstDown, downNodes, downEdges;
+
+    // Nodes sorted by level (a node has a higher level than all its lower
+    // neighbours), and index of the first node of each level.
+    private final int[] levelNodes, firstLevelNode;
+
+    // Upward edge corresponding to each arc of the graph (-1 for loops).
+    private final int[] arcEdges;
+
+    // Customized hierarchies, by inspector.
+    private final GraphCache<ContractionHierarchy> customized = new GraphCache<>();
+
+    private CustomizableContractionHierarchy(CompactGraph graph, String mapId, int[] ranks) {
+        this.mapId = mapId;
+        this.ranks = ranks;
+        final int nbNodes = graph.size();
+
+        // Nodes by rank.
+        int[] order = new int[nbNodes];
+        for (int node = 0; node < nbNodes; ++node) {
+            order[ranks[node]] = node;
+        }
+
+        // Upward neighbours of each node, as ranks. Nodes are contracted in order:
+        // the upward neighbours of a node form a clique, which is represented by
+        // adding them to the neighbours of the lowest of them.
+        int[][] neighbours = new int[nbNodes][];
+        int[] sizes = new int[nbNodes];
+        for (int node = 0; node < nbNodes; ++node) {
+            for (int arc = graph.getFirstArc(node); arc < graph.getFirstArc(node + 1); ++arc) {
+                int head = graph.getHead(arc);
+                if (head != node) {
+                    int low = Math.min(ranks[node], ranks[head]),
+                            high = Math.max(ranks[node], ranks[head]);
+                    add(neighbours, sizes, low, high);
+                }
+            }
+        }
+        for (int rank = 0; rank < nbNodes; ++rank) {
+            int[] upward = neighbours[rank] == null ? new int[0]
+                    : Arrays.copyOf(neighbours[rank], sizes[rank]);
+            upward = Arrays.stream(upward).sorted().distinct().toArray();
+            neighbours[rank] = upward;
+            sizes[rank] = upward.length;
+            for (int i = 1; i < upward.length; ++i) {
+                add(neighbours, sizes, upward[0], upward[i]);
+            }
+        }
+
+        // Upward edges by node.
+        this.first = new int[nbNodes + 1];
+        for (int node = 0; node < nbNodes; ++node) {
+            this.first[node + 1] = this.first[node] + neighbours[ranks[node]].length;
+        }
+        this.nodes = new int[this.first[nbNodes]];
+        int[] downCounts = new int[nbNodes + 1];
+        for (int node = 0; node < nbNodes; ++node) {
+            int[] upward = neighbours[ranks[node]];
+            for (int i = 0; i < upward.length; ++i) {
+                this.nodes[this.first[node] + i] = order[upward[i]];
+                ++downCounts[order[upward[i]] + 1];
+            }
+        }
+
+        // Downward edges by node.
+        this.firstDown = new int[nbNodes + 1];
+        for (int node = 0; node < nbNodes; ++node) {
+            this.firstDown[node + 1] = this.firstDown[node] + downCounts[node + 1];
+        }
+        this.downNodes = new int[this.nodes.length];
+        this.downEdges = new int[this.nodes.length];
+        int[] positions = Arrays.copyOf(this.firstDown, nbNodes);
+        for (int node = 0; node < nbNodes; ++node) {
+            for (int edge = this.first[node]; edge < this.first[node + 1]; ++edge) {
+                int position = positions[this.nodes[edge]]++;
+                this.downNodes[position] = node;
+                this.downEdges[position] = edge;
+            }
+        }
+
+        // Levels, computed in rank order.
+        int[] levels = new int[nbNodes];
+        int nbLevels = 0;
+        for (int rank = 0; rank < nbNodes; ++rank) {
+            int node = order[rank];
+            for (int down = this.firstDown[node]; down < this.firstDown[node + 1]; ++down) {
+                levels[node] = Math.max(levels[node], levels[this.downNodes[down]] + 1);
+            }
+            nbLevels = Math.max(nbLevels, levels[node] + 1);
+        }
+        this.firstLevelNode = new int[nbLevels + 1];
+        for (int node = 0; node < nbNodes; ++node) {
+            ++this.firstLevelNode[levels[node] + 1];
+        }
+        for (int level = 0; level < nbLevels; ++level) {
+            this.firstLevelNode[level + 1] += this.firstLevelNode[level];
+        }
+        this.levelNodes = new int[nbNodes];
+        positions = Arrays.copyOf(this.firstLevelNode, nbLevels);
+        for (int node = 0; node < nbNodes; ++node) {
+            this.levelNodes[positions[levels[node]]++] = node;
+        }
+
+        // Edge of each arc.
+        this.arcEdges = new int[graph.getArcCount()];
+        for (int node = 0; node < nbNodes; ++node) {
+            for (int arc = graph.getFirstArc(node); arc < graph.getFirstArc(node + 1); ++arc) {
+                int head = graph.getHead(arc);
+                this.arcEdges[arc] = head == node ? -1
+                        : ranks[node] < ranks[head] ? findEdge(node, head)
+                                : findEdge(head, node);
+            }
+        }
+    }
+
+    /**
+     * Add the given upper rank to the neighbours of the given lower rank.
+     */
+    private static void add(int[][] neighbours, int[] sizes, int low, int high) {
+        if (neighbours[low] == null) {
+            neighbours[low] = new int[4];
+        }
+        else if (sizes[low] == neighbours[low].length) {
+            neighbours[low] = Arrays.copyOf(neighbours[low], 2 * sizes[low]);
+        }
+        neighbours[low][sizes[low]++] = high;
+    }
+
+    /**
+     * Retrieve the customizable hierarchy of the given graph. Hierarchies are
+     * cached in memory.
+     *
+     * @param graph Graph of the hierarchy.
+     *
+     * @return Customizable hierarchy of the given graph.
+     */
+    public static CustomizableContractionHierarchy get(Graph graph) {
+        synchronized (CACHE) {
+            return CACHE.computeIfAbsent(graph, CustomizableContractionHierarchy::compute);
+        }
+    }
+
+    /**
+     * Order and contract the nodes of the given graph.
+     *
+     * @param graph Graph to contract.
+     *
+     * @return New customizable hierarchy.
+     */
+    public static CustomizableContractionHierarchy compute(Graph graph) {
+        CompactGraph compact = graph.getCompactGraph();
+        return new CustomizableContractionHierarchy(compact, String.valueOf(graph.getMapId()),
+                NestedDissection.computeRanks(compact));
+    }
+
+    /**
+     * @return Number of nodes.
+     */
+    public int size() {
+        return this.ranks.length;
+    }
+
+    /**
+     * @param node A node.
+     *
+     * @return Rank of the node in the contraction order.
+     */
+    public int getRank(int node) {
+        return this.ranks[node];
+    }
+
+    /**
+     * @return Number of upward edges.
+     */
+    public int getEdgeCount() {
+        return this.nodes.length;
+    }
+
+    /**
+     * Retrieve the hierarchy customized for the given inspector. Customized
+     * hierarchies are cached per inspector (see {@link GraphCache}).
+     *
+     * @param graph Graph of this hierarchy.
+     * @param inspector Inspector used to compute the costs of the arcs.
+     *
+     * @return Contraction hierarchy for the given inspector.
+     */
+    public ContractionHierarchy getCustomized(Graph graph, ArcInspector inspector) {
+        return this.customized.get(graph, inspector, () -> customize(graph, inspector));
+    }
+
+    /**
+     * Compute the costs of the edges for the given inspector.
+     *
+     * @param graph Graph of this hierarchy.
+     * @param inspector Inspector used to compute the costs of the arcs.
+     *
+     * @return Contraction hierarchy for the given inspector.
+     *
+     * @throws IllegalArgumentException if the given graph is not the graph of
+     *         this hierarchy.
+     */
+    public ContractionHierarchy customize(Graph graph, ArcInspector inspector) {
+        if (graph.size() != size() || !this.mapId.equals(String.valueOf(graph.getMapId()))) {
+            throw new IllegalArgumentException("Graph does not match the hierarchy.");
+        }
+        CompactGraph compact = graph.getCompactGraph();
+        ArcCosts costs = ArcCosts.of(graph, inspector);
+
+        // Costs and bypassed nodes of edges, upward (from the lower node to the upper
+        // node) and downward.
+        final int nbEdges = this.nodes.length;
+        double[] up = new double[nbEdges], down = new double[nbEdges];
+        int[] upVias = new int[nbEdges], downVias = new int[nbEdges];
+        Arrays.fill(up, Double.POSITIVE_INFINITY);
+        Arrays.fill(down, Double.POSITIVE_INFINITY);
+
+        // Arcs of a node are assigned to upward costs of its own edges or to
+        // downward costs of edges of other nodes, but arcs from different nodes
+        // never share a cost.
+        IntStream.range(0, size()).parallel().forEach(node -> {
+            for (int arc = compact.getFirstArc(node); arc < compact.getFirstArc(node + 1); ++arc) {
+                int edge = this.arcEdges[arc];
+                if (edge < 0 || !costs.isAllowed(arc)) {
+                    continue;
+                }
+                double cost = costs.getCost(arc);
+                boolean upward = this.ranks[node] < this.ranks[compact.getHead(arc)];
+                double[] edgeCosts = upward ? up : down;
+                if (cost < edgeCosts[edge]) {
+                    edgeCosts[edge] = cost;
+                    (upward ? upVias : downVias)[edge] = ~arc;
+                }
+            }
+        });
+
+        // Lower triangles, level by level: the edges of a node only depend on the
+        // edges of its lower neighbours.
+        ThreadLocal<int[]> marks = ThreadLocal.withInitial(() -> {
+            int[] edges = new int[size()];
+            Arrays.fill(edges, -1);
+            return edges;
+        });
+        for (int level = 0; level + 1 < this.firstLevelNode.length; ++level) {
+            IntStream nodes = IntStream.range(this.firstLevelNode[level],
+                    this.firstLevelNode[level + 1]);
+            if (this.firstLevelNode[level + 1] - this.firstLevelNode[level] > PARALLEL_THRESHOLD) {
+                nodes = nodes.parallel();
+            }
+            nodes.forEach(index -> customize(this.levelNodes[index], marks.get(), up, down,
+                    upVias, downVias));
+        }
+
+        return new ContractionHierarchy(this.mapId, inspector.toString(),
+                costs.getFingerprint(), this.ranks,
+                new int[][] { this.first, this.first }, new int[][] { this.nodes, this.nodes },
+                new double[][] { up, down }, new int[][] { upVias, downVias });
+    }
+
+    /**
+     * Update the costs of the edges of the given node with its lower triangles.
+     *
+     * @param node Node whose edges are updated.
+     * @param marks Array of -1, used to find the edges of the node.
+     */
+    private void customize(int node, int[] marks, double[] up, double[] down, int[] upVias,
+            int[] downVias) {
+        for (int edge = this.first[node]; edge < this.first[node + 1]; ++edge) {
+            marks[this.nodes[edge]] = edge;
+        }
+        for (int index = this.firstDown[node]; index < this.firstDown[node + 1]; ++index) {
+            int lower = this.downNodes[index], lowerEdge = this.downEdges[index];
+            for (int other = this.first[lower]; other < this.first[lower + 1]; ++other) {
+                if (this.ranks[this.nodes[other]] <= this.ranks[node]) {
+                    continue;
+                }
+                int edge = marks[this.nodes[other]];
+                // node -> lower -> upper, and upper -> lower -> node.
+                double cost = down[lowerEdge] + up[other];
+                if (cost < up[edge]) {
+                    up[edge] = cost;
+                    upVias[edge] = lower;
+                }
+                cost = down[other] + up[lowerEdge];
+                if (cost < down[edge]) {
+                    down[edge] = cost;
+                    downVias[edge] = lower;
+                }
+            }
+        }
+        for (int edge = this.first[node]; edge < this.first[node + 1]; ++edge) {
+            marks[this.nodes[edge]] = -1;
+        }
+    }
+
+    /**
+     * @return Index of the upward edge from the given lower node to the given
+     *         upper node.
+     */
+    private int findEdge(int lower, int upper) {
+        // Edges of a node are sorted by rank.
+        int low = this.first[lower], high = this.first[lower + 1] - 1;
+        while (low <= high) {
+            int edge = (low + high) >>> 1, rank = this.ranks[this.nodes[edge]];
+            if (rank == this.ranks[upper]) {
+                return edge;
+            }
+            else if (rank < this.ranks[upper]) {
+                low = edge + 1;
+            }
+            else {
+                high = edge - 1;
+            }
+        }
+        throw new IllegalStateException("Missing edge in customizable hierarchy.");
+    }
+
+}
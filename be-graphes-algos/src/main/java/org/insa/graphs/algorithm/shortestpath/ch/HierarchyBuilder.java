@@ -0,0 +1,431 @@
+package org.insa.graphs.algorithm.shortestpath.ch;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.stream.IntStream;
+
+import org.insa.graphs.algorithm.ArcCosts;
+import org.insa.graphs.algorithm.utils.IndexedMinHeap;
+import org.insa.graphs.model.CompactGraph;
+
+/**
+ * <p>
+ * Contraction of all the nodes of a graph, used to build a
+ * {@link ContractionHierarchy}.
+ * </p>
+ *
+ * <p>
+ * The priority of a node is its edge difference (number of shortcuts added by
+ * its contraction minus number of edges removed) plus its number of contracted
+ * neighbours. Nodes are contracted by rounds: each round contracts, in
+ * parallel, the nodes whose priority is lower than the priority of all their
+ * neighbours (which forms an independent set), then only the priorities of the
+ * neighbours of the contracted nodes are updated.
+ * </p>
+ *
+ * <p>
+ * A shortcut (u, w) is added when contracting v unless a witness search from u
+ * that avoids v finds a path to w that is not longer than (u, v, w). Witness
+ * searches also avoid the other nodes contracted in the same round, since
+ * their shortcuts are computed before any of them is removed: two nodes on
+ * paths of equal cost would otherwise be witnesses of each other. Witness
+ * searches stop once the heads of all the candidate shortcuts are settled,
+ * since their distances are then final. They are also bounded, so a few
+ * unnecessary shortcuts may be added.
+ * </p>
+ *
+ */
+final class HierarchyBuilder {
+
+    // Maximum number of nodes settled by a witness search.
+    static final int WITNESS_LIMIT = 500;
+
+    // Number of nodes.
+    private final int nbNodes;
+
+    // Fingerprint of the costs of the arcs.
+    private final long fingerprint;
+
+    // Outgoing and incoming edges of each node. Edges of a node only lead to
+    // nodes that are not contracted yet, so once a node is contracted, its edges
+    // are its upward edges in the hierarchy.
+    private final Edges[] outgoing, incoming;
+
+    // Priority and number of contracted neighbours of each node.
+    private final int[] priorities, deleted;
+
+    // Contracted nodes, and nodes selected for contraction in the current round.
+    private final boolean[] contracted, selected;
+
+    // Witness search of each thread.
+    private final ThreadLocal<WitnessSearch> searches;
+
+    /**
+     * Create a builder for the given graph, keeping only the cheapest allowed arc
+     * between two nodes.
+     *
+     * @param graph Compact graph to contract.
+     * @param costs Costs of the arcs of the graph.
+     */
+    HierarchyBuilder(CompactGraph graph, ArcCosts costs) {
+        this.nbNodes = graph.size();
+        this.fingerprint = costs.getFingerprint();
+        this.outgoing = new Edges[this.nbNodes];
+        this.incoming = new Edges[this.nbNodes];
+        for (int node = 0; node < this.nbNodes; ++node) {
+            this.outgoing[node] = new Edges();
+            this.incoming[node] = new Edges();
+        }
+        for (int node = 0; node < this.nbNodes; ++node) {
+            for (int arc = graph.getFirstArc(node); arc < graph.getFirstArc(node + 1); ++arc) {
+                int head = graph.getHead(arc);
+                if (head != node && costs.isAllowed(arc)) {
+                    this.outgoing[node].set(head, costs.getCost(arc), ~arc);
+                    this.incoming[head].set(node, costs.getCost(arc), ~arc);
+                }
+            }
+        }
+        this.priorities = new int[this.nbNodes];
+        this.deleted = new int[this.nbNodes];
+        this.contracted = new boolean[this.nbNodes];
+        this.selected = new boolean[this.nbNodes];
+        this.searches = ThreadLocal.withInitial(WitnessSearch::new);
+    }
+
+    /**
+     * Contract all the nodes and build the resulting hierarchy.
+     *
+     * @param mapId ID of the map of the graph.
+     * @param inspector String representation of the inspector used to compute the
+     *        costs.
+     *
+     * @return The contraction hierarchy.
+     */
+    ContractionHierarchy build(String mapId, String inspector) {
+        IntStream.range(0, this.nbNodes).parallel()
+                .forEach(node -> this.priorities[node] = computePriority(node));
+
+        int[] ranks = new int[this.nbNodes];
+        int[] remaining = IntStream.range(0, this.nbNodes).toArray();
+        BitSet neighbours = new BitSet(this.nbNodes);
+        int rank = 0;
+        while (remaining.length > 0) {
+            int[] selected = Arrays.stream(remaining).parallel().filter(this::isLocalMinimum)
+                    .toArray();
+            for (int node: selected) {
+                this.selected[node] = true;
+            }
+            Shortcuts[] shortcuts = new Shortcuts[selected.length];
+            IntStream.range(0, selected.length).parallel()
+                    .forEach(i -> shortcuts[i] = findShortcuts(selected[i]));
+
+            // Selected nodes are independent, so they can be removed one after the
+            // other using shortcuts computed before any removal.
+            for (int i = 0; i < selected.length; ++i) {
+                ranks[selected[i]] = rank++;
+                contract(selected[i], shortcuts[i], neighbours);
+                this.selected[selected[i]] = false;
+            }
+            neighbours.stream().parallel()
+                    .forEach(node -> this.priorities[node] = computePriority(node));
+            neighbours.clear();
+            remaining = Arrays.stream(remaining).filter(node -> !this.contracted[node]).toArray();
+        }
+
+        // Edges of each node are now its upward edges, stored in compressed arrays
+        // (forward edges are outgoing edges, backward edges are incoming ones).
+        Edges[][] lists = { this.outgoing, this.incoming };
+        int[][] first = new int[2][], nodes = new int[2][], vias = new int[2][];
+        double[][] costs = new double[2][];
+        for (int direction = 0; direction < 2; ++direction) {
+            first[direction] = new int[this.nbNodes + 1];
+            for (int node = 0; node < this.nbNodes; ++node) {
+                first[direction][node + 1] = first[direction][node]
+                        + lists[direction][node].size;
+            }
+            nodes[direction] = new int[first[direction][this.nbNodes]];
+            costs[direction] = new double[nodes[direction].length];
+            vias[direction] = new int[nodes[direction].length];
+            for (int node = 0; node < this.nbNodes; ++node) {
+                Edges edges = lists[direction][node];
+                int offset = first[direction][node];
+                System.arraycopy(edges.nodes, 0, nodes[direction], offset, edges.size);
+                System.arraycopy(edges.costs, 0, costs[direction], offset, edges.size);
+                System.arraycopy(edges.vias, 0, vias[direction], offset, edges.size);
+            }
+        }
+        return new ContractionHierarchy(mapId, inspector, this.fingerprint, ranks, first, nodes,
+                costs, vias);
+    }
+
+    /**
+     * Compute the priority of the given node from the shortcuts its contraction
+     * would add.
+     *
+     * @param node Node that is not contracted.
+     *
+     * @return Priority of the node (nodes with lower priority are contracted
+     *         first).
+     */
+    private int computePriority(int node) {
+        return findShortcuts(node).size - this.incoming[node].size - this.outgoing[node].size
+                + this.deleted[node];
+    }
+
+    /**
+     * @param node Node that is not contracted.
+     *
+     * @return true if the node precedes all its neighbours in the contraction
+     *         order.
+     */
+    private boolean isLocalMinimum(int node) {
+        for (Edges edges: new Edges[] { this.outgoing[node], this.incoming[node] }) {
+            for (int i = 0; i < edges.size; ++i) {
+                if (precedes(edges.nodes[i], node)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compare nodes by priority, ties being broken by a hash of the node so that
+     * nodes with the same priority do not form long chains.
+     */
+    private boolean precedes(int node, int other) {
+        if (this.priorities[node] != this.priorities[other]) {
+            return this.priorities[node] < this.priorities[other];
+        }
+        int hash = Integer.reverse(node * 0x9E3779B9),
+                otherHash = Integer.reverse(other * 0x9E3779B9);
+        return hash != otherHash ? hash < otherHash : node < other;
+    }
+
+    /**
+     * Find the shortcuts required to contract the given node.
+     *
+     * @param node Node that is not contracted.
+     *
+     * @return Shortcuts to add when contracting the node.
+     */
+    private Shortcuts findShortcuts(int node) {
+        Edges in = this.incoming[node], out = this.outgoing[node];
+        Shortcuts shortcuts = new Shortcuts();
+        if (in.size == 0 || out.size == 0) {
+            return shortcuts;
+        }
+        double maxOut = 0;
+        for (int j = 0; j < out.size; ++j) {
+            maxOut = Math.max(maxOut, out.costs[j]);
+        }
+        WitnessSearch search = this.searches.get();
+        for (int i = 0; i < in.size; ++i) {
+            int tail = in.nodes[i];
+            search.run(tail, node, in.costs[i] + maxOut, out);
+            for (int j = 0; j < out.size; ++j) {
+                int head = out.nodes[j];
+                double cost = in.costs[i] + out.costs[j];
+                if (head != tail && search.getDistance(head) > cost) {
+                    shortcuts.add(tail, head, cost);
+                }
+            }
+        }
+        return shortcuts;
+    }
+
+    /**
+     * Contract the given node: remove it from the lists of its neighbours, add the
+     * shortcuts and mark its neighbours.
+     *
+     * @param node Node to contract.
+     * @param shortcuts Shortcuts for the node.
+     * @param neighbours Set where neighbours of the node are added.
+     */
+    private void contract(int node, Shortcuts shortcuts, BitSet neighbours) {
+        this.contracted[node] = true;
+        Edges in = this.incoming[node], out = this.outgoing[node];
+        for (int i = 0; i < out.size; ++i) {
+            this.incoming[out.nodes[i]].remove(node);
+            ++this.deleted[out.nodes[i]];
+            neighbours.set(out.nodes[i]);
+        }
+        for (int i = 0; i < in.size; ++i) {
+            this.outgoing[in.nodes[i]].remove(node);
+            if (out.indexOf(in.nodes[i]) < 0) {
+                ++this.deleted[in.nodes[i]];
+            }
+            neighbours.set(in.nodes[i]);
+        }
+        for (int i = 0; i < shortcuts.size; ++i) {
+            this.outgoing[shortcuts.tails[i]].set(shortcuts.heads[i], shortcuts.costs[i], node);
+            this.incoming[shortcuts.heads[i]].set(shortcuts.tails[i], shortcuts.costs[i], node);
+        }
+    }
+
+    /**
+     * Edges of a node in one direction, at most one per neighbour.
+     *
+     */
+    static final class Edges {
+
+        // Number of edges.
+        int size = 0;
+
+        // Neighbour, cost and middle node of each edge (or ~arc for original arcs).
+        int[] nodes = new int[4];
+        double[] costs = new double[4];
+        int[] vias = new int[4];
+
+        /**
+         * @return Index of the edge to the given neighbour, or -1.
+         */
+        int indexOf(int node) {
+            for (int i = 0; i < this.size; ++i) {
+                if (this.nodes[i] == node) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Add an edge to the given neighbour, or update the existing one if the
+         * given cost is lower.
+         */
+        void set(int node, double cost, int via) {
+            int index = indexOf(node);
+            if (index < 0) {
+                if (this.size == this.nodes.length) {
+                    this.nodes = Arrays.copyOf(this.nodes, 2 * this.size);
+                    this.costs = Arrays.copyOf(this.costs, 2 * this.size);
+                    this.vias = Arrays.copyOf(this.vias, 2 * this.size);
+                }
+                index = this.size++;
+            }
+            else if (this.costs[index] <= cost) {
+                return;
+            }
+            this.nodes[index] = node;
+            this.costs[index] = cost;
+            this.vias[index] = via;
+        }
+
+        /**
+         * Remove the edge to the given neighbour, if any.
+         */
+        void remove(int node) {
+            int index = indexOf(node);
+            if (index >= 0) {
+                --this.size;
+                this.nodes[index] = this.nodes[this.size];
+                this.costs[index] = this.costs[this.size];
+                this.vias[index] = this.vias[this.size];
+            }
+        }
+
+    }
+
+    /**
+     * Shortcuts added by the contraction of a node.
+     *
+     */
+    private static final class Shortcuts {
+
+        // Number of shortcuts.
+        int size = 0;
+
+        // Tail, head and cost of each shortcut.
+        int[] tails = new int[0], heads = new int[0];
+        double[] costs = new double[0];
+
+        void add(int tail, int head, double cost) {
+            if (this.size == this.tails.length) {
+                int capacity = Math.max(4, 2 * this.size);
+                this.tails = Arrays.copyOf(this.tails, capacity);
+                this.heads = Arrays.copyOf(this.heads, capacity);
+                this.costs = Arrays.copyOf(this.costs, capacity);
+            }
+            this.tails[this.size] = tail;
+            this.heads[this.size] = head;
+            this.costs[this.size] = cost;
+            ++this.size;
+        }
+
+    }
+
+    /**
+     * Bounded Dijkstra on the remaining graph, avoiding the node being
+     * contracted and the nodes selected in the current round.
+     *
+     */
+    private final class WitnessSearch {
+
+        // Distances, valid only if the stamp of the node is the current one.
+        private final double[] distances = new double[nbNodes];
+        private final int[] stamps = new int[nbNodes];
+        private int stamp = 0;
+
+        // Targets of the current search (nodes whose stamp is the current one).
+        private final int[] targets = new int[nbNodes];
+
+        private final IndexedMinHeap heap = new IndexedMinHeap(nbNodes);
+
+        /**
+         * Run a witness search.
+         *
+         * @param source Source of the search.
+         * @param excluded Node that must not be used.
+         * @param maxCost Cost after which the search stops.
+         * @param targets Edges to the targets of the search, the search stops when
+         *        all the targets are settled.
+         */
+        void run(int source, int excluded, double maxCost, Edges targets) {
+            if (++this.stamp == Integer.MAX_VALUE) {
+                Arrays.fill(this.stamps, 0);
+                Arrays.fill(this.targets, 0);
+                this.stamp = 1;
+            }
+            int remaining = 0;
+            for (int i = 0; i < targets.size; ++i) {
+                if (targets.nodes[i] != source) {
+                    this.targets[targets.nodes[i]] = this.stamp;
+                    ++remaining;
+                }
+            }
+            this.heap.clear();
+            this.stamps[source] = this.stamp;
+            this.distances[source] = 0;
+            this.heap.insert(source, 0);
+            for (int settled = 0; remaining > 0 && settled < WITNESS_LIMIT
+                    && !this.heap.isEmpty() && this.heap.findMinKey() <= maxCost; ++settled) {
+                int node = this.heap.deleteMin();
+                if (this.targets[node] == this.stamp) {
+                    --remaining;
+                }
+                double distance = this.distances[node];
+                Edges edges = outgoing[node];
+                for (int i = 0; i < edges.size; ++i) {
+                    int next = edges.nodes[i];
+                    double cost = distance + edges.costs[i];
+                    if (next != excluded && !selected[next] && cost < getDistance(next)) {
+                        this.stamps[next] = this.stamp;
+                        this.distances[next] = cost;
+                        this.heap.insertOrDecreaseKey(next, cost);
+                    }
+                }
+            }
+        }
+
+        /**
+         * @return Distance found by the last search (possibly not the shortest one
+         *         if the search was stopped), infinity if the node was not reached.
+         */
+        double getDistance(int node) {
+            return this.stamps[node] == this.stamp ? this.distances[node]
+                    : Double.POSITIVE_INFINITY;
+        }
+
+    }
+
+}
@@ -0,0 +1,212 @@
+package org.insa.graphs.algorithm.shortestpath.ch;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.insa.graphs.model.CompactGraph;
+
+/**
+ * <p>
+ * Metric-independent node ordering by nested dissection: the nodes of a cell
+ * are split in two halves along a direction, the nodes of one half adjacent to
+ * the other half form a separator, and both remaining parts are ordered
+ * recursively (in parallel) before the separator, which gets the highest ranks
+ * of the cell.
+ * </p>
+ *
+ * <p>
+ * Cells are split geometrically, trying four directions (west-east,
+ * south-north and both diagonals) and keeping the one with the smallest
+ * separator. Arcs are considered undirected.
+ * </p>
+ *
+ */
+final class NestedDissection {
+
+    // Cells with at most this number of nodes are not split.
+    static final int LEAF_SIZE = 16;
+
+    // Cells with at most this number of nodes are ordered sequentially.
+    private static final int SEQUENTIAL_SIZE = 4096;
+
+    // Directions tried to split a cell, as coefficients of longitude and latitude.
+    private static final float[][] DIRECTIONS = { { 1, 0 }, { 0, 1 }, { 1, 1 }, { 1, -1 } };
+
+    // Compact graph.
+    private final CompactGraph graph;
+
+    // Rank of each node.
+    private final int[] ranks;
+
+    // Cell currently containing each node, and side of the node in this cell.
+    private final int[] cells;
+    private final byte[] sides;
+
+    // Identifiers of cells.
+    private final AtomicInteger nextCell = new AtomicInteger();
+
+    private NestedDissection(CompactGraph graph) {
+        this.graph = graph;
+        this.ranks = new int[graph.size()];
+        this.cells = new int[graph.size()];
+        this.sides = new byte[graph.size()];
+    }
+
+    /**
+     * Compute a nested-dissection order of the given graph.
+     *
+     * @param graph Compact graph to order.
+     *
+     * @return Rank of each node.
+     */
+    static int[] computeRanks(CompactGraph graph) {
+        NestedDissection dissection = new NestedDissection(graph);
+        int[] nodes = new int[graph.size()];
+        Arrays.setAll(nodes, node -> node);
+        ForkJoinPool.commonPool().invoke(dissection.new Dissect(nodes, 0));
+        return dissection.ranks;
+    }
+
+    /**
+     * Split the given cell.
+     *
+     * @param nodes Nodes of the cell.
+     *
+     * @return The nodes of the cell reordered as the first part, the second part
+     *         and the separator, followed by the sizes of both parts.
+     */
+    private int[][] split(int[] nodes) {
+        int cell = this.nextCell.incrementAndGet();
+        for (int node: nodes) {
+            this.cells[node] = cell;
+        }
+
+        int[] best = null;
+        int bestSeparator = -1, bestSize = Integer.MAX_VALUE;
+        long[] keys = new long[nodes.length];
+        for (float[] direction: DIRECTIONS) {
+            for (int i = 0; i < nodes.length; ++i) {
+                float value = direction[0] * this.graph.getLongitude(nodes[i])
+                        + direction[1] * this.graph.getLatitude(nodes[i]);
+                int bits = Float.floatToIntBits(value);
+                bits ^= (bits >> 31) & 0x7fffffff;
+                keys[i] = ((long) bits << 32) | nodes[i];
+            }
+            Arrays.sort(keys);
+            int[] sorted = new int[nodes.length];
+            for (int i = 0; i < nodes.length; ++i) {
+                sorted[i] = (int) keys[i];
+                this.sides[sorted[i]] = (byte) (2 * i < nodes.length ? 0 : 1);
+            }
+            // Separator candidates are the boundary nodes of either half.
+            int[] boundaries = new int[2];
+            for (int node: sorted) {
+                if (isBoundary(node, cell)) {
+                    ++boundaries[this.sides[node]];
+                }
+            }
+            int side = boundaries[0] <= boundaries[1] ? 0 : 1;
+            if (boundaries[side] < bestSize) {
+                bestSize = boundaries[side];
+                bestSeparator = side;
+                best = sorted;
+            }
+        }
+
+        // Reorder the nodes as: first part, second part, separator.
+        int half = (best.length + 1) / 2;
+        for (int i = 0; i < best.length; ++i) {
+            this.sides[best[i]] = (byte) (i < half ? 0 : 1);
+        }
+        int[] parts = new int[best.length], separator = new int[bestSize];
+        int count = 0, firstSize = 0, separatorSize = 0;
+        for (int i = 0; i < best.length; ++i) {
+            int node = best[i];
+            if (this.sides[node] == bestSeparator && isBoundary(node, cell)) {
+                separator[separatorSize++] = node;
+            }
+            else {
+                parts[count++] = node;
+                if (i < half) {
+                    ++firstSize;
+                }
+            }
+        }
+        System.arraycopy(separator, 0, parts, count, separatorSize);
+        int secondSize = count - firstSize;
+        return new int[][] { parts, { firstSize, secondSize } };
+    }
+
+    /**
+     * @return true if the given node, in the given cell, has a neighbour in the
+     *         other half of the cell.
+     */
+    private boolean isBoundary(int node, int cell) {
+        for (int arc = this.graph.getFirstArc(node); arc < this.graph
+                .getFirstArc(node + 1); ++arc) {
+            int other = this.graph.getHead(arc);
+            if (this.cells[other] == cell && this.sides[other] != this.sides[node]) {
+                return true;
+            }
+        }
+        for (int index = this.graph.getFirstIncomingArc(node); index < this.graph
+                .getFirstIncomingArc(node + 1); ++index) {
+            int other = this.graph.getIncomingTail(index);
+            if (this.cells[other] == cell && this.sides[other] != this.sides[node]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Task ordering the nodes of a cell.
+     *
+     */
+    private final class Dissect extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        // Nodes of the cell.
+        private final int[] nodes;
+
+        // Lowest rank of the cell.
+        private final int offset;
+
+        Dissect(int[] nodes, int offset) {
+            this.nodes = nodes;
+            this.offset = offset;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.nodes.length <= LEAF_SIZE) {
+                for (int i = 0; i < this.nodes.length; ++i) {
+                    ranks[this.nodes[i]] = this.offset + i;
+                }
+                return;
+            }
+            int[][] split = split(this.nodes);
+            int[] parts = split[0];
+            int firstSize = split[1][0], secondSize = split[1][1];
+            for (int i = firstSize + secondSize; i < parts.length; ++i) {
+                ranks[parts[i]] = this.offset + i;
+            }
+            Dissect first = new Dissect(Arrays.copyOfRange(parts, 0, firstSize), this.offset);
+            Dissect second = new Dissect(
+                    Arrays.copyOfRange(parts, firstSize, firstSize + secondSize),
+                    this.offset + firstSize);
+            if (this.nodes.length <= SEQUENTIAL_SIZE) {
+                first.compute();
+                second.compute();
+            }
+            else {
+                invokeAll(first, second);
+            }
+        }
+
+    }
+
+}
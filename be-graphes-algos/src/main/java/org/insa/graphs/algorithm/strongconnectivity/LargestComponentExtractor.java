@@ -0,0 +1,158 @@
+package org.insa.graphs.algorithm.strongconnectivity;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.GraphStatistics;
+import org.insa.graphs.model.GraphStatistics.BoundingBox;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.io.BinaryCompactGraphReader;
+import org.insa.graphs.model.io.BinaryCompactGraphWriter;
+import org.insa.graphs.model.io.BinaryGraphReader;
+import org.insa.graphs.model.io.BinaryGraphWriter;
+import org.insa.graphs.model.io.GraphWriter;
+
+/**
+ * <p>
+ * Extraction of the largest strongly-connected component of a graph for a given
+ * arc inspector, so that maps can be pruned of the dead ends (e.g. one-way
+ * fragments) in which a search can only fail.
+ * </p>
+ *
+ * <p>
+ * The nodes of the component are renumbered in increasing order of their
+ * original ID, and all the arcs between them are kept, including the arcs that
+ * are not allowed by the inspector. Since node IDs change, the extracted graph
+ * gets a new map ID, so that paths of the original map are not read on it.
+ * </p>
+ *
+ */
+public class LargestComponentExtractor {
+
+    /**
+     * Suffix appended to the map ID and name of the extracted graphs.
+     */
+    public static final String SUFFIX = "-scc";
+
+    /**
+     * Extract the largest strongly-connected component of the given graph.
+     *
+     * @param graph Graph to extract the component from.
+     * @param inspector Inspector used to filter the arcs when computing the
+     *        components.
+     *
+     * @return A new graph containing the nodes of the largest component.
+     */
+    public static Graph extract(Graph graph, ArcInspector inspector) {
+        StronglyConnectedComponentsSolution solution = new StronglyConnectedComponentsAlgorithm(
+                new StronglyConnectedComponentsData(graph, inspector)).run();
+        int[] ids = new int[graph.size()];
+        Arrays.fill(ids, -1);
+        int largest = solution.getLargestComponent(), count = 0;
+        if (largest != -1) {
+            // Nodes of a component are sorted by ID.
+            for (Node node: solution.getComponents().get(largest)) {
+                ids[node.getId()] = count++;
+            }
+        }
+
+        CompactGraph compact = graph.getCompactGraph().renumber(ids);
+        return new Graph(graph.getMapId() + SUFFIX, graph.getMapName() + SUFFIX, compact,
+                computeStatistics(compact, graph.getGraphInformation()));
+    }
+
+    /**
+     * Compute the statistics of an extracted graph.
+     *
+     * @param compact Compact graph of the extracted graph.
+     * @param original Statistics of the original graph, or null.
+     *
+     * @return Statistics of the extracted graph.
+     */
+    private static GraphStatistics computeStatistics(CompactGraph compact,
+            GraphStatistics original) {
+        float minLongitude = Float.POSITIVE_INFINITY, maxLongitude = Float.NEGATIVE_INFINITY,
+                minLatitude = Float.POSITIVE_INFINITY, maxLatitude = Float.NEGATIVE_INFINITY;
+        for (int node = 0; node < compact.size(); ++node) {
+            minLongitude = Math.min(minLongitude, compact.getLongitude(node));
+            maxLongitude = Math.max(maxLongitude, compact.getLongitude(node));
+            minLatitude = Math.min(minLatitude, compact.getLatitude(node));
+            maxLatitude = Math.max(maxLatitude, compact.getLatitude(node));
+        }
+
+        int nbOneWay = 0;
+        float maxLength = 0;
+        for (int arc = 0; arc < compact.getArcCount(); ++arc) {
+            if (!compact.isReversed(arc) && compact.getRoadInformation(arc).isOneWay()) {
+                ++nbOneWay;
+            }
+            maxLength = Math.max(maxLength, compact.getLength(arc));
+        }
+
+        return new GraphStatistics(
+                new BoundingBox(new Point(minLongitude, maxLatitude),
+                        new Point(maxLongitude, minLatitude)),
+                nbOneWay, compact.getRecordCount() - nbOneWay,
+                original == null ? GraphStatistics.NO_MAXIMUM_SPEED : original.getMaximumSpeed(),
+                maxLength);
+    }
+
+    /**
+     * Extract the largest strongly-connected component of a binary map file
+     * ({@code .mapgr}) and write it as a binary map file, or in the compact graph
+     * format if the output file ends with {@code .mapcsr}.
+     *
+     * Usage: {@code LargestComponentExtractor <input.mapgr> <output.mapgr>
+     * [filter]}, where filter is the index of the arc inspector in
+     * {@link ArcInspectorFactory#getAllFilters()} (0 by default).
+     *
+     * @param args Command line arguments.
+     *
+     * @throws IOException if an error occurs while reading or writing.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println(
+                    "Usage: LargestComponentExtractor <input.mapgr> <output.mapgr> [filter]");
+            System.exit(1);
+        }
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters()
+                .get(args.length > 2 ? Integer.parseInt(args[2]) : 0);
+
+        Graph graph;
+        try (BinaryGraphReader reader = new BinaryGraphReader(new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(Paths.get(args[0])))))) {
+            graph = reader.read();
+        }
+
+        Graph component = extract(graph, inspector);
+        Path output = Paths.get(args[1]);
+        FileChannel channel = FileChannel.open(output, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        if (output.toString().endsWith(BinaryCompactGraphReader.EXTENSION)) {
+            try (BinaryCompactGraphWriter writer = new BinaryCompactGraphWriter(channel)) {
+                writer.writeGraph(component);
+            }
+        }
+        else {
+            try (GraphWriter writer = new BinaryGraphWriter(channel)) {
+                writer.writeGraph(component);
+            }
+        }
+        System.out.println("Kept " + component.size() + " of " + graph.size() + " nodes ["
+                + inspector.toString().toLowerCase() + "], written to " + output + ".");
+    }
+
+}
@@ -0,0 +1,110 @@
+package org.insa.graphs.algorithm.strongconnectivity;
+
+import java.util.ArrayList;
+
+import org.insa.graphs.algorithm.AbstractAlgorithm;
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.ConnectedComponents;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+
+/**
+ * Strongly-connected components of a graph, restricted to the arcs allowed by
+ * the arc inspector of the input data. Components are computed by
+ * {@link ConnectedComponents}, with an iterative version of Tarjan's algorithm
+ * whose depth is not limited by the call stack, and are numbered in reverse
+ * topological order.
+ *
+ */
+public class StronglyConnectedComponentsAlgorithm
+        extends AbstractAlgorithm<StronglyConnectedComponentObserver> {
+
+    /**
+     * @param data Input data for this algorithm.
+     */
+    public StronglyConnectedComponentsAlgorithm(StronglyConnectedComponentsData data) {
+        super(data);
+    }
+
+    @Override
+    public StronglyConnectedComponentsSolution run() {
+        return (StronglyConnectedComponentsSolution) super.run();
+    }
+
+    @Override
+    public StronglyConnectedComponentsData getInputData() {
+        return (StronglyConnectedComponentsData) super.getInputData();
+    }
+
+    /**
+     * Notify all observers that the algorithm is entering a new component.
+     *
+     * @param curNode First node of the component.
+     */
+    protected void notifyStartComponent(Node curNode) {
+        for (StronglyConnectedComponentObserver obs: getObservers()) {
+            obs.notifyStartComponent(curNode);
+        }
+    }
+
+    /**
+     * Notify all observers that a new node has been found for the current
+     * component.
+     *
+     * @param node New node found for the current component.
+     */
+    protected void notifyNewNodeInComponent(Node node) {
+        for (StronglyConnectedComponentObserver obs: getObservers()) {
+            obs.notifyNewNodeInComponent(node);
+        }
+    }
+
+    /**
+     * Notify all observers that the algorithm has computed a new component.
+     *
+     * @param nodes List of nodes in the component.
+     */
+    protected void notifyEndComponent(ArrayList<Node> nodes) {
+        for (StronglyConnectedComponentObserver obs: getObservers()) {
+            obs.notifyEndComponent(nodes);
+        }
+    }
+
+    @Override
+    protected StronglyConnectedComponentsSolution doRun() {
+        StronglyConnectedComponentsData data = getInputData();
+        Graph graph = data.getGraph();
+        ConnectedComponents connected = ConnectedComponents.of(graph, data.getArcInspector());
+        final int nbNodes = graph.size(), nbComponents = connected.getStrongComponentCount();
+
+        // Sort the nodes by component (counting sort).
+        int[] ids = new int[nbNodes];
+        int[] first = new int[nbComponents + 1];
+        for (int node = 0; node < nbNodes; ++node) {
+            ids[node] = connected.getStrongComponent(node);
+            ++first[ids[node] + 1];
+        }
+        for (int i = 0; i < nbComponents; ++i) {
+            first[i + 1] += first[i];
+        }
+        int[] nodes = new int[nbNodes], next = first.clone();
+        for (int node = 0; node < nbNodes; ++node) {
+            nodes[next[ids[node]]++] = node;
+        }
+
+        ArrayList<ArrayList<Node>> components = new ArrayList<>(nbComponents);
+        for (int id = 0; id < nbComponents; ++id) {
+            ArrayList<Node> component = new ArrayList<>(first[id + 1] - first[id]);
+            notifyStartComponent(graph.get(nodes[first[id]]));
+            for (int i = first[id]; i < first[id + 1]; ++i) {
+                component.add(graph.get(nodes[i]));
+                notifyNewNodeInComponent(graph.get(nodes[i]));
+            }
+            notifyEndComponent(component);
+            components.add(component);
+        }
+
+        return new StronglyConnectedComponentsSolution(data, Status.OPTIMAL, components, ids);
+    }
+
+}
@@ -0,0 +1,24 @@
+package org.insa.graphs.algorithm.strongconnectivity;
+
+import org.insa.graphs.algorithm.AbstractInputData;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.model.Graph;
+
+public class StronglyConnectedComponentsData extends AbstractInputData {
+
+    /**
+     * @param graph Graph for which components should be retrieved.
+     * @param arcInspector Filter for arcs (used to allow only a specific set of
+     *        arcs in the graph to be used).
+     */
+    public StronglyConnectedComponentsData(Graph graph, ArcInspector arcInspector) {
+        super(graph, arcInspector);
+    }
+
+    @Override
+    public String toString() {
+        return "Strongly-connected components [" + this.arcInspector.toString().toLowerCase()
+                + "]";
+    }
+
+}
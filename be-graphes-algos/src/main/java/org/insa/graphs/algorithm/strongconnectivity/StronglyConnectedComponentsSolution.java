@@ -0,0 +1,68 @@
+package org.insa.graphs.algorithm.strongconnectivity;
+
+import java.util.ArrayList;
+
+import org.insa.graphs.algorithm.AbstractSolution;
+import org.insa.graphs.model.Node;
+
+public class StronglyConnectedComponentsSolution extends AbstractSolution {
+
+    // Components, in reverse topological order.
+    private final ArrayList<ArrayList<Node>> components;
+
+    // Component of each node.
+    private final int[] componentIds;
+
+    protected StronglyConnectedComponentsSolution(StronglyConnectedComponentsData data,
+            Status status, ArrayList<ArrayList<Node>> components, int[] componentIds) {
+        super(data, status);
+        this.components = components;
+        this.componentIds = componentIds;
+    }
+
+    @Override
+    public StronglyConnectedComponentsData getInputData() {
+        return (StronglyConnectedComponentsData) super.getInputData();
+    }
+
+    /**
+     * @return Components of the solution, in reverse topological order: if a node
+     *         of a component can reach a node of another component, the first
+     *         component comes after the second one.
+     */
+    public ArrayList<ArrayList<Node>> getComponents() {
+        return components;
+    }
+
+    /**
+     * @return Index (in {@link #getComponents()}) of the component of each node,
+     *         indexed by node ID.
+     */
+    public int[] getComponentIds() {
+        return componentIds;
+    }
+
+    /**
+     * @return Index (in {@link #getComponents()}) of the component with the most
+     *         nodes, the first one in case of a tie, or -1 if there are no
+     *         components.
+     */
+    public int getLargestComponent() {
+        int largest = -1;
+        for (int i = 0; i < components.size(); ++i) {
+            if (largest == -1 || components.get(i).size() > components.get(largest).size()) {
+                largest = i;
+            }
+        }
+        return largest;
+    }
+
+    @Override
+    public String toString() {
+        int largest = getLargestComponent();
+        return "Found " + components.size() + " components (largest with "
+                + (largest == -1 ? 0 : components.get(largest).size()) + " nodes) in "
+                + getSolvingTime().getSeconds() + " seconds.";
+    }
+
+}
@@ -0,0 +1,237 @@
+package org.insa.graphs.algorithm.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+import org.insa.graphs.model.io.BadFormatException;
+
+/**
+ * Helpers to read and write primitive arrays and strings from / to channels,
+ * in big-endian order. Arrays are transferred by chunks through a direct
+ * buffer.
+ *
+ */
+public final class ChannelIO {
+
+    // Size of the buffers used to transfer arrays (in bytes).
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private ChannelIO() {
+    }
+
+    /**
+     * Fill the given buffer from the channel, then flip it.
+     *
+     * @param channel Channel to read from.
+     * @param buffer Buffer to fill.
+     *
+     * @throws IOException if an error occurs while reading, or if the end of the
+     *         channel is reached before the buffer is full.
+     */
+    public static void readFully(ReadableByteChannel channel, ByteBuffer buffer)
+            throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new BadFormatException("Unexpected end of file.");
+            }
+        }
+        buffer.flip();
+    }
+
+    /**
+     * Write the remaining bytes of the given buffer to the channel.
+     *
+     * @param channel Channel to write to.
+     * @param buffer Buffer to write.
+     *
+     * @throws IOException if an error occurs while writing.
+     */
+    public static void writeFully(WritableByteChannel channel, ByteBuffer buffer)
+            throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Read a single integer from the channel.
+     *
+     * @param channel Channel to read from.
+     *
+     * @return The integer read.
+     *
+     * @throws IOException if an error occurs while reading.
+     */
+    public static int readInt(ReadableByteChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4);
+        readFully(channel, buffer);
+        return buffer.getInt();
+    }
+
+    /**
+     * Write a single integer to the channel.
+     *
+     * @param channel Channel to write to.
+     * @param value Integer to write.
+     *
+     * @throws IOException if an error occurs while writing.
+     */
+    public static void writeInt(WritableByteChannel channel, int value) throws IOException {
+        writeFully(channel, ByteBuffer.allocate(4).putInt(value).flip());
+    }
+
+    /**
+     * Read a string written by {@link #writeString(WritableByteChannel, String)}.
+     *
+     * @param channel Channel to read from.
+     *
+     * @return The string read.
+     *
+     * @throws IOException if an error occurs while reading.
+     */
+    public static String readString(ReadableByteChannel channel) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(readInt(channel));
+        readFully(channel, bytes);
+        return new String(bytes.array(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Write a string as its length in bytes followed by its UTF-8 representation.
+     *
+     * @param channel Channel to write to.
+     * @param value String to write.
+     *
+     * @throws IOException if an error occurs while writing.
+     */
+    public static void writeString(WritableByteChannel channel, String value)
+            throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeInt(channel, bytes.length);
+        writeFully(channel, ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Read the given array of integers from the channel.
+     *
+     * @param channel Channel to read from.
+     * @param values Array to fill.
+     *
+     * @throws IOException if an error occurs while reading.
+     */
+    public static void readInts(ReadableByteChannel channel, int[] values) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        for (int offset = 0; offset < values.length;) {
+            int length = Math.min(values.length - offset, BUFFER_SIZE / 4);
+            buffer.clear().limit(4 * length);
+            readFully(channel, buffer);
+            buffer.asIntBuffer().get(values, offset, length);
+            offset += length;
+        }
+    }
+
+    /**
+     * Write the given array of integers to the channel.
+     *
+     * @param channel Channel to write to.
+     * @param values Array to write.
+     *
+     * @throws IOException if an error occurs while writing.
+     */
+    public static void writeInts(WritableByteChannel channel, int[] values) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        for (int offset = 0; offset < values.length;) {
+            int length = Math.min(values.length - offset, BUFFER_SIZE / 4);
+            buffer.clear();
+            buffer.asIntBuffer().put(values, offset, length);
+            buffer.limit(4 * length);
+            writeFully(channel, buffer);
+            offset += length;
+        }
+    }
+
+    /**
+     * Read the given array of floats from the channel.
+     *
+     * @param channel Channel to read from.
+     * @param values Array to fill.
+     *
+     * @throws IOException if an error occurs while reading.
+     */
+    public static void readFloats(ReadableByteChannel channel, float[] values)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        for (int offset = 0; offset < values.length;) {
+            int length = Math.min(values.length - offset, BUFFER_SIZE / 4);
+            buffer.clear().limit(4 * length);
+            readFully(channel, buffer);
+            buffer.asFloatBuffer().get(values, offset, length);
+            offset += length;
+        }
+    }
+
+    /**
+     * Write the given array of floats to the channel.
+     *
+     * @param channel Channel to write to.
+     * @param values Array to write.
+     *
+     * @throws IOException if an error occurs while writing.
+     */
+    public static void writeFloats(WritableByteChannel channel, float[] values)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        for (int offset = 0; offset < values.length;) {
+            int length = Math.min(values.length - offset, BUFFER_SIZE / 4);
+            buffer.clear();
+            buffer.asFloatBuffer().put(values, offset, length);
+            buffer.limit(4 * length);
+            writeFully(channel, buffer);
+            offset += length;
+        }
+    }
+
+    /**
+     * Read the given array of doubles from the channel.
+     *
+     * @param channel Channel to read from.
+     * @param values Array to fill.
+     *
+     * @throws IOException if an error occurs while reading.
+     */
+    public static void readDoubles(ReadableByteChannel channel, double[] values)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        for (int offset = 0; offset < values.length;) {
+            int length = Math.min(values.length - offset, BUFFER_SIZE / 8);
+            buffer.clear().limit(8 * length);
+            readFully(channel, buffer);
+            buffer.asDoubleBuffer().get(values, offset, length);
+            offset += length;
+        }
+    }
+
+    /**
+     * Write the given array of doubles to the channel.
+     *
+     * @param channel Channel to write to.
+     * @param values Array to write.
+     *
+     * @throws IOException if an error occurs while writing.
+     */
+    public static void writeDoubles(WritableByteChannel channel, double[] values)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        for (int offset = 0; offset < values.length;) {
+            int length = Math.min(values.length - offset, BUFFER_SIZE / 8);
+            buffer.clear();
+            buffer.asDoubleBuffer().put(values, offset, length);
+            buffer.limit(8 * length);
+            writeFully(channel, buffer);
+            offset += length;
+        }
+    }
+
+}
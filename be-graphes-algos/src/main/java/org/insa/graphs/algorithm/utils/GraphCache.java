@@ -0,0 +1,82 @@
+package org.insa.graphs.algorithm.utils;
+
+import java.lang.ref.SoftReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Supplier;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.model.Graph;
+
+/**
+ * <p>
+ * Cache of data computed for a graph and an arc inspector, e.g. the costs of
+ * the arcs or a contraction hierarchy.
+ * </p>
+ *
+ * <p>
+ * Graphs and inspectors are compared by identity (neither overrides
+ * {@link Object#equals(Object)}), so two different inspectors never share
+ * data, even if they have the same string representation. Both are weakly
+ * referenced, and values are softly referenced: data is released when its
+ * graph or inspector is no longer used, and may be released (then computed
+ * again) when memory runs low. A value that references its graph only keeps
+ * the graph alive until the value itself is released.
+ * </p>
+ *
+ * <p>
+ * A value is computed at most once at a time for a given graph and inspector,
+ * while values for other graphs or inspectors can be computed concurrently.
+ * </p>
+ *
+ * @param <V> Type of the cached values.
+ */
+public final class GraphCache<V> {
+
+    // Holder of the value of a graph and an inspector, also used as the lock
+    // while the value is computed.
+    private static final class Entry<V> {
+        SoftReference<V> value;
+    }
+
+    // Entries by graph and inspector.
+    private final Map<Graph, Map<ArcInspector, Entry<V>>> entries = new WeakHashMap<>();
+
+    /**
+     * Retrieve the value of the given graph and inspector, computing it with the
+     * given supplier if it is not cached.
+     *
+     * @param graph Graph of the value.
+     * @param inspector Inspector of the value.
+     * @param supplier Supplier computing the value.
+     *
+     * @return Value of the given graph and inspector.
+     */
+    public V get(Graph graph, ArcInspector inspector, Supplier<? extends V> supplier) {
+        Entry<V> entry;
+        synchronized (this.entries) {
+            entry = this.entries.computeIfAbsent(graph, g -> new WeakHashMap<>())
+                    .computeIfAbsent(inspector, i -> new Entry<>());
+        }
+        synchronized (entry) {
+            V value = entry.value == null ? null : entry.value.get();
+            if (value == null) {
+                value = supplier.get();
+                entry.value = new SoftReference<>(value);
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Release the values of the given graph.
+     *
+     * @param graph Graph whose values should be released.
+     */
+    public void remove(Graph graph) {
+        synchronized (this.entries) {
+            this.entries.remove(graph);
+        }
+    }
+
+}
@@ -0,0 +1,390 @@
+package org.insa.graphs.algorithm.utils;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Implements an indexed d-ary min-heap of integer identifiers (e.g. node IDs)
+ * with {@code double} keys.
+ * </p>
+ *
+ * <p>
+ * Identifiers must be in {@code [0, capacity)}. Identifiers, keys and the
+ * position of each identifier in the heap are stored in primitive arrays, so
+ * that {@link #remove(int)} and {@link #decreaseKey(int, double)} run in
+ * <i>O(log n)</i> without any allocation. A higher arity makes the heap
+ * shallower, which reduces the cost of {@link #decreaseKey(int, double)} (the
+ * most frequent operation in shortest-path algorithms) at the expense of
+ * {@link #deleteMin()}.
+ * </p>
+ *
+ */
+public class IndexedMinHeap {
+
+    // Default arity of the heap.
+    public static final int DEFAULT_ARITY = 4;
+
+    // Arity of the heap.
+    private final int arity;
+
+    // Number of elements in heap.
+    private int currentSize;
+
+    // Identifier and key of the element at each position of the heap.
+    private final int[] ids;
+    private final double[] keys;
+
+    // Position of each identifier in the heap, or -1 if not in the heap.
+    private final int[] positions;
+
+    /**
+     * Construct a new empty heap with the default arity.
+     *
+     * @param capacity Number of identifiers, identifiers must be in
+     *        {@code [0, capacity)}.
+     */
+    public IndexedMinHeap(int capacity) {
+        this(capacity, DEFAULT_ARITY);
+    }
+
+    /**
+     * Construct a new empty heap with the given arity.
+     *
+     * @param capacity Number of identifiers, identifiers must be in
+     *        {@code [0, capacity)}.
+     * @param arity Arity of the heap (e.g. 2, 4 or 8).
+     *
+     * @throws IllegalArgumentException if arity is lower than 2.
+     */
+    public IndexedMinHeap(int capacity, int arity) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("Invalid heap arity: " + arity);
+        }
+        this.arity = arity;
+        this.currentSize = 0;
+        this.ids = new int[capacity];
+        this.keys = new double[capacity];
+        this.positions = new int[capacity];
+        Arrays.fill(this.positions, -1);
+    }
+
+    /**
+     * Construct a copy of the given heap.
+     *
+     * @param heap Heap to copy.
+     */
+    public IndexedMinHeap(IndexedMinHeap heap) {
+        this.arity = heap.arity;
+        this.currentSize = heap.currentSize;
+        this.ids = heap.ids.clone();
+        this.keys = heap.keys.clone();
+        this.positions = heap.positions.clone();
+    }
+
+    /**
+     * @return Arity of this heap.
+     */
+    public int getArity() {
+        return this.arity;
+    }
+
+    /**
+     * @return Number of identifiers this heap can hold.
+     */
+    public int getCapacity() {
+        return this.positions.length;
+    }
+
+    /**
+     * @return true if the heap is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return this.currentSize == 0;
+    }
+
+    /**
+     * @return Current size (number of elements) of this heap.
+     */
+    public int size() {
+        return this.currentSize;
+    }
+
+    /**
+     * <p>
+     * <b>Complexity:</b> <i>O(1)</i>
+     * </p>
+     *
+     * @param id Identifier to check.
+     *
+     * @return true if the given identifier is in this heap.
+     */
+    public boolean contains(int id) {
+        return this.positions[id] >= 0;
+    }
+
+    /**
+     * <p>
+     * <b>Complexity:</b> <i>O(1)</i>
+     * </p>
+     *
+     * @param id Identifier in this heap.
+     *
+     * @return Key of the given identifier.
+     *
+     * @throws ElementNotFoundException if the identifier is not in this heap.
+     */
+    public double getKey(int id) throws ElementNotFoundException {
+        int index = this.positions[id];
+        if (index < 0) {
+            throw new ElementNotFoundException(id);
+        }
+        return this.keys[index];
+    }
+
+    /**
+     * Insert the given identifier into the heap.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(log n)</i>
+     * </p>
+     *
+     * @param id Identifier to insert, must not be in the heap.
+     * @param key Key of the identifier.
+     *
+     * @throws IllegalArgumentException if the identifier is already in this heap.
+     */
+    public void insert(int id, double key) {
+        if (this.positions[id] >= 0) {
+            throw new IllegalArgumentException("Element already in heap: " + id);
+        }
+        percolateUp(this.currentSize++, id, key);
+    }
+
+    /**
+     * Decrease the key of the given identifier.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(log n)</i>
+     * </p>
+     *
+     * @param id Identifier in this heap.
+     * @param key New key of the identifier, must not be greater than its current
+     *        key.
+     *
+     * @throws ElementNotFoundException if the identifier is not in this heap.
+     * @throws IllegalArgumentException if the new key is greater than the current
+     *         one.
+     */
+    public void decreaseKey(int id, double key) throws ElementNotFoundException {
+        int index = this.positions[id];
+        if (index < 0) {
+            throw new ElementNotFoundException(id);
+        }
+        if (key > this.keys[index]) {
+            throw new IllegalArgumentException("New key is greater than current key.");
+        }
+        percolateUp(index, id, key);
+    }
+
+    /**
+     * Insert the given identifier or decrease its key if it is already in the
+     * heap.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(log n)</i>
+     * </p>
+     *
+     * @param id Identifier to insert or update.
+     * @param key New key of the identifier, must not be greater than its current
+     *        key if it is already in the heap.
+     */
+    public void insertOrDecreaseKey(int id, double key) {
+        int index = this.positions[id];
+        percolateUp(index < 0 ? this.currentSize++ : index, id, key);
+    }
+
+    /**
+     * Remove the given identifier from the heap.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(log n)</i>
+     * </p>
+     *
+     * @param id Identifier to remove.
+     *
+     * @throws ElementNotFoundException if the identifier is not in this heap.
+     */
+    public void remove(int id) throws ElementNotFoundException {
+        int index = this.positions[id];
+        if (index < 0) {
+            throw new ElementNotFoundException(id);
+        }
+        this.positions[id] = -1;
+        int last = --this.currentSize;
+        if (index != last) {
+            int lastId = this.ids[last];
+            double lastKey = this.keys[last];
+            if (index > 0 && lastKey < this.keys[indexParent(index)]) {
+                percolateUp(index, lastId, lastKey);
+            }
+            else {
+                percolateDown(index, lastId, lastKey);
+            }
+        }
+    }
+
+    /**
+     * Retrieve (but not remove) the identifier with the smallest key.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(1)</i>
+     * </p>
+     *
+     * @return Identifier with the smallest key.
+     *
+     * @throws EmptyPriorityQueueException if this heap is empty.
+     */
+    public int findMin() throws EmptyPriorityQueueException {
+        if (isEmpty()) {
+            throw new EmptyPriorityQueueException();
+        }
+        return this.ids[0];
+    }
+
+    /**
+     * <p>
+     * <b>Complexity:</b> <i>O(1)</i>
+     * </p>
+     *
+     * @return The smallest key in this heap.
+     *
+     * @throws EmptyPriorityQueueException if this heap is empty.
+     */
+    public double findMinKey() throws EmptyPriorityQueueException {
+        if (isEmpty()) {
+            throw new EmptyPriorityQueueException();
+        }
+        return this.keys[0];
+    }
+
+    /**
+     * Remove and return the identifier with the smallest key.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(d log n / log d)</i>
+     * </p>
+     *
+     * @return Identifier with the smallest key.
+     *
+     * @throws EmptyPriorityQueueException if this heap is empty.
+     */
+    public int deleteMin() throws EmptyPriorityQueueException {
+        int min = findMin();
+        this.positions[min] = -1;
+        int last = --this.currentSize;
+        if (last > 0) {
+            percolateDown(0, this.ids[last], this.keys[last]);
+        }
+        return min;
+    }
+
+    /**
+     * Remove all the elements of this heap.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(n)</i>, where n is the current size of the heap.
+     * </p>
+     */
+    public void clear() {
+        for (int i = 0; i < this.currentSize; ++i) {
+            this.positions[this.ids[i]] = -1;
+        }
+        this.currentSize = 0;
+    }
+
+    /**
+     * @return If the heap is valid, each key must be greater or equal to the key
+     *         of its parent and positions must be consistent.
+     */
+    public boolean isValid() {
+        for (int i = 0; i < this.currentSize; i++) {
+            if (this.positions[this.ids[i]] != i
+                    || (i > 0 && this.keys[i] < this.keys[indexParent(i)])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return Index of the parent of the given index.
+     */
+    private int indexParent(int index) {
+        return (index - 1) / this.arity;
+    }
+
+    /**
+     * Place the given element at the given index.
+     */
+    private void set(int index, int id, double key) {
+        this.ids[index] = id;
+        this.keys[index] = key;
+        this.positions[id] = index;
+    }
+
+    /**
+     * Internal method to percolate up in the heap: move the hole at the given
+     * index up until the given element can be placed in it.
+     *
+     * @param index Index of the hole at which the percolate begins.
+     * @param id Identifier to place.
+     * @param key Key of the identifier.
+     */
+    private void percolateUp(int index, int id, double key) {
+        while (index > 0) {
+            int parent = indexParent(index);
+            if (this.keys[parent] <= key) {
+                break;
+            }
+            set(index, this.ids[parent], this.keys[parent]);
+            index = parent;
+        }
+        set(index, id, key);
+    }
+
+    /**
+     * Internal method to percolate down in the heap: move the hole at the given
+     * index down until the given element can be placed in it.
+     *
+     * @param index Index of the hole at which the percolate begins.
+     * @param id Identifier to place.
+     * @param key Key of the identifier.
+     */
+    private void percolateDown(int index, int id, double key) {
+        while (true) {
+            int first = index * this.arity + 1;
+            if (first >= this.currentSize) {
+                break;
+            }
+
+            // Find the smallest child.
+            int last = Math.min(first + this.arity, this.currentSize);
+            int child = first;
+            double childKey = this.keys[first];
+            for (int i = first + 1; i < last; ++i) {
+                if (this.keys[i] < childKey) {
+                    child = i;
+                    childKey = this.keys[i];
+                }
+            }
+
+            if (childKey >= key) {
+                break;
+            }
+            set(index, this.ids[child], childKey);
+            index = child;
+        }
+        set(index, id, key);
+    }
+
+}
@@ -0,0 +1,172 @@
+package org.insa.graphs.algorithm.weakconnectivity;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+
+/**
+ * <p>
+ * Weakly-connected components computed with a concurrent union-find on the
+ * arcs of the compact graph, instead of a breadth-first search on an
+ * undirected copy of the graph.
+ * </p>
+ *
+ * <p>
+ * The arcs are split in ranges of equal size that are processed in parallel.
+ * The union-find is lock-free: the parent of a node is only changed with a
+ * compare-and-set, either to link a root below the root of lower ID, or to
+ * halve the path to the root of a node. Components are numbered by increasing
+ * lowest node ID, as with {@link WeaklyConnectedComponentsAlgorithm}, and the
+ * observers are notified once all the components have been computed.
+ * </p>
+ *
+ */
+public class UnionFindWeaklyConnectedComponentsAlgorithm
+        extends WeaklyConnectedComponentsAlgorithm {
+
+    // Number of arc ranges per worker thread.
+    private static final int RANGES_PER_THREAD = 4;
+
+    /**
+     * @param data Input data for this algorithm.
+     */
+    public UnionFindWeaklyConnectedComponentsAlgorithm(WeaklyConnectedComponentsData data) {
+        super(data);
+    }
+
+    /**
+     * Compute the weakly-connected component of each node of the given graph.
+     *
+     * @param graph Compact graph.
+     *
+     * @return ID of the component of each node, components being numbered by
+     *         increasing lowest node ID.
+     */
+    public static int[] computeComponentIds(CompactGraph graph) {
+        final int nbNodes = graph.size(), nbArcs = graph.getArcCount();
+        AtomicIntegerArray parents = new AtomicIntegerArray(nbNodes);
+        for (int node = 0; node < nbNodes; ++node) {
+            parents.set(node, node);
+        }
+
+        final int nbRanges = Math.max(1,
+                Math.min(nbArcs, RANGES_PER_THREAD * ForkJoinPool.getCommonPoolParallelism()));
+        IntStream.range(0, nbRanges).parallel().forEach(range -> {
+            int first = (int) ((long) range * nbArcs / nbRanges),
+                    last = (int) ((long) (range + 1) * nbArcs / nbRanges);
+            for (int node = findTail(graph, first); first < last; ++node) {
+                for (int arc = first; arc < Math.min(last, graph.getFirstArc(node + 1)); ++arc) {
+                    union(parents, node, graph.getHead(arc));
+                }
+                first = Math.max(first, graph.getFirstArc(node + 1));
+            }
+        });
+
+        // Roots have the lowest ID of their component, so they are numbered before
+        // the other nodes of their component.
+        int[] ids = new int[nbNodes];
+        int count = 0;
+        for (int node = 0; node < nbNodes; ++node) {
+            int root = find(parents, node);
+            ids[node] = root == node ? count++ : ids[root];
+        }
+        return ids;
+    }
+
+    @Override
+    protected WeaklyConnectedComponentsSolution doRun() {
+        Graph graph = getInputData().getGraph();
+        int[] ids = computeComponentIds(graph.getCompactGraph());
+
+        // Sort the nodes by component (counting sort).
+        int nbComponents = 0;
+        for (int id: ids) {
+            nbComponents = Math.max(nbComponents, id + 1);
+        }
+        int[] first = new int[nbComponents + 1];
+        for (int id: ids) {
+            ++first[id + 1];
+        }
+        for (int i = 0; i < nbComponents; ++i) {
+            first[i + 1] += first[i];
+        }
+        int[] nodes = new int[ids.length], next = first.clone();
+        for (int node = 0; node < ids.length; ++node) {
+            nodes[next[ids[node]]++] = node;
+        }
+
+        ArrayList<ArrayList<Node>> components = new ArrayList<>(nbComponents);
+        for (int id = 0; id < nbComponents; ++id) {
+            ArrayList<Node> component = new ArrayList<>(first[id + 1] - first[id]);
+            notifyStartComponent(graph.get(nodes[first[id]]));
+            for (int i = first[id]; i < first[id + 1]; ++i) {
+                component.add(graph.get(nodes[i]));
+                notifyNewNodeInComponent(graph.get(nodes[i]));
+            }
+            notifyEndComponent(component);
+            components.add(component);
+        }
+
+        return new WeaklyConnectedComponentsSolution(getInputData(), Status.OPTIMAL, components,
+                ids);
+    }
+
+    /**
+     * @return Node whose arcs contain the given arc.
+     */
+    private static int findTail(CompactGraph graph, int arc) {
+        int low = 0, high = graph.size() - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (graph.getFirstArc(middle) <= arc) {
+                low = middle;
+            }
+            else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return Root of the given node, halving the path to the root.
+     */
+    private static int find(AtomicIntegerArray parents, int node) {
+        int parent = parents.get(node);
+        while (parent != node) {
+            int grandParent = parents.get(parent);
+            // Another thread may have changed the parent, in which case the path is
+            // not halved.
+            parents.compareAndSet(node, parent, grandParent);
+            node = parent;
+            parent = parents.get(node);
+        }
+        return node;
+    }
+
+    /**
+     * Merge the components of the given nodes, the root of higher ID being linked
+     * below the other one.
+     */
+    private static void union(AtomicIntegerArray parents, int first, int second) {
+        while (true) {
+            first = find(parents, first);
+            second = find(parents, second);
+            if (first == second) {
+                return;
+            }
+            int low = Math.min(first, second), high = Math.max(first, second);
+            // Fails if the root of higher ID has been linked by another thread.
+            if (parents.compareAndSet(high, high, low)) {
+                return;
+            }
+        }
+    }
+
+}
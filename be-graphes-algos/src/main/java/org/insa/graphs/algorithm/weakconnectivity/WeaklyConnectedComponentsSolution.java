@@ -10,6 +10,9 @@ public class WeaklyConnectedComponentsSolution extends AbstractSolution {
     // Components
     private ArrayList<ArrayList<Node>> components;
 
+    // Component of each node, computed from the components if not given.
+    private int[] componentIds;
+
     protected WeaklyConnectedComponentsSolution(WeaklyConnectedComponentsData data) {
         super(data);
     }
@@ -20,6 +23,12 @@ public class WeaklyConnectedComponentsSolution extends AbstractSolution {
         this.components = components;
     }
 
+    protected WeaklyConnectedComponentsSolution(WeaklyConnectedComponentsData data, Status status,
+            ArrayList<ArrayList<Node>> components, int[] componentIds) {
+        this(data, status, components);
+        this.componentIds = componentIds;
+    }
+
     @Override
     public WeaklyConnectedComponentsData getInputData() {
         return (WeaklyConnectedComponentsData) super.getInputData();
@@ -32,6 +41,23 @@ public class WeaklyConnectedComponentsSolution extends AbstractSolution {
         return components;
     }
 
+    /**
+     * @return Index (in {@link #getComponents()}) of the component of each node,
+     *         indexed by node ID, or null if there are no components.
+     */
+    public int[] getComponentIds() {
+        if (componentIds == null && components != null) {
+            int[] ids = new int[getInputData().getGraph().size()];
+            for (int i = 0; i < components.size(); ++i) {
+                for (Node node: components.get(i)) {
+                    ids[node.getId()] = i;
+                }
+            }
+            componentIds = ids;
+        }
+        return componentIds;
+    }
+
     /*
      * (non-Javadoc)
      * 
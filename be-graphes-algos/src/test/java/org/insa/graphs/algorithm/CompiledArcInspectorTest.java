@@ -0,0 +1,185 @@
+package org.insa.graphs.algorithm;
+
+import org.insa.graphs.algorithm.AbstractInputData.Mode;
+import org.insa.graphs.model.AccessRestrictions;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.GraphStatistics;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.RoadInformation;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+
+import static org.junit.Assert.*;
+
+public class CompiledArcInspectorTest {
+
+    // Graph with roads open to everyone and roads forbidden to cars:
+    // a <-> b (open), b -> c (no cars), a <-> c (no cars, no pedestrians)
+    private static Graph graph;
+
+    private static RoadInformation roadInformation(AccessRestrictions.AccessRestriction car,
+            AccessRestrictions.AccessRestriction foot, boolean oneWay) {
+        EnumMap<AccessRestrictions.AccessMode, AccessRestrictions.AccessRestriction> restrictions = new EnumMap<>(AccessRestrictions.AccessMode.class);
+        for (AccessRestrictions.AccessMode mode : AccessRestrictions.AccessMode.values())
+            restrictions.put(mode, AccessRestrictions.AccessRestriction.ALLOWED);
+        restrictions.put(AccessRestrictions.AccessMode.MOTORCAR, car);
+        restrictions.put(AccessRestrictions.AccessMode.FOOT, foot);
+        return new RoadInformation(RoadInformation.RoadType.RESIDENTIAL, new AccessRestrictions(restrictions), oneWay, 50, "");
+    }
+
+    @BeforeClass
+    public static void initAll() {
+        Node[] nodes = new Node[3];
+        for (int i = 0; i < nodes.length; ++i)
+            nodes[i] = new Node(i, new Point(i, 0));
+        Node.linkNodes(nodes[0], nodes[1], 10, roadInformation(AccessRestrictions.AccessRestriction.ALLOWED, AccessRestrictions.AccessRestriction.ALLOWED, false), null);
+        Node.linkNodes(nodes[1], nodes[2], 20, roadInformation(AccessRestrictions.AccessRestriction.FORBIDDEN, AccessRestrictions.AccessRestriction.ALLOWED, true), null);
+        Node.linkNodes(nodes[0], nodes[2], 30, roadInformation(AccessRestrictions.AccessRestriction.PRIVATE, AccessRestrictions.AccessRestriction.FORBIDDEN, false), null);
+        graph = new Graph("compiled", "Compiled", Arrays.asList(nodes), null);
+    }
+
+    /**
+     * Test that the compiled filters match the filters of the factory, which are
+     * evaluated per road information
+     */
+    @Test
+    public void testFactoryFilters() {
+        CompactGraph compact = graph.getCompactGraph();
+        for (ArcInspector inspector : ArcInspectorFactory.getAllFilters()) {
+            CompiledArcInspector compiled = CompiledArcInspector.of(graph, inspector);
+            assertSame(compiled, CompiledArcInspector.of(graph, inspector));
+            assertTrue(compiled.hasAllowedDescriptors());
+            assertEquals(compact.getArcCount(), compiled.size());
+            for (int node = 0; node < compact.size(); ++node) {
+                for (int arc = compact.getFirstArc(node); arc < compact.getFirstArc(node + 1); ++arc) {
+                    Arc original = graph.getArc(node, arc);
+                    assertEquals(inspector.isAllowed(original), compiled.isAllowed(arc));
+                    assertEquals(inspector.isAllowed(original), compiled.isAllowedDescriptor(compact.getDescriptorIndex(arc)));
+                    if (compiled.isAllowed(arc))
+                        assertEquals((float) inspector.getCost(original), compiled.getCost(arc), 0);
+                    else
+                        assertEquals(Float.POSITIVE_INFINITY, compiled.getCost(arc), 0);
+                }
+            }
+        }
+
+        // Only the arcs between a and b are open to cars.
+        CompiledArcInspector cars = CompiledArcInspector.of(graph, ArcInspectorFactory.getAllFilters().get(1));
+        int allowed = 0;
+        for (int arc = 0; arc < cars.size(); ++arc)
+            allowed += cars.isAllowed(arc) ? 1 : 0;
+        assertEquals(2, allowed);
+    }
+
+    /**
+     * Test an inspector whose filter depends on the length of the arcs, which is
+     * evaluated per arc
+     */
+    @Test
+    public void testArcFilter() {
+        ArcInspector inspector = new ArcInspector() {
+            @Override
+            public boolean isAllowed(Arc arc) {
+                return arc.getLength() < 25;
+            }
+
+            @Override
+            public double getCost(Arc arc) {
+                return arc.getLength();
+            }
+
+            @Override
+            public int getMaximumSpeed() {
+                return GraphStatistics.NO_MAXIMUM_SPEED;
+            }
+
+            @Override
+            public Mode getMode() {
+                return Mode.LENGTH;
+            }
+
+            @Override
+            public String toString() {
+                return "Arcs shorter than 25 meters";
+            }
+        };
+        CompiledArcInspector compiled = new CompiledArcInspector(graph, inspector);
+        assertFalse(compiled.hasAllowedDescriptors());
+        CompactGraph compact = graph.getCompactGraph();
+        for (int arc = 0; arc < compact.getArcCount(); ++arc)
+            assertEquals(compact.getLength(arc) < 25 ? compact.getLength(arc) : Float.POSITIVE_INFINITY, compiled.getCost(arc), 0);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testArcFilterDescriptor() {
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(0);
+        new CompiledArcInspector(graph, new ArcInspector() {
+            @Override
+            public boolean isAllowed(Arc arc) {
+                return true;
+            }
+
+            @Override
+            public double getCost(Arc arc) {
+                return inspector.getCost(arc);
+            }
+
+            @Override
+            public int getMaximumSpeed() {
+                return inspector.getMaximumSpeed();
+            }
+
+            @Override
+            public Mode getMode() {
+                return inspector.getMode();
+            }
+        }).isAllowedDescriptor(0);
+    }
+
+
+    @Test
+    public void testCacheByInspector() {
+        ArcInspector all = ArcInspectorFactory.getAllFilters().get(0), cars = ArcInspectorFactory.getAllFilters().get(1);
+        assertSame(CompiledArcInspector.of(graph, all), CompiledArcInspector.of(graph, ArcInspectorFactory.getAllFilters().get(0)));
+
+        // Another inspector with the same description must not share the cached filter.
+        ArcInspector impostor = new ArcInspector() {
+            @Override
+            public boolean isAllowed(Arc arc) {
+                return cars.isAllowed(arc);
+            }
+
+            @Override
+            public double getCost(Arc arc) {
+                return all.getCost(arc);
+            }
+
+            @Override
+            public int getMaximumSpeed() {
+                return all.getMaximumSpeed();
+            }
+
+            @Override
+            public Mode getMode() {
+                return all.getMode();
+            }
+
+            @Override
+            public String toString() {
+                return all.toString();
+            }
+        };
+        CompiledArcInspector compiled = CompiledArcInspector.of(graph, impostor);
+        assertNotSame(CompiledArcInspector.of(graph, all), compiled);
+        CompactGraph compact = graph.getCompactGraph();
+        for (int node = 0; node < compact.size(); ++node)
+            for (int arc = compact.getFirstArc(node); arc < compact.getFirstArc(node + 1); ++arc)
+                assertEquals(cars.isAllowed(graph.getArc(node, arc)), compiled.isAllowed(arc));
+    }
+}
@@ -0,0 +1,96 @@
+package org.insa.graphs.algorithm;
+
+import org.insa.graphs.algorithm.shortestpath.AlgorithmTest;
+import org.insa.graphs.algorithm.shortestpath.DijkstraAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathData;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathSolution;
+import org.insa.graphs.model.AccessRestrictions;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.RoadInformation;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+
+import static org.junit.Assert.*;
+
+public class ConnectedComponentsTest extends AlgorithmTest {
+
+    /**
+     * Test the components of the custom graph, strongly connected for
+     * pedestrians and without any arc for cars
+     */
+    @Test
+    public void testCustomGraph() {
+        ConnectedComponents components = ConnectedComponents.of(graph, ArcInspectorFactory.getAllFilters().get(0));
+        assertSame(components, ConnectedComponents.of(graph, ArcInspectorFactory.getAllFilters().get(0)));
+        assertEquals(1, components.getStrongComponentCount());
+        assertEquals(1, components.getWeakComponentCount());
+        for (Node origin : nodes) {
+            for (Node destination : nodes) {
+                assertTrue(components.mayReach(origin.getId(), destination.getId()));
+            }
+        }
+
+        components = ConnectedComponents.of(graph, ArcInspectorFactory.getAllFilters().get(1));
+        assertEquals(nodes.length, components.getStrongComponentCount());
+        assertEquals(nodes.length, components.getWeakComponentCount());
+        for (Node origin : nodes) {
+            for (Node destination : nodes) {
+                assertEquals(origin == destination, components.mayReach(origin.getId(), destination.getId()));
+            }
+        }
+    }
+
+    /**
+     * Test the order of the components on a graph with one-way arcs and two
+     * islands: a -> b <-> c -> d, and e <-> f
+     */
+    @Test
+    public void testOrder() {
+        EnumMap<AccessRestrictions.AccessMode, AccessRestrictions.AccessRestriction> restrictions = new EnumMap<>(AccessRestrictions.AccessMode.class);
+        for (AccessRestrictions.AccessMode mode : AccessRestrictions.AccessMode.values())
+            restrictions.put(mode, AccessRestrictions.AccessRestriction.ALLOWED);
+        RoadInformation info = new RoadInformation(RoadInformation.RoadType.RESIDENTIAL, new AccessRestrictions(restrictions), true, 50, "");
+
+        Node[] nodes = new Node[6];
+        for (int i = 0; i < nodes.length; ++i)
+            nodes[i] = new Node(i, new Point(0, 0));
+        Node.linkNodes(nodes[0], nodes[1], 10, info, null);
+        Node.linkNodes(nodes[1], nodes[2], 10, info, null);
+        Node.linkNodes(nodes[2], nodes[1], 10, info, null);
+        Node.linkNodes(nodes[2], nodes[3], 10, info, null);
+        Node.linkNodes(nodes[4], nodes[5], 10, info, null);
+        Node.linkNodes(nodes[5], nodes[4], 10, info, null);
+        Graph graph = new Graph("order", "Order", Arrays.asList(nodes), null);
+
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(0);
+        ConnectedComponents components = ConnectedComponents.of(graph, inspector);
+        assertEquals(4, components.getStrongComponentCount());
+        assertEquals(2, components.getWeakComponentCount());
+        assertEquals(components.getStrongComponent(1), components.getStrongComponent(2));
+        assertEquals(components.getWeakComponent(0), components.getWeakComponent(3));
+
+        boolean[][] reachable = {
+            { true, true, true, true, false, false },
+            { false, true, true, true, false, false },
+            { false, true, true, true, false, false },
+            { false, false, false, true, false, false },
+            { false, false, false, false, true, true },
+            { false, false, false, false, true, true },
+        };
+        for (int origin = 0; origin < nodes.length; ++origin) {
+            for (int destination = 0; destination < nodes.length; ++destination) {
+                // Unreachable nodes are always detected on this graph.
+                assertEquals(reachable[origin][destination], components.mayReach(origin, destination));
+                if (origin != destination) {
+                    ShortestPathSolution solution = new DijkstraAlgorithm(new ShortestPathData(graph, nodes[origin], nodes[destination], inspector)).run();
+                    assertEquals(reachable[origin][destination], solution.isFeasible());
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,97 @@
+package org.insa.graphs.algorithm.isochrone;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.shortestpath.AlgorithmTest;
+import org.insa.graphs.algorithm.shortestpath.DijkstraAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathData;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathSolution;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Node;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class IsochroneAlgorithmTest extends AlgorithmTest {
+
+    private static double getCost(ShortestPathSolution solution, ArcInspector inspector) {
+        if (!solution.isFeasible()) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double cost = 0;
+        for (Arc arc : solution.getPath().getArcs()) {
+            cost += inspector.getCost(arc);
+        }
+        return cost;
+    }
+
+    /**
+     * Check the reached nodes of each budget against Dijkstra
+     */
+    private void testIsochrone(IsochroneData data) {
+        IsochroneSolution solution = new DijkstraIsochroneAlgorithm(data).run();
+        ArcInspector inspector = data.getArcInspector();
+        for (int i = 0; i < data.getBudgetCount(); ++i) {
+            List<Node> reached = solution.getReachedNodes(i);
+            double[] costs = solution.getReachedCosts(i);
+            assertEquals(reached.size(), solution.getReachedNodeCount(i));
+            for (Node node : nodes) {
+                double cost = getCost(new DijkstraAlgorithm(new ShortestPathData(graph, data.getOrigin(), node, inspector)).run(), inspector);
+                int index = reached.indexOf(node);
+                assertEquals(cost <= data.getBudget(i), index != -1);
+                if (index != -1) {
+                    assertEquals(cost, costs[index], 1e-6);
+                }
+            }
+        }
+    }
+
+    /**
+     * Test every origin of the custom graph with every filter
+     */
+    @Test
+    public void testAllOrigins() {
+        double[] budgets = { 8.5, 0, 6, 100 };
+        for (ArcInspector inspector : ArcInspectorFactory.getAllFilters()) {
+            for (Node origin : nodes) {
+                testIsochrone(new IsochroneData(graph, origin, budgets, inspector));
+            }
+        }
+    }
+
+    /**
+     * Test the number of reached nodes and partially traversed arcs of each budget
+     */
+    @Test
+    public void testBudgets() {
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(0);
+        IsochroneData data = new IsochroneData(graph, nodes[0], new double[] { 100, 6, 0, 8.5 }, inspector);
+        IsochroneSolution solution = new DijkstraIsochroneAlgorithm(data).run();
+
+        // Budgets are sorted: 0, 6, 8.5, 100
+        assertEquals(6, data.getBudget(1), 0);
+        assertEquals(1, solution.getReachedNodeCount(0));
+        assertEquals(2, solution.getReachedNodeCount(1));
+        assertEquals(4, solution.getReachedNodeCount(2));
+        assertEquals(5, solution.getReachedNodeCount(3));
+
+        // Within 6, A->B is cut at 6/10, D->B at 1/3, D->C at 1/9 and D->E at 1/2
+        assertEquals(2, solution.getBoundaryPoints(0).size());
+        assertEquals(4, solution.getBoundaryPoints(1).size());
+        // Within 8.5, B->C, D->C and E->C are cut (E->A and B->D are not)
+        assertEquals(3, solution.getBoundaryPoints(2).size());
+        assertEquals(0, solution.getBoundaryPoints(3).size());
+        assertFalse(solution.getPolygon(3).isEmpty());
+    }
+
+    /**
+     * Test invalid budgets
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeBudget() {
+        new IsochroneData(graph, nodes[0], new double[] { 5, -1 }, ArcInspectorFactory.getAllFilters().get(0));
+    }
+
+}
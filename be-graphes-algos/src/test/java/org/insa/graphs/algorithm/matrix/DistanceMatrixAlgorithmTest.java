@@ -0,0 +1,106 @@
+package org.insa.graphs.algorithm.matrix;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.shortestpath.AlgorithmTest;
+import org.insa.graphs.algorithm.shortestpath.DijkstraAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathData;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathSolution;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Path;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class DistanceMatrixAlgorithmTest extends AlgorithmTest {
+
+    private static double getCost(Path path, ArcInspector inspector) {
+        double cost = 0;
+        for (Arc arc : path.getArcs()) {
+            cost += inspector.getCost(arc);
+        }
+        return cost;
+    }
+
+    /**
+     * Check all the costs and paths of the given matrix against Dijkstra
+     */
+    private void testMatrix(DistanceMatrixAlgorithm algorithm) {
+        DistanceMatrixSolution solution = algorithm.run();
+        DistanceMatrixData data = solution.getInputData();
+        ArcInspector inspector = data.getArcInspector();
+        for (int i = 0; i < data.getOrigins().size(); ++i) {
+            for (int j = 0; j < data.getDestinations().size(); ++j) {
+                ShortestPathSolution expected = new DijkstraAlgorithm(new ShortestPathData(graph,
+                        data.getOrigins().get(i), data.getDestinations().get(j), inspector)).run();
+                if (!expected.isFeasible()) {
+                    assertEquals(Double.POSITIVE_INFINITY, solution.getCost(i, j), 0);
+                    assertNull(solution.getPath(i, j));
+                }
+                else {
+                    double cost = getCost(expected.getPath(), inspector);
+                    assertEquals(cost, solution.getCost(i, j), 1e-6);
+                    assertEquals(cost, getCost(solution.getPath(i, j), inspector), 1e-6);
+                }
+            }
+        }
+    }
+
+    /**
+     * Test all pairs of the custom graph with every filter
+     */
+    @Test
+    public void testAllPairs() {
+        for (ArcInspector inspector : ArcInspectorFactory.getAllFilters()) {
+            DistanceMatrixData data = new DistanceMatrixData(graph, Arrays.asList(nodes), Arrays.asList(nodes), inspector);
+            testMatrix(new OneToAllDistanceMatrixAlgorithm(data));
+            testMatrix(new BucketDistanceMatrixAlgorithm(data));
+        }
+    }
+
+    /**
+     * Test duplicated origins and destinations
+     */
+    @Test
+    public void testDuplicates() {
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(0);
+        DistanceMatrixData data = new DistanceMatrixData(graph, Arrays.asList(nodes[4], nodes[0], nodes[4]),
+                Arrays.asList(nodes[2], nodes[2], nodes[0]), inspector);
+        testMatrix(new OneToAllDistanceMatrixAlgorithm(data));
+        testMatrix(new BucketDistanceMatrixAlgorithm(data));
+    }
+
+    /**
+     * Test a matrix written then read back
+     */
+    @Test
+    public void testBinaryFormat() throws IOException {
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(0);
+        DistanceMatrixData data = new DistanceMatrixData(graph, Arrays.asList(nodes), Arrays.asList(nodes[1], nodes[4]), inspector);
+        DistanceMatrixSolution solution = new OneToAllDistanceMatrixAlgorithm(data).run();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (BinaryMatrixWriter writer = new BinaryMatrixWriter(new DataOutputStream(bytes))) {
+            writer.writeMatrix(solution);
+        }
+        DistanceMatrixSolution read;
+        try (BinaryMatrixReader reader = new BinaryMatrixReader(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())))) {
+            read = reader.readMatrix(graph, inspector);
+        }
+        assertEquals(data.getOrigins(), read.getInputData().getOrigins());
+        assertEquals(data.getDestinations(), read.getInputData().getDestinations());
+        for (int i = 0; i < nodes.length; ++i) {
+            for (int j = 0; j < 2; ++j) {
+                assertEquals(solution.getCost(i, j), read.getCost(i, j), 1e-3);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,89 @@
+package org.insa.graphs.algorithm.onetoall;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.shortestpath.AlgorithmTest;
+import org.insa.graphs.algorithm.shortestpath.DijkstraAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathData;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathSolution;
+import org.insa.graphs.algorithm.shortestpath.ch.ContractionHierarchy;
+import org.insa.graphs.algorithm.shortestpath.ch.CustomizableContractionHierarchy;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Path;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class OneToAllEngineTest extends AlgorithmTest {
+
+    private static double getCost(Path path, ArcInspector inspector) {
+        double cost = 0;
+        for (Arc arc : path.getArcs()) {
+            cost += inspector.getCost(arc);
+        }
+        return cost;
+    }
+
+    /**
+     * Check the costs and paths of the given tree against Dijkstra
+     */
+    private void testTree(ShortestPathTree tree, int source, ArcInspector inspector) {
+        assertEquals(source, tree.getSource());
+        for (int node = 0; node < nodes.length; ++node) {
+            ShortestPathSolution expected = new DijkstraAlgorithm(new ShortestPathData(graph, nodes[source], nodes[node], inspector)).run();
+            if (!expected.isFeasible()) {
+                assertEquals(Double.POSITIVE_INFINITY, tree.getCost(node), 0);
+                assertEquals(-1, tree.getParent(node));
+                assertNull(tree.getPath(node));
+            }
+            else {
+                double cost = getCost(expected.getPath(), inspector);
+                assertEquals(cost, tree.getCost(node), 1e-6);
+                Path path = tree.getPath(node);
+                assertTrue(path.isValid());
+                assertEquals(node == source, path.getArcs().isEmpty());
+                if (node != source) {
+                    assertEquals(node, path.getDestination().getId());
+                }
+                assertEquals(cost, getCost(path, inspector), 1e-6);
+            }
+        }
+    }
+
+    /**
+     * Test every source of the custom graph with every filter and every engine
+     */
+    @Test
+    public void testAllSources() {
+        for (ArcInspector inspector : ArcInspectorFactory.getAllFilters()) {
+            OneToAllEngine[] engines = {
+                new DijkstraOneToAll(graph, inspector),
+                new Phast(graph, ContractionHierarchy.compute(graph, inspector)),
+                new Phast(graph, CustomizableContractionHierarchy.compute(graph).customize(graph, inspector))
+            };
+            for (OneToAllEngine engine : engines) {
+                for (int source = 0; source < nodes.length; ++source) {
+                    testTree(engine.compute(source), source, inspector);
+                }
+            }
+        }
+    }
+
+    /**
+     * Test several sources (more than a block) swept together
+     */
+    @Test
+    public void testMultipleSources() {
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(0);
+        int[] sources = new int[Phast.BLOCK_SIZE + 3];
+        for (int i = 0; i < sources.length; ++i) {
+            sources[i] = (i * 3) % nodes.length;
+        }
+        ShortestPathTree[] trees = Phast.get(graph, inspector).compute(sources);
+        assertEquals(sources.length, trees.length);
+        for (int i = 0; i < sources.length; ++i) {
+            testTree(trees[i], sources[i], inspector);
+        }
+    }
+
+}
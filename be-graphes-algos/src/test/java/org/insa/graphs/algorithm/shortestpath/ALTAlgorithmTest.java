@@ -0,0 +1,196 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.shortestpath.alt.LandmarkSelection;
+import org.insa.graphs.algorithm.shortestpath.alt.Landmarks;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.io.BadFormatException;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+
+public class ALTAlgorithmTest extends AlgorithmTest {
+
+    /**
+     * Test valid set of path from custom graph
+     */
+    @Test
+    public void testValid() {
+        // Accessible path from origin to destination
+        ShortestPathData data = new ShortestPathData(graph, nodes[0], nodes[0], ArcInspectorFactory.getAllFilters().get(0));
+        testValidAtoA(new ALTAlgorithm(data));
+
+        data = new ShortestPathData(graph, nodes[0], nodes[1], ArcInspectorFactory.getAllFilters().get(0));
+        testValidAtoB(new ALTAlgorithm(data));
+
+        data = new ShortestPathData(graph, nodes[0], nodes[2], ArcInspectorFactory.getAllFilters().get(0));
+        testValidAtoC(new ALTAlgorithm(data));
+
+        data = new ShortestPathData(graph, nodes[0], nodes[3], ArcInspectorFactory.getAllFilters().get(0));
+        testValidAtoD(new ALTAlgorithm(data));
+
+        data = new ShortestPathData(graph, nodes[0], nodes[4], ArcInspectorFactory.getAllFilters().get(0));
+        testValidAtoE(new ALTAlgorithm(data));
+    }
+
+    /**
+     * Test invalid set of path from custom graph
+     */
+    @Test
+    public void testInvalid() {
+        // Unaccessible path from origin to destination (no pedestrian roads)
+        ShortestPathData data = new ShortestPathData(graph, nodes[0], nodes[1], ArcInspectorFactory.getAllFilters().get(1));
+        testInvalidAtoB(new ALTAlgorithm(data));
+
+        data = new ShortestPathData(graph, nodes[0], nodes[2], ArcInspectorFactory.getAllFilters().get(1));
+        testInvalidAtoC(new ALTAlgorithm(data));
+
+        data = new ShortestPathData(graph, nodes[0], nodes[3], ArcInspectorFactory.getAllFilters().get(1));
+        testInvalidAtoD(new ALTAlgorithm(data));
+
+        data = new ShortestPathData(graph, nodes[0], nodes[4], ArcInspectorFactory.getAllFilters().get(1));
+        testInvalidAtoE(new ALTAlgorithm(data));
+    }
+
+    /**
+     * Test set of paths from paths folder in Haute Garonne map
+     * @throws IOException if paths are not founds or invalids
+     */
+    @Test
+    public void testHauteGaronne() throws IOException {
+        int insa = 10991;
+        int airport = 89149;
+        int bikini = 63104;
+        // Shortest path from INSA to Airport restricted to roads open for cars
+        ShortestPathData data = new ShortestPathData(hautegaronne, hautegaronne.get(insa), hautegaronne.get(airport), ArcInspectorFactory.getAllFilters().get(1));
+        testINSAAirportLength(new ALTAlgorithm(data));
+
+        // Fastest path INSA to Airport restricted to roads open for cars
+        data = new ShortestPathData(hautegaronne, hautegaronne.get(insa), hautegaronne.get(airport), ArcInspectorFactory.getAllFilters().get(3));
+        testINSAAirportTime(new ALTAlgorithm(data));
+
+        // Shortest path from INSA to Bikini on any road
+        data = new ShortestPathData(hautegaronne, hautegaronne.get(insa), hautegaronne.get(bikini), ArcInspectorFactory.getAllFilters().get(0));
+        testINSABikiniCanal(new ALTAlgorithm(data));
+
+        // Fastest path from INSA to Bikini restricted to roads open for cars
+        data = new ShortestPathData(hautegaronne, hautegaronne.get(insa), hautegaronne.get(bikini), ArcInspectorFactory.getAllFilters().get(3));
+        testINSABikiniTimeCar(new ALTAlgorithm(data));
+    }
+
+    /**
+     * Test set of paths from paths folder in INSA map
+     * @throws IOException if paths are not founds or invalids
+     */
+    @Test
+    public void testINSA() throws IOException {
+        int rangueil = 552;
+        int entree = 254;
+        int r2 = 526;
+        // Shortest path from Rangueil to INSA restricted to roads open for cars
+        ShortestPathData data = new ShortestPathData(insa, insa.get(rangueil), insa.get(entree), ArcInspectorFactory.getAllFilters().get(3));
+        testRangueilINSA(new ALTAlgorithm(data));
+
+        // Shortest path from Rangueil to R2 open to any roads
+        data = new ShortestPathData(insa, insa.get(rangueil), insa.get(r2), ArcInspectorFactory.getAllFilters().get(0));
+        testRangueilR2(new ALTAlgorithm(data));
+    }
+
+    /**
+     * Test set of paths from paths folder in French Polynesia map
+     * @throws IOException if paths are not founds or invalids
+     */
+    @Test
+    public void testFrenchPolynesia() throws IOException {
+        int papeete = 3382;
+        int fare = 3642;
+        int pihau = 13979;
+        // Shortest path from Papeete to Pihau on any road
+        ShortestPathData data = new ShortestPathData(frenchpolynesia, frenchpolynesia.get(papeete), frenchpolynesia.get(pihau), ArcInspectorFactory.getAllFilters().get(0));
+        testPapeetePihau(new ALTAlgorithm(data));
+
+        // Invalid path from Papeete to Fare
+        data = new ShortestPathData(frenchpolynesia, frenchpolynesia.get(papeete), frenchpolynesia.get(fare), ArcInspectorFactory.getAllFilters().get(0));
+        testPapeeteFare(new ALTAlgorithm(data));
+    }
+
+    /**
+     * Test path from paths folder in Toulouse map
+     * @throws IOException if paths are not founds or invalids
+     */
+    @Test
+    public void testToulouse() throws IOException {
+        int insa = 11325;
+        int tonton = 18935; // perhaps the most important path
+        // Fastest path from INSA to Chez Tonton restricted to roads open for cars
+        ShortestPathData data = new ShortestPathData(toulouse, toulouse.get(insa), toulouse.get(tonton), ArcInspectorFactory.getAllFilters().get(3));
+        testINSATonton(new ALTAlgorithm(data));
+    }
+
+    /**
+     * Test landmarks selected with both strategies, and written then read back
+     */
+    @Test
+    public void testLandmarks() throws IOException {
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(0);
+        for (LandmarkSelection selection : LandmarkSelection.values()) {
+            Landmarks landmarks = Landmarks.compute(graph, inspector, 2, selection);
+            ShortestPathData data = new ShortestPathData(graph, nodes[0], nodes[4], inspector);
+            testValidAtoE(new ALTAlgorithm(data, landmarks, 1));
+
+            Path file = Files.createTempFile("test", Landmarks.EXTENSION);
+            file.toFile().deleteOnExit();
+            landmarks.write(file);
+            Landmarks read = Landmarks.read(file, graph, inspector);
+            assertEquals(landmarks.getCount(), read.getCount());
+            for (int i = 0; i < landmarks.getCount(); ++i) {
+                assertEquals(landmarks.getLandmark(i), read.getLandmark(i));
+                for (int node = 0; node < graph.size(); ++node) {
+                    assertEquals(landmarks.getDistanceFrom(i, node), read.getDistanceFrom(i, node), 0);
+                    assertEquals(landmarks.getDistanceTo(i, node), read.getDistanceTo(i, node), 0);
+                }
+            }
+        }
+    }
+
+    /**
+     * Test that a landmark file of another graph with the same map ID and number
+     * of nodes is rejected
+     */
+    @Test(expected = BadFormatException.class)
+    public void testStaleLandmarkFile() throws IOException {
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(0);
+        Path file = Files.createTempFile("test", Landmarks.EXTENSION);
+        file.toFile().deleteOnExit();
+        Landmarks.compute(createGrid(5, 5), inspector, 2, Landmarks.DEFAULT_SELECTION).write(file);
+        Landmarks.read(file, createGrid(25, 1), inspector);
+    }
+
+    /**
+     * Test that stale landmarks are computed again
+     */
+    @Test
+    public void testStaleLandmarksRecomputed() throws IOException {
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(0);
+        Path directory = Landmarks.getDirectory();
+        Path temporary = Files.createTempDirectory("test");
+        Graph line = createGrid(25, 1);
+        Path file = Landmarks.getFile(temporary, line, inspector);
+        file.toFile().deleteOnExit();
+        temporary.toFile().deleteOnExit();
+        Landmarks.compute(createGrid(5, 5), inspector, 2, Landmarks.DEFAULT_SELECTION).write(file);
+        Landmarks.setDirectory(temporary);
+        try {
+            testAllPairs(line, line.getNodes(), ALTAlgorithm::new);
+        }
+        finally {
+            Landmarks.setDirectory(directory);
+        }
+        Landmarks.read(file, line, inspector);
+    }
+}
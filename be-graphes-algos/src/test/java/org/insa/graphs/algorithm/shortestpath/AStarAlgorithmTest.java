@@ -5,6 +5,8 @@ import org.junit.Test;
 
 import java.io.IOException;
 
+import static org.junit.Assert.*;
+
 
 public class AStarAlgorithmTest extends DijkstraAlgorithmTest{
 
@@ -43,6 +45,19 @@ public class AStarAlgorithmTest extends DijkstraAlgorithmTest{
         testInvalidAtoE(new DijkstraAlgorithm(data));
     }
 
+    /**
+     * Test all pairs of distinct nodes of the custom graph with every filter
+     * and every heuristic
+     */
+    @Test
+    public void testHeuristics() {
+        for (AStarAlgorithm.Heuristic heuristic : AStarAlgorithm.Heuristic.values()) {
+            ShortestPathData data = new ShortestPathData(graph, nodes[0], nodes[1], ArcInspectorFactory.getAllFilters().get(0));
+            assertEquals(heuristic, new AStarAlgorithm(data, heuristic).getHeuristic());
+            testAllPairs(d -> new AStarAlgorithm(d, heuristic));
+        }
+    }
+
     @Test
     public void testHauteGaronne() throws IOException {
         int insa = 10991;
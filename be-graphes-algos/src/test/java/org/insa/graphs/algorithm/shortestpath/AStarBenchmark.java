@@ -0,0 +1,143 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.io.BinaryGraphReader;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Benchmark of the heuristics of {@link AStarAlgorithm}: the same random
+ * queries are solved by Dijkstra, by A* with estimates computed for all the
+ * nodes before the search (as A* used to do), and by A* with lazy great-circle
+ * and equirectangular estimates. For each variant, the average number of
+ * settled nodes, the latency and the number of settled nodes per millisecond
+ * are printed.
+ *
+ * Usage: {@code AStarBenchmark <map.mapgr> [queries] [filter]}, where filter
+ * is an index in {@link ArcInspectorFactory#getAllFilters()}.
+ */
+public class AStarBenchmark {
+
+    /**
+     * A* computing the estimates of all the nodes before the search.
+     */
+    private static class EagerAStarAlgorithm extends AStarAlgorithm {
+
+        EagerAStarAlgorithm(ShortestPathData data) {
+            super(data, Heuristic.GREAT_CIRCLE);
+        }
+
+        @Override
+        protected void initialize(SearchSpace space) {
+            super.initialize(space);
+            for (int node = 0; node < this.data.getGraph().size(); ++node) {
+                estimate(node);
+            }
+        }
+
+    }
+
+    /**
+     * Observer counting the settled nodes.
+     */
+    private static class SettledCounter implements ShortestPathObserver {
+
+        long settled = 0;
+
+        @Override
+        public void notifyOriginProcessed(Node node) {
+        }
+
+        @Override
+        public void notifyNodeReached(Node node) {
+        }
+
+        @Override
+        public void notifyNodeMarked(Node node) {
+            ++settled;
+        }
+
+        @Override
+        public void notifyDestinationReached(Node node) {
+        }
+
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: AStarBenchmark <map.mapgr> [queries] [filter]");
+            System.exit(1);
+        }
+        int nbQueries = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(args.length > 2 ? Integer.parseInt(args[2]) : 0);
+
+        Graph graph;
+        try (DataInputStream stream = new DataInputStream(new BufferedInputStream(new FileInputStream(args[0])))) {
+            graph = new BinaryGraphReader(stream).read();
+        }
+
+        Random random = new Random(42);
+        ShortestPathData[] queries = new ShortestPathData[nbQueries];
+        for (int i = 0; i < nbQueries; ++i) {
+            queries[i] = new ShortestPathData(graph, graph.get(random.nextInt(graph.size())),
+                    graph.get(random.nextInt(graph.size())), inspector);
+        }
+
+        String[] names = { "Dijkstra", "A* (eager great-circle)", "A* (great-circle)", "A* (equirectangular)" };
+        List<Function<ShortestPathData, ShortestPathAlgorithm>> algorithms = List.of(
+            DijkstraAlgorithm::new,
+            EagerAStarAlgorithm::new,
+            data -> new AStarAlgorithm(data, AStarAlgorithm.Heuristic.GREAT_CIRCLE),
+            data -> new AStarAlgorithm(data, AStarAlgorithm.Heuristic.EQUIRECTANGULAR)
+        );
+
+        System.out.printf("%s, %s, %d queries%n", graph.getMapName(), inspector, nbQueries);
+        System.out.printf("%-26s %14s %12s %16s %10s%n", "algorithm", "settled/query", "ms/query", "settled/ms", "mismatches");
+        double[] expected = new double[nbQueries];
+        for (int a = 0; a < algorithms.size(); ++a) {
+            // Warm-up run, not measured.
+            for (ShortestPathData query : queries) {
+                algorithms.get(a).apply(query).run();
+            }
+            SettledCounter counter = new SettledCounter();
+            int mismatches = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < nbQueries; ++i) {
+                ShortestPathAlgorithm algorithm = algorithms.get(a).apply(queries[i]);
+                algorithm.addObserver(counter);
+                double cost = getCost(algorithm.run());
+                if (a == 0) {
+                    expected[i] = cost;
+                }
+                else if (Math.abs(cost - expected[i]) > 1e-6) {
+                    ++mismatches;
+                }
+            }
+            double millis = (System.nanoTime() - start) / 1e6;
+            System.out.printf("%-26s %14.1f %12.3f %16.1f %10d%n", names[a], counter.settled / (double) nbQueries,
+                    millis / nbQueries, counter.settled / millis, mismatches);
+        }
+    }
+
+    /**
+     * @return Cost of the path of the given solution, or infinity if there is no
+     *         path.
+     */
+    private static double getCost(ShortestPathSolution solution) {
+        if (!solution.isFeasible()) {
+            return Double.POSITIVE_INFINITY;
+        }
+        ArcInspector inspector = solution.getInputData().getArcInspector();
+        return solution.getPath().getArcs().stream().mapToDouble(inspector::getCost).sum();
+    }
+
+}
@@ -1,6 +1,8 @@
 package org.insa.graphs.algorithm.shortestpath;
 
 import org.insa.graphs.algorithm.AbstractSolution;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
 import org.insa.graphs.model.*;
 import org.insa.graphs.model.io.BinaryGraphReader;
 import org.insa.graphs.model.io.BinaryPathReader;
@@ -13,6 +15,8 @@ import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumMap;
+import java.util.List;
+import java.util.function.Function;
 
 import static org.junit.Assert.*;
 
@@ -82,6 +86,70 @@ public class AlgorithmTest {
 
     }
 
+    /**
+     * Create a grid of the given size whose roads are two-ways, open to everyone
+     * and of the same length, so that many paths have the same cost
+     */
+    protected static Graph createGrid(int width, int height) {
+        EnumMap<AccessRestrictions.AccessMode, AccessRestrictions.AccessRestriction> restrictions = new EnumMap<>(AccessRestrictions.AccessMode.class);
+        for (AccessRestrictions.AccessMode mode: AccessRestrictions.AccessMode.values())
+            restrictions.put(mode, AccessRestrictions.AccessRestriction.ALLOWED);
+        RoadInformation info = new RoadInformation(RoadInformation.RoadType.RESIDENTIAL, new AccessRestrictions(restrictions), false, 30, "");
+
+        Node[] grid = new Node[width * height];
+        for (int i = 0; i < grid.length; i++)
+            grid[i] = new Node(i, new Point(0.001f * (i % width), 0.001f * (i / width)));
+        for (int i = 0; i < grid.length; i++) {
+            if (i % width + 1 < width)
+                Node.linkNodes(grid[i], grid[i + 1], 100, info, null);
+            if (i + width < grid.length)
+                Node.linkNodes(grid[i], grid[i + width], 100, info, null);
+        }
+        return new Graph("grid", "Grid", Arrays.asList(grid), null);
+    }
+
+    /**
+     * Compute the cost of the given path for the given inspector
+     */
+    private static double getCost(Path path, ArcInspector inspector) {
+        double cost = 0;
+        for (Arc arc : path.getArcs())
+            cost += inspector.getCost(arc);
+        return cost;
+    }
+
+    /**
+     * Test the algorithm created by the given factory on all pairs of distinct
+     * nodes of the given graph with every filter, against Bellman-Ford
+     */
+    protected static void testAllPairs(Graph graph, List<Node> nodes, Function<ShortestPathData, ShortestPathAlgorithm> factory) {
+        for (ArcInspector inspector : ArcInspectorFactory.getAllFilters()) {
+            for (Node origin : nodes) {
+                for (Node destination : nodes) {
+                    if (origin == destination)
+                        continue;
+                    ShortestPathData data = new ShortestPathData(graph, origin, destination, inspector);
+                    ShortestPathSolution expected = new BellmanFordAlgorithm(data).run();
+                    ShortestPathSolution solution = factory.apply(data).run();
+                    assertEquals(expected.getStatus(), solution.getStatus());
+                    if (expected.isFeasible()) {
+                        assertTrue(solution.getPath().isValid());
+                        assertEquals(origin, solution.getPath().getOrigin());
+                        assertEquals(getCost(expected.getPath(), inspector), getCost(solution.getPath(), inspector), 1e-6);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Test the algorithm created by the given factory on all pairs of distinct
+     * nodes of the custom graph with every filter, against Bellman-Ford
+     */
+    protected static void testAllPairs(Function<ShortestPathData, ShortestPathAlgorithm> factory) {
+        testAllPairs(graph, Arrays.asList(nodes), factory);
+    }
+
     private void testValidSolution(Path validPath, ShortestPathSolution solution) {
         assertTrue(solution.getPath().isValid());
         assertEquals(validPath.getOrigin().getId(), solution.getPath().getOrigin().getId());
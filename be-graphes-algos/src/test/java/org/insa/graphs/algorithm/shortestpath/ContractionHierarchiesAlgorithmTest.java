@@ -0,0 +1,217 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.shortestpath.ch.ContractionHierarchy;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.io.BadFormatException;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+
+public class ContractionHierarchiesAlgorithmTest extends AlgorithmTest {
+
+    /**
+     * Test valid set of path from custom graph
+     */
+    @Test
+    public void testValid() {
+        // Accessible path from origin to destination
+        ShortestPathData data = new ShortestPathData(graph, nodes[0], nodes[0], ArcInspectorFactory.getAllFilters().get(0));
+        testValidAtoA(new ContractionHierarchiesAlgorithm(data));
+
+        data = new ShortestPathData(graph, nodes[0], nodes[1], ArcInspectorFactory.getAllFilters().get(0));
+        testValidAtoB(new ContractionHierarchiesAlgorithm(data));
+
+        data = new ShortestPathData(graph, nodes[0], nodes[2], ArcInspectorFactory.getAllFilters().get(0));
+        testValidAtoC(new ContractionHierarchiesAlgorithm(data));
+
+        data = new ShortestPathData(graph, nodes[0], nodes[3], ArcInspectorFactory.getAllFilters().get(0));
+        testValidAtoD(new ContractionHierarchiesAlgorithm(data));
+
+        data = new ShortestPathData(graph, nodes[0], nodes[4], ArcInspectorFactory.getAllFilters().get(0));
+        testValidAtoE(new ContractionHierarchiesAlgorithm(data));
+    }
+
+    /**
+     * Test invalid set of path from custom graph
+     */
+    @Test
+    public void testInvalid() {
+        // Unaccessible path from origin to destination (no pedestrian roads)
+        ShortestPathData data = new ShortestPathData(graph, nodes[0], nodes[1], ArcInspectorFactory.getAllFilters().get(1));
+        testInvalidAtoB(new ContractionHierarchiesAlgorithm(data));
+
+        data = new ShortestPathData(graph, nodes[0], nodes[2], ArcInspectorFactory.getAllFilters().get(1));
+        testInvalidAtoC(new ContractionHierarchiesAlgorithm(data));
+
+        data = new ShortestPathData(graph, nodes[0], nodes[3], ArcInspectorFactory.getAllFilters().get(1));
+        testInvalidAtoD(new ContractionHierarchiesAlgorithm(data));
+
+        data = new ShortestPathData(graph, nodes[0], nodes[4], ArcInspectorFactory.getAllFilters().get(1));
+        testInvalidAtoE(new ContractionHierarchiesAlgorithm(data));
+    }
+
+    /**
+     * Test all pairs of distinct nodes of a grid with every filter, where many
+     * paths have the same cost
+     */
+    @Test
+    public void testGrid() {
+        Graph grid = createGrid(5, 5);
+        testAllPairs(grid, grid.getNodes(), ContractionHierarchiesAlgorithm::new);
+    }
+
+    /**
+     * Test all pairs of distinct nodes of a ladder and of a larger grid with every
+     * filter, where witness searches stop once their targets are settled and
+     * their witnesses often cost exactly as much as the shortcut
+     */
+    @Test
+    public void testWitnessSearchStop() {
+        Graph ladder = createGrid(20, 2);
+        testAllPairs(ladder, ladder.getNodes(), ContractionHierarchiesAlgorithm::new);
+        Graph grid = createGrid(8, 8);
+        testAllPairs(grid, grid.getNodes(), ContractionHierarchiesAlgorithm::new);
+    }
+
+    /**
+     * Test set of paths from paths folder in Haute Garonne map
+     * @throws IOException if paths are not founds or invalids
+     */
+    @Test
+    public void testHauteGaronne() throws IOException {
+        int insa = 10991;
+        int airport = 89149;
+        int bikini = 63104;
+        // Shortest path from INSA to Airport restricted to roads open for cars
+        ShortestPathData data = new ShortestPathData(hautegaronne, hautegaronne.get(insa), hautegaronne.get(airport), ArcInspectorFactory.getAllFilters().get(1));
+        testINSAAirportLength(new ContractionHierarchiesAlgorithm(data));
+
+        // Fastest path INSA to Airport restricted to roads open for cars
+        data = new ShortestPathData(hautegaronne, hautegaronne.get(insa), hautegaronne.get(airport), ArcInspectorFactory.getAllFilters().get(3));
+        testINSAAirportTime(new ContractionHierarchiesAlgorithm(data));
+
+        // Shortest path from INSA to Bikini on any road
+        data = new ShortestPathData(hautegaronne, hautegaronne.get(insa), hautegaronne.get(bikini), ArcInspectorFactory.getAllFilters().get(0));
+        testINSABikiniCanal(new ContractionHierarchiesAlgorithm(data));
+
+        // Fastest path from INSA to Bikini restricted to roads open for cars
+        data = new ShortestPathData(hautegaronne, hautegaronne.get(insa), hautegaronne.get(bikini), ArcInspectorFactory.getAllFilters().get(3));
+        testINSABikiniTimeCar(new ContractionHierarchiesAlgorithm(data));
+    }
+
+    /**
+     * Test set of paths from paths folder in INSA map
+     * @throws IOException if paths are not founds or invalids
+     */
+    @Test
+    public void testINSA() throws IOException {
+        int rangueil = 552;
+        int entree = 254;
+        int r2 = 526;
+        // Shortest path from Rangueil to INSA restricted to roads open for cars
+        ShortestPathData data = new ShortestPathData(insa, insa.get(rangueil), insa.get(entree), ArcInspectorFactory.getAllFilters().get(3));
+        testRangueilINSA(new ContractionHierarchiesAlgorithm(data));
+
+        // Shortest path from Rangueil to R2 open to any roads
+        data = new ShortestPathData(insa, insa.get(rangueil), insa.get(r2), ArcInspectorFactory.getAllFilters().get(0));
+        testRangueilR2(new ContractionHierarchiesAlgorithm(data));
+    }
+
+    /**
+     * Test set of paths from paths folder in French Polynesia map
+     * @throws IOException if paths are not founds or invalids
+     */
+    @Test
+    public void testFrenchPolynesia() throws IOException {
+        int papeete = 3382;
+        int fare = 3642;
+        int pihau = 13979;
+        // Shortest path from Papeete to Pihau on any road
+        ShortestPathData data = new ShortestPathData(frenchpolynesia, frenchpolynesia.get(papeete), frenchpolynesia.get(pihau), ArcInspectorFactory.getAllFilters().get(0));
+        testPapeetePihau(new ContractionHierarchiesAlgorithm(data));
+
+        // Invalid path from Papeete to Fare
+        data = new ShortestPathData(frenchpolynesia, frenchpolynesia.get(papeete), frenchpolynesia.get(fare), ArcInspectorFactory.getAllFilters().get(0));
+        testPapeeteFare(new ContractionHierarchiesAlgorithm(data));
+    }
+
+    /**
+     * Test path from paths folder in Toulouse map
+     * @throws IOException if paths are not founds or invalids
+     */
+    @Test
+    public void testToulouse() throws IOException {
+        int insa = 11325;
+        int tonton = 18935; // perhaps the most important path
+        // Fastest path from INSA to Chez Tonton restricted to roads open for cars
+        ShortestPathData data = new ShortestPathData(toulouse, toulouse.get(insa), toulouse.get(tonton), ArcInspectorFactory.getAllFilters().get(3));
+        testINSATonton(new ContractionHierarchiesAlgorithm(data));
+    }
+
+    /**
+     * Test a hierarchy written then read back
+     */
+    @Test
+    public void testHierarchyFile() throws IOException {
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(0);
+        ContractionHierarchy hierarchy = ContractionHierarchy.compute(graph, inspector);
+        Path file = Files.createTempFile("test", ContractionHierarchy.EXTENSION);
+        file.toFile().deleteOnExit();
+        hierarchy.write(file);
+        ContractionHierarchy read = ContractionHierarchy.read(file, graph, inspector);
+        for (int node = 0; node < graph.size(); ++node) {
+            assertEquals(hierarchy.getRank(node), read.getRank(node));
+        }
+        for (int direction : new int[] { ContractionHierarchy.FORWARD, ContractionHierarchy.BACKWARD }) {
+            assertEquals(hierarchy.getEdgeCount(direction), read.getEdgeCount(direction));
+            for (int edge = 0; edge < hierarchy.getEdgeCount(direction); ++edge) {
+                assertEquals(hierarchy.getEdgeNode(direction, edge), read.getEdgeNode(direction, edge));
+                assertEquals(hierarchy.getEdgeCost(direction, edge), read.getEdgeCost(direction, edge), 0);
+            }
+        }
+        ShortestPathData data = new ShortestPathData(graph, nodes[0], nodes[4], inspector);
+        testValidAtoE(new ContractionHierarchiesAlgorithm(data, read));
+    }
+
+    /**
+     * Test that a hierarchy file of another graph with the same map ID and number
+     * of nodes is rejected
+     */
+    @Test(expected = BadFormatException.class)
+    public void testStaleHierarchyFile() throws IOException {
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(0);
+        Path file = Files.createTempFile("test", ContractionHierarchy.EXTENSION);
+        file.toFile().deleteOnExit();
+        ContractionHierarchy.compute(createGrid(5, 5), inspector).write(file);
+        ContractionHierarchy.read(file, createGrid(25, 1), inspector);
+    }
+
+    /**
+     * Test that a stale hierarchy file is computed again
+     */
+    @Test
+    public void testStaleHierarchyRecomputed() throws IOException {
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(0);
+        Path directory = ContractionHierarchy.getDirectory();
+        Path temporary = Files.createTempDirectory("test");
+        Graph line = createGrid(25, 1);
+        Path file = ContractionHierarchy.getFile(temporary, line, inspector);
+        file.toFile().deleteOnExit();
+        temporary.toFile().deleteOnExit();
+        ContractionHierarchy.compute(createGrid(5, 5), inspector).write(file);
+        ContractionHierarchy.setDirectory(temporary);
+        try {
+            testAllPairs(line, line.getNodes(), ContractionHierarchiesAlgorithm::new);
+        }
+        finally {
+            ContractionHierarchy.setDirectory(directory);
+        }
+        ContractionHierarchy.read(file, line, inspector);
+    }
+}
@@ -0,0 +1,87 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import static org.junit.Assert.*;
+
+public class DeltaSteppingAlgorithmTest extends AlgorithmTest {
+
+    /**
+     * Test valid set of path from custom graph
+     */
+    @Test
+    public void testValid() {
+        // Accessible path from origin to destination
+        ShortestPathData data = new ShortestPathData(graph, nodes[0], nodes[0], ArcInspectorFactory.getAllFilters().get(0));
+        testValidAtoA(new DeltaSteppingAlgorithm(data));
+
+        data = new ShortestPathData(graph, nodes[0], nodes[1], ArcInspectorFactory.getAllFilters().get(0));
+        testValidAtoB(new DeltaSteppingAlgorithm(data));
+
+        data = new ShortestPathData(graph, nodes[0], nodes[2], ArcInspectorFactory.getAllFilters().get(0));
+        testValidAtoC(new DeltaSteppingAlgorithm(data));
+
+        data = new ShortestPathData(graph, nodes[0], nodes[3], ArcInspectorFactory.getAllFilters().get(0));
+        testValidAtoD(new DeltaSteppingAlgorithm(data));
+
+        data = new ShortestPathData(graph, nodes[0], nodes[4], ArcInspectorFactory.getAllFilters().get(0));
+        testValidAtoE(new DeltaSteppingAlgorithm(data));
+    }
+
+    /**
+     * Test invalid set of path from custom graph
+     */
+    @Test
+    public void testInvalid() {
+        // Unaccessible path from origin to destination (no pedestrian roads)
+        ShortestPathData data = new ShortestPathData(graph, nodes[0], nodes[1], ArcInspectorFactory.getAllFilters().get(1));
+        testInvalidAtoB(new DeltaSteppingAlgorithm(data));
+
+        data = new ShortestPathData(graph, nodes[0], nodes[2], ArcInspectorFactory.getAllFilters().get(1));
+        testInvalidAtoC(new DeltaSteppingAlgorithm(data));
+
+        data = new ShortestPathData(graph, nodes[0], nodes[3], ArcInspectorFactory.getAllFilters().get(1));
+        testInvalidAtoD(new DeltaSteppingAlgorithm(data));
+
+        data = new ShortestPathData(graph, nodes[0], nodes[4], ArcInspectorFactory.getAllFilters().get(1));
+        testInvalidAtoE(new DeltaSteppingAlgorithm(data));
+    }
+
+    /**
+     * Test all pairs of distinct nodes of the custom graph with every filter,
+     * different widths of buckets and in a pool of several threads
+     */
+    @Test
+    public void testAllPairs() {
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            for (double delta : new double[] { 0.5, 2, 100, -1 })
+                pool.invoke(ForkJoinTask.adapt(() -> testAllPairs(data -> delta > 0 ? new DeltaSteppingAlgorithm(data, delta) : new DeltaSteppingAlgorithm(data))));
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Test the width of the buckets computed from the custom graph
+     */
+    @Test
+    public void testDelta() {
+        // Longest arc is 10 and the average out-degree is 2.
+        assertEquals(5, DeltaSteppingAlgorithm.computeDelta(graph, ArcInspectorFactory.getAllFilters().get(0)), 1e-6);
+    }
+
+    /**
+     * Test that a width of zero is rejected
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidDelta() {
+        new DeltaSteppingAlgorithm(new ShortestPathData(graph, nodes[0], nodes[1], ArcInspectorFactory.getAllFilters().get(0)), 0);
+    }
+
+}
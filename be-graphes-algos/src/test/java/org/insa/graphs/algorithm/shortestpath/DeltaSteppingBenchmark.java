@@ -0,0 +1,94 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.io.BinaryGraphReader;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Scaling benchmark of {@link DeltaSteppingAlgorithm}: the same random queries
+ * are solved in pools of 1, 2, 4... threads, and compared with
+ * {@link DijkstraAlgorithm}.
+ *
+ * Usage: {@code DeltaSteppingBenchmark <map.mapgr> [queries] [max threads] [filter]},
+ * where filter is an index in {@link ArcInspectorFactory#getAllFilters()}.
+ */
+public class DeltaSteppingBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: DeltaSteppingBenchmark <map.mapgr> [queries] [max threads] [filter]");
+            System.exit(1);
+        }
+        int nbQueries = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(args.length > 3 ? Integer.parseInt(args[3]) : 0);
+
+        Graph graph;
+        try (DataInputStream stream = new DataInputStream(new BufferedInputStream(new FileInputStream(args[0])))) {
+            graph = new BinaryGraphReader(stream).read();
+        }
+
+        Random random = new Random(42);
+        ShortestPathData[] queries = new ShortestPathData[nbQueries];
+        for (int i = 0; i < nbQueries; ++i) {
+            queries[i] = new ShortestPathData(graph, graph.get(random.nextInt(graph.size())),
+                    graph.get(random.nextInt(graph.size())), inspector);
+        }
+
+        // Reference costs, and warm-up of the caches and of the JIT.
+        double[] expected = new double[nbQueries];
+        long start = System.nanoTime();
+        for (int i = 0; i < nbQueries; ++i) {
+            expected[i] = getCost(new DijkstraAlgorithm(queries[i]).run());
+        }
+        double dijkstra = (System.nanoTime() - start) / 1e6 / nbQueries;
+        for (ShortestPathData query : queries) {
+            new DeltaSteppingAlgorithm(query).run();
+        }
+
+        System.out.printf("%s, %s, delta = %.3f%n", graph.getMapName(), inspector,
+                DeltaSteppingAlgorithm.computeDelta(graph, inspector));
+        System.out.printf("Dijkstra: %.3f ms/query%n", dijkstra);
+        System.out.printf("%8s %12s %10s %10s%n", "threads", "ms/query", "speedup", "mismatches");
+        double sequential = 0;
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            int mismatches = 0;
+            start = System.nanoTime();
+            for (int i = 0; i < nbQueries; ++i) {
+                ShortestPathSolution solution = pool.invoke(ForkJoinTask.adapt(new DeltaSteppingAlgorithm(queries[i])::run));
+                if (Math.abs(getCost(solution) - expected[i]) > 1e-6) {
+                    ++mismatches;
+                }
+            }
+            double time = (System.nanoTime() - start) / 1e6 / nbQueries;
+            pool.shutdown();
+            if (threads == 1) {
+                sequential = time;
+            }
+            System.out.printf("%8d %12.3f %10.2f %10d%n", threads, time, sequential / time, mismatches);
+        }
+    }
+
+    /**
+     * @return Cost of the path of the given solution, or infinity if there is no
+     *         path.
+     */
+    private static double getCost(ShortestPathSolution solution) {
+        if (!solution.isFeasible()) {
+            return Double.POSITIVE_INFINITY;
+        }
+        ArcInspector inspector = solution.getInputData().getArcInspector();
+        return solution.getPath().getArcs().stream().mapToDouble(inspector::getCost).sum();
+    }
+
+}
@@ -3,6 +3,9 @@ package org.insa.graphs.algorithm.shortestpath;
 import org.insa.graphs.algorithm.ArcInspectorFactory;
 import org.junit.Test;
 
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
 import java.io.IOException;
 
 public class DijkstraAlgorithmTest extends AlgorithmTest {
@@ -48,6 +51,20 @@ public class DijkstraAlgorithmTest extends AlgorithmTest {
         testInvalidAtoE(new DijkstraAlgorithm(data));
     }
 
+    /**
+     * Test that workspaces are reused for a graph until they are released
+     */
+    @Test
+    public void testSearchSpaceRelease() {
+        SearchSpace space = SearchSpace.get(graph);
+        assertSame(graph, space.getGraph());
+        assertSame(space, SearchSpace.get(graph));
+        assertNotSame(space, SearchSpace.get(graph, SearchSpace.BACKWARD));
+
+        SearchSpace.release(graph);
+        assertNotSame(space, SearchSpace.get(graph));
+    }
+
     /**
      * Test set of paths from paths folder in Haute Garonne map
      * @throws IOException if paths are not founds or invalids
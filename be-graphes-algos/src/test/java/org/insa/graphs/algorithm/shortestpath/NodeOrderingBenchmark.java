@@ -0,0 +1,140 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.NodeOrdering;
+import org.insa.graphs.model.io.BinaryGraphReader;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Benchmark of the node orderings of {@link NodeOrdering}: the same random
+ * queries (given by original node IDs) are solved by Dijkstra on the graph
+ * with its original IDs, with random IDs (worst case), and with IDs ordered
+ * along a Hilbert curve, by breadth-first search and by depth-first search.
+ * For each ordering, the average number of settled nodes, the latency and the
+ * number of settled nodes per millisecond are printed, the latency being the
+ * best of several rounds so that the JIT compilation does not favor the last
+ * orderings.
+ *
+ * Usage: {@code NodeOrderingBenchmark <map.mapgr> [queries] [filter]}, where
+ * filter is an index in {@link ArcInspectorFactory#getAllFilters()}.
+ */
+public class NodeOrderingBenchmark {
+
+    /**
+     * Observer counting the settled nodes.
+     */
+    private static class SettledCounter implements ShortestPathObserver {
+
+        long settled = 0;
+
+        @Override
+        public void notifyOriginProcessed(Node node) {
+        }
+
+        @Override
+        public void notifyNodeReached(Node node) {
+        }
+
+        @Override
+        public void notifyNodeMarked(Node node) {
+            ++settled;
+        }
+
+        @Override
+        public void notifyDestinationReached(Node node) {
+        }
+
+    }
+
+    // Number of measured rounds per ordering.
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: NodeOrderingBenchmark <map.mapgr> [queries] [filter]");
+            System.exit(1);
+        }
+        int nbQueries = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(args.length > 2 ? Integer.parseInt(args[2]) : 0);
+
+        Graph graph;
+        try (DataInputStream stream = new DataInputStream(new BufferedInputStream(new FileInputStream(args[0])))) {
+            graph = new BinaryGraphReader(stream).read();
+        }
+
+        Random random = new Random(42);
+        int[][] queries = new int[nbQueries][];
+        for (int i = 0; i < nbQueries; ++i) {
+            queries[i] = new int[] { random.nextInt(graph.size()), random.nextInt(graph.size()) };
+        }
+
+        // Random permutation (Fisher-Yates) as the worst case.
+        int[] shuffled = new int[graph.size()];
+        for (int i = 0; i < shuffled.length; ++i) {
+            shuffled[i] = i;
+        }
+        for (int i = shuffled.length - 1; i > 0; --i) {
+            int j = random.nextInt(i + 1), t = shuffled[i];
+            shuffled[i] = shuffled[j];
+            shuffled[j] = t;
+        }
+
+        String[] names = { "original", "random", "Hilbert", "breadth-first", "depth-first" };
+        NodeOrdering[] orderings = { null, new NodeOrdering(shuffled),
+                NodeOrdering.hilbert(graph.getCompactGraph()),
+                NodeOrdering.breadthFirst(graph.getCompactGraph()),
+                NodeOrdering.depthFirst(graph.getCompactGraph()) };
+
+        System.out.printf("%s, %s, %d queries%n", graph.getMapName(), inspector, nbQueries);
+        System.out.printf("%-16s %14s %12s %16s %10s%n", "ordering", "settled/query", "ms/query", "settled/ms", "mismatches");
+        double[] expected = new double[nbQueries];
+        for (int o = 0; o < orderings.length; ++o) {
+            NodeOrdering ordering = orderings[o];
+            Graph reordered = ordering == null ? graph : ordering.apply(graph);
+            ShortestPathData[] data = new ShortestPathData[nbQueries];
+            for (int i = 0; i < nbQueries; ++i) {
+                data[i] = new ShortestPathData(reordered,
+                        reordered.get(ordering == null ? queries[i][0] : ordering.getNewId(queries[i][0])),
+                        reordered.get(ordering == null ? queries[i][1] : ordering.getNewId(queries[i][1])),
+                        inspector);
+            }
+
+            // Count the settled nodes in a first run, which also warms up, since
+            // observers would distort the measure.
+            SettledCounter counter = new SettledCounter();
+            int mismatches = 0;
+            for (int i = 0; i < nbQueries; ++i) {
+                DijkstraAlgorithm algorithm = new DijkstraAlgorithm(data[i]);
+                algorithm.addObserver(counter);
+                ShortestPathSolution solution = algorithm.run();
+                double cost = solution.isFeasible() ? solution.getPath().getLength() : Double.POSITIVE_INFINITY;
+                if (o == 0) {
+                    expected[i] = cost;
+                }
+                else if (Math.abs(cost - expected[i]) > 1e-3) {
+                    ++mismatches;
+                }
+            }
+
+            double millis = Double.POSITIVE_INFINITY;
+            for (int round = 0; round < ROUNDS; ++round) {
+                long start = System.nanoTime();
+                for (ShortestPathData query : data) {
+                    new DijkstraAlgorithm(query).run();
+                }
+                millis = Math.min(millis, (System.nanoTime() - start) / 1e6);
+            }
+            System.out.printf("%-16s %14.1f %12.3f %16.1f %10d%n", names[o], counter.settled / (double) nbQueries,
+                    millis / nbQueries, counter.settled / millis, mismatches);
+        }
+    }
+
+}
@@ -1,12 +1,17 @@
 package org.insa.graphs.algorithm.shortestpath;
 
 import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.model.Node;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 public class OptimalWithOracleTest extends AlgorithmTest {
 
@@ -42,6 +47,31 @@ public class OptimalWithOracleTest extends AlgorithmTest {
         testThreeAlgorithm(bellmanFordSolution, dijkstraSolution, aStarSolution);
     }
 
+    /**
+     * Test that Bellman-Ford, which serves as an oracle, does not reject
+     * unreachable destinations with the connected components as Dijkstra does,
+     * and that observers of a rejected query see the origin processed.
+     */
+    @Test
+    public void testOracleWithoutPreCheck() {
+        // Unaccessible path from origin to destination (no pedestrian roads)
+        ShortestPathData data = new ShortestPathData(graph, nodes[0], nodes[1], ArcInspectorFactory.getAllFilters().get(1));
+        assertNull(new BellmanFordAlgorithm(data).doCheck());
+
+        List<Node> processed = new ArrayList<>();
+        DijkstraAlgorithm dijkstra = new DijkstraAlgorithm(data);
+        dijkstra.addObserver(new ShortestPathTextObserver(System.out) {
+            @Override
+            public void notifyOriginProcessed(Node node) {
+                processed.add(node);
+            }
+        });
+        assertEquals(Status.INFEASIBLE, dijkstra.doCheck().getStatus());
+        assertEquals(List.of(nodes[0]), processed);
+
+        testInvalidAtoB(new BellmanFordAlgorithm(data));
+    }
+
     /**
      * Test shortest path from paths folder in INSA map with the three algorithm.
      * Compare Dijkstra and A* to Bellman-Ford which serves as an oracle.
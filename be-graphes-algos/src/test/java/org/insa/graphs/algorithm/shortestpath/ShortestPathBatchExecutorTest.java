@@ -0,0 +1,78 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathBatchExecutor.Query;
+import org.insa.graphs.model.Node;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.*;
+
+public class ShortestPathBatchExecutorTest extends AlgorithmTest {
+
+    private static List<Query> allPairs(Node[] nodes, int repeat) {
+        List<Query> queries = new ArrayList<>();
+        for (int r = 0; r < repeat; ++r) {
+            for (Node origin : nodes) {
+                for (Node destination : nodes) {
+                    queries.add(new Query(origin, destination));
+                }
+            }
+        }
+        return queries;
+    }
+
+    private static void assertSameSolution(ShortestPathSolution expected, ShortestPathSolution actual) {
+        assertEquals(expected.getInputData().getOrigin(), actual.getInputData().getOrigin());
+        assertEquals(expected.getInputData().getDestination(), actual.getInputData().getDestination());
+        assertEquals(expected.getStatus(), actual.getStatus());
+        if (expected.isFeasible()) {
+            assertEquals(expected.getPath().getLength(), actual.getPath().getLength(), 1e-6);
+            assertEquals(expected.getPath().getMinimumTravelTime(), actual.getPath().getMinimumTravelTime(), 1e-6);
+        }
+    }
+
+    /**
+     * Test ordered results of all pairs of the custom graph with every filter
+     */
+    @Test
+    public void testOrdered() {
+        for (ArcInspector inspector : ArcInspectorFactory.getAllFilters()) {
+            List<Query> queries = allPairs(nodes, 20);
+            try (ShortestPathBatchExecutor executor = new ShortestPathBatchExecutor(graph, inspector, BidirectionalDijkstraAlgorithm::new, 3)) {
+                List<ShortestPathSolution> solutions = executor.run(queries);
+                assertEquals(queries.size(), solutions.size());
+                for (int i = 0; i < queries.size(); ++i) {
+                    Query query = queries.get(i);
+                    assertSameSolution(new DijkstraAlgorithm(new ShortestPathData(graph, query.getOrigin(), query.getDestination(), inspector)).run(), solutions.get(i));
+                }
+                assertEquals(queries.size(), executor.getQueryCount());
+                assertTrue(executor.getThroughput() > 0);
+            }
+        }
+    }
+
+    /**
+     * Test results consumed as they are computed
+     */
+    @Test
+    public void testUnordered() {
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(0);
+        Map<String, ShortestPathSolution> solutions = new ConcurrentHashMap<>();
+        ShortestPathBatchExecutor executor = new ShortestPathBatchExecutor(graph, inspector);
+        executor.run(allPairs(nodes, 1).stream(), solution -> solutions.put(solution.getInputData().getOrigin().getId() + "-" + solution.getInputData().getDestination().getId(), solution));
+        assertEquals(nodes.length * nodes.length, solutions.size());
+        assertEquals(nodes.length * nodes.length, executor.getQueryCount());
+        for (Node origin : nodes) {
+            for (Node destination : nodes) {
+                assertSameSolution(new DijkstraAlgorithm(new ShortestPathData(graph, origin, destination, inspector)).run(), solutions.get(origin.getId() + "-" + destination.getId()));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,141 @@
+package org.insa.graphs.algorithm.strongconnectivity;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.shortestpath.AlgorithmTest;
+import org.insa.graphs.model.AccessRestrictions;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.RoadInformation;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class StronglyConnectedComponentsAlgorithmTest extends AlgorithmTest {
+
+    // Inspector allowing all the arcs.
+    private static final ArcInspector ALL_ROADS = ArcInspectorFactory.getAllFilters().get(0);
+
+    /**
+     * Observer recording the components it is notified of.
+     */
+    private static class RecordingObserver implements StronglyConnectedComponentObserver {
+
+        final List<List<Node>> components = new ArrayList<>();
+        int nbNodes = 0;
+
+        @Override
+        public void notifyStartComponent(Node curNode) {
+        }
+
+        @Override
+        public void notifyNewNodeInComponent(Node node) {
+            ++nbNodes;
+        }
+
+        @Override
+        public void notifyEndComponent(ArrayList<Node> nodes) {
+            components.add(nodes);
+        }
+
+    }
+
+    /**
+     * Create a graph with a one-way dead end: a cycle 0 -> 1 -> 2 -> 3 -> 0 with
+     * a two-ways road 1 <-> 4, a one-way road 2 -> 5 (dead end) and a one-way
+     * road 6 -> 3 (never reached)
+     */
+    private static Graph createDeadEnd() {
+        EnumMap<AccessRestrictions.AccessMode, AccessRestrictions.AccessRestriction> restrictions = new EnumMap<>(AccessRestrictions.AccessMode.class);
+        for (AccessRestrictions.AccessMode mode : AccessRestrictions.AccessMode.values())
+            restrictions.put(mode, AccessRestrictions.AccessRestriction.ALLOWED);
+        AccessRestrictions access = new AccessRestrictions(restrictions);
+        RoadInformation oneWay = new RoadInformation(RoadInformation.RoadType.RESIDENTIAL, access, true, 50, "");
+        RoadInformation twoWays = new RoadInformation(RoadInformation.RoadType.RESIDENTIAL, access, false, 50, "");
+
+        Node[] nodes = new Node[7];
+        for (int i = 0; i < nodes.length; ++i)
+            nodes[i] = new Node(i, new Point(i, i));
+        Node.linkNodes(nodes[0], nodes[1], 10, oneWay, null);
+        Node.linkNodes(nodes[1], nodes[2], 20, oneWay, null);
+        Node.linkNodes(nodes[2], nodes[3], 30, oneWay, null);
+        Node.linkNodes(nodes[3], nodes[0], 40, oneWay, null);
+        Node.linkNodes(nodes[1], nodes[4], 50, twoWays, null);
+        Node.linkNodes(nodes[2], nodes[5], 60, oneWay, null);
+        Node.linkNodes(nodes[6], nodes[3], 70, oneWay, null);
+        return new Graph("dead-end", "Dead end", Arrays.asList(nodes), null);
+    }
+
+    /**
+     * Test the components of the dead-end graph
+     */
+    @Test
+    public void testDeadEnd() {
+        Graph graph = createDeadEnd();
+        StronglyConnectedComponentsAlgorithm algorithm = new StronglyConnectedComponentsAlgorithm(
+                new StronglyConnectedComponentsData(graph, ALL_ROADS));
+        RecordingObserver observer = new RecordingObserver();
+        algorithm.addObserver(observer);
+        StronglyConnectedComponentsSolution solution = algorithm.run();
+
+        assertEquals(3, solution.getComponents().size());
+        assertEquals(solution.getComponents(), observer.components);
+        assertEquals(graph.size(), observer.nbNodes);
+
+        // The dead end comes first and the unreachable node last (reverse topological
+        // order).
+        int[] ids = solution.getComponentIds();
+        assertEquals(0, ids[5]);
+        assertEquals(2, ids[6]);
+        assertEquals(1, solution.getLargestComponent());
+        assertEquals(Arrays.asList(graph.get(0), graph.get(1), graph.get(2), graph.get(3), graph.get(4)),
+                solution.getComponents().get(1));
+    }
+
+    /**
+     * Test the components of the custom graph, which has no allowed arc for cars
+     */
+    @Test
+    public void testCustomGraph() {
+        StronglyConnectedComponentsSolution solution = new StronglyConnectedComponentsAlgorithm(
+                new StronglyConnectedComponentsData(graph, ALL_ROADS)).run();
+        int[] ids = solution.getComponentIds();
+        for (Node node: graph.getNodes())
+            assertTrue(solution.getComponents().get(ids[node.getId()]).contains(node));
+
+        StronglyConnectedComponentsSolution cars = new StronglyConnectedComponentsAlgorithm(
+                new StronglyConnectedComponentsData(graph, ArcInspectorFactory.getAllFilters().get(1))).run();
+        assertEquals(graph.size(), cars.getComponents().size());
+    }
+
+    /**
+     * Test the extraction of the largest component of the dead-end graph
+     */
+    @Test
+    public void testExtract() {
+        Graph graph = createDeadEnd();
+        Graph component = LargestComponentExtractor.extract(graph, ALL_ROADS);
+
+        assertEquals("dead-end" + LargestComponentExtractor.SUFFIX, component.getMapId());
+        assertEquals(5, component.size());
+        assertEquals(6, component.getCompactGraph().getArcCount());
+        assertEquals(5, component.getGraphInformation().getOneWayRoadCount() + component.getGraphInformation().getTwoWaysRoadCount());
+        assertEquals(50, component.getGraphInformation().getMaximumLength(), 0);
+        assertEquals(4, component.getGraphInformation().getBoundingBox().getBottomRightPoint().getLongitude(), 0);
+
+        // Every node of the extracted graph can reach every other node.
+        StronglyConnectedComponentsSolution solution = new StronglyConnectedComponentsAlgorithm(
+                new StronglyConnectedComponentsData(component, ALL_ROADS)).run();
+        assertEquals(1, solution.getComponents().size());
+        for (Node node: component.getNodes()) {
+            assertEquals(graph.get(node.getId()).getPoint().getLongitude(), node.getPoint().getLongitude(), 0);
+        }
+    }
+
+}
@@ -0,0 +1,262 @@
+package org.insa.graphs.algorithm.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.insa.graphs.algorithm.utils.PriorityQueueTest.MutableInteger;
+import org.insa.graphs.algorithm.utils.PriorityQueueTest.TestParameters;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * Port of the {@link PriorityQueueTest} contract to {@link IndexedMinHeap}: the
+ * i-th value of each data set is inserted with identifier i.
+ *
+ */
+@RunWith(Parameterized.class)
+public class IndexedMinHeapTest {
+
+    /**
+     * Set of parameters: data sets of {@link PriorityQueueTest} for each arity.
+     *
+     */
+    @Parameters
+    public static Collection<Object[]> data() {
+        Collection<Object[]> objects = new ArrayList<>();
+        for (Object parameters: PriorityQueueTest.data()) {
+            for (int arity: new int[] { 2, 4, 8 }) {
+                objects.add(new Object[] { parameters, arity });
+            }
+        }
+        return objects;
+    }
+
+    @Parameter(0)
+    public TestParameters<MutableInteger> parameters;
+
+    @Parameter(1)
+    public int arity;
+
+    // Keys of the identifiers.
+    private double[] keys;
+
+    // Actual heap.
+    private IndexedMinHeap heap;
+
+    @Before
+    public void init() {
+        this.keys = Arrays.stream(parameters.data).mapToDouble(MutableInteger::get).toArray();
+        this.heap = new IndexedMinHeap(keys.length + 1, arity);
+        for (int id = 0; id < keys.length; ++id) {
+            this.heap.insert(id, keys[id]);
+        }
+    }
+
+    /**
+     * @return Keys sorted in increasing order.
+     */
+    private double[] sortedKeys() {
+        double[] sorted = keys.clone();
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    @Test
+    public void testIsEmpty() {
+        assertEquals(keys.length == 0, this.heap.isEmpty());
+    }
+
+    @Test
+    public void testSize() {
+        assertEquals(keys.length, this.heap.size());
+    }
+
+    @Test
+    public void testInsert() {
+        IndexedMinHeap heap = new IndexedMinHeap(keys.length, arity);
+        int size = 0;
+        for (int id = 0; id < keys.length; ++id) {
+            heap.insert(id, keys[id]);
+            assertEquals(++size, heap.size());
+            assertTrue(heap.isValid());
+        }
+        for (double key: sortedKeys()) {
+            assertEquals(key, keys[heap.deleteMin()], 0);
+            assertEquals(--size, heap.size());
+            assertTrue(heap.isValid());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInsertTwice() {
+        Assume.assumeFalse(heap.isEmpty());
+        heap.insert(0, keys[0]);
+    }
+
+    @Test(expected = EmptyPriorityQueueException.class)
+    public void testEmptyFindMin() {
+        Assume.assumeTrue(heap.isEmpty());
+        heap.findMin();
+    }
+
+    @Test
+    public void testFindMin() {
+        Assume.assumeFalse(heap.isEmpty());
+        assertEquals(sortedKeys()[0], keys[heap.findMin()], 0);
+        assertEquals(sortedKeys()[0], heap.findMinKey(), 0);
+    }
+
+    @Test(expected = EmptyPriorityQueueException.class)
+    public void testEmptyDeleteMin() {
+        Assume.assumeTrue(heap.isEmpty());
+        heap.deleteMin();
+    }
+
+    @Test
+    public void testDeleteMin() {
+        int size = keys.length;
+        for (double key: sortedKeys()) {
+            int id = heap.deleteMin();
+            assertEquals(key, keys[id], 0);
+            assertFalse(heap.contains(id));
+            assertEquals(--size, heap.size());
+        }
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test(expected = ElementNotFoundException.class)
+    public void testRemoveEmpty() {
+        Assume.assumeTrue(heap.isEmpty());
+        heap.remove(0);
+    }
+
+    @Test
+    public void testRemoveNotFound() {
+        try {
+            heap.remove(keys.length);
+            fail("Expected exception " + ElementNotFoundException.class.getName());
+        }
+        catch (ElementNotFoundException e) {
+            assertEquals(keys.length, e.getElement());
+        }
+    }
+
+    @Test
+    public void testDeleteThenRemove() {
+        Assume.assumeFalse(heap.isEmpty());
+        while (!heap.isEmpty()) {
+            int min = heap.deleteMin();
+            try {
+                heap.remove(min);
+                fail("Expected exception " + ElementNotFoundException.class.getName());
+            }
+            catch (ElementNotFoundException e) {
+                assertEquals(min, e.getElement());
+            }
+        }
+    }
+
+    @Test
+    public void testRemoveTwice() {
+        Assume.assumeFalse(heap.isEmpty());
+        for (int id = 0; id < keys.length; ++id) {
+            IndexedMinHeap copyHeap = new IndexedMinHeap(this.heap);
+            copyHeap.remove(id);
+            try {
+                copyHeap.remove(id);
+                fail("Expected exception " + ElementNotFoundException.class.getName());
+            }
+            catch (ElementNotFoundException e) {
+                assertEquals(id, e.getElement());
+            }
+        }
+    }
+
+    @Test
+    public void testRemove() {
+        int size = heap.size();
+        int[] deleteOrder = parameters.deleteOrder;
+        for (int i = 0; i < deleteOrder.length; ++i) {
+            // Remove from structure
+            heap.remove(deleteOrder[i]);
+            assertTrue(heap.isValid());
+
+            // Copy the remaining elements
+            IndexedMinHeap copyHeap = new IndexedMinHeap(heap);
+
+            // Retrieve all remaining elements in both structures
+            List<Double> remainsIn = new ArrayList<>(), remainsCp = new ArrayList<>();
+            for (int j = i + 1; j < deleteOrder.length; ++j) {
+                remainsIn.add(keys[deleteOrder[j]]);
+                remainsCp.add(keys[copyHeap.deleteMin()]);
+            }
+            remainsIn.sort(null);
+
+            // Check that the copy is now empty, and that both list contains all
+            // elements.
+            assertTrue(copyHeap.isEmpty());
+            assertEquals(remainsIn, remainsCp);
+
+            // Check that the size of the original heap is correct.
+            assertEquals(--size, heap.size());
+        }
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    public void testRemoveThenAdd() {
+        Assume.assumeFalse(heap.isEmpty());
+        double min = sortedKeys()[0];
+        for (int id = 0; id < keys.length; ++id) {
+            heap.remove(id);
+            assertEquals(keys.length - 1, heap.size());
+            heap.insert(id, --min);
+            assertEquals(keys.length, heap.size());
+            assertEquals(id, heap.findMin());
+            assertEquals(min, heap.getKey(id), 0);
+        }
+    }
+
+    @Test
+    public void testDecreaseKey() {
+        Assume.assumeFalse(heap.isEmpty());
+        double min = sortedKeys()[0];
+        for (int id = keys.length - 1; id >= 0; --id) {
+            heap.decreaseKey(id, --min);
+            assertTrue(heap.isValid());
+            assertEquals(keys.length, heap.size());
+            assertEquals(id, heap.findMin());
+        }
+        for (int id = 0; id < keys.length; ++id) {
+            assertEquals(id, heap.deleteMin());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIncreaseKey() {
+        Assume.assumeFalse(heap.isEmpty());
+        heap.decreaseKey(0, keys[0] + 1);
+    }
+
+    @Test
+    public void testClear() {
+        heap.clear();
+        assertTrue(heap.isEmpty());
+        for (int id = 0; id < keys.length; ++id) {
+            assertFalse(heap.contains(id));
+        }
+    }
+
+}
@@ -0,0 +1,110 @@
+package org.insa.graphs.algorithm.weakconnectivity;
+
+import org.insa.graphs.algorithm.shortestpath.AlgorithmTest;
+import org.insa.graphs.model.AccessRestrictions;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.RoadInformation;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class WeaklyConnectedComponentsAlgorithmTest extends AlgorithmTest {
+
+    /**
+     * Observer recording the components it is notified of.
+     */
+    private static class RecordingObserver implements WeaklyConnectedComponentObserver {
+
+        final List<Node> starts = new ArrayList<>();
+        final List<List<Node>> components = new ArrayList<>();
+        int nbNodes = 0;
+
+        @Override
+        public void notifyStartComponent(Node curNode) {
+            starts.add(curNode);
+        }
+
+        @Override
+        public void notifyNewNodeInComponent(Node node) {
+            ++nbNodes;
+        }
+
+        @Override
+        public void notifyEndComponent(ArrayList<Node> nodes) {
+            components.add(nodes);
+        }
+
+    }
+
+    /**
+     * Create a graph with one-way arcs and isolated nodes: 0 -> 1 <- 2, 3 -> 4,
+     * 4 -> 0 and 5 -> 6, 7 isolated
+     */
+    private static Graph createIslands() {
+        EnumMap<AccessRestrictions.AccessMode, AccessRestrictions.AccessRestriction> restrictions = new EnumMap<>(AccessRestrictions.AccessMode.class);
+        for (AccessRestrictions.AccessMode mode : AccessRestrictions.AccessMode.values())
+            restrictions.put(mode, AccessRestrictions.AccessRestriction.ALLOWED);
+        RoadInformation info = new RoadInformation(RoadInformation.RoadType.RESIDENTIAL, new AccessRestrictions(restrictions), true, 50, "");
+
+        Node[] nodes = new Node[8];
+        for (int i = 0; i < nodes.length; ++i)
+            nodes[i] = new Node(i, new Point(0, 0));
+        Node.linkNodes(nodes[0], nodes[1], 10, info, null);
+        Node.linkNodes(nodes[2], nodes[1], 10, info, null);
+        Node.linkNodes(nodes[3], nodes[4], 10, info, null);
+        Node.linkNodes(nodes[4], nodes[0], 10, info, null);
+        Node.linkNodes(nodes[5], nodes[6], 10, info, null);
+        return new Graph("islands", "Islands", Arrays.asList(nodes), null);
+    }
+
+    /**
+     * Check that the union-find algorithm finds the same components as the basic
+     * one, in the same order, and notifies its observers of each of them
+     */
+    private void testSameComponents(Graph graph) {
+        WeaklyConnectedComponentsData data = new WeaklyConnectedComponentsData(graph);
+        WeaklyConnectedComponentsSolution expected = new WeaklyConnectedComponentsAlgorithm(data).run();
+
+        UnionFindWeaklyConnectedComponentsAlgorithm algorithm = new UnionFindWeaklyConnectedComponentsAlgorithm(data);
+        RecordingObserver observer = new RecordingObserver();
+        algorithm.addObserver(observer);
+        WeaklyConnectedComponentsSolution solution = algorithm.run();
+
+        assertArrayEquals(expected.getComponentIds(), solution.getComponentIds());
+        assertEquals(expected.getComponents().size(), solution.getComponents().size());
+        for (int i = 0; i < expected.getComponents().size(); ++i) {
+            assertEquals(expected.getComponents().get(i).size(), solution.getComponents().get(i).size());
+            assertEquals(expected.getComponents().get(i).get(0), observer.starts.get(i));
+        }
+        assertEquals(solution.getComponents(), observer.components);
+        assertEquals(graph.size(), observer.nbNodes);
+    }
+
+    /**
+     * Test the custom graph, which is connected
+     */
+    @Test
+    public void testCustomGraph() {
+        testSameComponents(graph);
+        int[] ids = new UnionFindWeaklyConnectedComponentsAlgorithm(new WeaklyConnectedComponentsData(graph)).run().getComponentIds();
+        assertArrayEquals(new int[nodes.length], ids);
+    }
+
+    /**
+     * Test a graph with several components and one-way arcs
+     */
+    @Test
+    public void testIslands() {
+        Graph islands = createIslands();
+        testSameComponents(islands);
+        assertArrayEquals(new int[] { 0, 0, 0, 0, 0, 1, 1, 2 }, UnionFindWeaklyConnectedComponentsAlgorithm.computeComponentIds(islands.getCompactGraph()));
+    }
+
+}
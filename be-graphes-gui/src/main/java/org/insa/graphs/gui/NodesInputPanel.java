@@ -28,6 +28,7 @@ import org.insa.graphs.gui.drawing.overlays.MarkerOverlay;
 import org.insa.graphs.model.Graph;
 import org.insa.graphs.model.Node;
 import org.insa.graphs.model.Point;
+import org.insa.graphs.model.SpatialIndex;
 
 public class NodesInputPanel extends JPanel
         implements DrawingClickListener, DrawingChangeListener, GraphChangeListener {
@@ -49,11 +50,17 @@ public class NodesInputPanel extends JPanel
         // Graph associated with this node finder.
         private Graph graph;
 
+        // Spatial index of the nodes of the graph.
+        private SpatialIndex index;
+
         /**
+         * Create a node finder for the given graph, building its spatial index.
+         *
          * @param graph
          */
         public NodeFinder(Graph graph) {
             this.graph = graph;
+            this.index = new SpatialIndex(graph.getCompactGraph());
         }
 
         /**
@@ -63,18 +70,8 @@ public class NodesInputPanel extends JPanel
          *         enough".
          */
         public Node findClosestNode(Point point) {
-            Node minNode = null;
-            double minDis = Double.POSITIVE_INFINITY;
-            for (Node node: graph.getNodes()) {
-                double dlon = point.getLongitude() - node.getPoint().getLongitude();
-                double dlat = point.getLatitude() - node.getPoint().getLatitude();
-                double dis = dlon * dlon + dlat * dlat; // No need to square
-                if (dis < minDis) {
-                    minNode = node;
-                    minDis = dis;
-                }
-            }
-            return minNode;
+            int node = index.findNearest(point.getLongitude(), point.getLatitude());
+            return node == -1 ? null : graph.get(node);
         }
 
     }
@@ -21,10 +21,12 @@ import javax.swing.border.EmptyBorder;
 
 import org.insa.graphs.algorithm.AbstractInputData;
 import org.insa.graphs.algorithm.AbstractSolution;
+import org.insa.graphs.algorithm.isochrone.IsochroneSolution;
 import org.insa.graphs.gui.drawing.Drawing;
-import org.insa.graphs.gui.drawing.overlays.PathOverlay;
+import org.insa.graphs.gui.drawing.overlays.Overlay;
 import org.insa.graphs.model.Graph;
 import org.insa.graphs.model.Path;
+import org.insa.graphs.model.Point;
 
 public class SolutionPanel extends JPanel implements DrawingChangeListener, GraphChangeListener {
 
@@ -33,13 +35,17 @@ public class SolutionPanel extends JPanel implements DrawingChangeListener, Grap
      */
     private static final long serialVersionUID = 1L;
 
+    // Colors of the isochrone polygons, from the lowest budget to the highest.
+    private static final Color[] ISOCHRONE_COLORS = new Color[] { new Color(0, 153, 0),
+            new Color(255, 204, 0), new Color(255, 102, 0), new Color(204, 0, 0) };
+
     private class SolutionBundle {
 
         // Solution
         private final AbstractSolution solution;
 
-        // Path Overlay (not final due to redraw)
-        private List<PathOverlay> overlays = new ArrayList<>();
+        // Path or polygon overlays (not final due to redraw)
+        private List<Overlay> overlays = new ArrayList<>();
 
         /**
          * Create a new bundle with the given solution and create a new overlay
@@ -72,7 +78,7 @@ public class SolutionPanel extends JPanel implements DrawingChangeListener, Grap
         /**
          * @return Overlays associated with this bundle, or null.
          */
-        public List<PathOverlay> getOverlays() {
+        public List<Overlay> getOverlays() {
             return this.overlays;
         }
 
@@ -91,16 +97,28 @@ public class SolutionPanel extends JPanel implements DrawingChangeListener, Grap
             if (this.overlays.isEmpty()) {
                 return; // This bundle has no overlay.
             }
-            List<PathOverlay> oldOverlays = this.overlays;
+            List<Overlay> oldOverlays = this.overlays;
             this.overlays = createOverlaysFromSolution();
             for (int i = 0; i < oldOverlays.size(); ++i) {
                 oldOverlays.get(i).delete();
             }
         }
 
-        private List<PathOverlay> createOverlaysFromSolution() {
-            List<PathOverlay> overlays = new ArrayList<>();
-            if (solution.isFeasible()) {
+        private List<Overlay> createOverlaysFromSolution() {
+            List<Overlay> overlays = new ArrayList<>();
+            if (solution.isFeasible() && solution instanceof IsochroneSolution) {
+                // Polygons of the highest budgets first, so that the polygons of the
+                // lowest budgets are drawn on top of them.
+                IsochroneSolution isochrone = (IsochroneSolution) solution;
+                for (int i = isochrone.getInputData().getBudgetCount() - 1; i >= 0; --i) {
+                    List<Point> polygon = isochrone.getPolygon(i);
+                    if (!polygon.isEmpty()) {
+                        overlays.add(drawing.drawPolygon(polygon,
+                                ISOCHRONE_COLORS[Math.min(i, ISOCHRONE_COLORS.length - 1)]));
+                    }
+                }
+            }
+            else if (solution.isFeasible()) {
                 Method[] methods = this.solution.getClass().getDeclaredMethods();
                 for (Method method: methods) {
                     if (method.getReturnType().equals(Path.class)
@@ -167,7 +185,7 @@ public class SolutionPanel extends JPanel implements DrawingChangeListener, Grap
 
             @Override
             public void actionPerformed(ActionEvent e) {
-                for (PathOverlay overlay: currentBundle.getOverlays()) {
+                for (Overlay overlay: currentBundle.getOverlays()) {
                     if (overlay.isVisible()) {
                         overlay.setVisible(false);
                         clearButton.setText("Show");
@@ -193,7 +211,7 @@ public class SolutionPanel extends JPanel implements DrawingChangeListener, Grap
             public void actionPerformed(ActionEvent e) {
 
                 if (currentBundle != null) {
-                    for (PathOverlay overlay: currentBundle.getOverlays()) {
+                    for (Overlay overlay: currentBundle.getOverlays()) {
                         overlay.setVisible(false);
                     }
                 }
@@ -207,7 +225,7 @@ public class SolutionPanel extends JPanel implements DrawingChangeListener, Grap
                             .setVisible(bundle.getSolution().isFeasible() && bundle.hasOverlays());
                     clearButton.setText(bundle.getSolution().isFeasible() ? "Hide" : "Show");
 
-                    for (PathOverlay overlay: bundle.getOverlays()) {
+                    for (Overlay overlay: bundle.getOverlays()) {
                         overlay.setVisible(true);
                     }
                 }
@@ -253,7 +271,7 @@ public class SolutionPanel extends JPanel implements DrawingChangeListener, Grap
         else {
             SolutionBundle bundle = (SolutionBundle) this.solutionSelect.getSelectedItem();
             if (bundle != null) {
-                for (PathOverlay overlay: bundle.getOverlays()) {
+                for (Overlay overlay: bundle.getOverlays()) {
                     overlay.setVisible(false);
                 }
             }
@@ -263,7 +281,7 @@ public class SolutionPanel extends JPanel implements DrawingChangeListener, Grap
     @Override
     public void newGraphLoaded(Graph graph) {
         for (int i = 0; i < this.solutionSelect.getItemCount(); ++i) {
-            for (PathOverlay overlay: this.solutionSelect.getItemAt(i).getOverlays()) {
+            for (Overlay overlay: this.solutionSelect.getItemAt(i).getOverlays()) {
                 overlay.delete();
             }
         }
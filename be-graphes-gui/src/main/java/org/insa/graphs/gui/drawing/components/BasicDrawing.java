@@ -32,6 +32,7 @@ import org.insa.graphs.gui.drawing.overlays.MarkerUtils;
 import org.insa.graphs.gui.drawing.overlays.Overlay;
 import org.insa.graphs.gui.drawing.overlays.PathOverlay;
 import org.insa.graphs.gui.drawing.overlays.PointSetOverlay;
+import org.insa.graphs.gui.drawing.overlays.PolygonOverlay;
 import org.insa.graphs.model.Arc;
 import org.insa.graphs.model.Graph;
 import org.insa.graphs.model.Node;
@@ -305,6 +306,41 @@ public class BasicDrawing extends JPanel implements Drawing {
 
     }
 
+    private class BasicPolygonOverlay extends BasicOverlay implements PolygonOverlay {
+
+        // Alpha of the inner part of the polygon.
+        private static final int FILL_ALPHA = 80;
+
+        // Vertices of the polygon.
+        private final List<Point> points;
+
+        public BasicPolygonOverlay(List<Point> points, Color color) {
+            super(color);
+            this.points = points;
+        }
+
+        public int getZLevel() {
+            return 1;
+        }
+
+        @Override
+        public void drawImpl(Graphics2D graphics) {
+            int[] xs = new int[points.size()], ys = new int[points.size()];
+            for (int i = 0; i < points.size(); ++i) {
+                xs[i] = projection.longitudeToPixelX(points.get(i).getLongitude());
+                ys[i] = projection.latitudeToPixelY(points.get(i).getLatitude());
+            }
+            Color color = getColor();
+            graphics.setColor(
+                    new Color(color.getRed(), color.getGreen(), color.getBlue(), FILL_ALPHA));
+            graphics.fillPolygon(xs, ys, xs.length);
+            graphics.setStroke(new BasicStroke(2));
+            graphics.setColor(color);
+            graphics.drawPolygon(xs, ys, xs.length);
+        }
+
+    };
+
     /**
      * Class encapsulating a set of overlays.
      *
@@ -744,4 +780,10 @@ public class BasicDrawing extends JPanel implements Drawing {
         return drawPath(path, DEFAULT_PATH_COLOR, markers);
     }
 
+    @Override
+    public PolygonOverlay drawPolygon(List<Point> points, Color color) {
+        return (PolygonOverlay) this.overlays
+                .add(new BasicPolygonOverlay(new ArrayList<>(points), color));
+    }
+
 }
@@ -22,12 +22,15 @@ import org.insa.graphs.gui.drawing.overlays.MarkerUtils;
 import org.insa.graphs.gui.drawing.overlays.Overlay;
 import org.insa.graphs.gui.drawing.overlays.PathOverlay;
 import org.insa.graphs.gui.drawing.overlays.PointSetOverlay;
+import org.insa.graphs.gui.drawing.overlays.PolygonOverlay;
 import org.insa.graphs.gui.drawing.overlays.PolylineAutoScaling;
 import org.insa.graphs.model.Arc;
 import org.insa.graphs.model.Graph;
 import org.insa.graphs.model.Path;
 import org.insa.graphs.model.Point;
 import org.mapsforge.core.graphics.GraphicFactory;
+import org.mapsforge.core.graphics.Paint;
+import org.mapsforge.core.graphics.Style;
 import org.mapsforge.core.model.BoundingBox;
 import org.mapsforge.core.model.LatLong;
 import org.mapsforge.core.model.MapPosition;
@@ -286,6 +289,41 @@ public class MapViewDrawing extends MapView implements Drawing {
 
     };
 
+    /**
+     * PolygonOverlay for MapViewDrawing.
+     *
+     */
+    private class MapViewPolygonOverlay extends MapViewOverlay implements PolygonOverlay {
+
+        // Alpha of the inner part of the polygon.
+        private static final int FILL_ALPHA = 80;
+
+        private final Polygon polygon;
+
+        public MapViewPolygonOverlay(List<Point> points, Color color) {
+            super(new Layer[] { new Polygon(GRAPHIC_FACTORY.createPaint(),
+                    GRAPHIC_FACTORY.createPaint(), GRAPHIC_FACTORY) }, color);
+            polygon = (Polygon) this.layers[0];
+            polygon.getPaintStroke().setStyle(Style.STROKE);
+            polygon.getPaintStroke().setStrokeWidth(2);
+            setColor(color);
+            polygon.setPoints(points.stream().map(MapViewDrawing.this::convertPoint)
+                    .collect(Collectors.toList()));
+        }
+
+        @Override
+        public void setColor(Color color) {
+            super.setColor(color);
+            Paint fill = polygon.getPaintFill(), stroke = polygon.getPaintStroke();
+            fill.setColor(GRAPHIC_FACTORY.createColor(FILL_ALPHA, color.getRed(),
+                    color.getGreen(), color.getBlue()));
+            stroke.setColor(GRAPHIC_FACTORY.createColor(255, color.getRed(), color.getGreen(),
+                    color.getBlue()));
+            polygon.requestRedraw();
+        }
+
+    };
+
     // Default path color.
     public static final Color DEFAULT_PATH_COLOR = new Color(66, 134, 244);
 
@@ -518,4 +556,9 @@ public class MapViewDrawing extends MapView implements Drawing {
         return drawPath(path, DEFAULT_PATH_COLOR, markers);
     }
 
+    @Override
+    public PolygonOverlay drawPolygon(List<Point> points, Color color) {
+        return new MapViewPolygonOverlay(points, color);
+    }
+
 }
@@ -1,7 +1,9 @@
 package org.insa.graphs.model;
 
+import java.util.Collections;
 import java.util.EnumMap;
 import java.util.EnumSet;
+import java.util.Map;
 
 /**
  * <p>
@@ -10,7 +12,9 @@ import java.util.EnumSet;
  * 
  * <p>
  * This class maps transport modes to their restriction and provide interface
- * based on EnumSet to query restrictions.
+ * based on EnumSet to query restrictions. Restrictions are packed in a single
+ * long (see {@link #getPackedRestrictions()}), so that queries only need a few
+ * bitwise operations.
  * </p>
  * 
  * <p>
@@ -153,29 +157,95 @@ public class AccessRestrictions {
 
     }
 
-    // Map mode -> restriction
-    private final EnumMap<AccessMode, AccessRestriction> restrictions;
+    // Number of bits used to store the restriction of a mode.
+    private static final int BITS_PER_MODE = 4;
+
+    // Restrictions, indexed by ordinal.
+    private static final AccessRestriction[] RESTRICTIONS = AccessRestriction.values();
+
+    // Value of each group of bits, repeated for all modes.
+    private static final long GROUPS = 0x1111_1111L;
+
+    // Unknown restriction for all modes.
+    private static final long ALL_UNKNOWN = AccessRestriction.UNKNOWN.ordinal() * GROUPS;
+
+    // Restriction of each mode, packed in BITS_PER_MODE bits per mode in the order
+    // of AccessMode, each group containing the ordinal of the restriction.
+    private final long restrictions;
+
+    // Map mode -> restriction, built on demand.
+    private volatile Map<AccessMode, AccessRestriction> map;
 
     /**
      * Create new AccessRestrictions instances with unknown restrictions.
      */
     public AccessRestrictions() {
-        this.restrictions = new EnumMap<>(AccessMode.class);
-        for (AccessMode mode: AccessMode.values()) {
-            this.restrictions.put(mode, AccessRestriction.UNKNOWN);
-        }
+        this.restrictions = ALL_UNKNOWN;
     }
 
     /**
      * Create a new AccessRestrictions instances with the given restrictions.
      * 
      * @param restrictions Map of restrictions for this instance of
-     *        AccessRestrictions.
+     *        AccessRestrictions, modes that are not in the map having an unknown
+     *        restriction.
      */
     public AccessRestrictions(EnumMap<AccessMode, AccessRestriction> restrictions) {
+        long packed = ALL_UNKNOWN;
+        for (Map.Entry<AccessMode, AccessRestriction> entry: restrictions.entrySet()) {
+            if (entry.getValue() != null) {
+                int shift = BITS_PER_MODE * entry.getKey().ordinal();
+                packed = (packed & ~(0xfL << shift))
+                        | ((long) entry.getValue().ordinal() << shift);
+            }
+        }
+        this.restrictions = packed;
+    }
+
+    /**
+     * Create a new AccessRestrictions instances with the given packed
+     * restrictions, see {@link #getPackedRestrictions()}.
+     * 
+     * @param restrictions Packed restrictions.
+     * 
+     * @throws IllegalArgumentException if a group does not contain the ordinal of
+     *         a restriction.
+     */
+    public AccessRestrictions(long restrictions) {
+        if ((restrictions & ~ALL_UNKNOWN) != 0) {
+            throw new IllegalArgumentException(
+                    "Invalid packed restrictions: " + Long.toHexString(restrictions));
+        }
         this.restrictions = restrictions;
     }
 
+    /**
+     * @return Restrictions packed in a long, 4 bits per mode in the order of
+     *         {@link AccessMode} (i.e. the restriction of {@link AccessMode#FOOT}
+     *         is in the 4 lowest bits), each group containing the ordinal of the
+     *         restriction.
+     */
+    public long getPackedRestrictions() {
+        return this.restrictions;
+    }
+
+    /**
+     * @return Unmodifiable map of the restriction of each mode, built on the first
+     *         call.
+     */
+    public Map<AccessMode, AccessRestriction> getRestrictions() {
+        Map<AccessMode, AccessRestriction> map = this.map;
+        if (map == null) {
+            EnumMap<AccessMode, AccessRestriction> restrictions = new EnumMap<>(
+                    AccessMode.class);
+            for (AccessMode mode: AccessMode.values()) {
+                restrictions.put(mode, getRestrictionFor(mode));
+            }
+            this.map = map = Collections.unmodifiableMap(restrictions);
+        }
+        return map;
+    }
+
     /**
      * Retrieve the restriction corresponding to the given mode.
      * 
@@ -184,7 +254,7 @@ public class AccessRestrictions {
      * @return Restriction for the given mode.
      */
     public AccessRestriction getRestrictionFor(AccessMode mode) {
-        return restrictions.getOrDefault(mode, AccessRestriction.UNKNOWN);
+        return RESTRICTIONS[getOrdinalFor(mode)];
     }
 
     /**
@@ -198,7 +268,7 @@ public class AccessRestrictions {
      *         restrictions.
      */
     public boolean isAllowedForAny(AccessMode mode, EnumSet<AccessRestriction> restrictions) {
-        return restrictions.contains(getRestrictionFor(mode));
+        return restrictions.contains(RESTRICTIONS[getOrdinalFor(mode)]);
     }
 
     /**
@@ -212,7 +282,7 @@ public class AccessRestrictions {
      *         given restriction.
      */
     public boolean isAllowedFor(AccessMode mode, AccessRestriction restriction) {
-        return getRestrictionFor(mode).equals(restriction);
+        return getOrdinalFor(mode) == restriction.ordinal();
     }
 
     /**
@@ -227,10 +297,26 @@ public class AccessRestrictions {
      */
     public boolean areAllAllowedForAny(EnumSet<AccessMode> modes,
             EnumSet<AccessRestriction> restrictions) {
-        boolean allowed = true;
+        // Highest bit of the group of each mode whose restriction is one of the
+        // given restrictions: the groups equal to the ordinal of a restriction are
+        // null after a XOR, and adding 7 to a group sets its highest bit unless it
+        // is null (groups are lower than 8, so there is no carry).
+        long allowed = 0;
+        for (AccessRestriction restriction: restrictions) {
+            long difference = this.restrictions ^ (restriction.ordinal() * GROUPS);
+            allowed |= ~((difference + ALL_UNKNOWN) | difference) & (ALL_UNKNOWN + GROUPS);
+        }
+        long wanted = 0;
         for (AccessMode mode: modes) {
-            allowed = allowed && isAllowedForAny(mode, restrictions);
+            wanted |= 0x8L << (BITS_PER_MODE * mode.ordinal());
         }
-        return allowed;
+        return (allowed & wanted) == wanted;
+    }
+
+    /**
+     * @return Ordinal of the restriction of the given mode.
+     */
+    private int getOrdinalFor(AccessMode mode) {
+        return (int) (this.restrictions >>> (BITS_PER_MODE * mode.ordinal())) & 0xf;
     }
 }
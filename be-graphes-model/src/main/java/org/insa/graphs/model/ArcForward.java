@@ -60,6 +60,13 @@ class ArcForward extends Arc {
         return info;
     }
 
+    /**
+     * @return true if this arc was created with a list of points.
+     */
+    boolean hasPoints() {
+        return points != null;
+    }
+
     @Override
     public List<Point> getPoints() {
         return Collections.unmodifiableList(points);
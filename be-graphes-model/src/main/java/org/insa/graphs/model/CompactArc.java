@@ -0,0 +1,87 @@
+package org.insa.graphs.model;
+
+import java.util.List;
+
+/**
+ * Implementation of Arc that is a view over an arc of a {@link CompactGraph}.
+ * Such arcs are created on demand and only hold the index of the arc, two views
+ * of the same arc are equal.
+ *
+ */
+class CompactArc extends Arc {
+
+    // Graph containing this arc.
+    private final Graph graph;
+
+    // Index of the origin of this arc, and of this arc.
+    private final int origin, index;
+
+    /**
+     * Create a new view over the arc with the given index.
+     *
+     * @param graph Graph containing the arc.
+     * @param origin Index of the origin of the arc.
+     * @param index Index of the arc in the compact graph.
+     */
+    protected CompactArc(Graph graph, int origin, int index) {
+        this.graph = graph;
+        this.origin = origin;
+        this.index = index;
+    }
+
+    /**
+     * @return Index of this arc in the compact graph.
+     */
+    int getIndex() {
+        return this.index;
+    }
+
+    /**
+     * @return true if this arc goes in the opposite direction of its record.
+     *
+     * @see CompactGraph#isReversed(int)
+     */
+    boolean isReversed() {
+        return this.graph.getCompactGraph().isReversed(this.index);
+    }
+
+    @Override
+    public Node getOrigin() {
+        return this.graph.get(this.origin);
+    }
+
+    @Override
+    public Node getDestination() {
+        return this.graph.get(this.graph.getCompactGraph().getHead(this.index));
+    }
+
+    @Override
+    public float getLength() {
+        return this.graph.getCompactGraph().getLength(this.index);
+    }
+
+    @Override
+    public RoadInformation getRoadInformation() {
+        return this.graph.getCompactGraph().getRoadInformation(this.index);
+    }
+
+    @Override
+    public List<Point> getPoints() {
+        return this.graph.getCompactGraph().getPoints(this.origin, this.index);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (other instanceof CompactArc) {
+            CompactArc arc = (CompactArc) other;
+            return this.graph == arc.graph && this.index == arc.index;
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return this.index;
+    }
+
+}
@@ -0,0 +1,729 @@
+package org.insa.graphs.model;
+
+import java.io.IOException;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * <p>
+ * Compressed-sparse-row (CSR) representation of a graph.
+ * </p>
+ *
+ * <p>
+ * Nodes and arcs are identified by their index and all their attributes are
+ * stored in primitive arrays (struct-of-arrays layout). The outgoing arcs of
+ * node {@code u} are the arcs with index in
+ * {@code [getFirstArc(u), getFirstArc(u + 1))}, in the same order as the
+ * successors of the corresponding {@link Node}.
+ * </p>
+ *
+ * <p>
+ * Attributes are accessed through {@link IntBuffer} and {@link FloatBuffer}
+ * so that a compact graph can either wrap heap arrays or directly use a
+ * memory-mapped file (see
+ * {@link org.insa.graphs.model.io.BinaryCompactGraphReader}) without copying.
+ * The intermediate points of the arcs are accessed through a {@link Geometry},
+ * so that they can also be loaded on demand.
+ * </p>
+ *
+ * <p>
+ * Each road of the original map is stored once as a <i>record</i>, which holds
+ * the geometry of the road. A two-ways road is referenced by two arcs, the one
+ * going in the opposite direction of the record being flagged as reversed.
+ * </p>
+ *
+ */
+public final class CompactGraph {
+
+    // Index of the first outgoing arc of each node (size: nbNodes + 1).
+    private final IntBuffer firstArc;
+
+    // Destination, length and descriptor index of each arc.
+    private final IntBuffer arcHead;
+    private final FloatBuffer arcLength;
+    private final IntBuffer arcDescriptor;
+
+    // Record of each arc, or ~record if the arc is reversed.
+    private final IntBuffer arcRecord;
+
+    // Position of each node.
+    private final FloatBuffer longitude, latitude;
+
+    // Shared road information.
+    private final RoadInformation[] descriptors;
+
+    // Offset of the intermediate points of each record inside geometry (size:
+    // nbRecords + 1), and (longitude, latitude) pairs of the intermediate points.
+    private final IntBuffer recordGeometry;
+    private final Geometry geometry;
+
+    // Incoming arcs, built on demand.
+    private volatile IncomingArcs incoming;
+
+    /**
+     * Create a new compact graph from the given arrays. The arrays are not copied
+     * and must not be modified afterwards.
+     *
+     * @param firstArc Index of the first outgoing arc of each node, followed by
+     *        the total number of arcs.
+     * @param arcHead Destination of each arc.
+     * @param arcLength Length of each arc (in meters).
+     * @param arcDescriptor Index of the road information of each arc in
+     *        descriptors.
+     * @param arcRecord Record of each arc, or the bitwise complement of the record
+     *        if the arc goes in the opposite direction of its record.
+     * @param longitude Longitude of each node.
+     * @param latitude Latitude of each node.
+     * @param descriptors Road information shared by the arcs.
+     * @param recordGeometry Offset of the intermediate points of each record in
+     *        geometry, followed by the size of geometry.
+     * @param geometry (longitude, latitude) pairs of the intermediate points of
+     *        the records.
+     */
+    public CompactGraph(int[] firstArc, int[] arcHead, float[] arcLength, int[] arcDescriptor,
+            int[] arcRecord, float[] longitude, float[] latitude, RoadInformation[] descriptors,
+            int[] recordGeometry, float[] geometry) {
+        this(IntBuffer.wrap(firstArc), IntBuffer.wrap(arcHead), FloatBuffer.wrap(arcLength),
+                IntBuffer.wrap(arcDescriptor), IntBuffer.wrap(arcRecord),
+                FloatBuffer.wrap(longitude), FloatBuffer.wrap(latitude), descriptors,
+                IntBuffer.wrap(recordGeometry), FloatBuffer.wrap(geometry));
+    }
+
+    /**
+     * Create a new compact graph backed by the given buffers. Only absolute
+     * accesses are performed on the buffers, the content of each buffer must span
+     * from its position to its limit and must not be modified afterwards.
+     *
+     * @see #CompactGraph(int[], int[], float[], int[], int[], float[], float[],
+     *      RoadInformation[], int[], float[])
+     */
+    public CompactGraph(IntBuffer firstArc, IntBuffer arcHead, FloatBuffer arcLength,
+            IntBuffer arcDescriptor, IntBuffer arcRecord, FloatBuffer longitude,
+            FloatBuffer latitude, RoadInformation[] descriptors, IntBuffer recordGeometry,
+            FloatBuffer geometry) {
+        this(firstArc, arcHead, arcLength, arcDescriptor, arcRecord, longitude, latitude,
+                descriptors, recordGeometry, geometry.slice()::get);
+    }
+
+    /**
+     * Create a new compact graph backed by the given buffers, whose intermediate
+     * points are retrieved from the given geometry.
+     *
+     * @see #CompactGraph(IntBuffer, IntBuffer, FloatBuffer, IntBuffer, IntBuffer,
+     *      FloatBuffer, FloatBuffer, RoadInformation[], IntBuffer, FloatBuffer)
+     */
+    public CompactGraph(IntBuffer firstArc, IntBuffer arcHead, FloatBuffer arcLength,
+            IntBuffer arcDescriptor, IntBuffer arcRecord, FloatBuffer longitude,
+            FloatBuffer latitude, RoadInformation[] descriptors, IntBuffer recordGeometry,
+            Geometry geometry) {
+        this.firstArc = firstArc.slice();
+        this.arcHead = arcHead.slice();
+        this.arcLength = arcLength.slice();
+        this.arcDescriptor = arcDescriptor.slice();
+        this.arcRecord = arcRecord.slice();
+        this.longitude = longitude.slice();
+        this.latitude = latitude.slice();
+        this.descriptors = descriptors;
+        this.recordGeometry = recordGeometry.slice();
+        this.geometry = geometry;
+    }
+
+    /**
+     * Create a compact graph from the given list of nodes. Arcs of each node are
+     * indexed in the order of {@link Node#getSuccessors()}.
+     *
+     * Complexity: O(n + m).
+     *
+     * @param nodes List of nodes, the i-th node must have ID i.
+     *
+     * @return A new compact graph equivalent to the given nodes.
+     */
+    public static CompactGraph fromNodes(List<Node> nodes) {
+        final int nbNodes = nodes.size();
+
+        int[] firstArc = new int[nbNodes + 1];
+        float[] longitude = new float[nbNodes];
+        float[] latitude = new float[nbNodes];
+        for (Node node: nodes) {
+            firstArc[node.getId() + 1] = node.getNumberOfSuccessors();
+            Point point = node.getPoint();
+            longitude[node.getId()] = point == null ? Float.NaN : point.getLongitude();
+            latitude[node.getId()] = point == null ? Float.NaN : point.getLatitude();
+        }
+        for (int i = 0; i < nbNodes; ++i) {
+            firstArc[i + 1] += firstArc[i];
+        }
+
+        final int nbArcs = firstArc[nbNodes];
+        int[] arcHead = new int[nbArcs];
+        float[] arcLength = new float[nbArcs];
+        int[] arcDescriptor = new int[nbArcs];
+        int[] arcRecord = new int[nbArcs];
+
+        IdentityHashMap<RoadInformation, Integer> descriptors = new IdentityHashMap<>();
+        IdentityHashMap<Arc, Integer> records = new IdentityHashMap<>();
+        ArrayList<Arc> recordArcs = new ArrayList<>();
+
+        for (Node node: nodes) {
+            int arc = firstArc[node.getId()];
+            for (Arc successor: node.getSuccessors()) {
+                arcHead[arc] = successor.getDestination().getId();
+                arcLength[arc] = successor.getLength();
+                Integer descr = descriptors.get(successor.getRoadInformation());
+                if (descr == null) {
+                    descr = descriptors.size();
+                    descriptors.put(successor.getRoadInformation(), descr);
+                }
+                arcDescriptor[arc] = descr;
+
+                // Backward arcs share the record of their original arc.
+                Arc original = successor instanceof ArcBackward
+                        ? ((ArcBackward) successor).getOriginalArc()
+                        : successor;
+                Integer record = records.get(original);
+                if (record == null) {
+                    record = recordArcs.size();
+                    records.put(original, record);
+                    recordArcs.add(original);
+                }
+                arcRecord[arc] = original == successor ? record : ~record;
+                ++arc;
+            }
+        }
+
+        RoadInformation[] descrs = new RoadInformation[descriptors.size()];
+        descriptors.forEach((info, index) -> descrs[index] = info);
+
+        // Keep intermediate points of each record.
+        int[] recordGeometry = new int[recordArcs.size() + 1];
+        FloatArrayList geometry = new FloatArrayList();
+        for (int record = 0; record < recordArcs.size(); ++record) {
+            List<Point> points = pointsOf(recordArcs.get(record));
+            for (int i = 1; i < points.size() - 1; ++i) {
+                geometry.add(points.get(i).getLongitude());
+                geometry.add(points.get(i).getLatitude());
+            }
+            recordGeometry[record + 1] = geometry.size();
+        }
+
+        return new CompactGraph(firstArc, arcHead, arcLength, arcDescriptor, arcRecord, longitude,
+                latitude, descrs, recordGeometry, geometry.toArray());
+    }
+
+    /**
+     * @return Points of the given arc, or an empty list if the arc has none.
+     */
+    private static List<Point> pointsOf(Arc arc) {
+        if (arc instanceof ArcForward && !((ArcForward) arc).hasPoints()) {
+            return Collections.emptyList();
+        }
+        return arc.getPoints();
+    }
+
+    /**
+     * @return Number of nodes in this graph.
+     */
+    public int size() {
+        return this.longitude.limit();
+    }
+
+    /**
+     * @return Number of arcs in this graph.
+     */
+    public int getArcCount() {
+        return this.arcHead.limit();
+    }
+
+    /**
+     * @return Number of records (roads) in this graph.
+     */
+    public int getRecordCount() {
+        return this.recordGeometry.limit() - 1;
+    }
+
+    /**
+     * @param node Index of a node, or {@link #size()}.
+     *
+     * @return Index of the first outgoing arc of the given node. The outgoing arcs
+     *         of node end at {@code getFirstArc(node + 1)} (excluded).
+     */
+    public int getFirstArc(int node) {
+        return this.firstArc.get(node);
+    }
+
+    /**
+     * @param node Index of a node.
+     *
+     * @return Number of outgoing arcs of the given node.
+     */
+    public int getOutDegree(int node) {
+        return this.firstArc.get(node + 1) - this.firstArc.get(node);
+    }
+
+    /**
+     * @param arc Index of an arc.
+     *
+     * @return Index of the destination of the given arc.
+     */
+    public int getHead(int arc) {
+        return this.arcHead.get(arc);
+    }
+
+    /**
+     * @return Incoming arcs of this graph, built on first call in O(n + m).
+     */
+    private IncomingArcs getIncomingArcs() {
+        IncomingArcs incoming = this.incoming;
+        if (incoming == null) {
+            synchronized (this) {
+                incoming = this.incoming;
+                if (incoming == null) {
+                    incoming = new IncomingArcs(this);
+                    this.incoming = incoming;
+                }
+            }
+        }
+        return incoming;
+    }
+
+    /**
+     * Retrieve the index of the first incoming arc of the given node. Incoming
+     * arcs are numbered separately from arcs: the incoming arcs of node end at
+     * {@code getFirstIncomingArc(node + 1)} (excluded), and
+     * {@link #getIncomingArc(int)} and {@link #getIncomingTail(int)} give the
+     * corresponding arc and its origin.
+     *
+     * The incoming arcs are built on the first call, in O(n + m).
+     *
+     * @param node Index of a node, or {@link #size()}.
+     *
+     * @return Index of the first incoming arc of the given node.
+     */
+    public int getFirstIncomingArc(int node) {
+        return getIncomingArcs().firstArc[node];
+    }
+
+    /**
+     * @param index Index of an incoming arc.
+     *
+     * @return Index of the corresponding arc.
+     *
+     * @see #getFirstIncomingArc(int)
+     */
+    public int getIncomingArc(int index) {
+        return getIncomingArcs().arcs[index];
+    }
+
+    /**
+     * @param index Index of an incoming arc.
+     *
+     * @return Index of the origin of the corresponding arc.
+     *
+     * @see #getFirstIncomingArc(int)
+     */
+    public int getIncomingTail(int index) {
+        return getIncomingArcs().tails[index];
+    }
+
+    /**
+     * @param arc Index of an arc.
+     *
+     * @return Length of the given arc, in meters.
+     */
+    public float getLength(int arc) {
+        return this.arcLength.get(arc);
+    }
+
+    /**
+     * @param arc Index of an arc.
+     *
+     * @return Index of the road information of the given arc.
+     *
+     * @see #getDescriptor(int)
+     */
+    public int getDescriptorIndex(int arc) {
+        return this.arcDescriptor.get(arc);
+    }
+
+    /**
+     * @param arc Index of an arc.
+     *
+     * @return Road information of the given arc.
+     */
+    public RoadInformation getRoadInformation(int arc) {
+        return this.descriptors[this.arcDescriptor.get(arc)];
+    }
+
+    /**
+     * @return Number of distinct road information in this graph.
+     */
+    public int getDescriptorCount() {
+        return this.descriptors.length;
+    }
+
+    /**
+     * @param index Index of a road information.
+     *
+     * @return Road information with the given index.
+     */
+    public RoadInformation getDescriptor(int index) {
+        return this.descriptors[index];
+    }
+
+    /**
+     * @param arc Index of an arc.
+     *
+     * @return Index of the record (road) of the given arc.
+     */
+    public int getRecord(int arc) {
+        int record = this.arcRecord.get(arc);
+        return record < 0 ? ~record : record;
+    }
+
+    /**
+     * @param arc Index of an arc.
+     *
+     * @return true if the given arc goes in the opposite direction of its record.
+     */
+    public boolean isReversed(int arc) {
+        return this.arcRecord.get(arc) < 0;
+    }
+
+    /**
+     * @param node Index of a node.
+     *
+     * @return Longitude of the given node (in degrees).
+     */
+    public float getLongitude(int node) {
+        return this.longitude.get(node);
+    }
+
+    /**
+     * @param node Index of a node.
+     *
+     * @return Latitude of the given node (in degrees).
+     */
+    public float getLatitude(int node) {
+        return this.latitude.get(node);
+    }
+
+    /**
+     * @param node Index of a node.
+     *
+     * @return Position of the given node, or null if the node has no position.
+     */
+    public Point getPoint(int node) {
+        if (Float.isNaN(this.longitude.get(node))) {
+            return null;
+        }
+        return new Point(this.longitude.get(node), this.latitude.get(node));
+    }
+
+    /**
+     * Retrieve the points of the given arc, from its origin to its destination.
+     * The returned list is an unmodifiable view of the geometry of the graph, its
+     * points are only created when they are retrieved.
+     *
+     * @param origin Index of the origin of the arc.
+     * @param arc Index of an arc.
+     *
+     * @return Points representing the segments of the given arc.
+     */
+    public List<Point> getPoints(int origin, int arc) {
+        return new ArcPoints(origin, arc);
+    }
+
+    /**
+     * @param record Index of a record, or {@link #getRecordCount()}.
+     *
+     * @return Offset of the intermediate points of the given record in the
+     *         geometry, see {@link #getGeometry(int)}. The points of the record end
+     *         at {@code getGeometryOffset(record + 1)} (excluded).
+     */
+    public int getGeometryOffset(int record) {
+        return this.recordGeometry.get(record);
+    }
+
+    /**
+     * @param index Index in the geometry.
+     *
+     * @return Longitude (even index) or latitude (odd index) of an intermediate
+     *         point.
+     */
+    public float getGeometry(int index) {
+        return this.geometry.get(index);
+    }
+
+    /**
+     * Release the resources held by the geometry of this graph, e.g. the map file
+     * of a geometry loaded on demand. The intermediate points of the arcs cannot
+     * be retrieved once the graph is closed.
+     *
+     * @throws IOException if an error occurs while releasing the resources.
+     */
+    public void close() throws IOException {
+        this.geometry.close();
+    }
+
+    /**
+     * Create a copy of this graph with renumbered nodes, some nodes possibly
+     * being removed with their arcs. Records are renumbered by origin, and the
+     * arcs of each node are ordered by record, as if the new graph had been read
+     * from a file. The road information is shared with this graph.
+     *
+     * Complexity: O(n + m + g), where g is the size of the geometry.
+     *
+     * @param ids New index of each node, or -1 to remove the node. New indices
+     *        must be distinct and range from 0 to the number of kept nodes
+     *        (excluded).
+     *
+     * @return A new compact graph with the kept nodes.
+     *
+     * @throws IllegalArgumentException if the new indices are not valid.
+     */
+    public CompactGraph renumber(int[] ids) {
+        final int nbNodes = size();
+        if (ids.length != nbNodes) {
+            throw new IllegalArgumentException("Expected " + nbNodes + " indices.");
+        }
+
+        // Old index of each kept node.
+        int nbKept = 0;
+        for (int id: ids) {
+            nbKept += id >= 0 ? 1 : 0;
+        }
+        int[] nodes = new int[nbKept];
+        Arrays.fill(nodes, -1);
+        for (int node = 0; node < nbNodes; ++node) {
+            if (ids[node] >= nbKept || (ids[node] >= 0 && nodes[ids[node]] != -1)) {
+                throw new IllegalArgumentException("Invalid index for node " + node + ".");
+            }
+            if (ids[node] >= 0) {
+                nodes[ids[node]] = node;
+            }
+        }
+
+        // Kept records (whose ends are both kept), numbered by new origin.
+        int[] records = new int[getRecordCount()];
+        Arrays.fill(records, -1);
+        int nbRecords = 0;
+        for (int node: nodes) {
+            for (int arc = getFirstArc(node); arc < getFirstArc(node + 1); ++arc) {
+                if (!isReversed(arc) && ids[getHead(arc)] >= 0) {
+                    records[getRecord(arc)] = nbRecords++;
+                }
+            }
+        }
+        int[] newRecordGeometry = new int[nbRecords + 1];
+        for (int record = 0; record < records.length; ++record) {
+            if (records[record] >= 0) {
+                newRecordGeometry[records[record] + 1] = getGeometryOffset(record + 1)
+                        - getGeometryOffset(record);
+            }
+        }
+        for (int record = 0; record < nbRecords; ++record) {
+            newRecordGeometry[record + 1] += newRecordGeometry[record];
+        }
+        float[] newGeometry = new float[newRecordGeometry[nbRecords]];
+        for (int record = 0; record < records.length; ++record) {
+            if (records[record] >= 0) {
+                int begin = getGeometryOffset(record), offset = newRecordGeometry[records[record]];
+                for (int i = begin; i < getGeometryOffset(record + 1); ++i) {
+                    newGeometry[offset++] = getGeometry(i);
+                }
+            }
+        }
+
+        // Arcs of each kept node, sorted by new record (insertion sort, since nodes
+        // have few arcs).
+        int[] newFirstArc = new int[nbKept + 1];
+        for (int id = 0; id < nbKept; ++id) {
+            int node = nodes[id];
+            int degree = 0;
+            for (int arc = getFirstArc(node); arc < getFirstArc(node + 1); ++arc) {
+                degree += ids[getHead(arc)] >= 0 ? 1 : 0;
+            }
+            newFirstArc[id + 1] = newFirstArc[id] + degree;
+        }
+        final int nbArcs = newFirstArc[nbKept];
+        int[] newArcHead = new int[nbArcs], newArcDescriptor = new int[nbArcs],
+                newArcRecord = new int[nbArcs];
+        float[] newArcLength = new float[nbArcs];
+        float[] newLongitude = new float[nbKept], newLatitude = new float[nbKept];
+        int[] arcs = new int[0];
+        for (int id = 0; id < nbKept; ++id) {
+            int node = nodes[id];
+            newLongitude[id] = getLongitude(node);
+            newLatitude[id] = getLatitude(node);
+
+            int degree = 0;
+            if (arcs.length < getOutDegree(node)) {
+                arcs = new int[getOutDegree(node)];
+            }
+            for (int arc = getFirstArc(node); arc < getFirstArc(node + 1); ++arc) {
+                if (ids[getHead(arc)] < 0) {
+                    continue;
+                }
+                int key = 2 * records[getRecord(arc)] + (isReversed(arc) ? 1 : 0), i = degree++;
+                for (; i > 0 && 2 * records[getRecord(arcs[i - 1])]
+                        + (isReversed(arcs[i - 1]) ? 1 : 0) > key; --i) {
+                    arcs[i] = arcs[i - 1];
+                }
+                arcs[i] = arc;
+            }
+
+            for (int i = 0; i < degree; ++i) {
+                int arc = arcs[i], newArc = newFirstArc[id] + i;
+                int record = records[getRecord(arc)];
+                newArcHead[newArc] = ids[getHead(arc)];
+                newArcLength[newArc] = getLength(arc);
+                newArcDescriptor[newArc] = getDescriptorIndex(arc);
+                newArcRecord[newArc] = isReversed(arc) ? ~record : record;
+            }
+        }
+
+        return new CompactGraph(newFirstArc, newArcHead, newArcLength, newArcDescriptor,
+                newArcRecord, newLongitude, newLatitude, this.descriptors, newRecordGeometry,
+                newGeometry);
+    }
+
+    /**
+     * (longitude, latitude) pairs of the intermediate points of the records of a
+     * compact graph.
+     *
+     */
+    @FunctionalInterface
+    public interface Geometry {
+
+        /**
+         * @param index Index in the geometry.
+         *
+         * @return Longitude (even index) or latitude (odd index) of an intermediate
+         *         point.
+         */
+        float get(int index);
+
+        /**
+         * Release the resources held by this geometry, e.g. an open file. Does
+         * nothing by default.
+         *
+         * @throws IOException if an error occurs while releasing the resources.
+         */
+        default void close() throws IOException {
+        }
+
+    }
+
+    /**
+     * Points of an arc, read from the geometry of the graph on demand.
+     *
+     */
+    private final class ArcPoints extends AbstractList<Point> implements RandomAccess {
+
+        // Origin and destination of the arc.
+        private final int origin, destination;
+
+        // Offsets of the intermediate points of the record of the arc.
+        private final int begin, end;
+
+        // true if the intermediate points are read backward.
+        private final boolean reversed;
+
+        ArcPoints(int origin, int arc) {
+            int record = getRecord(arc);
+            this.origin = origin;
+            this.destination = getHead(arc);
+            this.begin = recordGeometry.get(record);
+            this.end = recordGeometry.get(record + 1);
+            this.reversed = isReversed(arc);
+        }
+
+        @Override
+        public Point get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            if (index == 0) {
+                return getPoint(this.origin);
+            }
+            if (index == size() - 1) {
+                return getPoint(this.destination);
+            }
+            int offset = this.reversed ? this.end - 2 * index : this.begin + 2 * (index - 1);
+            return new Point(geometry.get(offset), geometry.get(offset + 1));
+        }
+
+        @Override
+        public int size() {
+            return 2 + (this.end - this.begin) / 2;
+        }
+
+    }
+
+    /**
+     * Incoming arcs of a compact graph, in CSR layout.
+     *
+     */
+    private static final class IncomingArcs {
+
+        // Index of the first incoming arc of each node (size: nbNodes + 1).
+        final int[] firstArc;
+
+        // Arc and origin of the arc of each incoming arc.
+        final int[] arcs, tails;
+
+        IncomingArcs(CompactGraph graph) {
+            final int nbNodes = graph.size(), nbArcs = graph.getArcCount();
+            this.firstArc = new int[nbNodes + 1];
+            this.arcs = new int[nbArcs];
+            this.tails = new int[nbArcs];
+            for (int arc = 0; arc < nbArcs; ++arc) {
+                this.firstArc[graph.getHead(arc) + 1]++;
+            }
+            for (int node = 0; node < nbNodes; ++node) {
+                this.firstArc[node + 1] += this.firstArc[node];
+            }
+            int[] next = Arrays.copyOf(this.firstArc, nbNodes);
+            for (int node = 0; node < nbNodes; ++node) {
+                for (int arc = graph.getFirstArc(node); arc < graph.getFirstArc(node + 1); ++arc) {
+                    int index = next[graph.getHead(arc)]++;
+                    this.arcs[index] = arc;
+                    this.tails[index] = node;
+                }
+            }
+        }
+    }
+
+    /**
+     * Minimal growable array of floats used while building geometry.
+     *
+     */
+    static final class FloatArrayList {
+
+        private float[] values = new float[16];
+        private int size = 0;
+
+        void add(float value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, 2 * size);
+            }
+            values[size++] = value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        float[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+}
@@ -1,8 +1,11 @@
 package org.insa.graphs.model;
 
+import java.io.IOException;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.RandomAccess;
 
 /**
  * <p>
@@ -13,6 +16,13 @@ import java.util.List;
  * This class acts as a object-oriented <b>adjacency list</b> for a graph, i.e.,
  * it holds a list of nodes and each node holds a list of its successors.
  * </p>
+ * 
+ * <p>
+ * A graph can also be created from a {@link CompactGraph}, in which case nodes
+ * and arcs are thin views over the arrays of the compact graph. Conversely, the
+ * compact representation of a graph created from a list of nodes is built on
+ * demand by {@link #getCompactGraph()}.
+ * </p>
  *
  */
 public final class Graph {
@@ -29,6 +39,14 @@ public final class Graph {
     // Graph information of this graph.
     private final GraphStatistics graphStatistics;
 
+    // Compact representation of this graph (built on demand if this graph was
+    // created from a list of nodes).
+    private volatile CompactGraph compactGraph;
+
+    // Arcs indexed as in the compact graph, only if this graph was created from a
+    // list of nodes.
+    private Arc[] arcs;
+
     /**
      * Create a new graph with the given ID, name, nodes and information.
      * 
@@ -42,6 +60,25 @@ public final class Graph {
         this.mapName = mapName;
         this.nodes = Collections.unmodifiableList(nodes);
         this.graphStatistics = graphStatistics;
+        this.compactGraph = null;
+    }
+
+    /**
+     * Create a new graph with the given ID, name and information, backed by the
+     * given compact graph.
+     * 
+     * @param mapId ID of the map corresponding to this graph.
+     * @param mapName Name of the map corresponding to this graph.
+     * @param compactGraph Compact representation of this graph.
+     * @param graphStatistics Information for this graph.
+     */
+    public Graph(String mapId, String mapName, CompactGraph compactGraph,
+            GraphStatistics graphStatistics) {
+        this.mapId = mapId;
+        this.mapName = mapName;
+        this.graphStatistics = graphStatistics;
+        this.compactGraph = compactGraph;
+        this.nodes = new NodeViews(compactGraph.size());
     }
 
     /**
@@ -80,6 +117,58 @@ public final class Graph {
         return this.nodes;
     }
 
+    /**
+     * Retrieve the compact representation of this graph. Arcs of the compact graph
+     * are indexed in the order of the successors of the nodes.
+     * 
+     * Complexity: O(1), except for the first call on a graph created from a list of
+     * nodes, O(n + m).
+     * 
+     * @return Compact representation of this graph.
+     */
+    public CompactGraph getCompactGraph() {
+        CompactGraph compact = this.compactGraph;
+        if (compact == null) {
+            synchronized (this) {
+                compact = this.compactGraph;
+                if (compact == null) {
+                    compact = CompactGraph.fromNodes(this.nodes);
+                    Arc[] arcs = new Arc[compact.getArcCount()];
+                    for (Node node: this.nodes) {
+                        int arc = compact.getFirstArc(node.getId());
+                        for (Arc successor: node.getSuccessors()) {
+                            arcs[arc++] = successor;
+                        }
+                    }
+                    this.arcs = arcs;
+                    this.compactGraph = compact;
+                }
+            }
+        }
+        return compact;
+    }
+
+    /**
+     * Fetch the arc with the given index in the compact representation of this
+     * graph.
+     * 
+     * Complexity: O(1).
+     * 
+     * @param origin ID of the origin of the arc.
+     * @param arc Index of the arc in the compact graph.
+     * 
+     * @return Arc with the given index.
+     * 
+     * @see #getCompactGraph()
+     */
+    public Arc getArc(int origin, int arc) {
+        getCompactGraph();
+        if (this.arcs != null) {
+            return this.arcs[arc];
+        }
+        return new CompactArc(this, origin, arc);
+    }
+
     /**
      * @return ID of the map associated with this graph.
      */
@@ -94,6 +183,19 @@ public final class Graph {
         return mapName;
     }
 
+    /**
+     * Release the resources held by this graph, e.g. the map file of a graph whose
+     * geometry is loaded on demand (see {@link CompactGraph#close()}).
+     *
+     * @throws IOException if an error occurs while releasing the resources.
+     */
+    public void close() throws IOException {
+        CompactGraph compact = this.compactGraph;
+        if (compact != null) {
+            compact.close();
+        }
+    }
+
     /**
      * @return Transpose graph of this graph.
      */
@@ -110,7 +212,8 @@ public final class Graph {
                     dest.addSuccessor(new ArcBackward(new ArcForward(orig, dest, arc.getLength(),
                             arc.getRoadInformation(), arc.getPoints())));
                 }
-                else if (arc instanceof ArcForward) {
+                else if (arc instanceof ArcForward
+                        || (arc instanceof CompactArc && !((CompactArc) arc).isReversed())) {
                     Node dest = trNodes.get(arc.getDestination().getId());
                     Arc newArc = new ArcForward(orig, dest, arc.getLength(),
                             arc.getRoadInformation(), arc.getPoints());
@@ -128,4 +231,36 @@ public final class Graph {
                 getMapId(), getMapName(), size());
     }
 
+    /**
+     * Unmodifiable list of the nodes of a graph backed by a compact graph. Views
+     * are created on first access, so that creating a graph does not allocate a
+     * node per vertex.
+     *
+     */
+    private final class NodeViews extends AbstractList<Node> implements RandomAccess {
+
+        // Views already created (concurrent creations of the same view are harmless
+        // since views of the same node are equal).
+        private final Node[] views;
+
+        NodeViews(int size) {
+            this.views = new Node[size];
+        }
+
+        @Override
+        public Node get(int index) {
+            Node node = this.views[index];
+            if (node == null) {
+                node = new Node(Graph.this, index);
+                this.views[index] = node;
+            }
+            return node;
+        }
+
+        @Override
+        public int size() {
+            return this.views.length;
+        }
+    }
+
 }
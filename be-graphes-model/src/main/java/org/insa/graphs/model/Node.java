@@ -1,5 +1,6 @@
 package org.insa.graphs.model;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -15,6 +16,11 @@ import java.util.List;
  * </p>
  * 
  * <p>
+ * Nodes of a graph created from a {@link CompactGraph} do not hold anything but
+ * their ID, their position and successors are views over the compact graph.
+ * </p>
+ * 
+ * <p>
  * Nodes are comparable based on their ID.
  * </p>
  *
@@ -74,6 +80,9 @@ public final class Node implements Comparable<Node> {
     // Successors.
     private final ArrayList<Arc> successors;
 
+    // Graph backing this node, or null if this node holds its own successors.
+    private final Graph graph;
+
     /**
      * Create a new Node with the given ID corresponding to the given Point with an
      * empty list of successors.
@@ -85,14 +94,36 @@ public final class Node implements Comparable<Node> {
         this.id = id;
         this.point = point;
         this.successors = new ArrayList<Arc>();
+        this.graph = null;
+    }
+
+    /**
+     * Create a new Node that is a view over the node with the given ID in the
+     * compact representation of the given graph.
+     * 
+     * @param graph Graph containing the node.
+     * @param id ID of the node.
+     */
+    Node(Graph graph, int id) {
+        this.id = id;
+        this.point = null;
+        this.successors = null;
+        this.graph = graph;
     }
 
     /**
      * Add a successor to this node.
      * 
      * @param arc Arc to the successor.
+     * 
+     * @throws UnsupportedOperationException if this node is a view over a compact
+     *         graph.
      */
     protected void addSuccessor(Arc arc) {
+        if (graph != null) {
+            throw new UnsupportedOperationException("Cannot add successors to node #" + id
+                    + " of a compact graph.");
+        }
         successors.add(arc);
     }
 
@@ -107,6 +138,9 @@ public final class Node implements Comparable<Node> {
      * @return Number of successors of this node.
      */
     public int getNumberOfSuccessors() {
+        if (graph != null) {
+            return graph.getCompactGraph().getOutDegree(id);
+        }
         return this.successors.size();
     }
 
@@ -114,7 +148,7 @@ public final class Node implements Comparable<Node> {
      * @return true if this node has at least one successor.
      */
     public boolean hasSuccessors() {
-        return !this.successors.isEmpty();
+        return getNumberOfSuccessors() > 0;
     }
 
     /**
@@ -123,6 +157,24 @@ public final class Node implements Comparable<Node> {
      * @see Collections#unmodifiableList(List)
      */
     public List<Arc> getSuccessors() {
+        if (graph != null) {
+            final int firstArc = graph.getCompactGraph().getFirstArc(id);
+            final int nbArcs = graph.getCompactGraph().getOutDegree(id);
+            return new AbstractList<Arc>() {
+                @Override
+                public Arc get(int index) {
+                    if (index < 0 || index >= nbArcs) {
+                        throw new IndexOutOfBoundsException(index);
+                    }
+                    return new CompactArc(graph, id, firstArc + index);
+                }
+
+                @Override
+                public int size() {
+                    return nbArcs;
+                }
+            };
+        }
         return Collections.unmodifiableList(this.successors);
     }
 
@@ -130,6 +182,9 @@ public final class Node implements Comparable<Node> {
      * @return Location of this node.
      */
     public Point getPoint() {
+        if (graph != null) {
+            return graph.getCompactGraph().getPoint(id);
+        }
         return point;
     }
 
@@ -0,0 +1,321 @@
+package org.insa.graphs.model;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Renumbering of the nodes of a graph, used to improve the locality of memory
+ * accesses: in map files, nodes follow the order of the extraction of the map,
+ * so the nodes settled one after the other by a search are scattered in the
+ * arrays indexed by node.
+ * </p>
+ *
+ * <p>
+ * An ordering keeps the mapping between the original IDs and the new IDs, so
+ * that nodes given by their original ID (e.g. in path files, see
+ * {@link org.insa.graphs.model.io.BinaryPathReader}) can still be found in the
+ * reordered graph.
+ * </p>
+ *
+ * <p>
+ * Since everything identified by the map ID (path files, hierarchies and
+ * landmarks, caches) relies on the IDs of the nodes, a reordered graph has its
+ * own map ID, made of the original map ID, {@link #SUFFIX} and a hash of the
+ * ordering.
+ * </p>
+ *
+ */
+public final class NodeOrdering {
+
+    // Suffix of the map ID of reordered graphs, before the hash of the ordering.
+    public static final String SUFFIX = "-ordered-";
+
+    // Number of bits of each coordinate on the Hilbert curve.
+    private static final int HILBERT_BITS = 16;
+
+    // New ID of each node, and original ID of each new ID.
+    private final int[] newIds, oldIds;
+
+    // Hash of the ordering, used in the map ID of reordered graphs.
+    private final int hash;
+
+    /**
+     * Create a new ordering from the original IDs of the nodes.
+     *
+     * @param oldIds Original ID of each node, indexed by new ID.
+     *
+     * @throws IllegalArgumentException if the given IDs are not a permutation.
+     */
+    public NodeOrdering(int[] oldIds) {
+        this.oldIds = oldIds.clone();
+        this.newIds = new int[oldIds.length];
+        Arrays.fill(this.newIds, -1);
+        for (int id = 0; id < oldIds.length; ++id) {
+            if (oldIds[id] < 0 || oldIds[id] >= oldIds.length || this.newIds[oldIds[id]] != -1) {
+                throw new IllegalArgumentException("Invalid original ID for node " + id + ".");
+            }
+            this.newIds[oldIds[id]] = id;
+        }
+        this.hash = Arrays.hashCode(this.oldIds);
+    }
+
+    /**
+     * Order the nodes along a Hilbert curve over their coordinates, so that nodes
+     * close to each other on the map have close IDs. Nodes without coordinates
+     * are placed last.
+     *
+     * Complexity: O(n log n).
+     *
+     * @param graph Graph to order.
+     *
+     * @return Ordering of the nodes of the given graph.
+     */
+    public static NodeOrdering hilbert(CompactGraph graph) {
+        final int nbNodes = graph.size();
+        float minLongitude = Float.POSITIVE_INFINITY, maxLongitude = Float.NEGATIVE_INFINITY,
+                minLatitude = Float.POSITIVE_INFINITY, maxLatitude = Float.NEGATIVE_INFINITY;
+        for (int node = 0; node < nbNodes; ++node) {
+            if (hasPosition(graph, node)) {
+                minLongitude = Math.min(minLongitude, graph.getLongitude(node));
+                maxLongitude = Math.max(maxLongitude, graph.getLongitude(node));
+                minLatitude = Math.min(minLatitude, graph.getLatitude(node));
+                maxLatitude = Math.max(maxLatitude, graph.getLatitude(node));
+            }
+        }
+
+        // Nodes are sorted by (index on the curve, ID), packed in a single long.
+        final long last = (1L << (2 * HILBERT_BITS)) - 1;
+        long[] keys = new long[nbNodes];
+        for (int node = 0; node < nbNodes; ++node) {
+            long index = last;
+            if (hasPosition(graph, node)) {
+                index = hilbertIndex(toCell(graph.getLongitude(node), minLongitude, maxLongitude),
+                        toCell(graph.getLatitude(node), minLatitude, maxLatitude));
+            }
+            keys[node] = (index << 31) | node;
+        }
+        Arrays.parallelSort(keys);
+
+        int[] oldIds = new int[nbNodes];
+        for (int id = 0; id < nbNodes; ++id) {
+            oldIds[id] = (int) (keys[id] & Integer.MAX_VALUE);
+        }
+        return new NodeOrdering(oldIds);
+    }
+
+    /**
+     * Order the nodes by a breadth-first search on the undirected graph, starting
+     * from node 0 and from the unvisited node of lowest ID for each new
+     * component.
+     *
+     * Complexity: O(n + m).
+     *
+     * @param graph Graph to order.
+     *
+     * @return Ordering of the nodes of the given graph.
+     */
+    public static NodeOrdering breadthFirst(CompactGraph graph) {
+        final int nbNodes = graph.size();
+        boolean[] visited = new boolean[nbNodes];
+
+        // The order is the queue of the search.
+        int[] oldIds = new int[nbNodes];
+        int head = 0, tail = 0;
+        for (int root = 0; root < nbNodes; ++root) {
+            if (visited[root]) {
+                continue;
+            }
+            visited[root] = true;
+            oldIds[tail++] = root;
+            while (head < tail) {
+                int node = oldIds[head++];
+                for (int arc = graph.getFirstArc(node); arc < graph.getFirstArc(node + 1); ++arc) {
+                    int next = graph.getHead(arc);
+                    if (!visited[next]) {
+                        visited[next] = true;
+                        oldIds[tail++] = next;
+                    }
+                }
+                for (int index = graph.getFirstIncomingArc(node); index < graph
+                        .getFirstIncomingArc(node + 1); ++index) {
+                    int next = graph.getIncomingTail(index);
+                    if (!visited[next]) {
+                        visited[next] = true;
+                        oldIds[tail++] = next;
+                    }
+                }
+            }
+        }
+        return new NodeOrdering(oldIds);
+    }
+
+    /**
+     * Order the nodes by a depth-first search (pre-order) on the undirected
+     * graph, starting from node 0 and from the unvisited node of lowest ID for
+     * each new component. The search uses an explicit stack, so its depth is not
+     * limited.
+     *
+     * Complexity: O(n + m).
+     *
+     * @param graph Graph to order.
+     *
+     * @return Ordering of the nodes of the given graph.
+     */
+    public static NodeOrdering depthFirst(CompactGraph graph) {
+        final int nbNodes = graph.size();
+        boolean[] visited = new boolean[nbNodes];
+        int[] oldIds = new int[nbNodes];
+        int count = 0;
+
+        // Stack of nodes and of their next neighbor to scan, outgoing arcs first
+        // and then incoming arcs (shifted by the number of outgoing arcs).
+        int[] stackNodes = new int[nbNodes], stackNext = new int[nbNodes];
+        for (int root = 0; root < nbNodes; ++root) {
+            if (visited[root]) {
+                continue;
+            }
+            visited[root] = true;
+            oldIds[count++] = root;
+            stackNodes[0] = root;
+            stackNext[0] = 0;
+            int depth = 1;
+            while (depth > 0) {
+                int node = stackNodes[depth - 1], next = stackNext[depth - 1]++;
+                int outDegree = graph.getOutDegree(node);
+                int neighbor;
+                if (next < outDegree) {
+                    neighbor = graph.getHead(graph.getFirstArc(node) + next);
+                }
+                else if (next - outDegree < graph.getFirstIncomingArc(node + 1)
+                        - graph.getFirstIncomingArc(node)) {
+                    neighbor = graph.getIncomingTail(graph.getFirstIncomingArc(node) + next
+                            - outDegree);
+                }
+                else {
+                    --depth;
+                    continue;
+                }
+                if (!visited[neighbor]) {
+                    visited[neighbor] = true;
+                    oldIds[count++] = neighbor;
+                    stackNodes[depth] = neighbor;
+                    stackNext[depth] = 0;
+                    ++depth;
+                }
+            }
+        }
+        return new NodeOrdering(oldIds);
+    }
+
+    /**
+     * @return Number of nodes of this ordering.
+     */
+    public int size() {
+        return this.oldIds.length;
+    }
+
+    /**
+     * @param oldId Original ID of a node.
+     *
+     * @return New ID of the node.
+     */
+    public int getNewId(int oldId) {
+        return this.newIds[oldId];
+    }
+
+    /**
+     * @param newId New ID of a node.
+     *
+     * @return Original ID of the node.
+     */
+    public int getOldId(int newId) {
+        return this.oldIds[newId];
+    }
+
+    /**
+     * @param mapId ID of the original map.
+     *
+     * @return ID of the map reordered by this ordering.
+     */
+    public String getMapId(String mapId) {
+        return mapId + SUFFIX + String.format("%08x", this.hash);
+    }
+
+    /**
+     * @param mapId ID of a map reordered by this ordering.
+     *
+     * @return ID of the original map, or the given ID if it is not the ID of a map
+     *         reordered by this ordering.
+     */
+    public String getOriginalMapId(String mapId) {
+        String suffix = getMapId("");
+        return mapId.endsWith(suffix) ? mapId.substring(0, mapId.length() - suffix.length())
+                : mapId;
+    }
+
+    /**
+     * Create a copy of the given graph with its nodes renumbered by this
+     * ordering. The copy has the same name and statistics as the given graph, but
+     * its own map ID (see {@link #getMapId(String)}), since the IDs of its nodes
+     * differ.
+     *
+     * Complexity: O(n + m + g), where g is the size of the geometry.
+     *
+     * @param graph Graph to reorder, with the original IDs.
+     *
+     * @return A new graph with the new IDs.
+     *
+     * @throws IllegalArgumentException if the graph does not have the size of
+     *         this ordering.
+     */
+    public Graph apply(Graph graph) {
+        return new Graph(getMapId(graph.getMapId()), graph.getMapName(),
+                graph.getCompactGraph().renumber(this.newIds), graph.getGraphInformation());
+    }
+
+    /**
+     * @return true if the given node has a position (nodes without position have
+     *         NaN coordinates).
+     */
+    private static boolean hasPosition(CompactGraph graph, int node) {
+        return !Float.isNaN(graph.getLongitude(node)) && !Float.isNaN(graph.getLatitude(node));
+    }
+
+    /**
+     * @return Cell of the given coordinate in a grid of 2^HILBERT_BITS cells
+     *         spanning from min to max.
+     */
+    private static int toCell(float value, float min, float max) {
+        if (!(max > min)) {
+            return 0;
+        }
+        final int nbCells = 1 << HILBERT_BITS;
+        return Math.min(nbCells - 1, (int) ((value - min) / (max - min) * nbCells));
+    }
+
+    /**
+     * @return Index of the given cell on a Hilbert curve covering a grid of
+     *         2^HILBERT_BITS cells per side.
+     */
+    private static long hilbertIndex(int x, int y) {
+        final int mask = (1 << HILBERT_BITS) - 1;
+        long index = 0;
+        for (int s = 1 << (HILBERT_BITS - 1); s > 0; s >>= 1) {
+            int rx = (x & s) != 0 ? 1 : 0, ry = (y & s) != 0 ? 1 : 0;
+            index += (long) s * s * ((3 * rx) ^ ry);
+
+            // Rotate the quadrant so that the curve is continuous.
+            if (ry == 0) {
+                if (rx == 1) {
+                    x = mask - x;
+                    y = mask - y;
+                }
+                int t = x;
+                x = y;
+                y = t;
+            }
+        }
+        return index;
+    }
+
+}
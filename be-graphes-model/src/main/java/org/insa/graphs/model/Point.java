@@ -20,11 +20,26 @@ public final class Point {
      * @return Distance between the two given points (in meters).
      */
     public static double distance(Point p1, Point p2) {
-        double sinLat = Math.sin(Math.toRadians(p1.getLatitude()))
-                * Math.sin(Math.toRadians(p2.getLatitude()));
-        double cosLat = Math.cos(Math.toRadians(p1.getLatitude()))
-                * Math.cos(Math.toRadians(p2.getLatitude()));
-        double cosLong = Math.cos(Math.toRadians(p2.getLongitude() - p1.getLongitude()));
+        return distance(p1.getLongitude(), p1.getLatitude(), p2.getLongitude(),
+                p2.getLatitude());
+    }
+
+    /**
+     * Compute the distance in meters between the two given positions.
+     * 
+     * @param long1 Longitude of the first position (in degrees).
+     * @param lat1 Latitude of the first position (in degrees).
+     * @param long2 Longitude of the second position (in degrees).
+     * @param lat2 Latitude of the second position (in degrees).
+     * 
+     * @return Distance between the two given positions (in meters).
+     * 
+     * @see #distance(Point, Point)
+     */
+    public static double distance(float long1, float lat1, float long2, float lat2) {
+        double sinLat = Math.sin(Math.toRadians(lat1)) * Math.sin(Math.toRadians(lat2));
+        double cosLat = Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2));
+        double cosLong = Math.cos(Math.toRadians(long2 - long1));
         return EARTH_RADIUS * Math.acos(sinLat + cosLat * cosLong);
     }
 
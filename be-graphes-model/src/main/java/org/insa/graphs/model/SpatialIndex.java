@@ -0,0 +1,626 @@
+package org.insa.graphs.model;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * <p>
+ * Spatial index of the nodes and roads of a graph, used to find the nodes
+ * closest to a position (e.g. a click on the map or a GPS position) without
+ * scanning all the nodes.
+ * </p>
+ *
+ * <p>
+ * The index is a uniform grid over the bounding box of the nodes, with about
+ * {@link #NODES_PER_CELL} nodes per cell. The coordinates of the nodes are
+ * stored by cell in packed arrays, and each record (road) of the compact graph
+ * is stored in all the cells covered by its bounding box. Queries visit the
+ * cells by rings of increasing distance around the position, and stop as soon
+ * as a ring cannot contain a better result.
+ * </p>
+ *
+ * <p>
+ * Distances are computed with an equirectangular projection centered on the
+ * graph, which is accurate at the scale of a regional map, and are given in
+ * meters. The index is built in parallel and is immutable, so it can be
+ * queried by several threads at once. Nodes without position are not indexed.
+ * </p>
+ *
+ */
+public final class SpatialIndex {
+
+    /**
+     * Projection of a position on the geometry of the closest road.
+     *
+     */
+    public static final class Projection {
+
+        // Origin and arc (in the direction of the record) of the road.
+        private final int origin, arc;
+
+        // Projected point.
+        private final Point point;
+
+        // Distance to the position, and from the origin of the arc.
+        private final double distance, offset;
+
+        private Projection(int origin, int arc, Point point, double distance, double offset) {
+            this.origin = origin;
+            this.arc = arc;
+            this.point = point;
+            this.distance = distance;
+            this.offset = offset;
+        }
+
+        /**
+         * @return Index of the origin of the arc.
+         */
+        public int getOrigin() {
+            return origin;
+        }
+
+        /**
+         * @return Index of the arc in the compact graph. For a two-ways road, this
+         *         is the arc that is not reversed.
+         */
+        public int getArc() {
+            return arc;
+        }
+
+        /**
+         * @return Closest point of the geometry of the arc.
+         */
+        public Point getPoint() {
+            return point;
+        }
+
+        /**
+         * @return Distance between the position and the projected point (in
+         *         meters).
+         */
+        public double getDistance() {
+            return distance;
+        }
+
+        /**
+         * @return Distance between the origin of the arc and the projected point,
+         *         along the geometry of the arc (in meters).
+         */
+        public double getOffset() {
+            return offset;
+        }
+
+    }
+
+    /**
+     * Average number of nodes per cell of the grid.
+     */
+    public static final int NODES_PER_CELL = 2;
+
+    // Length of a degree of latitude (in meters).
+    private static final double METERS_PER_DEGREE = Math.toRadians(1) * Point.EARTH_RADIUS;
+
+    // Indexed graph.
+    private final CompactGraph graph;
+
+    // Scale applied to longitudes (cosine of the central latitude), so that
+    // projected coordinates are (longitude * scale, latitude) in degrees.
+    private final double scale;
+
+    // Grid, in projected coordinates.
+    private final double minX, minY, cellSize;
+    private final int nbColumns, nbRows;
+
+    // Index of the first node of each cell (size: nbCells + 1), and nodes with
+    // their projected coordinates, sorted by cell.
+    private final int[] firstNode;
+    private final int[] nodes;
+    private final float[] nodeX, nodeY;
+
+    // Index of the first record of each cell (size: nbCells + 1), and records
+    // covering each cell, sorted by cell.
+    private final int[] firstRecord;
+    private final int[] records;
+
+    // Arc (in the direction of the record) and origin of each record.
+    private final int[] recordArc, recordOrigin;
+
+    /**
+     * Build the index of the given graph, in parallel.
+     *
+     * Complexity: O(n log n + r log r), where r is the number of (record, cell)
+     * pairs.
+     *
+     * @param graph Graph to index.
+     */
+    public SpatialIndex(CompactGraph graph) {
+        this.graph = graph;
+        final int nbNodes = graph.size();
+
+        // Bounding box of the nodes.
+        float minLongitude = Float.POSITIVE_INFINITY, maxLongitude = Float.NEGATIVE_INFINITY,
+                minLatitude = Float.POSITIVE_INFINITY, maxLatitude = Float.NEGATIVE_INFINITY;
+        int nbIndexed = 0;
+        for (int node = 0; node < nbNodes; ++node) {
+            if (hasPosition(node)) {
+                minLongitude = Math.min(minLongitude, graph.getLongitude(node));
+                maxLongitude = Math.max(maxLongitude, graph.getLongitude(node));
+                minLatitude = Math.min(minLatitude, graph.getLatitude(node));
+                maxLatitude = Math.max(maxLatitude, graph.getLatitude(node));
+                ++nbIndexed;
+            }
+        }
+        if (nbIndexed == 0) {
+            minLongitude = maxLongitude = minLatitude = maxLatitude = 0;
+        }
+
+        // Square cells, with about NODES_PER_CELL nodes per cell.
+        this.scale = Math.cos(Math.toRadians((minLatitude + maxLatitude) / 2));
+        this.minX = minLongitude * this.scale;
+        this.minY = minLatitude;
+        double width = maxLongitude * this.scale - this.minX, height = maxLatitude - this.minY;
+        int nbCells = Math.max(1, nbIndexed / NODES_PER_CELL);
+        double size = Math.max(Math.sqrt(width * height / nbCells),
+                Math.max(width, height) / nbCells);
+        this.cellSize = size > 0 ? size : 1;
+        this.nbColumns = Math.max(1, (int) Math.ceil(width / this.cellSize));
+        this.nbRows = Math.max(1, (int) Math.ceil(height / this.cellSize));
+        nbCells = this.nbColumns * this.nbRows;
+
+        // Nodes, sorted by (cell, node) packed in a single long, nodes without
+        // position being placed after the last cell.
+        final int lastCell = nbCells;
+        long[] nodeKeys = new long[nbNodes];
+        IntStream.range(0, nbNodes).parallel().forEach(node -> {
+            long cell = hasPosition(node)
+                    ? getCell(graph.getLongitude(node) * this.scale, graph.getLatitude(node))
+                    : lastCell;
+            nodeKeys[node] = (cell << 32) | node;
+        });
+        Arrays.parallelSort(nodeKeys);
+        this.nodes = new int[nbIndexed];
+        this.nodeX = new float[nbIndexed];
+        this.nodeY = new float[nbIndexed];
+        IntStream.range(0, nbIndexed).parallel().forEach(i -> {
+            int node = (int) nodeKeys[i];
+            this.nodes[i] = node;
+            this.nodeX[i] = (float) (graph.getLongitude(node) * this.scale);
+            this.nodeY[i] = graph.getLatitude(node);
+        });
+        this.firstNode = getFirstOfCells(nodeKeys, nbIndexed, nbCells);
+
+        // Arc and origin of each record.
+        final int nbRecords = graph.getRecordCount();
+        this.recordArc = new int[nbRecords];
+        this.recordOrigin = new int[nbRecords];
+        IntStream.range(0, nbNodes).parallel().forEach(node -> {
+            for (int arc = graph.getFirstArc(node); arc < graph.getFirstArc(node + 1); ++arc) {
+                if (!graph.isReversed(arc)) {
+                    this.recordArc[graph.getRecord(arc)] = arc;
+                    this.recordOrigin[graph.getRecord(arc)] = node;
+                }
+            }
+        });
+
+        // Number of cells crossed by the segments of each record, cells shared by
+        // consecutive segments being counted several times. Records without
+        // position cross no cell.
+        long[] offsets = new long[nbRecords + 1];
+        IntStream.range(0, nbRecords).parallel().forEach(record -> {
+            offsets[record + 1] = addCells(record, null, 0);
+        });
+        Arrays.parallelPrefix(offsets, Long::sum);
+        if (offsets[nbRecords] > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Roads cross too many cells to be indexed.");
+        }
+
+        // Records, sorted by (cell, record), without duplicates.
+        long[] recordKeys = new long[(int) offsets[nbRecords]];
+        IntStream.range(0, nbRecords).parallel()
+                .forEach(record -> addCells(record, recordKeys, (int) offsets[record]));
+        Arrays.parallelSort(recordKeys);
+        int nbEntries = 0;
+        for (int i = 0; i < recordKeys.length; ++i) {
+            if (i == 0 || recordKeys[i] != recordKeys[i - 1]) {
+                recordKeys[nbEntries++] = recordKeys[i];
+            }
+        }
+        this.records = new int[nbEntries];
+        IntStream.range(0, nbEntries).parallel()
+                .forEach(i -> this.records[i] = (int) recordKeys[i]);
+        this.firstRecord = getFirstOfCells(recordKeys, nbEntries, nbCells);
+    }
+
+    /**
+     * @return Number of indexed nodes.
+     */
+    public int size() {
+        return this.nodes.length;
+    }
+
+    /**
+     * Find the node closest to the given position.
+     *
+     * @param longitude Longitude of the position.
+     * @param latitude Latitude of the position.
+     *
+     * @return Index of the closest node, or -1 if no node is indexed.
+     */
+    public int findNearest(float longitude, float latitude) {
+        int[] nearest = findNearest(longitude, latitude, 1);
+        return nearest.length == 0 ? -1 : nearest[0];
+    }
+
+    /**
+     * Find the k nodes closest to the given position.
+     *
+     * @param longitude Longitude of the position.
+     * @param latitude Latitude of the position.
+     * @param k Number of nodes to find.
+     *
+     * @return Indices of the min(k, {@link #size()}) closest nodes, sorted by
+     *         increasing distance.
+     *
+     * @throws IllegalArgumentException if k is negative.
+     */
+    public int[] findNearest(float longitude, float latitude, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("The number of nodes must be non-negative.");
+        }
+        k = Math.min(k, size());
+        final double x = longitude * this.scale, y = latitude;
+        final int column = getColumn(x), row = getRow(y);
+
+        // Closest nodes found so far, sorted by (squared) distance.
+        int[] nearest = new int[k];
+        double[] distances = new double[k];
+        int count = 0;
+        for (int ring = 0; k > 0 && ring <= getLastRing(column, row); ++ring) {
+            if (count == k && square(getLowerBound(x, y, column, row, ring)) > distances[k - 1]) {
+                break;
+            }
+            for (int cell: getRing(column, row, ring)) {
+                for (int i = this.firstNode[cell]; i < this.firstNode[cell + 1]; ++i) {
+                    double distance = square(this.nodeX[i] - x) + square(this.nodeY[i] - y);
+                    if (count < k || distance < distances[count - 1]) {
+                        // Insertion in the sorted arrays.
+                        int j = count < k ? count++ : count - 1;
+                        for (; j > 0 && distances[j - 1] > distance; --j) {
+                            nearest[j] = nearest[j - 1];
+                            distances[j] = distances[j - 1];
+                        }
+                        nearest[j] = this.nodes[i];
+                        distances[j] = distance;
+                    }
+                }
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Find the nodes within the given distance of the given position.
+     *
+     * @param longitude Longitude of the position.
+     * @param latitude Latitude of the position.
+     * @param radius Maximum distance (in meters).
+     *
+     * @return Indices of the nodes within the given distance, sorted by increasing
+     *         distance.
+     */
+    public int[] findWithin(float longitude, float latitude, double radius) {
+        final double x = longitude * this.scale, y = latitude;
+        final double maxDistance = square(radius / METERS_PER_DEGREE);
+        final int column = getColumn(x), row = getRow(y);
+
+        // Nodes found, with their (squared) distance as a float packed in the high
+        // bits, since the bits of positive floats are ordered as the floats.
+        long[] found = new long[16];
+        int count = 0;
+        for (int ring = 0; ring <= getLastRing(column, row); ++ring) {
+            if (square(getLowerBound(x, y, column, row, ring)) > maxDistance) {
+                break;
+            }
+            for (int cell: getRing(column, row, ring)) {
+                for (int i = this.firstNode[cell]; i < this.firstNode[cell + 1]; ++i) {
+                    double distance = square(this.nodeX[i] - x) + square(this.nodeY[i] - y);
+                    if (distance <= maxDistance) {
+                        if (count == found.length) {
+                            found = Arrays.copyOf(found, 2 * count);
+                        }
+                        found[count++] = ((long) Float.floatToIntBits((float) distance) << 32)
+                                | this.nodes[i];
+                    }
+                }
+            }
+        }
+        Arrays.sort(found, 0, count);
+        int[] within = new int[count];
+        for (int i = 0; i < count; ++i) {
+            within[i] = (int) found[i];
+        }
+        return within;
+    }
+
+    /**
+     * Project the given position on the geometry of the closest road, i.e. on the
+     * closest segment of the points of an arc (see {@link Arc#getPoints()}).
+     *
+     * @param longitude Longitude of the position.
+     * @param latitude Latitude of the position.
+     *
+     * @return Projection of the position, or null if the graph has no road.
+     */
+    public Projection project(float longitude, float latitude) {
+        final double x = longitude * this.scale, y = latitude;
+        final int column = getColumn(x), row = getRow(y);
+
+        // Closest segment found so far, with the projected point and the parameter
+        // of the projection on the segment.
+        double best = Double.POSITIVE_INFINITY, bestX = 0, bestY = 0, bestT = 0;
+        int bestRecord = -1, bestSegment = -1;
+        for (int ring = 0; ring <= getLastRing(column, row); ++ring) {
+            if (square(getLowerBound(x, y, column, row, ring)) > best) {
+                break;
+            }
+            for (int cell: getRing(column, row, ring)) {
+                for (int i = this.firstRecord[cell]; i < this.firstRecord[cell + 1]; ++i) {
+                    int record = this.records[i];
+                    double x1 = getX(record, 0), y1 = getY(record, 0);
+                    for (int segment = 0; segment < getPointCount(record) - 1; ++segment) {
+                        double x0 = x1, y0 = y1;
+                        x1 = getX(record, segment + 1);
+                        y1 = getY(record, segment + 1);
+                        double t = getProjection(x0, y0, x1, y1, x, y);
+                        double projectedX = x0 + t * (x1 - x0), projectedY = y0 + t * (y1 - y0);
+                        double distance = square(projectedX - x) + square(projectedY - y);
+                        if (distance < best) {
+                            best = distance;
+                            bestX = projectedX;
+                            bestY = projectedY;
+                            bestT = t;
+                            bestRecord = record;
+                            bestSegment = segment;
+                        }
+                    }
+                }
+            }
+        }
+        if (bestRecord == -1) {
+            return null;
+        }
+
+        double offset = bestT * getSegmentLength(bestRecord, bestSegment);
+        for (int segment = 0; segment < bestSegment; ++segment) {
+            offset += getSegmentLength(bestRecord, segment);
+        }
+        return new Projection(this.recordOrigin[bestRecord], this.recordArc[bestRecord],
+                new Point((float) (bestX / this.scale), (float) bestY),
+                Math.sqrt(best) * METERS_PER_DEGREE, offset * METERS_PER_DEGREE);
+    }
+
+    /**
+     * Compute the distance between a position and a node, with the projection
+     * used by this index.
+     *
+     * @param longitude Longitude of the position.
+     * @param latitude Latitude of the position.
+     * @param node Index of a node with a position.
+     *
+     * @return Distance between the position and the node (in meters).
+     */
+    public double getDistance(float longitude, float latitude, int node) {
+        return Math.sqrt(square((this.graph.getLongitude(node) - longitude) * this.scale)
+                + square(this.graph.getLatitude(node) - latitude)) * METERS_PER_DEGREE;
+    }
+
+    /**
+     * @return Index of the first entry of each cell, from keys sorted by cell
+     *         (stored in the high bits).
+     */
+    private static int[] getFirstOfCells(long[] keys, int nbKeys, int nbCells) {
+        int[] first = new int[nbCells + 1];
+        for (int i = 0; i < nbKeys; ++i) {
+            ++first[(int) (keys[i] >>> 32) + 1];
+        }
+        for (int cell = 0; cell < nbCells; ++cell) {
+            first[cell + 1] += first[cell];
+        }
+        return first;
+    }
+
+    private static double square(double value) {
+        return value * value;
+    }
+
+    private boolean hasPosition(int node) {
+        return !Float.isNaN(this.graph.getLongitude(node))
+                && !Float.isNaN(this.graph.getLatitude(node));
+    }
+
+    /**
+     * @return Column of the given projected longitude, clamped to the grid.
+     */
+    private int getColumn(double x) {
+        return Math.max(0, Math.min(this.nbColumns - 1, (int) ((x - this.minX) / this.cellSize)));
+    }
+
+    /**
+     * @return Row of the given latitude, clamped to the grid.
+     */
+    private int getRow(double y) {
+        return Math.max(0, Math.min(this.nbRows - 1, (int) ((y - this.minY) / this.cellSize)));
+    }
+
+    private int getCell(double x, double y) {
+        return getRow(y) * this.nbColumns + getColumn(x);
+    }
+
+    /**
+     * @return Index of the last ring around the given cell that contains cells of
+     *         the grid.
+     */
+    private int getLastRing(int column, int row) {
+        return Math.max(Math.max(column, this.nbColumns - 1 - column),
+                Math.max(row, this.nbRows - 1 - row));
+    }
+
+    /**
+     * @return Cells of the grid whose distance to the given cell (in cells,
+     *         diagonals included) is the given ring.
+     */
+    private int[] getRing(int column, int row, int ring) {
+        int[] cells = new int[ring == 0 ? 1 : 8 * ring];
+        int count = 0;
+        for (int r = Math.max(0, row - ring); r <= Math.min(this.nbRows - 1, row + ring); ++r) {
+            // Only the first and last cells of the inner rows are on the ring.
+            int step = r == row - ring || r == row + ring ? 1 : 2 * ring;
+            for (int c = column - ring; c <= column + ring; c += step) {
+                if (c >= 0 && c < this.nbColumns) {
+                    cells[count++] = r * this.nbColumns + c;
+                }
+            }
+        }
+        return count == cells.length ? cells : Arrays.copyOf(cells, count);
+    }
+
+    /**
+     * @return Lower bound of the distance between the given position and the
+     *         cells of the given ring around the cell of the position, i.e. the
+     *         distance to the border of the previous rings (on the sides that have
+     *         cells beyond).
+     */
+    private double getLowerBound(double x, double y, int column, int row, int ring) {
+        if (ring == 0) {
+            return 0;
+        }
+        double bound = Double.POSITIVE_INFINITY;
+        if (column - ring >= 0) {
+            bound = Math.min(bound, x - (this.minX + (column - ring + 1) * this.cellSize));
+        }
+        if (column + ring < this.nbColumns) {
+            bound = Math.min(bound, this.minX + (column + ring) * this.cellSize - x);
+        }
+        if (row - ring >= 0) {
+            bound = Math.min(bound, y - (this.minY + (row - ring + 1) * this.cellSize));
+        }
+        if (row + ring < this.nbRows) {
+            bound = Math.min(bound, this.minY + (row + ring) * this.cellSize - y);
+        }
+        return Math.max(0, bound);
+    }
+
+    /**
+     * Add the (cell, record) keys of the cells crossed by the segments of the
+     * given record. Each segment is walked column by column, and added to the
+     * rows covered by its part inside the column, so that a long road only
+     * crosses a number of cells proportional to its length.
+     *
+     * @param record Index of the record.
+     * @param keys Array of keys, or null to only count the cells.
+     * @param entry Index of the first key of the record in the array.
+     *
+     * @return Index following the last key of the record (i.e. the number of
+     *         cells when counting from 0).
+     */
+    private int addCells(int record, long[] keys, int entry) {
+        if (!hasPosition(this.recordOrigin[record])
+                || !hasPosition(this.graph.getHead(this.recordArc[record]))) {
+            return entry;
+        }
+        for (int segment = 0; segment < getPointCount(record) - 1; ++segment) {
+            double x0 = getX(record, segment), y0 = getY(record, segment),
+                    x1 = getX(record, segment + 1), y1 = getY(record, segment + 1);
+            if (x0 > x1) {
+                double x = x0, y = y0;
+                x0 = x1;
+                y0 = y1;
+                x1 = x;
+                y1 = y;
+            }
+            final int firstColumn = getColumn(x0), lastColumn = getColumn(x1);
+            for (int column = firstColumn; column <= lastColumn; ++column) {
+                // Latitudes of the segment on the borders of the column.
+                double left = y0, right = y1;
+                if (x1 > x0) {
+                    double slope = (y1 - y0) / (x1 - x0);
+                    if (column > firstColumn) {
+                        left = y0 + slope * (this.minX + column * this.cellSize - x0);
+                    }
+                    if (column < lastColumn) {
+                        right = y0 + slope * (this.minX + (column + 1) * this.cellSize - x0);
+                    }
+                }
+                int lastRow = getRow(Math.max(left, right));
+                for (int row = getRow(Math.min(left, right)); row <= lastRow; ++row) {
+                    if (keys != null) {
+                        keys[entry] = ((long) (row * this.nbColumns + column) << 32) | record;
+                    }
+                    ++entry;
+                }
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * @return Number of points of the given record, from its origin to its
+     *         destination.
+     */
+    private int getPointCount(int record) {
+        return 2 + (this.graph.getGeometryOffset(record + 1) - this.graph.getGeometryOffset(record))
+                / 2;
+    }
+
+    /**
+     * @return Projected longitude of the given point of the given record.
+     */
+    private double getX(int record, int point) {
+        if (point == 0) {
+            return this.graph.getLongitude(this.recordOrigin[record]) * this.scale;
+        }
+        if (point == getPointCount(record) - 1) {
+            return this.graph.getLongitude(this.graph.getHead(this.recordArc[record]))
+                    * this.scale;
+        }
+        return this.graph.getGeometry(this.graph.getGeometryOffset(record) + 2 * (point - 1))
+                * this.scale;
+    }
+
+    /**
+     * @return Latitude of the given point of the given record.
+     */
+    private double getY(int record, int point) {
+        if (point == 0) {
+            return this.graph.getLatitude(this.recordOrigin[record]);
+        }
+        if (point == getPointCount(record) - 1) {
+            return this.graph.getLatitude(this.graph.getHead(this.recordArc[record]));
+        }
+        return this.graph.getGeometry(this.graph.getGeometryOffset(record) + 2 * (point - 1) + 1);
+    }
+
+    /**
+     * @return Parameter (between 0 and 1) of the projection of the given position
+     *         on the segment between (x0, y0) and (x1, y1).
+     */
+    private static double getProjection(double x0, double y0, double x1, double y1, double x,
+            double y) {
+        double dx = x1 - x0, dy = y1 - y0;
+        double length = dx * dx + dy * dy;
+        if (!(length > 0)) {
+            return 0;
+        }
+        return Math.max(0, Math.min(1, ((x - x0) * dx + (y - y0) * dy) / length));
+    }
+
+    /**
+     * @return Length of the given segment of the given record, in projected
+     *         degrees.
+     */
+    private double getSegmentLength(int record, int segment) {
+        return Math.sqrt(square(getX(record, segment + 1) - getX(record, segment))
+                + square(getY(record, segment + 1) - getY(record, segment)));
+    }
+
+}
@@ -0,0 +1,270 @@
+package org.insa.graphs.model.io;
+
+import static org.insa.graphs.model.io.BinaryCompactGraphWriter.*;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.insa.graphs.model.AccessRestrictions;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.GraphStatistics;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.RoadInformation;
+import org.insa.graphs.model.AccessRestrictions.AccessMode;
+import org.insa.graphs.model.AccessRestrictions.AccessRestriction;
+import org.insa.graphs.model.GraphStatistics.BoundingBox;
+import org.insa.graphs.model.RoadInformation.RoadType;
+
+/**
+ * <p>
+ * Implementation of {@link GraphReader} to read graph in the compact format
+ * ({@code .mapcsr}) written by {@link BinaryCompactGraphWriter}.
+ * </p>
+ *
+ * <p>
+ * The sections of the file are memory-mapped and directly used as the storage
+ * of the {@link CompactGraph}, so reading a graph only parses the header and
+ * the metadata (road information), whatever the size of the graph. Pages are
+ * loaded lazily by the operating system and shared between processes mapping
+ * the same file.
+ * </p>
+ *
+ */
+public class BinaryCompactGraphReader implements GraphReader {
+
+    // Extension of compact graph files.
+    public static final String EXTENSION = ".mapcsr";
+
+    // Channel to read from.
+    private final FileChannel channel;
+
+    // true if the intermediate points of the arcs are mapped.
+    private final boolean readGeometry;
+
+    // List of observers
+    protected List<GraphReaderObserver> observers = new ArrayList<>();
+
+    /**
+     * Create a new BinaryCompactGraphReader that reads from the given channel.
+     * The mapping remains valid after the channel is closed.
+     *
+     * @param channel Channel to read from.
+     */
+    public BinaryCompactGraphReader(FileChannel channel) {
+        this(channel, true);
+    }
+
+    /**
+     * Create a new BinaryCompactGraphReader that reads from the given channel,
+     * possibly without mapping the geometry of the arcs. The mapping remains
+     * valid after the channel is closed.
+     *
+     * @param channel Channel to read from.
+     * @param readGeometry false to skip the intermediate points of the arcs, the
+     *        points of an arc being then only its origin and its destination.
+     */
+    public BinaryCompactGraphReader(FileChannel channel, boolean readGeometry) {
+        this.channel = channel;
+        this.readGeometry = readGeometry;
+    }
+
+    /**
+     * @param mapPath Path of a binary map file ({@code .mapgr}).
+     *
+     * @return Path of the compact graph file next to the given map file.
+     */
+    public static Path getSidecarPath(Path mapPath) {
+        String name = mapPath.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return mapPath.resolveSibling((dot < 0 ? name : name.substring(0, dot)) + EXTENSION);
+    }
+
+    /**
+     * Read the graph of the given binary map file ({@code .mapgr}) through its
+     * compact sidecar file. If the sidecar does not exist or is older than the map
+     * file, the map file is read with {@link BinaryGraphReader} and the sidecar is
+     * (re-)created, otherwise the sidecar is directly mapped.
+     *
+     * @param mapPath Path of the binary map file.
+     *
+     * @return The graph read.
+     *
+     * @throws IOException if an error occurs while reading or writing.
+     */
+    public static Graph readWithSidecar(Path mapPath) throws IOException {
+        Path sidecar = getSidecarPath(mapPath);
+        if (!Files.exists(sidecar) || Files.getLastModifiedTime(sidecar)
+                .compareTo(Files.getLastModifiedTime(mapPath)) < 0) {
+            Graph graph;
+            try (BinaryGraphReader reader = new BinaryGraphReader(new DataInputStream(
+                    new BufferedInputStream(Files.newInputStream(mapPath))))) {
+                graph = reader.read();
+            }
+
+            // Write to a temporary file first so that concurrent readers never see a
+            // partial sidecar.
+            Path temporary = sidecar.resolveSibling(
+                    sidecar.getFileName() + "." + ProcessHandle.current().pid() + ".tmp");
+            try (BinaryCompactGraphWriter writer = new BinaryCompactGraphWriter(
+                    FileChannel.open(temporary, StandardOpenOption.CREATE,
+                            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))) {
+                writer.writeGraph(graph);
+            }
+            Files.move(temporary, sidecar, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        }
+        try (BinaryCompactGraphReader reader = new BinaryCompactGraphReader(
+                FileChannel.open(sidecar, StandardOpenOption.READ))) {
+            return reader.read();
+        }
+    }
+
+    @Override
+    public void addObserver(GraphReaderObserver observer) {
+        observers.add(observer);
+    }
+
+    @Override
+    public Graph read() throws IOException {
+
+        // Read header.
+        if (channel.size() < HEADER_SIZE) {
+            throw new BadFormatException("Truncated compact graph file.");
+        }
+        ByteBuffer header = map(0, HEADER_SIZE);
+        if (header.getInt() != MAGIC_NUMBER) {
+            throw new BadMagicNumberException(header.getInt(0), MAGIC_NUMBER);
+        }
+        int version = header.getInt();
+        if (version != VERSION) {
+            throw new BadVersionException(version, VERSION);
+        }
+        final int nbNodes = header.getInt(), nbArcs = header.getInt(),
+                nbRecords = header.getInt(), nbDesc = header.getInt(),
+                geometrySize = header.getInt();
+        long[] offsets = new long[NB_SECTIONS];
+        for (int section = 0; section < NB_SECTIONS; ++section) {
+            offsets[section] = header.getLong(SECTIONS_POSITION + 8 * section);
+        }
+        if (offsets[METADATA] > channel.size()) {
+            throw new BadFormatException("Truncated compact graph file.");
+        }
+
+        // Map sections.
+        IntBuffer firstArc = map(offsets[FIRST_ARC], 4L * (nbNodes + 1)).asIntBuffer();
+        IntBuffer arcHead = map(offsets[ARC_HEAD], 4L * nbArcs).asIntBuffer();
+        FloatBuffer arcLength = map(offsets[ARC_LENGTH], 4L * nbArcs).asFloatBuffer();
+        IntBuffer arcDescriptor = map(offsets[ARC_DESCRIPTOR], 4L * nbArcs).asIntBuffer();
+        IntBuffer arcRecord = map(offsets[ARC_RECORD], 4L * nbArcs).asIntBuffer();
+        FloatBuffer longitude = map(offsets[LONGITUDE], 4L * nbNodes).asFloatBuffer();
+        FloatBuffer latitude = map(offsets[LATITUDE], 4L * nbNodes).asFloatBuffer();
+        IntBuffer recordGeometry;
+        FloatBuffer geometry;
+        if (this.readGeometry) {
+            recordGeometry = map(offsets[RECORD_GEOMETRY], 4L * (nbRecords + 1)).asIntBuffer();
+            geometry = map(offsets[GEOMETRY], 4L * geometrySize).asFloatBuffer();
+        }
+        else {
+            recordGeometry = IntBuffer.allocate(nbRecords + 1);
+            geometry = FloatBuffer.allocate(0);
+        }
+
+        // Read metadata.
+        ByteBuffer metadata = map(offsets[METADATA], channel.size() - offsets[METADATA]);
+        String mapId = readString(metadata);
+        String mapName = readString(metadata);
+        observers.forEach((observer) -> observer.notifyStartReading(mapId));
+
+        GraphStatistics statistics = readStatistics(metadata);
+
+        observers.forEach((observer) -> observer.notifyStartReadingDescriptors(nbDesc));
+        RoadInformation[] descs = new RoadInformation[nbDesc];
+        for (int descr = 0; descr < nbDesc; ++descr) {
+            final RoadInformation roadinf = readRoadInformation(metadata);
+            descs[descr] = roadinf;
+            observers.forEach((observer) -> observer.notifyNewDescriptorRead(roadinf));
+        }
+
+        CompactGraph compact = new CompactGraph(firstArc, arcHead, arcLength, arcDescriptor,
+                arcRecord, longitude, latitude, descs, recordGeometry, geometry);
+
+        observers.forEach((observer) -> observer.notifyEndReading());
+
+        return new Graph(mapId, mapName, compact, statistics);
+    }
+
+    /**
+     * Map a read-only region of the file.
+     */
+    private ByteBuffer map(long offset, long size) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, offset, size)
+                .order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Read a string written by {@link BinaryCompactGraphWriter}.
+     */
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Read graph statistics written by {@link BinaryCompactGraphWriter}.
+     */
+    private static GraphStatistics readStatistics(ByteBuffer buffer) {
+        if (buffer.get() == 0) {
+            return null;
+        }
+        Point topLeft = new Point(buffer.getFloat(), buffer.getFloat());
+        Point bottomRight = new Point(buffer.getFloat(), buffer.getFloat());
+        return new GraphStatistics(new BoundingBox(topLeft, bottomRight), buffer.getInt(),
+                buffer.getInt(), buffer.getInt(), buffer.getFloat());
+    }
+
+    /**
+     * Read road information written by {@link BinaryCompactGraphWriter}.
+     */
+    private static RoadInformation readRoadInformation(ByteBuffer buffer) {
+        RoadType type = RoadType.values()[buffer.get()];
+        boolean oneWay = buffer.get() != 0;
+        int maxSpeed = buffer.getInt();
+        // Restrictions are packed as in AccessRestrictions, unknown restrictions
+        // (-1) only being written for road information without restrictions.
+        long restrictions = 0;
+        boolean known = false;
+        for (AccessMode mode: AccessMode.values()) {
+            byte restriction = buffer.get();
+            known |= restriction >= 0;
+            restrictions |= (long) (restriction >= 0 ? restriction
+                    : AccessRestriction.UNKNOWN.ordinal()) << (4 * mode.ordinal());
+        }
+        AccessRestrictions access = known ? new AccessRestrictions(restrictions) : null;
+        return new RoadInformation(type, access, oneWay, maxSpeed, readString(buffer));
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+}
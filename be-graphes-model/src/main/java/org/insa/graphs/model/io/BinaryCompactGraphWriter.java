@@ -0,0 +1,266 @@
+package org.insa.graphs.model.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+import org.insa.graphs.model.AccessRestrictions;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.GraphStatistics;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.RoadInformation;
+import org.insa.graphs.model.AccessRestrictions.AccessMode;
+
+/**
+ * <p>
+ * Writer for the compact graph format ({@code .mapcsr}), which is the raw
+ * content of a {@link CompactGraph} and can be memory-mapped by
+ * {@link BinaryCompactGraphReader} without any parsing.
+ * </p>
+ *
+ * <p>
+ * A file starts with a fixed-size header containing the magic number, the
+ * version, the counts and the offset of each section. Sections contain the
+ * arrays of the compact graph in little-endian order, each one aligned on 8
+ * bytes. The last section contains the (small) metadata of the graph: map id,
+ * map name, statistics and road information.
+ * </p>
+ *
+ */
+public class BinaryCompactGraphWriter implements AutoCloseable, Closeable {
+
+    // Version and magic number of the format.
+    static final int VERSION = 1;
+    static final int MAGIC_NUMBER = 0x43535247;
+
+    // Size of the header (in bytes).
+    static final int HEADER_SIZE = 128;
+
+    // Index of the sections in the header.
+    static final int FIRST_ARC = 0, ARC_HEAD = 1, ARC_LENGTH = 2, ARC_DESCRIPTOR = 3,
+            ARC_RECORD = 4, LONGITUDE = 5, LATITUDE = 6, RECORD_GEOMETRY = 7, GEOMETRY = 8,
+            METADATA = 9, NB_SECTIONS = 10;
+
+    // Position of the section offsets in the header.
+    static final int SECTIONS_POSITION = 32;
+
+    // Size of the buffer used for writing (in bytes).
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    // Channel to write to.
+    private final WritableByteChannel channel;
+
+    // Buffer used for writing.
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE)
+            .order(ByteOrder.LITTLE_ENDIAN);
+
+    // Number of bytes written so far.
+    private long position = 0;
+
+    /**
+     * Create a new BinaryCompactGraphWriter that writes to the given channel.
+     *
+     * @param channel Channel to write to.
+     */
+    public BinaryCompactGraphWriter(WritableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Write the given graph.
+     *
+     * @param graph Graph to write.
+     *
+     * @throws IOException if an error occurs while writing.
+     */
+    public void writeGraph(Graph graph) throws IOException {
+        CompactGraph compact = graph.getCompactGraph();
+        final int nbNodes = compact.size(), nbArcs = compact.getArcCount(),
+                nbRecords = compact.getRecordCount();
+        final int geometrySize = compact.getGeometryOffset(nbRecords);
+
+        // Compute the offsets of the sections (in bytes).
+        long[] sizes = new long[NB_SECTIONS];
+        sizes[FIRST_ARC] = 4L * (nbNodes + 1);
+        sizes[ARC_HEAD] = sizes[ARC_LENGTH] = sizes[ARC_DESCRIPTOR] = sizes[ARC_RECORD] = 4L
+                * nbArcs;
+        sizes[LONGITUDE] = sizes[LATITUDE] = 4L * nbNodes;
+        sizes[RECORD_GEOMETRY] = 4L * (nbRecords + 1);
+        sizes[GEOMETRY] = 4L * geometrySize;
+        long[] offsets = new long[NB_SECTIONS];
+        long offset = HEADER_SIZE;
+        for (int section = 0; section < NB_SECTIONS; ++section) {
+            offsets[section] = offset;
+            offset = align(offset + sizes[section]);
+        }
+
+        // Header.
+        buffer.putInt(MAGIC_NUMBER);
+        buffer.putInt(VERSION);
+        buffer.putInt(nbNodes);
+        buffer.putInt(nbArcs);
+        buffer.putInt(nbRecords);
+        buffer.putInt(compact.getDescriptorCount());
+        buffer.putInt(geometrySize);
+        buffer.putInt(0);
+        for (long sectionOffset: offsets) {
+            buffer.putLong(sectionOffset);
+        }
+        pad(HEADER_SIZE);
+
+        // Nodes and arcs.
+        for (int node = 0; node <= nbNodes; ++node) {
+            ensureRemaining(4).putInt(compact.getFirstArc(node));
+        }
+        pad(offsets[ARC_HEAD]);
+        for (int arc = 0; arc < nbArcs; ++arc) {
+            ensureRemaining(4).putInt(compact.getHead(arc));
+        }
+        pad(offsets[ARC_LENGTH]);
+        for (int arc = 0; arc < nbArcs; ++arc) {
+            ensureRemaining(4).putFloat(compact.getLength(arc));
+        }
+        pad(offsets[ARC_DESCRIPTOR]);
+        for (int arc = 0; arc < nbArcs; ++arc) {
+            ensureRemaining(4).putInt(compact.getDescriptorIndex(arc));
+        }
+        pad(offsets[ARC_RECORD]);
+        for (int arc = 0; arc < nbArcs; ++arc) {
+            int record = compact.getRecord(arc);
+            ensureRemaining(4).putInt(compact.isReversed(arc) ? ~record : record);
+        }
+        pad(offsets[LONGITUDE]);
+        for (int node = 0; node < nbNodes; ++node) {
+            ensureRemaining(4).putFloat(compact.getLongitude(node));
+        }
+        pad(offsets[LATITUDE]);
+        for (int node = 0; node < nbNodes; ++node) {
+            ensureRemaining(4).putFloat(compact.getLatitude(node));
+        }
+
+        // Geometry.
+        pad(offsets[RECORD_GEOMETRY]);
+        for (int record = 0; record <= nbRecords; ++record) {
+            ensureRemaining(4).putInt(compact.getGeometryOffset(record));
+        }
+        pad(offsets[GEOMETRY]);
+        for (int i = 0; i < geometrySize; ++i) {
+            ensureRemaining(4).putFloat(compact.getGeometry(i));
+        }
+
+        // Metadata.
+        pad(offsets[METADATA]);
+        writeString(graph.getMapId());
+        writeString(graph.getMapName());
+        writeStatistics(graph.getGraphInformation());
+        for (int descr = 0; descr < compact.getDescriptorCount(); ++descr) {
+            writeRoadInformation(compact.getDescriptor(descr));
+        }
+
+        flush();
+    }
+
+    /**
+     * @return Smallest multiple of 8 greater or equal to the given offset.
+     */
+    private static long align(long offset) {
+        return (offset + 7) & ~7L;
+    }
+
+    /**
+     * Write zeros until the given offset is reached.
+     */
+    private void pad(long offset) throws IOException {
+        while (position + buffer.position() < offset) {
+            ensureRemaining(1).put((byte) 0);
+        }
+    }
+
+    /**
+     * Flush the buffer if it has less than the given number of bytes remaining.
+     *
+     * @return The buffer.
+     */
+    private ByteBuffer ensureRemaining(int size) throws IOException {
+        if (buffer.remaining() < size) {
+            flush();
+        }
+        return buffer;
+    }
+
+    /**
+     * Write the content of the buffer to the channel.
+     */
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Write a string as its length in bytes (or -1 for null) followed by its
+     * UTF-8 representation.
+     */
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            ensureRemaining(4).putInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ensureRemaining(4).putInt(bytes.length);
+        for (byte b: bytes) {
+            ensureRemaining(1).put(b);
+        }
+    }
+
+    /**
+     * Write graph statistics, preceded by a byte indicating if they are present.
+     */
+    private void writeStatistics(GraphStatistics statistics) throws IOException {
+        if (statistics == null) {
+            ensureRemaining(1).put((byte) 0);
+            return;
+        }
+        ensureRemaining(1).put((byte) 1);
+        ensureRemaining(16);
+        Point topLeft = statistics.getBoundingBox().getTopLeftPoint(),
+                bottomRight = statistics.getBoundingBox().getBottomRightPoint();
+        buffer.putFloat(topLeft.getLongitude());
+        buffer.putFloat(topLeft.getLatitude());
+        buffer.putFloat(bottomRight.getLongitude());
+        buffer.putFloat(bottomRight.getLatitude());
+        ensureRemaining(16);
+        buffer.putInt(statistics.getOneWayRoadCount());
+        buffer.putInt(statistics.getTwoWaysRoadCount());
+        buffer.putInt(statistics.getMaximumSpeed());
+        buffer.putFloat(statistics.getMaximumLength());
+    }
+
+    /**
+     * Write road information: type, one-way flag, maximum speed, restriction of
+     * each access mode (or -1 if unknown) and name.
+     */
+    private void writeRoadInformation(RoadInformation info) throws IOException {
+        ensureRemaining(6 + AccessMode.values().length);
+        buffer.put((byte) info.getType().ordinal());
+        buffer.put((byte) (info.isOneWay() ? 1 : 0));
+        buffer.putInt(info.getMaximumSpeed());
+        AccessRestrictions access = info.getAccessRestrictions();
+        for (AccessMode mode: AccessMode.values()) {
+            buffer.put((byte) (access == null ? -1 : access.getRestrictionFor(mode).ordinal()));
+        }
+        writeString(info.getName());
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+}
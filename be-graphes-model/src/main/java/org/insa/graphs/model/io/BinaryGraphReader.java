@@ -1,13 +1,21 @@
 package org.insa.graphs.model.io;
 
+import java.io.BufferedInputStream;
 import java.io.DataInputStream;
 import java.io.IOException;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
-import java.util.EnumMap;
+import java.util.Arrays;
 import java.util.List;
 
 import org.insa.graphs.model.AccessRestrictions;
 import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CompactGraph;
 import org.insa.graphs.model.Graph;
 import org.insa.graphs.model.GraphStatistics;
 import org.insa.graphs.model.Node;
@@ -26,11 +34,28 @@ public class BinaryGraphReader extends BinaryReader implements GraphReader {
 
     // Map version and magic number targeted for this reader.
     private static final int VERSION = 5;
-    private static final int MAGIC_NUMBER = 0x208BC3B3;
+    static final int MAGIC_NUMBER = 0x208BC3B3;
 
     // Length of the map id field (in bytes)
     protected static final int MAP_ID_FIELD_LENGTH = 32;
 
+    // The order of values inside this array is VERY IMPORTANT: For
+    // ACCESS_RESTRICTIONS, the order correspond to the 4 bits value (i.e. FORBIDDEN
+    // is 0 or PRIVATE is 2) - UKNOWN is not included because value above 6
+    // (FORESTRY) are all considered unknown.
+    static final AccessRestriction[] ACCESS_RESTRICTIONS = new AccessRestriction[] {
+            AccessRestriction.FORBIDDEN, AccessRestriction.ALLOWED, AccessRestriction.PRIVATE,
+            AccessRestriction.DESTINATION, AccessRestriction.DELIVERY, AccessRestriction.CUSTOMERS,
+            AccessRestriction.FORESTRY };
+
+    // The order of values inside this array is VERY IMPORTANT: The order is such
+    // that each 4-bits group of the long value is processed in the correct order,
+    // i.e. FOOT is processed first (4 lowest bits), and so on.
+    static final AccessMode[] ACCESS_MODES = new AccessMode[] { AccessMode.FOOT, null,
+            AccessMode.BICYCLE, AccessMode.SMALL_MOTORCYCLE, AccessMode.AGRICULTURAL,
+            AccessMode.MOTORCYCLE, AccessMode.MOTORCAR, AccessMode.HEAVY_GOODS, null,
+            AccessMode.PUBLIC_TRANSPORT };
+
     // List of observers
     protected List<GraphReaderObserver> observers = new ArrayList<>();
 
@@ -46,40 +71,23 @@ public class BinaryGraphReader extends BinaryReader implements GraphReader {
         // See the following for more information:
         // https://github.com/Holt59/OSM2Graph/blob/master/src/main/org/laas/osm2graph/model/AccessData.java
 
-        // The order of values inside this array is VERY IMPORTANT: For allRestrictions,
-        // the order correspond to the 4 bits value (i.e. FORBIDDEN is 0 or PRIVATE is
-        // 2) - UKNOWN is not included because value above 6 (FORESTRY) are all
-        // considered unknown.
-        final AccessRestriction[] allRestrictions = new AccessRestriction[] {
-                AccessRestriction.FORBIDDEN, AccessRestriction.ALLOWED, AccessRestriction.PRIVATE,
-                AccessRestriction.DESTINATION, AccessRestriction.DELIVERY,
-                AccessRestriction.CUSTOMERS, AccessRestriction.FORESTRY };
-
-        // The order of values inside this array is VERY IMPORTANT: The order is such
-        // that each 4-bits group of the long value is processed in the correct order,
-        // i.e. FOOT is processed first (4 lowest bits), and so on.
-        final AccessMode[] allModes = new AccessMode[] { AccessMode.FOOT, null, AccessMode.BICYCLE,
-                AccessMode.SMALL_MOTORCYCLE, AccessMode.AGRICULTURAL, AccessMode.MOTORCYCLE,
-                AccessMode.MOTORCAR, AccessMode.HEAVY_GOODS, null, AccessMode.PUBLIC_TRANSPORT };
-
-        // fill maps...
-        EnumMap<AccessMode, AccessRestriction> restrictions = new EnumMap<>(AccessMode.class);
-        long copyAccess = access;
-        for (AccessMode mode: allModes) {
-            if (mode == null) {
-                continue; // filling cells
-            }
-            int value = (int) (copyAccess & 0xf);
-            if (value < allRestrictions.length) {
-                restrictions.put(mode, allRestrictions[value]);
-            }
-            else {
-                restrictions.put(mode, AccessRestriction.UNKNOWN);
-            }
-            copyAccess = copyAccess >> 4;
-        }
+        // The restriction of each mode is stored on 4 bits in the order of
+        // AccessMode (filling cells of ACCESS_MODES are not stored), as an index in
+        // ACCESS_RESTRICTIONS, which only differs from the ordinal of the
+        // restriction for FORBIDDEN and ALLOWED (swapped) and for unknown values,
+        // so all the modes are converted at once.
+        long groups = access & 0xffff_ffffL;
 
-        return new AccessRestrictions(restrictions);
+        // Values above 7 are unknown (7 is already the ordinal of UNKNOWN).
+        long above = ((groups & 0x8888_8888L) >>> 3) * 0xf;
+        groups = (groups & ~above) | (0x7777_7777L & above);
+
+        // Swap 0 and 1, i.e. the values whose 3 highest bits are null: adding 7 to
+        // these bits sets the highest bit of the group unless they are null.
+        long highest = (groups >>> 1) & 0x7777_7777L;
+        groups ^= (~((highest + 0x7777_7777L) | highest) & 0x8888_8888L) >>> 3;
+
+        return new AccessRestrictions(groups);
     }
 
     /**
@@ -133,13 +141,76 @@ public class BinaryGraphReader extends BinaryReader implements GraphReader {
         return RoadType.UNCLASSIFIED;
     }
 
+    // true if the intermediate points of the arcs are read.
+    private final boolean readGeometry;
+
+    // Path of the map file and maximum number of cached pages if the geometry is
+    // loaded on demand, with the stream reading the file.
+    private final Path geometryPath;
+    private final int geometryCacheSize;
+    private final PositionInputStream positionStream;
+
     /**
      * Create a new BinaryGraphReader that read from the given input stream.
      * 
      * @param dis Input stream to read from.
      */
     public BinaryGraphReader(DataInputStream dis) {
+        this(dis, true);
+    }
+
+    /**
+     * Create a new BinaryGraphReader that read from the given input stream,
+     * possibly skipping the geometry of the arcs, which is only needed to draw
+     * the graph or to export paths.
+     * 
+     * @param dis Input stream to read from.
+     * @param readGeometry false to skip the intermediate points of the arcs, the
+     *        points of an arc being then only its origin and its destination.
+     */
+    public BinaryGraphReader(DataInputStream dis, boolean readGeometry) {
+        this(dis, readGeometry, null, 0, null);
+    }
+
+    /**
+     * Create a new BinaryGraphReader that read from the given file, whose
+     * geometry is only loaded on demand: the nodes, the arcs and the road
+     * information are read as usual, but the intermediate points of the arcs are
+     * read from the file when they are first retrieved. Points are read by pages
+     * of a few thousand points, at most the given number of pages being kept in
+     * memory. The file is kept open until the graph read is closed (see
+     * {@link Graph#close()}).
+     * 
+     * @param path Path of the file to read from.
+     * @param cacheSize Maximum number of pages of points kept in memory.
+     * 
+     * @throws IOException if the file cannot be opened.
+     */
+    public BinaryGraphReader(Path path, int cacheSize) throws IOException {
+        this(open(path, cacheSize), path, cacheSize);
+    }
+
+    private BinaryGraphReader(PositionInputStream positionStream, Path path, int cacheSize) {
+        this(new DataInputStream(positionStream), false, path, cacheSize, positionStream);
+    }
+
+    private BinaryGraphReader(DataInputStream dis, boolean readGeometry, Path geometryPath,
+            int geometryCacheSize, PositionInputStream positionStream) {
         super(MAGIC_NUMBER, VERSION, dis);
+        this.readGeometry = readGeometry;
+        this.geometryPath = geometryPath;
+        this.geometryCacheSize = geometryCacheSize;
+        this.positionStream = positionStream;
+    }
+
+    /**
+     * Open the given file after checking the given cache size.
+     */
+    private static PositionInputStream open(Path path, int cacheSize) throws IOException {
+        if (cacheSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive: " + cacheSize);
+        }
+        return new PositionInputStream(FileChannel.open(path, StandardOpenOption.READ));
     }
 
     @Override
@@ -176,8 +247,9 @@ public class BinaryGraphReader extends BinaryReader implements GraphReader {
         int[] nbSuccessors = new int[nbNodes];
         int nbTotalSuccessors = 0;
 
-        // Construct an array list with initial capacity of nbNodes.
-        ArrayList<Node> nodes = new ArrayList<Node>(nbNodes);
+        // Position of the nodes.
+        float[] longitudes = new float[nbNodes];
+        float[] latitudes = new float[nbNodes];
 
         // Read nodes.
         float minLongitude = Float.POSITIVE_INFINITY, minLatitude = Float.POSITIVE_INFINITY,
@@ -187,6 +259,8 @@ public class BinaryGraphReader extends BinaryReader implements GraphReader {
             // Read longitude / latitude.
             float longitude = ((float) dis.readInt()) / 1E6f;
             float latitude = ((float) dis.readInt()) / 1E6f;
+            longitudes[node] = longitude;
+            latitudes[node] = latitude;
 
             // Update minimum / maximum.
             minLongitude = Math.min(longitude, minLongitude);
@@ -198,10 +272,12 @@ public class BinaryGraphReader extends BinaryReader implements GraphReader {
             nbSuccessors[node] = dis.readUnsignedByte();
             nbTotalSuccessors += nbSuccessors[node];
 
-            // Create node.
-            final Node aNode = new Node(node, new Point(longitude, latitude));
-            nodes.add(aNode);
-            observers.forEach((observer) -> observer.notifyNewNodeRead(aNode));
+            // Notify observers with a standalone node, since the nodes of the graph
+            // only exist once the whole file has been read.
+            if (!observers.isEmpty()) {
+                final Node aNode = new Node(node, new Point(longitude, latitude));
+                observers.forEach((observer) -> observer.notifyNewNodeRead(aNode));
+            }
         }
 
         // Check format.
@@ -224,14 +300,28 @@ public class BinaryGraphReader extends BinaryReader implements GraphReader {
 
         // Check format.
         checkByteOrThrow(254);
+        final long recordsPosition = this.positionStream != null
+                ? this.positionStream.getPosition()
+                : -1;
+
+        // Read successors as records, a record is turned into one arc (one-way
+        // roads) or two arcs (two-ways roads).
+        final int nbRecords = nbTotalSuccessors;
+        int[] recordOrigin = new int[nbRecords];
+        int[] recordDestination = new int[nbRecords];
+        int[] recordDescriptor = new int[nbRecords];
+        float[] recordLength = new float[nbRecords];
+        int[] recordGeometry = new int[nbRecords + 1];
+        float[] geometry = new float[this.readGeometry ? 2 * nbRecords : 0];
+
+        // Number of outgoing arcs of each node (shifted by one).
+        int[] firstArc = new int[nbNodes + 1];
 
-        // Read successors and convert to arcs.
         float maxLength = 0;
-        final int copyNbTotalSuccesors = nbTotalSuccessors; // Stupid Java...
         int nbOneWayRoad = 0;
-        observers.forEach((observer) -> observer.notifyStartReadingArcs(copyNbTotalSuccesors));
-        for (int node = 0; node < nbNodes; ++node) {
-            for (int succ = 0; succ < nbSuccessors[node]; ++succ) {
+        observers.forEach((observer) -> observer.notifyStartReadingArcs(nbRecords));
+        for (int node = 0, record = 0; node < nbNodes; ++node) {
+            for (int succ = 0; succ < nbSuccessors[node]; ++succ, ++record) {
 
                 // Read target node number.
                 int destNode = this.read24bits();
@@ -249,53 +339,156 @@ public class BinaryGraphReader extends BinaryReader implements GraphReader {
                 }
                 maxLength = Math.max(length, maxLength);
 
-                length = Math.max(length, (float) Point.distance(nodes.get(node).getPoint(),
-                        nodes.get(destNode).getPoint()));
+                length = Math.max(length, (float) Point.distance(longitudes[node],
+                        latitudes[node], longitudes[destNode], latitudes[destNode]));
 
                 // Number of segments.
                 int nbSegments = dis.readUnsignedShort();
 
-                // Chain of points corresponding to the segments.
-                ArrayList<Point> points = new ArrayList<Point>(nbSegments + 2);
-                points.add(nodes.get(node).getPoint());
-
-                for (int seg = 0; seg < nbSegments; ++seg) {
-                    Point lastPoint = points.get(points.size() - 1);
-
-                    float dlon = (dis.readShort()) / 2.0e5f;
-                    float dlat = (dis.readShort()) / 2.0e5f;
-
-                    points.add(new Point(lastPoint.getLongitude() + dlon,
-                            lastPoint.getLatitude() + dlat));
+                // Chain of intermediate points corresponding to the segments (two
+                // shorts per point), skipped if the geometry is not read, but still
+                // counted if it is loaded on demand.
+                int offset = recordGeometry[record];
+                if (!this.readGeometry) {
+                    dis.skipNBytes(4L * nbSegments);
+                    if (this.geometryPath != null) {
+                        offset += 2 * nbSegments;
+                    }
+                }
+                else {
+                    if (offset + 2 * nbSegments > geometry.length) {
+                        geometry = Arrays.copyOf(geometry,
+                                Math.max(2 * geometry.length, offset + 2 * nbSegments));
+                    }
+                    float lastLongitude = longitudes[node], lastLatitude = latitudes[node];
+                    for (int seg = 0; seg < nbSegments; ++seg) {
+                        float dlon = (dis.readShort()) / 2.0e5f;
+                        float dlat = (dis.readShort()) / 2.0e5f;
+
+                        lastLongitude = lastLongitude + dlon;
+                        lastLatitude = lastLatitude + dlat;
+                        geometry[offset++] = lastLongitude;
+                        geometry[offset++] = lastLatitude;
+                    }
+                }
+                recordGeometry[record + 1] = offset;
+
+                recordOrigin[record] = node;
+                recordDestination[record] = destNode;
+                recordDescriptor[record] = descrNum;
+                recordLength[record] = length;
+
+                // Notify observers with a standalone arc (see nodes above).
+                if (!observers.isEmpty()) {
+                    final Arc arc = createArc(node, destNode, length, descs[descrNum],
+                            longitudes, latitudes, geometry, recordGeometry[record], offset);
+                    observers.forEach((observer) -> observer.notifyNewArcRead(arc));
                 }
 
-                points.add(nodes.get(destNode).getPoint());
-
-                RoadInformation info = descs[descrNum];
-                Node orig = nodes.get(node);
-                Node dest = nodes.get(destNode);
-
-                // Add successor to initial arc.
-                Arc arc = Node.linkNodes(orig, dest, length, info, points);
-                if (info.isOneWay()) {
+                firstArc[node + 1]++;
+                if (descs[descrNum].isOneWay()) {
                     nbOneWayRoad++;
                 }
-                observers.forEach((observer) -> observer.notifyNewArcRead(arc));
+                else {
+                    firstArc[destNode + 1]++;
+                }
             }
         }
 
         // Check format.
         checkByteOrThrow(253);
 
-        observers.forEach((observer) -> observer.notifyEndReading());
-
-        this.dis.close();
+        // Place arcs in compressed-sparse-row order. Records are processed in order
+        // so that arcs of each node are in the order in which they were read.
+        for (int node = 0; node < nbNodes; ++node) {
+            firstArc[node + 1] += firstArc[node];
+        }
+        final int nbArcs = firstArc[nbNodes];
+        int[] arcHead = new int[nbArcs];
+        float[] arcLength = new float[nbArcs];
+        int[] arcDescriptor = new int[nbArcs];
+        int[] arcRecord = new int[nbArcs];
+        int[] nextArc = Arrays.copyOf(firstArc, nbNodes);
+        for (int record = 0; record < nbRecords; ++record) {
+            int origin = recordOrigin[record], destination = recordDestination[record];
+
+            int arc = nextArc[origin]++;
+            arcHead[arc] = destination;
+            arcLength[arc] = recordLength[record];
+            arcDescriptor[arc] = recordDescriptor[record];
+            arcRecord[arc] = record;
+
+            if (!descs[recordDescriptor[record]].isOneWay()) {
+                arc = nextArc[destination]++;
+                arcHead[arc] = origin;
+                arcLength[arc] = recordLength[record];
+                arcDescriptor[arc] = recordDescriptor[record];
+                arcRecord[arc] = ~record;
+            }
+        }
 
-        return new Graph(mapId, mapName, nodes,
+        CompactGraph compactGraph;
+        if (this.geometryPath != null) {
+            int recordHeaderSize = getCurrentVersion() < 8 ? 10 : 12;
+            compactGraph = new CompactGraph(IntBuffer.wrap(firstArc), IntBuffer.wrap(arcHead),
+                    FloatBuffer.wrap(arcLength), IntBuffer.wrap(arcDescriptor),
+                    IntBuffer.wrap(arcRecord), FloatBuffer.wrap(longitudes),
+                    FloatBuffer.wrap(latitudes), descs, IntBuffer.wrap(recordGeometry),
+                    new PagedGeometry(this.geometryPath, recordsPosition, recordHeaderSize,
+                            recordOrigin, recordGeometry, longitudes, latitudes,
+                            this.geometryCacheSize));
+        }
+        else {
+            compactGraph = new CompactGraph(firstArc, arcHead, arcLength, arcDescriptor,
+                    arcRecord, longitudes, latitudes, descs, recordGeometry,
+                    Arrays.copyOf(geometry, recordGeometry[nbRecords]));
+        }
+        Graph graph = new Graph(mapId, mapName, compactGraph,
                 new GraphStatistics(
                         new BoundingBox(new Point(minLongitude, maxLatitude),
                                 new Point(maxLongitude, minLatitude)),
                         nbOneWayRoad, nbTotalSuccessors - nbOneWayRoad, maxSpeed, maxLength));
+
+        observers.forEach((observer) -> observer.notifyEndReading());
+
+        this.dis.close();
+
+        return graph;
+    }
+
+    /**
+     * Create an arc that is not linked to the graph being read, to notify
+     * observers about a record as soon as it is read.
+     *
+     * @param origin Origin of the record.
+     * @param destination Destination of the record.
+     * @param length Length of the record.
+     * @param info Road information of the record.
+     * @param longitudes Longitude of each node.
+     * @param latitudes Latitude of each node.
+     * @param geometry Geometry read so far.
+     * @param begin Offset of the intermediate points of the record in the
+     *        geometry.
+     * @param end Offset of the end of the intermediate points of the record (equal
+     *        to begin if the geometry is not read).
+     *
+     * @return A new arc from a standalone copy of the origin to a standalone copy
+     *         of the destination.
+     */
+    private Arc createArc(int origin, int destination, float length, RoadInformation info,
+            float[] longitudes, float[] latitudes, float[] geometry, int begin, int end) {
+        Point originPoint = new Point(longitudes[origin], latitudes[origin]),
+                destinationPoint = new Point(longitudes[destination], latitudes[destination]);
+        ArrayList<Point> points = new ArrayList<>(2 + (end - begin) / 2);
+        points.add(originPoint);
+        if (this.readGeometry) {
+            for (int index = begin; index < end; index += 2) {
+                points.add(new Point(geometry[index], geometry[index + 1]));
+            }
+        }
+        points.add(destinationPoint);
+        return Node.linkNodes(new Node(origin, originPoint),
+                new Node(destination, destinationPoint), length, info, points);
     }
 
     /**
@@ -320,4 +513,27 @@ public class BinaryGraphReader extends BinaryReader implements GraphReader {
                 dis.readUTF());
     }
 
+    /**
+     * Buffered stream reading from a file channel, whose position is used to
+     * locate the records in the file.
+     *
+     */
+    private static final class PositionInputStream extends BufferedInputStream {
+
+        // Channel to read from.
+        private final FileChannel channel;
+
+        PositionInputStream(FileChannel channel) {
+            super(Channels.newInputStream(channel));
+            this.channel = channel;
+        }
+
+        /**
+         * @return Position of the next byte to be read in the file.
+         */
+        synchronized long getPosition() throws IOException {
+            return this.channel.position() - (this.count - this.pos);
+        }
+    }
+
 }
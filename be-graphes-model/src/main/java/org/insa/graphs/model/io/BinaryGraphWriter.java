@@ -0,0 +1,242 @@
+package org.insa.graphs.model.io;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.EnumMap;
+
+import org.insa.graphs.model.AccessRestrictions;
+import org.insa.graphs.model.AccessRestrictions.AccessMode;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.RoadInformation;
+import org.insa.graphs.model.RoadInformation.RoadType;
+
+/**
+ * <p>
+ * Implementation of {@link GraphWriter} to write graphs in the binary format
+ * read by {@link BinaryGraphReader} ({@code .mapgr}), in its latest version.
+ * </p>
+ *
+ * <p>
+ * Each road of the graph is written once, as a successor of its origin, in the
+ * order of the records of the compact graph. Coordinates, lengths and
+ * intermediate points are converted back to the fixed-point values of the
+ * format, so that reading a written graph gives back the same graph. Values
+ * that cannot be represented in the format (e.g. a node with more than 255
+ * roads starting from it) are rejected with a {@link BadFormatException}.
+ * </p>
+ *
+ */
+public class BinaryGraphWriter extends BinaryWriter implements GraphWriter {
+
+    // Version of the written files.
+    static final int VERSION = 8;
+
+    // Size of the buffer used when writing to a channel (in bytes).
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    // Character of each road type, the first one of the reader being used when
+    // several characters correspond to the same type.
+    private static final EnumMap<RoadType, Character> ROAD_TYPES = new EnumMap<>(RoadType.class);
+
+    static {
+        for (char ch = 'a'; ch <= 'z'; ++ch) {
+            ROAD_TYPES.putIfAbsent(BinaryGraphReader.toRoadType(ch), ch);
+        }
+    }
+
+    /**
+     * Create a new BinaryGraphWriter that writes to the given output stream.
+     * 
+     * @param dos Output stream to write to.
+     */
+    public BinaryGraphWriter(DataOutputStream dos) {
+        super(dos);
+    }
+
+    /**
+     * Create a new BinaryGraphWriter that writes to the given channel through a
+     * buffer.
+     * 
+     * @param channel Channel to write to.
+     */
+    public BinaryGraphWriter(WritableByteChannel channel) {
+        this(new DataOutputStream(
+                new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE)));
+    }
+
+    /**
+     * Convert access restrictions to the value read by
+     * {@link BinaryGraphReader#toAccessInformation(long)}.
+     * 
+     * @param access Access restrictions to convert.
+     * 
+     * @return Value corresponding to the given restrictions, unknown restrictions
+     *         being written as 0xf.
+     */
+    protected static long toAccessValue(AccessRestrictions access) {
+        long value = 0;
+        int shift = 0;
+        for (AccessMode mode: BinaryGraphReader.ACCESS_MODES) {
+            if (mode == null) {
+                continue; // filling cells, skipped by the reader
+            }
+            long restriction = Arrays.asList(BinaryGraphReader.ACCESS_RESTRICTIONS)
+                    .indexOf(access.getRestrictionFor(mode));
+            value |= (restriction == -1 ? 0xf : restriction) << shift;
+            shift += 4;
+        }
+        return value;
+    }
+
+    @Override
+    public void writeGraph(Graph graph) throws IOException {
+        CompactGraph compact = graph.getCompactGraph();
+        final int nbNodes = compact.size(), nbDesc = compact.getDescriptorCount();
+
+        // Write magic number and version.
+        dos.writeInt(BinaryGraphReader.MAGIC_NUMBER);
+        dos.writeInt(VERSION);
+
+        // Write map id and name.
+        dos.write(Arrays.copyOf(graph.getMapId().getBytes("UTF-8"),
+                BinaryGraphReader.MAP_ID_FIELD_LENGTH));
+        dos.writeUTF(graph.getMapName() == null ? "" : graph.getMapName());
+
+        // Number of descriptors and nodes.
+        dos.writeInt(nbDesc);
+        dos.writeInt(nbNodes);
+
+        // Write nodes, with the number of roads starting from them.
+        for (int node = 0; node < nbNodes; ++node) {
+            int nbSuccessors = 0;
+            for (int arc = compact.getFirstArc(node); arc < compact.getFirstArc(node + 1); ++arc) {
+                nbSuccessors += compact.isReversed(arc) ? 0 : 1;
+            }
+            if (nbSuccessors > 0xff) {
+                throw new BadFormatException("Too many roads starting from node " + node + ".");
+            }
+            dos.writeInt(toFixedPoint(compact.getLongitude(node)));
+            dos.writeInt(toFixedPoint(compact.getLatitude(node)));
+            dos.writeByte(nbSuccessors);
+        }
+
+        // Check format.
+        dos.writeByte(255);
+
+        // Write descriptors.
+        for (int descr = 0; descr < nbDesc; ++descr) {
+            writeRoadInformation(compact.getDescriptor(descr));
+        }
+
+        // Check format.
+        dos.writeByte(254);
+
+        // Write roads.
+        for (int node = 0; node < nbNodes; ++node) {
+            for (int arc = compact.getFirstArc(node); arc < compact.getFirstArc(node + 1); ++arc) {
+                if (!compact.isReversed(arc)) {
+                    writeRecord(compact, node, arc);
+                }
+            }
+        }
+
+        // Check format.
+        dos.writeByte(253);
+
+        dos.flush();
+    }
+
+    /**
+     * @return Fixed-point value (in millionth of degree) of the given coordinate.
+     */
+    private static int toFixedPoint(float coordinate) {
+        // The reader converts the value to a float before dividing it, which is not
+        // exact for large values, so the closest value read as the given coordinate
+        // is searched around the rounded one.
+        int value = (int) Math.round(coordinate * 1e6);
+        for (int delta = 0; delta <= 8; ++delta) {
+            if (((float) (value + delta)) / 1E6f == coordinate) {
+                return value + delta;
+            }
+            if (((float) (value - delta)) / 1E6f == coordinate) {
+                return value - delta;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Write a 24-bits integer, checking that it can be represented.
+     */
+    private void write24bitsOrThrow(int value) throws IOException {
+        if (value < 0 || value > 0xffffff) {
+            throw new BadFormatException("Value " + value + " does not fit in 24 bits.");
+        }
+        write24bits(value);
+    }
+
+    /**
+     * Write the given road information.
+     */
+    private void writeRoadInformation(RoadInformation info) throws IOException {
+        int speed = Math.max(0, info.getMaximumSpeed()) / 5;
+        if (speed > 0x7f) {
+            throw new BadFormatException(
+                    "Maximum speed " + info.getMaximumSpeed() + " cannot be written.");
+        }
+        dos.writeByte(ROAD_TYPES.get(info.getType()));
+        dos.writeByte((info.isOneWay() ? 0x80 : 0) | speed);
+        dos.writeLong(toAccessValue(info.getAccessRestrictions() == null
+                ? new AccessRestrictions()
+                : info.getAccessRestrictions()));
+        dos.writeUTF(info.getName() == null ? "" : info.getName());
+    }
+
+    /**
+     * Write the road (record) of the given arc, which must not be reversed.
+     */
+    private void writeRecord(CompactGraph compact, int origin, int arc) throws IOException {
+        write24bitsOrThrow(compact.getHead(arc));
+        write24bitsOrThrow(compact.getDescriptorIndex(arc));
+
+        // The reader replaces lengths shorter than the distance between the nodes by
+        // the distance, so the written length must not exceed the actual one.
+        float length = compact.getLength(arc);
+        int value = (int) Math.round(length * 1000.0);
+        while (value / 1000.0f > length) {
+            --value;
+        }
+        dos.writeInt(value);
+
+        int record = compact.getRecord(arc);
+        int begin = compact.getGeometryOffset(record), end = compact.getGeometryOffset(record + 1);
+        int nbSegments = (end - begin) / 2;
+        if (nbSegments > 0xffff) {
+            throw new BadFormatException("Too many segments for an arc of node " + origin + ".");
+        }
+        dos.writeShort(nbSegments);
+
+        // Intermediate points are written as differences with the previous point,
+        // accumulated as the reader does to avoid drifting.
+        float lastLongitude = compact.getLongitude(origin),
+                lastLatitude = compact.getLatitude(origin);
+        for (int i = begin; i < end; i += 2) {
+            int dlon = (int) Math.round((compact.getGeometry(i) - lastLongitude) * 2.0e5);
+            int dlat = (int) Math.round((compact.getGeometry(i + 1) - lastLatitude) * 2.0e5);
+            if (dlon != (short) dlon || dlat != (short) dlat) {
+                throw new BadFormatException(
+                        "Segment too long for an arc of node " + origin + ".");
+            }
+            dos.writeShort(dlon);
+            dos.writeShort(dlat);
+            lastLongitude = lastLongitude + dlon / 2.0e5f;
+            lastLatitude = lastLatitude + dlat / 2.0e5f;
+        }
+    }
+
+}
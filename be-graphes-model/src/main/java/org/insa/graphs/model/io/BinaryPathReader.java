@@ -6,6 +6,7 @@ import java.util.ArrayList;
 
 import org.insa.graphs.model.Graph;
 import org.insa.graphs.model.Node;
+import org.insa.graphs.model.NodeOrdering;
 import org.insa.graphs.model.Path;
 
 /**
@@ -18,13 +19,31 @@ public class BinaryPathReader extends BinaryReader implements PathReader {
     protected static final int VERSION = 1;
     protected static final int MAGIC_NUMBER = 0xdecafe;
 
+    // Ordering of the nodes of the graph, or null if the graph has the original
+    // IDs.
+    private final NodeOrdering ordering;
+
     /**
      * Create a new BinaryPathReader that read from the given input stream.
      * 
      * @param dis Input stream to read from.
      */
     public BinaryPathReader(DataInputStream dis) {
+        this(dis, null);
+    }
+
+    /**
+     * Create a new BinaryPathReader that read from the given input stream a path
+     * of the original map, for a graph whose nodes have been renumbered by the
+     * given ordering.
+     * 
+     * @param dis Input stream to read from.
+     * @param ordering Ordering of the nodes of the graph, or null if the graph has
+     *        the original IDs.
+     */
+    public BinaryPathReader(DataInputStream dis, NodeOrdering ordering) {
         super(MAGIC_NUMBER, VERSION, dis);
+        this.ordering = ordering;
     }
 
     @Override
@@ -37,8 +56,10 @@ public class BinaryPathReader extends BinaryReader implements PathReader {
         // Read map ID and check against graph.
         String mapId = readFixedLengthString(BinaryGraphReader.MAP_ID_FIELD_LENGTH, "UTF-8");
 
-        if (!mapId.equals(graph.getMapId())) {
-            throw new MapMismatchException(mapId, graph.getMapId());
+        String graphMapId = ordering == null ? graph.getMapId()
+                : ordering.getOriginalMapId(graph.getMapId());
+        if (!mapId.equals(graphMapId)) {
+            throw new MapMismatchException(mapId, graphMapId);
         }
 
         // Number of nodes in the path (without first and last).
@@ -70,7 +91,8 @@ public class BinaryPathReader extends BinaryReader implements PathReader {
      * @throws IndexOutOfBoundsException if the node is not in the graph.
      */
     protected Node readNode(Graph graph) throws IOException {
-        return graph.get(dis.readInt());
+        int id = dis.readInt();
+        return graph.get(ordering == null ? id : ordering.getNewId(id));
     }
 
 }
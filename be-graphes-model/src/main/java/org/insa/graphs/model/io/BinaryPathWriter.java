@@ -5,6 +5,8 @@ import java.io.IOException;
 import java.util.Arrays;
 
 import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.NodeOrdering;
 import org.insa.graphs.model.Path;
 
 /**
@@ -13,13 +15,32 @@ import org.insa.graphs.model.Path;
  */
 public class BinaryPathWriter extends BinaryWriter implements PathWriter {
 
+    // Ordering of the nodes of the graph, or null if the graph has the original
+    // IDs.
+    private final NodeOrdering ordering;
+
     /**
      * Create a new BinaryPathWriter that writes to the given output stream.
      * 
      * @param dos Output stream to write to.
      */
     public BinaryPathWriter(DataOutputStream dos) {
+        this(dos, null);
+    }
+
+    /**
+     * Create a new BinaryPathWriter that writes to the given output stream paths
+     * of a graph whose nodes have been renumbered by the given ordering. Nodes are
+     * written with their original IDs and paths with the original map ID, so that
+     * the paths can be read on the original map.
+     * 
+     * @param dos Output stream to write to.
+     * @param ordering Ordering of the nodes of the graph, or null if the graph has
+     *        the original IDs.
+     */
+    public BinaryPathWriter(DataOutputStream dos, NodeOrdering ordering) {
         super(dos);
+        this.ordering = ordering;
     }
 
     @Override
@@ -29,8 +50,12 @@ public class BinaryPathWriter extends BinaryWriter implements PathWriter {
         dos.writeInt(BinaryPathReader.MAGIC_NUMBER);
         dos.writeInt(BinaryPathReader.VERSION);
 
-        // Write map id.
-        byte[] bytes = Arrays.copyOf(path.getGraph().getMapId().getBytes("UTF-8"),
+        // Write map id (of the original map if the graph has been reordered).
+        String mapId = path.getGraph().getMapId();
+        if (ordering != null) {
+            mapId = ordering.getOriginalMapId(mapId);
+        }
+        byte[] bytes = Arrays.copyOf(mapId.getBytes("UTF-8"),
                 BinaryGraphReader.MAP_ID_FIELD_LENGTH);
         dos.write(bytes);
 
@@ -38,17 +63,24 @@ public class BinaryPathWriter extends BinaryWriter implements PathWriter {
         dos.writeInt(path.getArcs().size() + 1);
 
         // Write origin / destination.
-        dos.writeInt(path.getOrigin().getId());
-        dos.writeInt(path.getDestination().getId());
+        dos.writeInt(getOriginalId(path.getOrigin()));
+        dos.writeInt(getOriginalId(path.getDestination()));
 
         // Write nodes.
-        dos.writeInt(path.getOrigin().getId());
+        dos.writeInt(getOriginalId(path.getOrigin()));
         for (Arc arc: path.getArcs()) {
-            dos.writeInt(arc.getDestination().getId());
+            dos.writeInt(getOriginalId(arc.getDestination()));
         }
 
         dos.flush();
         dos.close();
     }
 
+    /**
+     * @return ID of the given node in the original map.
+     */
+    private int getOriginalId(Node node) {
+        return ordering == null ? node.getId() : ordering.getOldId(node.getId());
+    }
+
 }
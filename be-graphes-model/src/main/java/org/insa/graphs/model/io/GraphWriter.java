@@ -0,0 +1,31 @@
+package org.insa.graphs.model.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import org.insa.graphs.model.Graph;
+
+/**
+ * Base interface that should be implemented by class used to write graphs.
+ *
+ */
+public interface GraphWriter extends AutoCloseable, Closeable {
+
+    /**
+     * Write the given graph.
+     * 
+     * @param graph Graph to write.
+     * 
+     * @throws IOException When an error occurs while writing the graph.
+     */
+    public void writeGraph(Graph graph) throws IOException;
+
+    /**
+     * Close this graph writer.
+     * 
+     * @throws IOException if an exception occurs while closing the writer.
+     * 
+     */
+    public void close() throws IOException;
+
+}
@@ -0,0 +1,236 @@
+package org.insa.graphs.model.io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.insa.graphs.model.CompactGraph;
+
+/**
+ * <p>
+ * Geometry of a graph read from a binary map file ({@code .mapgr}) on demand,
+ * for graphs read by {@link BinaryGraphReader} without their geometry.
+ * </p>
+ *
+ * <p>
+ * The geometry is split in pages of {@link #PAGE_SIZE} values, which are
+ * decoded from the file when one of their values is first retrieved and kept
+ * in a bounded cache. The position of the points of each record in the file is
+ * computed from the offsets of the records in the geometry, since the records
+ * only differ by their number of points.
+ * </p>
+ *
+ * <p>
+ * The map file is kept open until the geometry is closed (see
+ * {@link CompactGraph#close()}), pages being read with positional reads, which
+ * can be done by several threads at once. Since a thread interrupted during a
+ * read closes the channel, the file is reopened if the channel has been closed
+ * by another thread.
+ * </p>
+ *
+ */
+final class PagedGeometry implements CompactGraph.Geometry {
+
+    // Number of values (i.e. half the number of points) in a page.
+    static final int PAGE_SIZE = 1 << 12;
+
+    // Page of the geometry, never modified once loaded.
+    private static final class Page {
+
+        final int number;
+        final float[] values;
+
+        Page(int number, float[] values) {
+            this.number = number;
+            this.values = values;
+        }
+    }
+
+    // Path of the map file.
+    private final Path path;
+
+    // Position of the first record in the file, and size of a record without its
+    // points (in bytes).
+    private final long recordsPosition;
+    private final int recordHeaderSize;
+
+    // Origin of each record, and offset of its intermediate points in the
+    // geometry (size: nbRecords + 1).
+    private final int[] recordOrigin, recordGeometry;
+
+    // Position of the nodes, shared with the compact graph.
+    private final float[] longitudes, latitudes;
+
+    // Cached pages, page p being cached in slot (p % pages.length). Slots are
+    // written by any thread loading a page, the atomic array making the pages
+    // safely visible to the other threads.
+    private final AtomicReferenceArray<Page> pages;
+
+    // Channel of the map file, and whether this geometry has been closed.
+    private FileChannel channel;
+    private boolean closed;
+
+    /**
+     * Create a new paged geometry for the given map file.
+     *
+     * @param path Path of the map file.
+     * @param recordsPosition Position of the first record in the file.
+     * @param recordHeaderSize Size of a record without its points.
+     * @param recordOrigin Origin of each record.
+     * @param recordGeometry Offset of the intermediate points of each record in
+     *        the geometry, followed by the size of the geometry.
+     * @param longitudes Longitude of each node.
+     * @param latitudes Latitude of each node.
+     * @param cacheSize Maximum number of pages kept in memory.
+     *
+     * @throws IOException if the map file cannot be opened.
+     */
+    PagedGeometry(Path path, long recordsPosition, int recordHeaderSize, int[] recordOrigin,
+            int[] recordGeometry, float[] longitudes, float[] latitudes, int cacheSize)
+            throws IOException {
+        if (cacheSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive: " + cacheSize);
+        }
+        this.path = path;
+        this.recordsPosition = recordsPosition;
+        this.recordHeaderSize = recordHeaderSize;
+        this.recordOrigin = recordOrigin;
+        this.recordGeometry = recordGeometry;
+        this.longitudes = longitudes;
+        this.latitudes = latitudes;
+        this.pages = new AtomicReferenceArray<>(cacheSize);
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+    }
+
+    @Override
+    public float get(int index) {
+        if (index < 0 || index >= this.recordGeometry[this.recordOrigin.length]) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        int number = index / PAGE_SIZE, slot = number % this.pages.length();
+        Page page = this.pages.get(slot);
+        if (page == null || page.number != number) {
+            page = load(number);
+            this.pages.set(slot, page);
+        }
+        return page.values[index - number * PAGE_SIZE];
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        this.closed = true;
+        this.channel.close();
+    }
+
+    /**
+     * @return Channel of the map file, reopened if it has been closed by an
+     *         interrupted thread.
+     *
+     * @throws ClosedChannelException if this geometry has been closed.
+     */
+    private synchronized FileChannel getChannel() throws IOException {
+        if (this.closed) {
+            throw new ClosedChannelException();
+        }
+        if (!this.channel.isOpen()) {
+            this.channel = FileChannel.open(this.path, StandardOpenOption.READ);
+        }
+        return this.channel;
+    }
+
+    /**
+     * @return Position of the points of the given record in the file.
+     */
+    private long getPosition(int record) {
+        return this.recordsPosition + (long) (record + 1) * this.recordHeaderSize
+                + 2L * this.recordGeometry[record];
+    }
+
+    /**
+     * @return true if this geometry has been closed.
+     */
+    private synchronized boolean isClosed() {
+        return this.closed;
+    }
+
+    /**
+     * Read the given page from the file.
+     */
+    private Page load(int number) {
+        final int nbRecords = this.recordOrigin.length;
+        final int begin = number * PAGE_SIZE,
+                end = Math.min(begin + PAGE_SIZE, this.recordGeometry[nbRecords]);
+
+        // First record whose points end after the beginning of the page.
+        int low = 0, high = nbRecords - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (this.recordGeometry[mid + 1] > begin) {
+                high = mid;
+            }
+            else {
+                low = mid + 1;
+            }
+        }
+        final int first = low;
+        int last = first;
+        while (this.recordGeometry[last + 1] < end) {
+            ++last;
+        }
+
+        // Read the records at once (points are two shorts, i.e. 4 bytes).
+        long start = getPosition(first);
+        ByteBuffer buffer = ByteBuffer.allocate((int) (getPosition(last)
+                + 2L * (this.recordGeometry[last + 1] - this.recordGeometry[last]) - start));
+        try {
+            while (buffer.hasRemaining()) {
+                int read;
+                try {
+                    read = getChannel().read(buffer, start + buffer.position());
+                }
+                catch (ClosedChannelException e) {
+                    // Closed by another thread (the channel is then reopened), unless
+                    // this thread has been interrupted or the geometry is closed.
+                    if (e instanceof ClosedByInterruptException || isClosed()) {
+                        throw e;
+                    }
+                    continue;
+                }
+                if (read < 0) {
+                    throw new BadFormatException("Truncated map file.");
+                }
+            }
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        // Decode the points as BinaryGraphReader does.
+        float[] values = new float[end - begin];
+        for (int record = first; record <= last; ++record) {
+            buffer.position((int) (getPosition(record) - start));
+            float lastLongitude = this.longitudes[this.recordOrigin[record]],
+                    lastLatitude = this.latitudes[this.recordOrigin[record]];
+            for (int index = this.recordGeometry[record]; index < this.recordGeometry[record
+                    + 1]; index += 2) {
+                float dlon = (buffer.getShort()) / 2.0e5f;
+                float dlat = (buffer.getShort()) / 2.0e5f;
+
+                lastLongitude = lastLongitude + dlon;
+                lastLatitude = lastLatitude + dlat;
+                if (index >= begin && index < end) {
+                    values[index - begin] = lastLongitude;
+                    values[index - begin + 1] = lastLatitude;
+                }
+            }
+        }
+        return new Page(number, values);
+    }
+
+}
@@ -0,0 +1,105 @@
+package org.insa.graphes.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+
+import org.insa.graphs.model.AccessRestrictions;
+import org.insa.graphs.model.AccessRestrictions.AccessMode;
+import org.insa.graphs.model.AccessRestrictions.AccessRestriction;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class AccessRestrictionsTest {
+
+    // Restrictions of a pedestrian street: allowed on foot, delivery for heavy
+    // goods vehicles, forbidden for the other vehicles, unknown for public
+    // transport.
+    private static AccessRestrictions restrictions;
+
+    @BeforeClass
+    public static void initAll() {
+        EnumMap<AccessMode, AccessRestriction> map = new EnumMap<>(AccessMode.class);
+        for (AccessMode mode: AccessMode.VEHICLE) {
+            map.put(mode, AccessRestriction.FORBIDDEN);
+        }
+        map.put(AccessMode.FOOT, AccessRestriction.ALLOWED);
+        map.put(AccessMode.HEAVY_GOODS, AccessRestriction.DELIVERY);
+        map.remove(AccessMode.PUBLIC_TRANSPORT);
+        restrictions = new AccessRestrictions(map);
+    }
+
+    @Test
+    public void testRestrictionFor() {
+        assertEquals(AccessRestriction.ALLOWED, restrictions.getRestrictionFor(AccessMode.FOOT));
+        assertEquals(AccessRestriction.FORBIDDEN,
+                restrictions.getRestrictionFor(AccessMode.MOTORCAR));
+        assertEquals(AccessRestriction.DELIVERY,
+                restrictions.getRestrictionFor(AccessMode.HEAVY_GOODS));
+        assertEquals(AccessRestriction.UNKNOWN,
+                restrictions.getRestrictionFor(AccessMode.PUBLIC_TRANSPORT));
+        for (AccessMode mode: AccessMode.values()) {
+            assertEquals(AccessRestriction.UNKNOWN,
+                    new AccessRestrictions().getRestrictionFor(mode));
+        }
+
+        assertTrue(restrictions.isAllowedFor(AccessMode.FOOT, AccessRestriction.ALLOWED));
+        assertFalse(restrictions.isAllowedFor(AccessMode.BICYCLE, AccessRestriction.ALLOWED));
+        assertTrue(restrictions.isAllowedForAny(AccessMode.HEAVY_GOODS,
+                AccessRestriction.ALLOWED_FOR_SOMETHING));
+        assertFalse(restrictions.isAllowedForAny(AccessMode.MOTORCAR,
+                AccessRestriction.ALLOWED_FOR_SOMETHING));
+    }
+
+    @Test
+    public void testAreAllAllowedForAny() {
+        EnumSet<AccessRestriction> open = EnumSet.of(AccessRestriction.ALLOWED,
+                AccessRestriction.DELIVERY);
+        assertTrue(restrictions.areAllAllowedForAny(
+                EnumSet.of(AccessMode.FOOT, AccessMode.HEAVY_GOODS), open));
+        assertFalse(restrictions.areAllAllowedForAny(
+                EnumSet.of(AccessMode.FOOT, AccessMode.MOTORCAR), open));
+        assertFalse(restrictions.areAllAllowedForAny(EnumSet.of(AccessMode.FOOT),
+                EnumSet.noneOf(AccessRestriction.class)));
+        assertTrue(restrictions.areAllAllowedForAny(EnumSet.noneOf(AccessMode.class), open));
+        assertTrue(restrictions.areAllAllowedForAny(AccessMode.ALL,
+                EnumSet.allOf(AccessRestriction.class)));
+    }
+
+    @Test
+    public void testPackedRestrictions() {
+        long packed = restrictions.getPackedRestrictions();
+        assertEquals(AccessRestriction.ALLOWED.ordinal(), packed & 0xf);
+        assertEquals(AccessRestriction.UNKNOWN.ordinal(), packed >>> 28);
+        AccessRestrictions copy = new AccessRestrictions(packed);
+        for (AccessMode mode: AccessMode.values()) {
+            assertEquals(restrictions.getRestrictionFor(mode), copy.getRestrictionFor(mode));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPackedRestrictions() {
+        new AccessRestrictions(0x8L);
+    }
+
+    @Test
+    public void testRestrictions() {
+        Map<AccessMode, AccessRestriction> map = restrictions.getRestrictions();
+        assertSame(map, restrictions.getRestrictions());
+        assertEquals(AccessMode.values().length, map.size());
+        for (AccessMode mode: AccessMode.values()) {
+            assertEquals(restrictions.getRestrictionFor(mode), map.get(mode));
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testUnmodifiableRestrictions() {
+        restrictions.getRestrictions().put(AccessMode.FOOT, AccessRestriction.FORBIDDEN);
+    }
+
+}
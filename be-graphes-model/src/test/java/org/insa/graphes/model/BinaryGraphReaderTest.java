@@ -0,0 +1,138 @@
+package org.insa.graphes.model;
+
+import static org.insa.graphes.model.BinaryGraphWriterTest.assertGraphEquals;
+import static org.insa.graphes.model.BinaryGraphWriterTest.read;
+import static org.insa.graphes.model.BinaryGraphWriterTest.write;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.insa.graphs.model.AccessRestrictions;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.RoadInformation;
+import org.insa.graphs.model.RoadInformation.RoadType;
+import org.insa.graphs.model.io.BinaryGraphReader;
+import org.junit.Test;
+
+public class BinaryGraphReaderTest {
+
+    @Test
+    public void testSkipGeometry() throws IOException {
+        RoadInformation info = new RoadInformation(RoadType.RESIDENTIAL, new AccessRestrictions(),
+                false, 30, "Avenue de Rangueil");
+        Node[] nodes = new Node[3];
+        for (int i = 0; i < nodes.length; ++i) {
+            nodes[i] = new Node(i, new Point(1.46f + 0.001f * i, 43.57f + 0.002f * i));
+        }
+        Node.linkNodes(nodes[0], nodes[1], 500, info, new ArrayList<>(Arrays.asList(
+                nodes[0].getPoint(), new Point(1.4605f, 43.5705f), nodes[1].getPoint())));
+        Node.linkNodes(nodes[1], nodes[2], 800, info, new ArrayList<>(Arrays.asList(
+                nodes[1].getPoint(), new Point(1.4615f, 43.5725f), new Point(1.4618f, 43.573f),
+                nodes[2].getPoint())));
+        Graph graph = new Graph("skip", "Skip", Arrays.asList(nodes), null);
+
+        Graph read;
+        try (BinaryGraphReader reader = new BinaryGraphReader(new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(write(graph)))), false)) {
+            read = reader.read();
+        }
+
+        // Arcs are read as usual, but only have their origin and destination.
+        CompactGraph compact = graph.getCompactGraph(), other = read.getCompactGraph();
+        assertEquals(compact.getArcCount(), other.getArcCount());
+        for (int node = 0; node < compact.size(); ++node) {
+            for (int arc = compact.getFirstArc(node); arc < compact.getFirstArc(node + 1); ++arc) {
+                assertEquals(compact.getHead(arc), other.getHead(arc));
+                assertEquals(compact.getLength(arc), other.getLength(arc), 1e-2);
+                assertEquals(2, other.getPoints(node, arc).size());
+            }
+        }
+        assertEquals(0, other.getGeometryOffset(other.getRecordCount()));
+    }
+
+    @Test
+    public void testLazyGeometry() throws IOException {
+        RoadInformation oneWay = new RoadInformation(RoadType.TRACK, new AccessRestrictions(),
+                true, 30, "Chemin des Etroits"),
+                twoWays = new RoadInformation(RoadType.RESIDENTIAL, new AccessRestrictions(),
+                        false, 30, "Avenue de Rangueil");
+        Node[] nodes = new Node[3];
+        for (int i = 0; i < nodes.length; ++i) {
+            nodes[i] = new Node(i, new Point(1.46f + 0.04f * i, 43.57f));
+        }
+
+        // Long winding roads, so that their points span several pages.
+        int[] sizes = { 3000, 2500, 5 };
+        for (int i = 0; i < nodes.length; ++i) {
+            Node origin = nodes[i], destination = nodes[(i + 1) % nodes.length];
+            ArrayList<Point> points = new ArrayList<>();
+            points.add(origin.getPoint());
+            for (int j = 1; j <= sizes[i]; ++j) {
+                points.add(new Point(origin.getPoint().getLongitude() + 1e-5f * j,
+                        43.57f + (j % 2 == 0 ? 1e-4f : -1e-4f)));
+            }
+            points.add(destination.getPoint());
+            Node.linkNodes(origin, destination, 5000, i < 2 ? oneWay : twoWays, points);
+        }
+        Path path = write(new Graph("lazy", "Lazy", Arrays.asList(nodes), null));
+
+        Graph expected = read(path), lazy;
+        try (BinaryGraphReader reader = new BinaryGraphReader(path, 1)) {
+            lazy = reader.read();
+        }
+        assertGraphEquals(expected, lazy, 0);
+
+        // Retrieve points backward, so that pages are loaded again.
+        CompactGraph compact = expected.getCompactGraph(), other = lazy.getCompactGraph();
+        for (int node = compact.size() - 1; node >= 0; --node) {
+            for (int arc = compact.getFirstArc(node); arc < compact.getFirstArc(node + 1); ++arc) {
+                List<Point> points = compact.getPoints(node, arc),
+                        otherPoints = other.getPoints(node, arc);
+                assertEquals(points.size(), otherPoints.size());
+                for (int i = points.size() - 1; i >= 0; --i) {
+                    assertEquals(points.get(i).getLongitude(), otherPoints.get(i).getLongitude(),
+                            0);
+                    assertEquals(points.get(i).getLatitude(), otherPoints.get(i).getLatitude(),
+                            0);
+                }
+            }
+        }
+
+        // Pages that are not cached can no longer be read once the graph is closed.
+        lazy.close();
+        try {
+            for (int node = 0; node < other.size(); ++node) {
+                for (int arc = other.getFirstArc(node); arc < other.getFirstArc(node + 1); ++arc) {
+                    for (Point point: other.getPoints(node, arc)) {
+                        point.getLongitude();
+                    }
+                }
+            }
+            fail("Expected the closed geometry to be unreadable.");
+        }
+        catch (UncheckedIOException e) {
+            assertTrue(e.getCause() instanceof ClosedChannelException);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLazyGeometryInvalidCacheSize() throws IOException {
+        new BinaryGraphReader(Paths.get("unused.mapgr"), 0);
+    }
+
+}
@@ -0,0 +1,260 @@
+package org.insa.graphes.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+
+import org.insa.graphs.model.AccessRestrictions;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.AccessRestrictions.AccessMode;
+import org.insa.graphs.model.AccessRestrictions.AccessRestriction;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.RoadInformation;
+import org.insa.graphs.model.RoadInformation.RoadType;
+import org.insa.graphs.model.io.BadFormatException;
+import org.insa.graphs.model.io.BinaryGraphReader;
+import org.insa.graphs.model.io.BinaryGraphWriter;
+import org.insa.graphs.model.io.GraphReaderObserver;
+import org.junit.Test;
+
+public class BinaryGraphWriterTest {
+
+    /**
+     * Write the given graph to a temporary file.
+     */
+    static Path write(Graph graph) throws IOException {
+        Path path = Files.createTempFile("graph", ".mapgr");
+        path.toFile().deleteOnExit();
+        try (BinaryGraphWriter writer = new BinaryGraphWriter(
+                FileChannel.open(path, StandardOpenOption.WRITE))) {
+            writer.writeGraph(graph);
+        }
+        return path;
+    }
+
+    /**
+     * Read the graph of the given file.
+     */
+    static Graph read(Path path) throws IOException {
+        try (BinaryGraphReader reader = new BinaryGraphReader(
+                new DataInputStream(new BufferedInputStream(Files.newInputStream(path))))) {
+            return reader.read();
+        }
+    }
+
+    /**
+     * Check that both graphs are equal, coordinates and lengths being compared
+     * with the given tolerance.
+     */
+    static void assertGraphEquals(Graph expected, Graph actual, double delta) {
+        assertEquals(expected.getMapId(), actual.getMapId());
+        assertEquals(expected.getMapName(), actual.getMapName());
+
+        CompactGraph compact = expected.getCompactGraph(), other = actual.getCompactGraph();
+        assertEquals(compact.size(), other.size());
+        assertEquals(compact.getArcCount(), other.getArcCount());
+        assertEquals(compact.getRecordCount(), other.getRecordCount());
+        for (int node = 0; node < compact.size(); ++node) {
+            assertEquals(compact.getFirstArc(node), other.getFirstArc(node));
+            assertEquals(compact.getLongitude(node), other.getLongitude(node), delta);
+            assertEquals(compact.getLatitude(node), other.getLatitude(node), delta);
+        }
+        for (int arc = 0; arc < compact.getArcCount(); ++arc) {
+            assertEquals(compact.getHead(arc), other.getHead(arc));
+            assertEquals(compact.getLength(arc), other.getLength(arc), 1000 * delta);
+            assertEquals(compact.isReversed(arc), other.isReversed(arc));
+
+            RoadInformation info = compact.getRoadInformation(arc),
+                    otherInfo = other.getRoadInformation(arc);
+            assertEquals(info.getType(), otherInfo.getType());
+            assertEquals(info.isOneWay(), otherInfo.isOneWay());
+            assertEquals(info.getMaximumSpeed(), otherInfo.getMaximumSpeed());
+            assertEquals(info.getName(), otherInfo.getName());
+            for (AccessMode mode: AccessMode.values()) {
+                assertEquals(info.getAccessRestrictions().getRestrictionFor(mode),
+                        otherInfo.getAccessRestrictions().getRestrictionFor(mode));
+            }
+
+            int record = compact.getRecord(arc), otherRecord = other.getRecord(arc);
+            assertEquals(compact.getGeometryOffset(record + 1) - compact.getGeometryOffset(record),
+                    other.getGeometryOffset(otherRecord + 1) - other.getGeometryOffset(otherRecord));
+            for (int i = 0; i < compact.getGeometryOffset(record + 1)
+                    - compact.getGeometryOffset(record); ++i) {
+                assertEquals(compact.getGeometry(compact.getGeometryOffset(record) + i),
+                        other.getGeometry(other.getGeometryOffset(otherRecord) + i), delta);
+            }
+        }
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        EnumMap<AccessMode, AccessRestriction> restrictions = new EnumMap<>(AccessMode.class);
+        for (AccessMode mode: AccessMode.values()) {
+            restrictions.put(mode, AccessRestriction.values()[mode.ordinal()
+                    % AccessRestriction.values().length]);
+        }
+        RoadInformation oneWay = new RoadInformation(RoadType.PRIMARY,
+                new AccessRestrictions(restrictions), true, 90, "Route de Narbonne"),
+                twoWays = new RoadInformation(RoadType.RESIDENTIAL, new AccessRestrictions(),
+                        false, 30, "Avenue de Rangueil");
+
+        Node[] nodes = new Node[4];
+        for (int i = 0; i < nodes.length; ++i) {
+            nodes[i] = new Node(i, new Point(1.46f + 0.001f * i, 43.57f + 0.002f * i));
+        }
+        Node.linkNodes(nodes[0], nodes[1], 500, twoWays, new ArrayList<>(Arrays.asList(
+                nodes[0].getPoint(), new Point(1.4605f, 43.5705f), nodes[1].getPoint())));
+        Node.linkNodes(nodes[2], nodes[0], 800, twoWays,
+                new ArrayList<>(Arrays.asList(nodes[2].getPoint(), nodes[0].getPoint())));
+        Node.linkNodes(nodes[1], nodes[3], 1000, oneWay,
+                new ArrayList<>(Arrays.asList(nodes[1].getPoint(), nodes[3].getPoint())));
+        Node.linkNodes(nodes[3], nodes[2], 600.5f, oneWay,
+                new ArrayList<>(Arrays.asList(nodes[3].getPoint(), nodes[2].getPoint())));
+        Graph graph = new Graph("round-trip", "Round trip", Arrays.asList(nodes), null);
+
+        Graph read = read(write(graph));
+        assertGraphEquals(graph, read, 1e-5);
+        assertEquals(2, read.getGraphInformation().getOneWayRoadCount());
+        assertEquals(2, read.getGraphInformation().getTwoWaysRoadCount());
+        assertEquals(90, read.getGraphInformation().getMaximumSpeed());
+    }
+
+    /**
+     * Check that the given map, if available (the test is skipped otherwise), is
+     * the same once written and read back.
+     */
+    private static void testMap(String map) throws IOException {
+        Path path = Paths.get(System.getProperty("user.dir"), "..", "maps", map + ".mapgr");
+        assumeTrue("Map not available: " + path, Files.exists(path));
+        Graph graph = read(path);
+        Path written = write(graph);
+        assertGraphEquals(graph, read(written), 0);
+
+        // Writing the graph read back gives the same file.
+        assertArrayEquals(Files.readAllBytes(written), Files.readAllBytes(write(read(written))));
+    }
+
+    @Test
+    public void testMapInsa() throws IOException {
+        testMap("insa");
+    }
+
+    @Test
+    public void testMapToulouse() throws IOException {
+        testMap("toulouse");
+    }
+
+    @Test
+    public void testMapHauteGaronne() throws IOException {
+        testMap("haute-garonne");
+    }
+
+    @Test
+    public void testMapFrenchPolynesia() throws IOException {
+        testMap("french-polynesia");
+    }
+
+    @Test
+    public void testMapMidiPyrenees() throws IOException {
+        testMap("midi-pyrenees");
+    }
+
+    @Test
+    public void testObservers() throws IOException {
+        RoadInformation info = new RoadInformation(RoadType.RESIDENTIAL, new AccessRestrictions(),
+                false, 30, "Avenue de Rangueil");
+        Node[] nodes = new Node[3];
+        for (int i = 0; i < nodes.length; ++i) {
+            nodes[i] = new Node(i, new Point(1.46f + 0.001f * i, 43.57f + 0.002f * i));
+        }
+        Node.linkNodes(nodes[0], nodes[1], 500, info, new ArrayList<>(Arrays.asList(
+                nodes[0].getPoint(), new Point(1.4605f, 43.5705f), nodes[1].getPoint())));
+        Node.linkNodes(nodes[2], nodes[1], 800, info, new ArrayList<>(Arrays.asList(
+                nodes[2].getPoint(), new Point(1.4618f, 43.573f), new Point(1.4615f, 43.5725f),
+                nodes[1].getPoint())));
+        Path path = write(new Graph("observed", "Observed", Arrays.asList(nodes), null));
+
+        // Elements are notified as they are read, i.e. before the next section.
+        List<String> events = new ArrayList<>();
+        try (BinaryGraphReader reader = new BinaryGraphReader(
+                new DataInputStream(new BufferedInputStream(Files.newInputStream(path))))) {
+            reader.addObserver(new GraphReaderObserver() {
+                @Override
+                public void notifyStartReading(String mapId) {
+                    events.add("start " + mapId);
+                }
+
+                @Override
+                public void notifyEndReading() {
+                    events.add("end");
+                }
+
+                @Override
+                public void notifyStartReadingNodes(int nNodes) {
+                    events.add("nodes " + nNodes);
+                }
+
+                @Override
+                public void notifyNewNodeRead(Node node) {
+                    events.add("node " + node.getId());
+                }
+
+                @Override
+                public void notifyStartReadingDescriptors(int nDesc) {
+                    events.add("descriptors " + nDesc);
+                }
+
+                @Override
+                public void notifyNewDescriptorRead(RoadInformation desc) {
+                    events.add("descriptor " + desc.getName());
+                }
+
+                @Override
+                public void notifyStartReadingArcs(int nArcs) {
+                    events.add("arcs " + nArcs);
+                }
+
+                @Override
+                public void notifyNewArcRead(Arc arc) {
+                    events.add("arc " + arc.getOrigin().getId() + " " + arc.getDestination().getId()
+                            + " " + arc.getPoints().size());
+                }
+            });
+            reader.read();
+        }
+        assertEquals(Arrays.asList("start observed", "nodes 3", "node 0", "node 1", "node 2",
+                "descriptors 1", "descriptor Avenue de Rangueil", "arcs 2", "arc 0 1 3",
+                "arc 1 2 4", "end"), events);
+    }
+
+    @Test(expected = BadFormatException.class)
+    public void testTooManySuccessors() throws IOException {
+        RoadInformation info = new RoadInformation(RoadType.RESIDENTIAL, new AccessRestrictions(),
+                true, 50, "");
+        Node[] nodes = new Node[300];
+        for (int i = 0; i < nodes.length; ++i) {
+            nodes[i] = new Node(i, new Point(1.46f, 43.57f));
+            if (i > 0) {
+                Node.linkNodes(nodes[0], nodes[i], 10, info, null);
+            }
+        }
+        write(new Graph("star", "Star", Arrays.asList(nodes), null));
+    }
+
+}
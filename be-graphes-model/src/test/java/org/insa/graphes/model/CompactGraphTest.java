@@ -0,0 +1,254 @@
+package org.insa.graphes.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.RoadInformation;
+import org.insa.graphs.model.RoadInformation.RoadType;
+import org.insa.graphs.model.io.BinaryCompactGraphReader;
+import org.insa.graphs.model.io.BinaryCompactGraphWriter;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class CompactGraphTest {
+
+    // Small graph use for tests
+    private static Graph graph;
+
+    // List of nodes
+    private static Node[] nodes;
+
+    @BeforeClass
+    public static void initAll() throws IOException {
+
+        // Create nodes
+        nodes = new Node[4];
+        for (int i = 0; i < nodes.length; ++i) {
+            nodes[i] = new Node(i, new Point(i, 2 * i));
+        }
+
+        RoadInformation oneWay = new RoadInformation(RoadType.UNCLASSIFIED, null, true, 1, null),
+                twoWays = new RoadInformation(RoadType.UNCLASSIFIED, null, false, 1, null);
+
+        Node.linkNodes(nodes[0], nodes[1], 10, twoWays, new ArrayList<>(
+                Arrays.asList(nodes[0].getPoint(), new Point(0.5f, 0.5f), nodes[1].getPoint())));
+        Node.linkNodes(nodes[2], nodes[0], 20, twoWays,
+                new ArrayList<>(Arrays.asList(nodes[2].getPoint(), nodes[0].getPoint())));
+        Node.linkNodes(nodes[1], nodes[3], 30, oneWay,
+                new ArrayList<>(Arrays.asList(nodes[1].getPoint(), nodes[3].getPoint())));
+        Node.linkNodes(nodes[3], nodes[2], 40, oneWay,
+                new ArrayList<>(Arrays.asList(nodes[3].getPoint(), nodes[2].getPoint())));
+
+        graph = new Graph("ID", "", Arrays.asList(nodes), null);
+    }
+
+    @Test
+    public void testFromNodes() {
+        CompactGraph compact = graph.getCompactGraph();
+
+        assertEquals(graph.size(), compact.size());
+        assertEquals(6, compact.getArcCount());
+        assertEquals(4, compact.getRecordCount());
+        assertEquals(2, compact.getDescriptorCount());
+
+        for (Node node: graph.getNodes()) {
+            assertEquals(node.getNumberOfSuccessors(), compact.getOutDegree(node.getId()));
+            int arc = compact.getFirstArc(node.getId());
+            for (Arc successor: node.getSuccessors()) {
+                assertEquals(successor.getDestination().getId(), compact.getHead(arc));
+                assertEquals(successor.getLength(), compact.getLength(arc), 0);
+                assertEquals(successor.getRoadInformation(), compact.getRoadInformation(arc));
+                assertEquals(successor, graph.getArc(node.getId(), arc));
+                ++arc;
+            }
+        }
+
+        // Both arcs of a two-ways road share the same record.
+        int arc01 = compact.getFirstArc(0), arc10 = compact.getFirstArc(1);
+        assertEquals(compact.getRecord(arc01), compact.getRecord(arc10));
+        assertTrue(compact.isReversed(arc01) != compact.isReversed(arc10));
+    }
+
+    @Test
+    public void testView() {
+        Graph view = new Graph("ID", "", graph.getCompactGraph(), null);
+
+        assertEquals(graph.size(), view.size());
+        for (Node node: graph.getNodes()) {
+            Node viewNode = view.get(node.getId());
+            assertEquals(node, viewNode);
+            assertEquals(node.getPoint().getLongitude(), viewNode.getPoint().getLongitude(), 0);
+            assertEquals(node.getPoint().getLatitude(), viewNode.getPoint().getLatitude(), 0);
+
+            List<Arc> successors = node.getSuccessors(),
+                    viewSuccessors = viewNode.getSuccessors();
+            assertEquals(successors.size(), viewSuccessors.size());
+            for (int i = 0; i < successors.size(); ++i) {
+                Arc arc = successors.get(i), viewArc = viewSuccessors.get(i);
+                assertEquals(arc.getOrigin(), viewArc.getOrigin());
+                assertEquals(arc.getDestination(), viewArc.getDestination());
+                assertEquals(arc.getLength(), viewArc.getLength(), 0);
+                assertEquals(arc.getPoints().size(), viewArc.getPoints().size());
+                for (int j = 0; j < arc.getPoints().size(); ++j) {
+                    assertEquals(arc.getPoints().get(j).getLongitude(),
+                            viewArc.getPoints().get(j).getLongitude(), 0);
+                    assertEquals(arc.getPoints().get(j).getLatitude(),
+                            viewArc.getPoints().get(j).getLatitude(), 0);
+                }
+            }
+        }
+
+        // Views of the same arc are equal, the view graph is its own compact graph.
+        assertEquals(view.get(0).getSuccessors().get(0), view.get(0).getSuccessors().get(0));
+        assertFalse(view.get(0).getSuccessors().get(0).equals(view.get(0).getSuccessors().get(1)));
+        assertTrue(view.getCompactGraph() == graph.getCompactGraph());
+    }
+
+    @Test
+    public void testPoints() {
+        CompactGraph compact = graph.getCompactGraph();
+        int arc01 = compact.getFirstArc(0), arc10 = compact.getFirstArc(1);
+
+        // Points of the two-ways road between 0 and 1, in both directions.
+        List<Point> points = compact.getPoints(0, arc01), reversed = compact.getPoints(1, arc10);
+        assertEquals(3, points.size());
+        assertEquals(3, reversed.size());
+        float[][] expected = { { 0, 0 }, { 0.5f, 0.5f }, { 1, 2 } };
+        for (int i = 0; i < expected.length; ++i) {
+            assertEquals(expected[i][0], points.get(i).getLongitude(), 0);
+            assertEquals(expected[i][1], points.get(i).getLatitude(), 0);
+            assertEquals(expected[i][0], reversed.get(2 - i).getLongitude(), 0);
+            assertEquals(expected[i][1], reversed.get(2 - i).getLatitude(), 0);
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testPointsUnmodifiable() {
+        CompactGraph compact = graph.getCompactGraph();
+        compact.getPoints(0, compact.getFirstArc(0)).add(new Point(0, 0));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testPointsOutOfBounds() {
+        CompactGraph compact = graph.getCompactGraph();
+        compact.getPoints(0, compact.getFirstArc(0)).get(3);
+    }
+
+    @Test
+    public void testTransposeView() {
+        Graph view = new Graph("ID", "", graph.getCompactGraph(), null);
+        Graph transpose = graph.transpose(), viewTranspose = view.transpose();
+        for (Node node: transpose.getNodes()) {
+            assertEquals(node.getNumberOfSuccessors(),
+                    viewTranspose.get(node.getId()).getNumberOfSuccessors());
+        }
+    }
+
+    @Test
+    public void testRenumber() {
+        // Reverse the order of the nodes and remove node 3 (and its arcs).
+        CompactGraph renumbered = graph.getCompactGraph().renumber(new int[] { 2, 1, 0, -1 });
+
+        assertEquals(3, renumbered.size());
+        assertEquals(4, renumbered.getArcCount());
+        assertEquals(2, renumbered.getRecordCount());
+        assertEquals(nodes[0].getPoint().getLongitude(), renumbered.getLongitude(2), 0);
+        assertEquals(nodes[2].getPoint().getLatitude(), renumbered.getLatitude(0), 0);
+
+        // Records are numbered by origin, arcs of each node are sorted by record.
+        int[] heads = { 2, 2, 1, 0 }, records = { 1, 0, 0, 1 };
+        boolean[] reversed = { true, true, false, false };
+        float[] lengths = { 20, 10, 10, 20 };
+        for (int arc = 0; arc < renumbered.getArcCount(); ++arc) {
+            assertEquals(heads[arc], renumbered.getHead(arc));
+            assertEquals(records[arc], renumbered.getRecord(arc));
+            assertEquals(reversed[arc], renumbered.isReversed(arc));
+            assertEquals(lengths[arc], renumbered.getLength(arc), 0);
+        }
+        assertEquals(1, renumbered.getOutDegree(1));
+
+        // Geometry follows the records.
+        List<Point> points = renumbered.getPoints(2, renumbered.getFirstArc(2));
+        assertEquals(3, points.size());
+        assertEquals(0.5f, points.get(1).getLongitude(), 0);
+        assertEquals(2, renumbered.getPoints(0, 0).size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRenumberInvalid() {
+        graph.getCompactGraph().renumber(new int[] { 0, 0, 1, 2 });
+    }
+
+    @Test
+    public void testMappedFile() throws IOException {
+        Path path = Files.createTempFile("graph", BinaryCompactGraphReader.EXTENSION);
+        path.toFile().deleteOnExit();
+        try (BinaryCompactGraphWriter writer = new BinaryCompactGraphWriter(
+                FileChannel.open(path, StandardOpenOption.WRITE))) {
+            writer.writeGraph(graph);
+        }
+        Graph mapped;
+        try (BinaryCompactGraphReader reader = new BinaryCompactGraphReader(
+                FileChannel.open(path, StandardOpenOption.READ))) {
+            mapped = reader.read();
+        }
+
+        assertEquals(graph.getMapId(), mapped.getMapId());
+        CompactGraph compact = graph.getCompactGraph(), mappedCompact = mapped.getCompactGraph();
+        assertEquals(compact.size(), mappedCompact.size());
+        assertEquals(compact.getArcCount(), mappedCompact.getArcCount());
+        assertEquals(compact.getRecordCount(), mappedCompact.getRecordCount());
+        for (int node = 0; node < compact.size(); ++node) {
+            assertEquals(compact.getFirstArc(node), mappedCompact.getFirstArc(node));
+            assertEquals(compact.getLongitude(node), mappedCompact.getLongitude(node), 0);
+            assertEquals(compact.getLatitude(node), mappedCompact.getLatitude(node), 0);
+        }
+        for (int arc = 0; arc < compact.getArcCount(); ++arc) {
+            assertEquals(compact.getHead(arc), mappedCompact.getHead(arc));
+            assertEquals(compact.getLength(arc), mappedCompact.getLength(arc), 0);
+            assertEquals(compact.getRecord(arc), mappedCompact.getRecord(arc));
+            assertEquals(compact.isReversed(arc), mappedCompact.isReversed(arc));
+            assertEquals(compact.getRoadInformation(arc).isOneWay(),
+                    mappedCompact.getRoadInformation(arc).isOneWay());
+            assertEquals(compact.getPoints(0, arc).size(), mappedCompact.getPoints(0, arc).size());
+        }
+    }
+
+    @Test
+    public void testMappedFileWithoutGeometry() throws IOException {
+        Path path = Files.createTempFile("graph", BinaryCompactGraphReader.EXTENSION);
+        path.toFile().deleteOnExit();
+        try (BinaryCompactGraphWriter writer = new BinaryCompactGraphWriter(
+                FileChannel.open(path, StandardOpenOption.WRITE))) {
+            writer.writeGraph(graph);
+        }
+        Graph mapped;
+        try (BinaryCompactGraphReader reader = new BinaryCompactGraphReader(
+                FileChannel.open(path, StandardOpenOption.READ), false)) {
+            mapped = reader.read();
+        }
+
+        CompactGraph compact = graph.getCompactGraph(), mappedCompact = mapped.getCompactGraph();
+        assertEquals(compact.getRecordCount(), mappedCompact.getRecordCount());
+        for (int arc = 0; arc < compact.getArcCount(); ++arc) {
+            assertEquals(compact.getHead(arc), mappedCompact.getHead(arc));
+            assertEquals(compact.getLength(arc), mappedCompact.getLength(arc), 0);
+            assertEquals(2, mappedCompact.getPoints(0, arc).size());
+        }
+    }
+}
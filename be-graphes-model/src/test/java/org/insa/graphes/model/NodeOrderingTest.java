@@ -0,0 +1,140 @@
+package org.insa.graphes.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.NodeOrdering;
+import org.insa.graphs.model.Path;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.RoadInformation;
+import org.insa.graphs.model.RoadInformation.RoadType;
+import org.insa.graphs.model.io.BinaryPathReader;
+import org.insa.graphs.model.io.BinaryPathWriter;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class NodeOrderingTest {
+
+    // Small graph use for tests
+    private static Graph graph;
+
+    @BeforeClass
+    public static void initAll() {
+        RoadInformation oneWay = new RoadInformation(RoadType.UNCLASSIFIED, null, true, 1, null),
+                twoWays = new RoadInformation(RoadType.UNCLASSIFIED, null, false, 1, null);
+
+        // Nodes on the corners of a square, and a node without position.
+        Node[] nodes = new Node[] { new Node(0, new Point(1, 1)), new Node(1, new Point(0, 0)),
+                new Node(2, new Point(1, 0)), new Node(3, new Point(0, 1)), new Node(4, null) };
+
+        Node.linkNodes(nodes[1], nodes[3], 10, oneWay, null);
+        Node.linkNodes(nodes[3], nodes[0], 20, oneWay, null);
+        Node.linkNodes(nodes[0], nodes[2], 30, twoWays, null);
+        Node.linkNodes(nodes[2], nodes[1], 40, oneWay, null);
+        Node.linkNodes(nodes[4], nodes[2], 50, oneWay, null);
+
+        graph = new Graph("ID", "", Arrays.asList(nodes), null);
+    }
+
+    /**
+     * @return Original IDs of the nodes, in the new order.
+     */
+    private static int[] getOldIds(NodeOrdering ordering) {
+        int[] oldIds = new int[ordering.size()];
+        for (int id = 0; id < oldIds.length; ++id) {
+            assertEquals(id, ordering.getNewId(ordering.getOldId(id)));
+            oldIds[id] = ordering.getOldId(id);
+        }
+        return oldIds;
+    }
+
+    @Test
+    public void testOrders() {
+        // Along the curve: bottom-left, top-left, top-right, bottom-right.
+        assertArrayEquals(new int[] { 1, 3, 0, 2, 4 },
+                getOldIds(NodeOrdering.hilbert(graph.getCompactGraph())));
+        assertArrayEquals(new int[] { 0, 2, 3, 1, 4 },
+                getOldIds(NodeOrdering.breadthFirst(graph.getCompactGraph())));
+        assertArrayEquals(new int[] { 0, 2, 1, 3, 4 },
+                getOldIds(NodeOrdering.depthFirst(graph.getCompactGraph())));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidOrdering() {
+        new NodeOrdering(new int[] { 0, 1, 1 });
+    }
+
+    @Test
+    public void testApply() {
+        NodeOrdering ordering = NodeOrdering.hilbert(graph.getCompactGraph());
+        Graph reordered = ordering.apply(graph);
+
+        assertEquals(ordering.getMapId(graph.getMapId()), reordered.getMapId());
+        assertNotEquals(graph.getMapId(), reordered.getMapId());
+        assertNotEquals(reordered.getMapId(),
+                NodeOrdering.depthFirst(graph.getCompactGraph()).apply(graph).getMapId());
+        assertEquals(graph.getMapId(), ordering.getOriginalMapId(reordered.getMapId()));
+        assertEquals(graph.size(), reordered.size());
+        for (Node node: graph.getNodes()) {
+            Node newNode = reordered.get(ordering.getNewId(node.getId()));
+            assertEquals(node.getNumberOfSuccessors(), newNode.getNumberOfSuccessors());
+            for (Arc arc: node.getSuccessors()) {
+                assertTrue(newNode.getSuccessors().stream()
+                        .anyMatch(newArc -> newArc.getDestination().getId() == ordering
+                                .getNewId(arc.getDestination().getId())
+                                && newArc.getLength() == arc.getLength()));
+            }
+        }
+    }
+
+    @Test
+    public void testPaths() throws IOException {
+        NodeOrdering ordering = NodeOrdering.depthFirst(graph.getCompactGraph());
+        Graph reordered = ordering.apply(graph);
+        int[] oldIds = { 1, 3, 0, 2 };
+        Node[] nodes = new Node[oldIds.length];
+        for (int i = 0; i < oldIds.length; ++i) {
+            nodes[i] = reordered.get(ordering.getNewId(oldIds[i]));
+        }
+        Path path = Path.createShortestPathFromNodes(reordered, Arrays.asList(nodes));
+
+        // Paths are written with the original IDs.
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (BinaryPathWriter writer = new BinaryPathWriter(new DataOutputStream(bytes),
+                ordering)) {
+            writer.writePath(path);
+        }
+
+        Path original;
+        try (BinaryPathReader reader = new BinaryPathReader(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())))) {
+            original = reader.readPath(graph);
+        }
+        assertEquals(oldIds[0], original.getOrigin().getId());
+        for (int i = 1; i < oldIds.length; ++i) {
+            assertEquals(oldIds[i], original.getArcs().get(i - 1).getDestination().getId());
+        }
+
+        Path read;
+        try (BinaryPathReader reader = new BinaryPathReader(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), ordering)) {
+            read = reader.readPath(reordered);
+        }
+        assertEquals(path.getOrigin(), read.getOrigin());
+        assertEquals(path.getDestination(), read.getDestination());
+        assertEquals(path.getLength(), read.getLength(), 0);
+    }
+
+}
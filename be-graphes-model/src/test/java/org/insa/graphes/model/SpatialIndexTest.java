@@ -0,0 +1,140 @@
+package org.insa.graphes.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.RoadInformation;
+import org.insa.graphs.model.RoadInformation.RoadType;
+import org.insa.graphs.model.SpatialIndex;
+import org.insa.graphs.model.SpatialIndex.Projection;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class SpatialIndexTest {
+
+    // Number of nodes of the random graph.
+    private static final int NB_NODES = 1000;
+
+    // Random graph, with a few nodes without position, and its index.
+    private static Graph graph;
+    private static SpatialIndex index;
+
+    // Single road with two segments, and its index.
+    private static Graph road;
+    private static SpatialIndex roadIndex;
+
+    @BeforeClass
+    public static void initAll() {
+        RoadInformation info = new RoadInformation(RoadType.UNCLASSIFIED, null, false, 1, null);
+        Random random = new Random(42);
+
+        List<Node> nodes = new ArrayList<>();
+        for (int id = 0; id < NB_NODES; ++id) {
+            nodes.add(new Node(id, id % 100 == 0 ? null
+                    : new Point(1 + random.nextFloat(), 43 + random.nextFloat() / 2)));
+        }
+        graph = new Graph("ID", "", nodes, null);
+        index = new SpatialIndex(graph.getCompactGraph());
+
+        Node origin = new Node(0, new Point(1, 43)),
+                destination = new Node(1, new Point(1.01f, 43.01f));
+        Node.linkNodes(origin, destination, 2000, info, new ArrayList<>(Arrays.asList(
+                origin.getPoint(), new Point(1.01f, 43), destination.getPoint())));
+        road = new Graph("ID", "", Arrays.asList(origin, destination), null);
+        roadIndex = new SpatialIndex(road.getCompactGraph());
+    }
+
+    /**
+     * @return IDs of the nodes with a position, sorted by increasing distance to
+     *         the given position.
+     */
+    private static int[] sortByDistance(float longitude, float latitude) {
+        return IntStream.range(0, NB_NODES).filter(id -> graph.get(id).getPoint() != null)
+                .boxed()
+                .sorted(Comparator.comparingDouble(id -> index.getDistance(longitude, latitude, id)))
+                .mapToInt(Integer::intValue).toArray();
+    }
+
+    @Test
+    public void testSize() {
+        assertEquals(NB_NODES - NB_NODES / 100, index.size());
+        assertEquals(-1, new SpatialIndex(new Graph("ID", "", Collections.emptyList(), null)
+                .getCompactGraph()).findNearest(1, 43));
+    }
+
+    @Test
+    public void testFindNearest() {
+        Random random = new Random(7);
+        for (int i = 0; i < 200; ++i) {
+            // Some positions are outside of the bounding box of the nodes.
+            float longitude = 0.5f + 2 * random.nextFloat(),
+                    latitude = 42.75f + random.nextFloat();
+            int[] expected = sortByDistance(longitude, latitude);
+            assertEquals(expected[0], index.findNearest(longitude, latitude));
+            assertArrayEquals(Arrays.copyOf(expected, 10),
+                    index.findNearest(longitude, latitude, 10));
+        }
+        assertEquals(index.size(), index.findNearest(1, 43, 2 * NB_NODES).length);
+        assertEquals(0, index.findNearest(1, 43, 0).length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFindNearestNegative() {
+        index.findNearest(1, 43, -1);
+    }
+
+    @Test
+    public void testFindWithin() {
+        Random random = new Random(7);
+        for (double radius: new double[] { 0, 500, 2000, 10000 }) {
+            float longitude = 1 + random.nextFloat(), latitude = 43 + random.nextFloat() / 2;
+            int[] expected = Arrays.stream(sortByDistance(longitude, latitude))
+                    .filter(id -> index.getDistance(longitude, latitude, id) <= radius)
+                    .toArray();
+            assertArrayEquals(expected, index.findWithin(longitude, latitude, radius));
+        }
+        assertEquals(index.size(), index.findWithin(1.5f, 43.25f, 1e6).length);
+    }
+
+    @Test
+    public void testProject() {
+        double metersPerDegree = Math.toRadians(1) * Point.EARTH_RADIUS;
+        double scale = Math.cos(Math.toRadians(43.005));
+
+        // Closest to the first segment.
+        Projection projection = roadIndex.project(1.005f, 43.001f);
+        assertEquals(0, projection.getOrigin());
+        assertEquals(road.getCompactGraph().getFirstArc(0), projection.getArc());
+        assertEquals(1.005f, projection.getPoint().getLongitude(), 1e-6);
+        assertEquals(43, projection.getPoint().getLatitude(), 1e-6);
+        assertEquals(0.001 * metersPerDegree, projection.getDistance(), 1);
+        assertEquals(0.005 * scale * metersPerDegree, projection.getOffset(), 1);
+
+        // Closest to the second segment.
+        projection = roadIndex.project(1.011f, 43.005f);
+        assertEquals(1.01f, projection.getPoint().getLongitude(), 1e-6);
+        assertEquals(43.005f, projection.getPoint().getLatitude(), 1e-6);
+        assertEquals(0.001 * scale * metersPerDegree, projection.getDistance(), 1);
+        assertEquals((0.01 * scale + 0.005) * metersPerDegree, projection.getOffset(), 1);
+
+        // Closest to the destination, outside of the grid.
+        projection = roadIndex.project(1.02f, 43.02f);
+        assertEquals(1.01f, projection.getPoint().getLongitude(), 1e-6);
+        assertEquals(43.01f, projection.getPoint().getLatitude(), 1e-6);
+
+        assertNull(index.project(1, 43));
+    }
+
+}